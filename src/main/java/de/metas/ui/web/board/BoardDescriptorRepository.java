@@ -10,15 +10,22 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 
+import javax.annotation.PreDestroy;
+
 import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.expression.api.IExpressionEvaluator.OnVariableNotFound;
 import org.adempiere.ad.expression.api.IStringExpression;
 import org.adempiere.ad.expression.api.impl.CompositeStringExpression;
 import org.adempiere.ad.table.api.IADTableDAO;
 import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.ad.trx.api.ITrxListenerManager.TrxEventTiming;
 import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.ad.validationRule.IValidationRule;
 import org.adempiere.ad.validationRule.IValidationRuleFactory;
@@ -27,6 +34,7 @@ import org.adempiere.exceptions.DBException;
 import org.adempiere.exceptions.DBUniqueConstraintException;
 import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.model.RecordZoomWindowFinder;
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
 import org.compiere.model.I_AD_User;
 import org.compiere.util.DB;
 import org.compiere.util.DisplayType;
@@ -39,6 +47,7 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 
 import de.metas.cache.CCache;
 import de.metas.currency.Amount;
@@ -56,6 +65,7 @@ import de.metas.ui.web.base.model.I_WEBUI_Board_Lane;
 import de.metas.ui.web.base.model.I_WEBUI_Board_RecordAssignment;
 import de.metas.ui.web.board.BoardCardFieldDescriptor.BoardFieldLoader;
 import de.metas.ui.web.board.BoardDescriptor.BoardDescriptorBuilder;
+import de.metas.ui.web.board.LaneCardsSequence.LaneCard;
 import de.metas.ui.web.board.json.events.JSONBoardChangedEventsList;
 import de.metas.ui.web.board.json.events.JSONBoardChangedEventsList.JSONBoardChangedEventsListBuilder;
 import de.metas.ui.web.board.json.events.JSONBoardLaneChangedEvent;
@@ -80,12 +90,12 @@ import de.metas.ui.web.window.descriptor.sql.DocumentFieldValueLoader;
 import de.metas.ui.web.window.descriptor.sql.SqlDocumentEntityDataBindingDescriptor;
 import de.metas.ui.web.window.descriptor.sql.SqlDocumentFieldDataBindingDescriptor;
 import de.metas.ui.web.window.descriptor.sql.SqlLookupDescriptor;
+import de.metas.util.GuavaCollectors;
 import de.metas.util.NumberUtils;
 import de.metas.util.Services;
 import de.metas.util.collections.CollectionUtils;
-import lombok.EqualsAndHashCode;
 import lombok.NonNull;
-import lombok.ToString;
+import lombok.Value;
 
 /*
  * #%L
@@ -125,6 +135,20 @@ public class BoardDescriptorRepository
 			.additionalTableNameToResetFor(I_WEBUI_Board_Lane.Table_Name)
 			.additionalTableNameToResetFor(I_WEBUI_Board_CardField.Table_Name)
 			.build();
+
+	/** ordered cards of each lane, as committed in database */
+	private final CCache<LaneKey, LaneCardsSequence> laneCardsSequences = CCache.<LaneKey, LaneCardsSequence> builder()
+			.cacheName(I_WEBUI_Board_RecordAssignment.Table_Name + "#LaneCardsSequence")
+			.tableName(I_WEBUI_Board_RecordAssignment.Table_Name)
+			.initialCapacity(100)
+			.build();
+
+	/** renumbers (in background) the lanes which ran out of free SeqNos */
+	private final ExecutorService renumberingExecutor = Executors.newSingleThreadExecutor(CustomizableThreadFactory.builder()
+			.setDaemon(true)
+			.setThreadNamePrefix(BoardDescriptorRepository.class.getSimpleName() + "-renumbering")
+			.build());
+	private final Set<LaneKey> lanesToRenumber = ConcurrentHashMap.newKeySet();
 	
 	public BoardDescriptorRepository(
 			@NonNull final DocumentDescriptorFactory documentDescriptors, 
@@ -136,6 +160,12 @@ public class BoardDescriptorRepository
 		this.currenciesRepo = currenciesRepo;
 	}
 
+	@PreDestroy
+	public void shutdown()
+	{
+		renumberingExecutor.shutdownNow();
+	}
+
 	private void sendEvents(final BoardDescriptor board, final JSONBoardChangedEventsList events)
 	{
 		if (events.isEmpty())
@@ -331,10 +361,27 @@ public class BoardDescriptorRepository
 				.build();
 	}
 
+	/** @return all cards of given board, ordered by lane and by their position in lane */
 	public List<BoardCard> getCards(final int boardId)
 	{
-		final Set<Integer> onlyCardIds = ImmutableSet.of();
-		return retrieveCards(boardId, onlyCardIds);
+		final BoardDescriptor boardDescriptor = getBoardDescriptor(boardId);
+
+		final List<Integer> orderedCardIds = boardDescriptor.getLanes()
+				.keySet()
+				.stream()
+				.sorted()
+				.flatMap(laneId -> getCardIdsOrdered(boardId, laneId).getCardIds().stream())
+				.collect(ImmutableList.toImmutableList());
+		if (orderedCardIds.isEmpty())
+		{
+			return ImmutableList.of();
+		}
+
+		final Map<Integer, BoardCard> cardsById = Maps.uniqueIndex(retrieveCards(boardId, orderedCardIds), BoardCard::getCardId);
+		return orderedCardIds.stream()
+				.map(cardsById::get)
+				.filter(Objects::nonNull) // the document might not exist anymore or might be filtered out
+				.collect(ImmutableList.toImmutableList());
 	}
 
 	public BoardCard getCard(final int boardId, final int cardId)
@@ -668,10 +715,16 @@ public class BoardDescriptorRepository
 		return TranslatableStrings.join(": ", cardField.getCaption(), valueStr);
 	}
 
+	private LaneCardsSequence getCardIdsOrdered(final int boardId, final int laneId)
+	{
+		return laneCardsSequences.getOrLoad(LaneKey.of(boardId, laneId), () -> retrieveCardIdsOrdered(boardId, laneId));
+	}
+
+	/** @return the committed sequence; the changes done in current transaction are not considered */
 	private LaneCardsSequence retrieveCardIdsOrdered(final int boardId, final int laneId)
 	{
-		final List<Integer> cardIds = Services.get(IQueryBL.class)
-				.createQueryBuilder(I_WEBUI_Board_RecordAssignment.class)
+		final List<LaneCard> cards = Services.get(IQueryBL.class)
+				.createQueryBuilderOutOfTrx(I_WEBUI_Board_RecordAssignment.class)
 				.addEqualsFilter(I_WEBUI_Board_RecordAssignment.COLUMN_WEBUI_Board_ID, boardId)
 				.addEqualsFilter(I_WEBUI_Board_RecordAssignment.COLUMN_WEBUI_Board_Lane_ID, laneId)
 				.orderBy()
@@ -679,11 +732,18 @@ public class BoardDescriptorRepository
 				.addColumn(I_WEBUI_Board_RecordAssignment.COLUMN_WEBUI_Board_RecordAssignment_ID)
 				.endOrderBy()
 				.create()
-				.listDistinct(I_WEBUI_Board_RecordAssignment.COLUMNNAME_Record_ID, Integer.class);
-		return new LaneCardsSequence(laneId, cardIds);
+				.listDistinct(I_WEBUI_Board_RecordAssignment.COLUMNNAME_Record_ID, I_WEBUI_Board_RecordAssignment.COLUMNNAME_SeqNo)
+				.stream()
+				.map(row -> LaneCard.of(
+						NumberUtils.asInt(row.get(I_WEBUI_Board_RecordAssignment.COLUMNNAME_Record_ID), -1),
+						NumberUtils.asInt(row.get(I_WEBUI_Board_RecordAssignment.COLUMNNAME_SeqNo), 0)))
+				.collect(GuavaCollectors.distinctBy(LaneCard::getCardId))
+				.collect(ImmutableList.toImmutableList());
+		return LaneCardsSequence.of(laneId, cards);
 	}
 
-	private final void updateCardsOrder(final int boardId, final int laneId, final List<Integer> cardIds)
+	/** Updates the SeqNo of given cards, leaving the other cards of the lane untouched */
+	private final void updateCardsSeqNo(final int boardId, final int laneId, final Map<Integer, Integer> seqNosByCardId)
 	{
 		final String sql = "UPDATE " + I_WEBUI_Board_RecordAssignment.Table_Name
 				+ " SET " + I_WEBUI_Board_RecordAssignment.COLUMNNAME_SeqNo + "=?"
@@ -693,9 +753,10 @@ public class BoardDescriptorRepository
 		PreparedStatement pstmt = null;
 		try
 		{
-			for (int newSeqNo = 0; newSeqNo < cardIds.size(); newSeqNo++)
+			for (final Map.Entry<Integer, Integer> cardIdAndSeqNo : seqNosByCardId.entrySet())
 			{
-				final int cardId = cardIds.get(newSeqNo);
+				final int cardId = cardIdAndSeqNo.getKey();
+				final int newSeqNo = cardIdAndSeqNo.getValue();
 
 				if (pstmt == null)
 				{
@@ -724,16 +785,76 @@ public class BoardDescriptorRepository
 
 	private final LaneCardsSequence changeCardsOrder(final int boardId, final int laneId, final Consumer<LaneCardsSequence> reorderCards)
 	{
-		final LaneCardsSequence orderedCardIdsOld = retrieveCardIdsOrdered(boardId, laneId);
+		final LaneKey laneKey = LaneKey.of(boardId, laneId);
+		final LaneCardsSequence orderedCardIdsOld = getCardIdsOrdered(boardId, laneId);
 		final LaneCardsSequence orderedCardIdsNew = orderedCardIdsOld.copy();
 
 		reorderCards.accept(orderedCardIdsNew);
 
-		updateCardsOrder(boardId, laneId, orderedCardIdsNew.getCardIds());
+		updateCardsSeqNo(boardId, laneId, orderedCardIdsNew.getChangedSeqNos());
+
+		//
+		// Update the cached sequence after commit. Until then, the other transactions shall see the committed sequence.
+		// NOTE: if meanwhile the cached sequence was changed by another transaction, we can't tell which one is newer, so we drop it.
+		final LaneCardsSequence orderedCardIdsNewToCache = orderedCardIdsNew.copy();
+		Services.get(ITrxManager.class)
+				.getCurrentTrxListenerManagerOrAutoCommit()
+				.newEventListener(TrxEventTiming.AFTER_COMMIT)
+				.registerHandlingMethod(trx -> {
+					replaceCachedCardIdsOrdered(laneKey, orderedCardIdsOld, orderedCardIdsNewToCache);
+					if (orderedCardIdsNew.isRenumberingRecommended())
+					{
+						scheduleRenumbering(laneKey);
+					}
+				});
 
 		return orderedCardIdsNew;
 	}
 
+	private void replaceCachedCardIdsOrdered(final LaneKey laneKey, final LaneCardsSequence expectedOld, final LaneCardsSequence newSequence)
+	{
+		synchronized (laneCardsSequences)
+		{
+			if (laneCardsSequences.get(laneKey) == expectedOld)
+			{
+				laneCardsSequences.put(laneKey, newSequence);
+			}
+			else
+			{
+				laneCardsSequences.remove(laneKey);
+			}
+		}
+	}
+
+	private void scheduleRenumbering(final LaneKey laneKey)
+	{
+		if (!lanesToRenumber.add(laneKey))
+		{
+			return; // already scheduled
+		}
+
+		renumberingExecutor.execute(() -> {
+			try
+			{
+				lanesToRenumber.remove(laneKey);
+				Services.get(ITrxManager.class).runInNewTrx(() -> renumberCards(laneKey));
+				laneCardsSequences.remove(laneKey);
+			}
+			catch (final Exception ex)
+			{
+				logger.warn("Failed renumbering the cards of {}", laneKey, ex);
+			}
+		});
+	}
+
+	private void renumberCards(final LaneKey laneKey)
+	{
+		final LaneCardsSequence cards = retrieveCardIdsOrdered(laneKey.getBoardId(), laneKey.getLaneId());
+		cards.renumber();
+		updateCardsSeqNo(laneKey.getBoardId(), laneKey.getLaneId(), cards.getChangedSeqNos());
+		logger.debug("Renumbered {} cards of {}", cards.getChangedSeqNos().size(), laneKey);
+	}
+
 	public BoardCard addCardForDocumentId(final int boardId, final int laneId, @NonNull final DocumentId documentId, final int position)
 	{
 		final BoardDescriptor board = getBoardDescriptor(boardId);
@@ -860,60 +981,10 @@ public class BoardDescriptorRepository
 		}
 	}
 
-	@EqualsAndHashCode
-	@ToString
-	private static final class LaneCardsSequence
+	@Value(staticConstructor = "of")
+	private static final class LaneKey
 	{
+		private final int boardId;
 		private final int laneId;
-		private final List<Integer> cardIds;
-
-		public LaneCardsSequence(final int laneId, final List<Integer> cardIds)
-		{
-			this.laneId = laneId;
-			this.cardIds = new ArrayList<>(cardIds);
-		}
-
-		public LaneCardsSequence copy()
-		{
-			return new LaneCardsSequence(laneId, cardIds);
-		}
-
-		public int getLaneId()
-		{
-			return laneId;
-		}
-
-		private List<Integer> getCardIds()
-		{
-			return cardIds;
-		}
-
-		public void addCardIdAtPosition(final int cardId, final int position)
-		{
-			Preconditions.checkArgument(cardId > 0, "cardId > 0");
-
-			if (position < 0)
-			{
-				cardIds.remove((Object)cardId);
-				cardIds.add(cardId);
-			}
-			else if (position == Integer.MAX_VALUE || position > cardIds.size() - 1)
-			{
-				cardIds.remove((Object)cardId);
-				cardIds.add(cardId);
-			}
-			else
-			{
-				cardIds.remove((Object)cardId);
-				cardIds.add(position, cardId);
-			}
-		}
-
-		public void removeCardId(final int cardId)
-		{
-			Preconditions.checkArgument(cardId > 0, "cardId > 0");
-
-			cardIds.remove((Object)cardId);
-		}
 	}
 }
@@ -0,0 +1,176 @@
+package de.metas.ui.web.board;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Ordered cards of a board lane, together with their SeqNo.
+ * <p>
+ * The SeqNos are sparse (see {@link #SEQNO_GAP}), so moving a card usually changes only the SeqNo of the moved card.
+ * Only when there is no free SeqNo at the card's new position, all the cards of the lane are renumbered.
+ * <p>
+ * Changes are collected and can be fetched using {@link #getChangedSeqNos()}.
+ */
+@EqualsAndHashCode
+@ToString
+final class LaneCardsSequence
+{
+	public static LaneCardsSequence of(final int laneId, final List<LaneCard> cards)
+	{
+		return new LaneCardsSequence(laneId, cards);
+	}
+
+	/** Distance between two consecutive SeqNos, when a lane is (re)numbered */
+	static final int SEQNO_GAP = 1024;
+	private static final int SEQNO_None = -1;
+
+	private final int laneId;
+	private final List<LaneCard> cards;
+	private final Map<Integer, Integer> changedSeqNos = new LinkedHashMap<>();
+
+	private LaneCardsSequence(final int laneId, final List<LaneCard> cards)
+	{
+		this.laneId = laneId;
+		this.cards = new ArrayList<>(cards);
+	}
+
+	/** @return copy, without the collected changes */
+	public LaneCardsSequence copy()
+	{
+		return new LaneCardsSequence(laneId, cards);
+	}
+
+	public int getLaneId()
+	{
+		return laneId;
+	}
+
+	public List<Integer> getCardIds()
+	{
+		return cards.stream()
+				.map(LaneCard::getCardId)
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	/** @return cardId to new SeqNo, for the cards whose SeqNo was changed */
+	public Map<Integer, Integer> getChangedSeqNos()
+	{
+		return ImmutableMap.copyOf(changedSeqNos);
+	}
+
+	public void addCardIdAtPosition(final int cardId, final int position)
+	{
+		Preconditions.checkArgument(cardId > 0, "cardId > 0");
+
+		removeCardId(cardId);
+
+		final int index = position < 0 || position >= cards.size() ? cards.size() : position;
+		final int seqNo = computeSeqNoForIndex(index);
+		if (seqNo == SEQNO_None)
+		{
+			cards.add(index, LaneCard.of(cardId, SEQNO_None));
+			renumber();
+		}
+		else
+		{
+			cards.add(index, LaneCard.of(cardId, seqNo));
+			changedSeqNos.put(cardId, seqNo);
+		}
+	}
+
+	public void removeCardId(final int cardId)
+	{
+		Preconditions.checkArgument(cardId > 0, "cardId > 0");
+
+		// NOTE: there is no need to change the SeqNo of the remaining cards
+		cards.removeIf(card -> card.getCardId() == cardId);
+		changedSeqNos.remove(cardId);
+	}
+
+	/** @return a SeqNo strictly between the SeqNos of the cards around given index or {@link #SEQNO_None} if there is no gap there */
+	private int computeSeqNoForIndex(final int index)
+	{
+		final long seqNoBefore = index > 0 ? cards.get(index - 1).getSeqNo() : 0;
+		final long seqNoAfter = index < cards.size() ? cards.get(index).getSeqNo() : seqNoBefore + 2L * SEQNO_GAP;
+		if (seqNoAfter - seqNoBefore < 2)
+		{
+			return SEQNO_None;
+		}
+
+		final long seqNo = index < cards.size()
+				? seqNoBefore + (seqNoAfter - seqNoBefore) / 2 // in the middle
+				: seqNoBefore + SEQNO_GAP; // last card
+		return seqNo <= Integer.MAX_VALUE ? (int)seqNo : SEQNO_None;
+	}
+
+	/** @return true if there are cards without a free SeqNo between them, i.e. moving a card there would renumber the whole lane */
+	public boolean isRenumberingRecommended()
+	{
+		int seqNoBefore = 0;
+		for (final LaneCard card : cards)
+		{
+			if ((long)card.getSeqNo() - seqNoBefore < 2)
+			{
+				return true;
+			}
+			seqNoBefore = card.getSeqNo();
+		}
+
+		return false;
+	}
+
+	/** Assigns equally distributed SeqNos to all cards */
+	public void renumber()
+	{
+		final int gap = Math.min(SEQNO_GAP, Integer.MAX_VALUE / (cards.size() + 1));
+		for (int i = 0, size = cards.size(); i < size; i++)
+		{
+			final LaneCard card = cards.get(i);
+			final int seqNo = (i + 1) * gap;
+			if (card.getSeqNo() != seqNo)
+			{
+				cards.set(i, LaneCard.of(card.getCardId(), seqNo));
+				changedSeqNos.put(card.getCardId(), seqNo);
+			}
+		}
+	}
+
+	@Value(staticConstructor = "of")
+	public static final class LaneCard
+	{
+		private final int cardId;
+		private final int seqNo;
+	}
+}
@@ -64,6 +64,7 @@ import de.metas.ui.web.view.event.JSONViewChanges;
 import de.metas.ui.web.view.event.ViewChanges;
 import de.metas.ui.web.view.json.JSONViewResult;
 import de.metas.ui.web.websocket.WebSocketConfig;
+import de.metas.ui.web.websocket.WebsocketDestinationStatistics;
 import de.metas.ui.web.websocket.WebsocketEventLogRecord;
 import de.metas.ui.web.websocket.WebsocketSender;
 import de.metas.ui.web.window.WindowConstants;
@@ -71,6 +72,8 @@ import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import de.metas.ui.web.window.datatypes.WindowId;
 import de.metas.ui.web.window.datatypes.json.DateTimeConverters;
 import de.metas.ui.web.window.datatypes.json.JSONOptions;
+import de.metas.ui.web.window.model.DocumentCacheInvalidationDispatcher;
+import de.metas.ui.web.window.model.DocumentCacheInvalidationPipeline;
 import de.metas.ui.web.window.model.DocumentCollection;
 import de.metas.ui.web.window.model.lookup.LookupDataSourceFactory;
 import de.metas.user.UserId;
@@ -143,6 +146,10 @@ public class DebugRestController
 	@Lazy
 	private ObjectMapper sharedJsonObjectMapper;
 
+	@Autowired
+	@Lazy
+	private DocumentCacheInvalidationDispatcher documentCacheInvalidationDispatcher;
+
 	private JSONOptions newJSONOptions()
 	{
 		return JSONOptions.of(userSession);
@@ -251,6 +258,14 @@ public class DebugRestController
 				.collect(GuavaCollectors.toImmutableList());
 	}
 
+	@GetMapping("/cacheInvalidation/stats")
+	public DocumentCacheInvalidationPipeline.Stats getCacheInvalidationStats()
+	{
+		userSession.assertLoggedIn();
+
+		return documentCacheInvalidationDispatcher.getStats();
+	}
+
 	@RequestMapping(value = "/eventBus/postEvent", method = RequestMethod.GET)
 	public void postEvent(
 			@RequestParam(name = "topicName", defaultValue = "de.metas.event.GeneralNotifications") final String topicName //
@@ -494,6 +509,14 @@ public class DebugRestController
 		return websocketSender.getLoggedEvents(destinationFilter);
 	}
 
+	@GetMapping("websocketStatistics")
+	public List<WebsocketDestinationStatistics> getWebsocketStatistics()
+	{
+		userSession.assertLoggedIn();
+
+		return websocketSender.getStatistics();
+	}
+
 	@PostMapping("/view/{viewId}/deleteRows")
 	public String viewDeleteRowIds(
 			@PathVariable("viewId") final String viewIdStr,
@@ -0,0 +1,146 @@
+package de.metas.ui.web.document.filter.provider.fullTextSearch;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHitField;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.slf4j.Logger;
+
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.logging.LogManager;
+import de.metas.util.NumberUtils;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Singular;
+import lombok.ToString;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * {@link FullTextSearchIndex} backed by an Elasticsearch index.
+ * <p>
+ * It scrolls through all the hits. The <code>_source</code> is not fetched, only the key field is read from the field data (doc values).
+ */
+@ToString(exclude = "elasticsearchClient")
+final class ElasticsearchFullTextSearchIndex implements FullTextSearchIndex
+{
+	private static final Logger logger = LogManager.getLogger(ElasticsearchFullTextSearchIndex.class);
+
+	private static final int SCROLL_PAGE_SIZE = 5000;
+	private static final TimeValue SCROLL_KEEP_ALIVE = TimeValue.timeValueMinutes(1);
+
+	private final Client elasticsearchClient;
+	private final String esIndexName;
+	private final String[] esSearchFieldNames;
+	private final String esKeyFieldName;
+
+	@Builder
+	private ElasticsearchFullTextSearchIndex(
+			@NonNull final Client elasticsearchClient,
+			@NonNull final String esIndexName,
+			@NonNull @Singular final ImmutableSet<String> esSearchFieldNames,
+			@NonNull final String esKeyFieldName)
+	{
+		this.elasticsearchClient = elasticsearchClient;
+		this.esIndexName = esIndexName;
+		this.esSearchFieldNames = esSearchFieldNames.toArray(new String[esSearchFieldNames.size()]);
+		this.esKeyFieldName = esKeyFieldName;
+	}
+
+	@Override
+	public Set<Integer> findAllRecordIds(@NonNull final String text)
+	{
+		final QueryBuilder query = QueryBuilders.multiMatchQuery(text, esSearchFieldNames);
+		logger.trace("ES query: {}", query);
+
+		final Set<Integer> recordIds = new LinkedHashSet<>();
+
+		SearchResponse searchResponse = elasticsearchClient.prepareSearch(esIndexName)
+				.setQuery(query)
+				.addSort(SortBuilders.fieldSort("_doc")) // we need all the hits, so don't waste time on scoring
+				.setFetchSource(false)
+				.addFieldDataField(esKeyFieldName)
+				.setSize(SCROLL_PAGE_SIZE)
+				.setScroll(SCROLL_KEEP_ALIVE)
+				.get();
+		try
+		{
+			while (searchResponse.getHits().getHits().length > 0)
+			{
+				for (final SearchHit hit : searchResponse.getHits().getHits())
+				{
+					final int recordId = extractId(hit);
+					if (recordId >= 0)
+					{
+						recordIds.add(recordId);
+					}
+				}
+
+				searchResponse = elasticsearchClient.prepareSearchScroll(searchResponse.getScrollId())
+						.setScroll(SCROLL_KEEP_ALIVE)
+						.get();
+			}
+		}
+		finally
+		{
+			clearScroll(searchResponse.getScrollId());
+		}
+
+		logger.trace("Found {} record IDs for {}", recordIds.size(), query);
+		return recordIds;
+	}
+
+	private int extractId(final SearchHit hit)
+	{
+		final SearchHitField field = hit.field(esKeyFieldName);
+		return field != null ? NumberUtils.asInt(field.getValue(), -1) : -1;
+	}
+
+	private void clearScroll(final String scrollId)
+	{
+		if (scrollId == null)
+		{
+			return;
+		}
+
+		try
+		{
+			elasticsearchClient.prepareClearScroll()
+					.addScrollId(scrollId)
+					.get();
+		}
+		catch (final Exception ex)
+		{
+			// not critical: the scroll context will expire anyways
+			logger.warn("Failed clearing the scroll {}", scrollId, ex);
+		}
+	}
+}
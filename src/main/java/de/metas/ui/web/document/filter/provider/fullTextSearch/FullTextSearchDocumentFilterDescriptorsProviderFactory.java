@@ -5,6 +5,7 @@ import java.util.Collection;
 import javax.annotation.Nullable;
 
 import org.adempiere.ad.element.api.AdTabId;
+import org.adempiere.model.InterfaceWrapperHelper;
 import org.compiere.Adempiere;
 import org.elasticsearch.client.Client;
 
@@ -97,11 +98,18 @@ public class FullTextSearchDocumentFilterDescriptorsProviderFactory
 	{
 		final Client elasticsearchClient = Adempiere.getBean(org.elasticsearch.client.Client.class);
 
-		return FullTextSearchFilterContext.builder()
+		final String modelTableName = modelIndexer.getModelTableName();
+
+		final ElasticsearchFullTextSearchIndex searchIndex = ElasticsearchFullTextSearchIndex.builder()
 				.elasticsearchClient(elasticsearchClient)
-				.modelTableName(modelIndexer.getModelTableName())
 				.esIndexName(modelIndexer.getIndexName())
 				.esSearchFieldNames(modelIndexer.getFullTextSearchFieldNames())
+				.esKeyFieldName(InterfaceWrapperHelper.getKeyColumnName(modelTableName))
+				.build();
+
+		return FullTextSearchFilterContext.builder()
+				.searchIndex(searchIndex)
+				.modelTableName(modelTableName)
 				.build();
 	}
 
@@ -0,0 +1,39 @@
+package de.metas.ui.web.document.filter.provider.fullTextSearch;
+
+import java.util.Set;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Full text index of the records of a given table.
+ *
+ * @see ElasticsearchFullTextSearchIndex
+ * @see InMemoryFullTextSearchIndex
+ */
+public interface FullTextSearchIndex
+{
+	/**
+	 * @return IDs of <b>all</b> the records matching given text, not only the top hits
+	 */
+	Set<Integer> findAllRecordIds(String text);
+}
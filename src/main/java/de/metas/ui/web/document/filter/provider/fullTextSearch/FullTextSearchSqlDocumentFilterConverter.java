@@ -1,27 +1,22 @@
 package de.metas.ui.web.document.filter.provider.fullTextSearch;
 
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Stream;
+import java.util.Set;
 
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.service.ISysConfigBL;
 import org.compiere.util.DB;
-import org.elasticsearch.action.search.SearchResponse;
-import org.elasticsearch.client.Client;
-import org.elasticsearch.index.query.QueryBuilder;
-import org.elasticsearch.index.query.QueryBuilders;
-import org.elasticsearch.search.SearchHit;
 import org.slf4j.Logger;
 
-import com.google.common.collect.ImmutableList;
-
 import de.metas.logging.LogManager;
+import de.metas.process.IADPInstanceDAO;
+import de.metas.process.PInstanceId;
 import de.metas.ui.web.document.filter.DocumentFilter;
 import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverter;
 import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverterContext;
 import de.metas.ui.web.document.filter.sql.SqlParamsCollector;
 import de.metas.ui.web.window.model.sql.SqlOptions;
 import de.metas.util.Check;
-import de.metas.util.NumberUtils;
+import de.metas.util.Services;
 
 /*
  * #%L
@@ -55,6 +50,12 @@ public class FullTextSearchSqlDocumentFilterConverter implements SqlDocumentFilt
 
 	private static final Logger logger = LogManager.getLogger(FullTextSearchSqlDocumentFilterConverter.class);
 
+	/**
+	 * If there are more matching records than this, the IDs are not inlined in the SQL but they are inserted in T_Selection.
+	 */
+	private static final String SYSCONFIG_MaxRecordIdsInline = "webui.fullTextSearch.maxRecordIdsInline";
+	private static final int DEFAULT_MaxRecordIdsInline = 100;
+
 	private FullTextSearchSqlDocumentFilterConverter()
 	{
 	}
@@ -75,39 +76,31 @@ public class FullTextSearchSqlDocumentFilterConverter implements SqlDocumentFilt
 		final FullTextSearchFilterContext ftsContext = filter.getParameterValueAs(PARAM_Context);
 		Check.assumeNotNull(ftsContext, "Parameter ftsContext is not null"); // shall not happen
 		logger.trace("context: {}", ftsContext);
-		final Client elasticsearchClient = ftsContext.getElasticsearchClient();
-		final String esIndexName = ftsContext.getEsIndexName();
-		final String keyColumnName = ftsContext.getKeyColumnName();
-		final String esKeyColumnName = ftsContext.getEsKeyColumnName();
-
-		final QueryBuilder query = QueryBuilders.multiMatchQuery(text, ftsContext.getEsSearchFieldNamesAsArray());
-		logger.trace("ES query: {}", query);
 
-		final SearchResponse searchResponse = elasticsearchClient.prepareSearch(esIndexName)
-				.setQuery(query)
-				.setExplain(logger.isTraceEnabled())
-				.get();
-		logger.trace("ES response: {}", searchResponse);
-
-		final List<Integer> recordIds = Stream.of(searchResponse.getHits().getHits())
-				.map(hit -> extractId(hit, esKeyColumnName))
-				.filter(id -> id >= 0)
-				.distinct()
-				.collect(ImmutableList.toImmutableList());
+		final Set<Integer> recordIds = ftsContext.getSearchIndex().findAllRecordIds(text);
 		logger.trace("Record IDs: {}", recordIds);
 		if (recordIds.isEmpty())
 		{
 			return "1=0";
 		}
 
-		final String keyColumnNameFQ = sqlOpts.getTableNameOrAlias() + "." + keyColumnName;
-		return DB.buildSqlList(keyColumnNameFQ, recordIds, null);
+		final String keyColumnNameFQ = sqlOpts.getTableNameOrAlias() + "." + ftsContext.getKeyColumnName();
+		if (recordIds.size() <= getMaxRecordIdsInline())
+		{
+			return DB.buildSqlList(keyColumnNameFQ, recordIds, null);
+		}
+		else
+		{
+			final PInstanceId selectionId = Services.get(IADPInstanceDAO.class).createSelectionId();
+			DB.createT_Selection(selectionId, recordIds, ITrx.TRXNAME_None);
+			logger.trace("Inserted {} record IDs in T_Selection, AD_PInstance_ID={}", recordIds.size(), selectionId);
+
+			return keyColumnNameFQ + " IN (SELECT T_Selection_ID FROM T_Selection WHERE AD_PInstance_ID=" + sqlParamsOut.placeholder(selectionId) + ")";
+		}
 	}
 
-	private int extractId(final SearchHit hit, final String esKeyColumnName)
+	private static int getMaxRecordIdsInline()
 	{
-		final Map<String, Object> source = hit.getSource();
-		return NumberUtils.asInt(source.get(esKeyColumnName), -1);
+		return Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_MaxRecordIdsInline, DEFAULT_MaxRecordIdsInline);
 	}
-
 }
@@ -0,0 +1,103 @@
+package de.metas.ui.web.document.filter.provider.fullTextSearch;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+
+import lombok.NonNull;
+import lombok.ToString;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Local, in memory {@link FullTextSearchIndex}, to be used instead of Elasticsearch where no cluster is available (e.g. in tests).
+ * <p>
+ * It roughly mimics Elasticsearch's <code>multi_match</code> query with the standard analyzer:
+ * the texts are split in lower case words and a record is matching if any of the searched words is one of the record's words.
+ */
+@ToString
+public final class InMemoryFullTextSearchIndex implements FullTextSearchIndex
+{
+	public static Builder builder()
+	{
+		return new Builder();
+	}
+
+	private static final Pattern WORDS_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	private final ImmutableSetMultimap<String, Integer> recordIdsByWord;
+
+	private InMemoryFullTextSearchIndex(final Builder builder)
+	{
+		recordIdsByWord = builder.recordIdsByWord.build();
+	}
+
+	private static Stream<String> extractWords(final String text)
+	{
+		if (text == null)
+		{
+			return Stream.empty();
+		}
+
+		return WORDS_SEPARATOR.splitAsStream(text.toLowerCase())
+				.filter(word -> !word.isEmpty());
+	}
+
+	@Override
+	public Set<Integer> findAllRecordIds(@NonNull final String text)
+	{
+		return extractWords(text)
+				.flatMap(word -> recordIdsByWord.get(word).stream())
+				.collect(ImmutableSet.toImmutableSet());
+	}
+
+	public static final class Builder
+	{
+		private final ImmutableSetMultimap.Builder<String, Integer> recordIdsByWord = ImmutableSetMultimap.builder();
+
+		private Builder()
+		{
+		}
+
+		public InMemoryFullTextSearchIndex build()
+		{
+			return new InMemoryFullTextSearchIndex(this);
+		}
+
+		/**
+		 * @param fieldValues the values of the full text search fields
+		 */
+		public Builder record(final int recordId, @NonNull final Map<String, String> fieldValues)
+		{
+			fieldValues.values()
+					.stream()
+					.flatMap(InMemoryFullTextSearchIndex::extractWords)
+					.forEach(word -> recordIdsByWord.put(word, recordId));
+			return this;
+		}
+	}
+}
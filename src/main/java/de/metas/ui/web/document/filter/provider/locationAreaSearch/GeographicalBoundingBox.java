@@ -0,0 +1,121 @@
+package de.metas.ui.web.document.filter.provider.locationAreaSearch;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import org.compiere.model.I_C_Location;
+
+import de.metas.ui.web.document.filter.sql.SqlParamsCollector;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Latitude/longitude ranges which are containing all the points within a given distance from a given point.
+ * <p>
+ * Used to prefilter the locations using plain range conditions (which can use an index), before checking the exact distance.
+ */
+@Value
+final class GeographicalBoundingBox
+{
+	/** mean Earth radius */
+	private static final double EARTH_RADIUS_KM = 6371.0;
+
+	/**
+	 * The box is made a bit bigger, so that the points which are exactly on the border are not excluded
+	 * because of rounding errors or because <code>geographical_distance</code> is using a slightly different Earth model.
+	 */
+	private static final double TOLERANCE_FACTOR = 1.01;
+	private static final double TOLERANCE_KM = 0.1;
+
+	private static final int SCALE = 6;
+
+	public static GeographicalBoundingBox ofCenterAndDistance(final double latitude, final double longitude, final int distanceInKm)
+	{
+		final double angularDistance = (Math.max(distanceInKm, 0) * TOLERANCE_FACTOR + TOLERANCE_KM) / EARTH_RADIUS_KM;
+		final double latitudeRad = Math.toRadians(latitude);
+
+		double minLatitudeRad = latitudeRad - angularDistance;
+		double maxLatitudeRad = latitudeRad + angularDistance;
+		final boolean allLongitudes;
+		final double deltaLongitudeRad;
+		if (minLatitudeRad <= -Math.PI / 2 || maxLatitudeRad >= Math.PI / 2)
+		{
+			// a pole is inside the box
+			minLatitudeRad = Math.max(minLatitudeRad, -Math.PI / 2);
+			maxLatitudeRad = Math.min(maxLatitudeRad, Math.PI / 2);
+			allLongitudes = true;
+			deltaLongitudeRad = Math.PI;
+		}
+		else
+		{
+			deltaLongitudeRad = Math.asin(Math.sin(angularDistance) / Math.cos(latitudeRad));
+			final double minLongitude = longitude - Math.toDegrees(deltaLongitudeRad);
+			final double maxLongitude = longitude + Math.toDegrees(deltaLongitudeRad);
+			allLongitudes = minLongitude < -180 || maxLongitude > 180; // crossing the antimeridian; not worth splitting the range
+		}
+
+		return new GeographicalBoundingBox(
+				toBigDecimal(Math.toDegrees(minLatitudeRad), RoundingMode.FLOOR),
+				toBigDecimal(Math.toDegrees(maxLatitudeRad), RoundingMode.CEILING),
+				allLongitudes ? null : toBigDecimal(longitude - Math.toDegrees(deltaLongitudeRad), RoundingMode.FLOOR),
+				allLongitudes ? null : toBigDecimal(longitude + Math.toDegrees(deltaLongitudeRad), RoundingMode.CEILING));
+	}
+
+	private static BigDecimal toBigDecimal(final double value, final RoundingMode roundingMode)
+	{
+		return BigDecimal.valueOf(value).setScale(SCALE, roundingMode);
+	}
+
+	@NonNull
+	private final BigDecimal minLatitude;
+	@NonNull
+	private final BigDecimal maxLatitude;
+	/** null if all longitudes are within the box */
+	private final BigDecimal minLongitude;
+	/** null if all longitudes are within the box */
+	private final BigDecimal maxLongitude;
+
+	public boolean isAllLongitudes()
+	{
+		return minLongitude == null || maxLongitude == null;
+	}
+
+	public String toSqlWhereClause(@NonNull final SqlParamsCollector sqlParamsOut, @NonNull final String locationTableAlias)
+	{
+		final StringBuilder sql = new StringBuilder()
+				.append(locationTableAlias).append(".").append(I_C_Location.COLUMNNAME_Latitude)
+				.append(" BETWEEN ").append(sqlParamsOut.placeholder(minLatitude))
+				.append(" AND ").append(sqlParamsOut.placeholder(maxLatitude));
+
+		if (!isAllLongitudes())
+		{
+			sql.append(" AND ").append(locationTableAlias).append(".").append(I_C_Location.COLUMNNAME_Longitude)
+					.append(" BETWEEN ").append(sqlParamsOut.placeholder(minLongitude))
+					.append(" AND ").append(sqlParamsOut.placeholder(maxLongitude));
+		}
+
+		return sql.toString();
+	}
+}
@@ -154,13 +154,23 @@ public class LocationAreaSearchDocumentFilterConverter implements SqlDocumentFil
 		return visitorAddressQuery;
 	}
 
+	/**
+	 * @return SQL which is checking if the location is within given distance.
+	 *         The cheap bounding box ranges are checked first, so the exact distance is calculated only for the nearby locations.
+	 */
 	@NonNull @SuppressWarnings("SameParameterValue") private static String sqlGeographicalDistance(
 			@NonNull final SqlParamsCollector sqlParamsOut,
 			@NonNull final String locationTableAlias,
 			@NonNull final GeographicalCoordinates addressCoordinates,
 			final int distanceInKm)
 	{
-		return "geographical_distance("
+		final GeographicalBoundingBox boundingBox = GeographicalBoundingBox.ofCenterAndDistance(
+				addressCoordinates.getLatitude().doubleValue(),
+				addressCoordinates.getLongitude().doubleValue(),
+				distanceInKm);
+
+		return boundingBox.toSqlWhereClause(sqlParamsOut, locationTableAlias)
+				+ " AND geographical_distance("
 				//
 				+ locationTableAlias + "." + I_C_Location.COLUMNNAME_Latitude
 				+ "," + locationTableAlias + "." + I_C_Location.COLUMNNAME_Longitude
@@ -0,0 +1,327 @@
+package de.metas.ui.web.handlingunits;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.adempiere.ad.dao.IQueryBL;
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.exceptions.DBException;
+import org.compiere.model.I_C_UOM;
+import org.compiere.util.DB;
+import org.compiere.util.TimeUtil;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+
+import de.metas.handlingunits.HuId;
+import de.metas.handlingunits.IHandlingUnitsBL;
+import de.metas.handlingunits.attribute.HUAttributeConstants;
+import de.metas.handlingunits.model.I_M_HU;
+import de.metas.handlingunits.model.I_M_HU_Item;
+import de.metas.handlingunits.model.I_M_HU_Storage;
+import de.metas.handlingunits.model.X_M_HU_Item;
+import de.metas.util.Services;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * The HU trees of some top level HUs, together with their storages, the storages' UOMs and (optionally) best before dates, all loaded with a few set based queries.
+ * <p>
+ * Used by {@link SqlHUEditorViewRepository} to build the {@link HUEditorRow}s without querying the database for each node.
+ * <p>
+ * The storages are provided the same way the HU storage API provides them, i.e. including the ones with zero quantity.
+ * The best before dates are fetched with the same SQL which is used for the view's BestBeforeDate column (i.e. from the HU's M_HU_Attribute),
+ * so they match what the user can filter and sort by. Unlike the row attributes, they do not reflect attribute changes which were not yet saved.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+final class HUTreeSnapshot
+{
+	public static HUTreeSnapshot load(@NonNull final Collection<I_M_HU> topLevelHUs, final boolean loadBestBeforeDates)
+	{
+		return new HUTreeSnapshot(topLevelHUs, loadBestBeforeDates);
+	}
+
+	private static final int IN_ARRAY_CHUNK_SIZE = 500;
+
+	/** max depth of an HU tree: LU / TU / VHU */
+	private static final int MAX_DEPTH = 3;
+
+	private static final String COLUMNNAME_BestBeforeDate = "BestBeforeDate";
+
+	private final ImmutableListMultimap<HuId, I_M_HU> includedHUsByParentId;
+	private final ImmutableSet<HuId> includedHUIds;
+	private final ImmutableSet<HuId> aggregatedHUIds;
+	private final ImmutableSet<HuId> allHUIds;
+	private final ImmutableListMultimap<HuId, I_M_HU_Storage> storagesByHUId;
+	private final ImmutableMap<Integer, I_C_UOM> uomsById;
+	private final Map<HuId, LocalDate> bestBeforeDatesByHUId;
+
+	private HUTreeSnapshot(@NonNull final Collection<I_M_HU> topLevelHUs, final boolean loadBestBeforeDates)
+	{
+		final ImmutableListMultimap.Builder<HuId, I_M_HU> includedHUsByParentId = ImmutableListMultimap.builder();
+		final ImmutableSet.Builder<HuId> includedHUIds = ImmutableSet.builder();
+		final ImmutableSet.Builder<HuId> aggregatedHUIds = ImmutableSet.builder();
+		final Set<HuId> allHUIds = new LinkedHashSet<>();
+
+		//
+		// Load the HU trees, level by level
+		List<HuId> parentHUIds = extractHUIds(topLevelHUs);
+		allHUIds.addAll(parentHUIds);
+		for (int depth = 1; depth < MAX_DEPTH && !parentHUIds.isEmpty(); depth++)
+		{
+			final Map<Integer, I_M_HU_Item> itemsById = retrieveItems(parentHUIds);
+			if (itemsById.isEmpty())
+			{
+				break;
+			}
+
+			final List<I_M_HU> includedHUs = retrieveIncludedHUs(itemsById.keySet());
+			for (final I_M_HU includedHU : includedHUs)
+			{
+				final I_M_HU_Item parentItem = itemsById.get(includedHU.getM_HU_Item_Parent_ID());
+				final HuId parentHUId = HuId.ofRepoId(parentItem.getM_HU_ID());
+				final HuId includedHUId = HuId.ofRepoId(includedHU.getM_HU_ID());
+
+				includedHUsByParentId.put(parentHUId, includedHU);
+				includedHUIds.add(includedHUId);
+				if (X_M_HU_Item.ITEMTYPE_HUAggregate.equals(parentItem.getItemType()))
+				{
+					aggregatedHUIds.add(includedHUId);
+				}
+			}
+
+			parentHUIds = extractHUIds(includedHUs);
+			allHUIds.addAll(parentHUIds);
+		}
+
+		this.includedHUsByParentId = includedHUsByParentId.build();
+		this.includedHUIds = includedHUIds.build();
+		this.aggregatedHUIds = aggregatedHUIds.build();
+		this.allHUIds = ImmutableSet.copyOf(allHUIds);
+
+		//
+		// Storages & best before dates
+		storagesByHUId = retrieveStorages(this.allHUIds);
+		uomsById = retrieveUOMs(storagesByHUId.values());
+		bestBeforeDatesByHUId = loadBestBeforeDates ? retrieveBestBeforeDates(this.allHUIds) : null;
+	}
+
+	private static List<HuId> extractHUIds(final Collection<I_M_HU> hus)
+	{
+		return hus.stream()
+				.map(hu -> HuId.ofRepoId(hu.getM_HU_ID()))
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	private static Map<Integer, I_M_HU_Item> retrieveItems(final Collection<HuId> huIds)
+	{
+		final IQueryBL queryBL = Services.get(IQueryBL.class);
+
+		final Map<Integer, I_M_HU_Item> itemsById = new HashMap<>();
+		for (final List<HuId> huIdsChunk : Iterables.partition(huIds, IN_ARRAY_CHUNK_SIZE))
+		{
+			queryBL.createQueryBuilderOutOfTrx(I_M_HU_Item.class)
+					.addInArrayFilter(I_M_HU_Item.COLUMN_M_HU_ID, huIdsChunk)
+					.create()
+					.list(I_M_HU_Item.class)
+					.forEach(item -> itemsById.put(item.getM_HU_Item_ID(), item));
+		}
+		return itemsById;
+	}
+
+	private static List<I_M_HU> retrieveIncludedHUs(final Collection<Integer> parentItemIds)
+	{
+		final IQueryBL queryBL = Services.get(IQueryBL.class);
+
+		final List<I_M_HU> includedHUs = new ArrayList<>();
+		for (final List<Integer> parentItemIdsChunk : Iterables.partition(parentItemIds, IN_ARRAY_CHUNK_SIZE))
+		{
+			includedHUs.addAll(queryBL.createQueryBuilderOutOfTrx(I_M_HU.class)
+					.addInArrayFilter(I_M_HU.COLUMN_M_HU_Item_Parent_ID, parentItemIdsChunk)
+					.addOnlyActiveRecordsFilter()
+					.orderBy(I_M_HU.COLUMN_M_HU_ID)
+					.create()
+					.list(I_M_HU.class));
+		}
+		return includedHUs;
+	}
+
+	private static ImmutableListMultimap<HuId, I_M_HU_Storage> retrieveStorages(final Collection<HuId> huIds)
+	{
+		final IQueryBL queryBL = Services.get(IQueryBL.class);
+
+		final ImmutableListMultimap.Builder<HuId, I_M_HU_Storage> storagesByHUId = ImmutableListMultimap.builder();
+		for (final List<HuId> huIdsChunk : Iterables.partition(huIds, IN_ARRAY_CHUNK_SIZE))
+		{
+			queryBL.createQueryBuilderOutOfTrx(I_M_HU_Storage.class)
+					.addInArrayFilter(I_M_HU_Storage.COLUMN_M_HU_ID, huIdsChunk)
+					.orderBy(I_M_HU_Storage.COLUMN_M_HU_Storage_ID)
+					.create()
+					.list(I_M_HU_Storage.class)
+					.forEach(storage -> storagesByHUId.put(HuId.ofRepoId(storage.getM_HU_ID()), storage));
+		}
+		return storagesByHUId.build();
+	}
+
+	private static ImmutableMap<Integer, I_C_UOM> retrieveUOMs(final Collection<I_M_HU_Storage> storages)
+	{
+		final Set<Integer> uomIds = storages.stream()
+				.map(I_M_HU_Storage::getC_UOM_ID)
+				.filter(uomId -> uomId > 0)
+				.collect(ImmutableSet.toImmutableSet());
+		if (uomIds.isEmpty())
+		{
+			return ImmutableMap.of();
+		}
+
+		return Services.get(IQueryBL.class).createQueryBuilderOutOfTrx(I_C_UOM.class)
+				.addInArrayFilter(I_C_UOM.COLUMNNAME_C_UOM_ID, uomIds)
+				.create()
+				.list(I_C_UOM.class)
+				.stream()
+				.collect(ImmutableMap.toImmutableMap(I_C_UOM::getC_UOM_ID, uom -> uom));
+	}
+
+	private static Map<HuId, LocalDate> retrieveBestBeforeDates(final Collection<HuId> huIds)
+	{
+		final Map<HuId, LocalDate> bestBeforeDatesByHUId = new LinkedHashMap<>();
+		for (final List<HuId> huIdsChunk : Iterables.partition(huIds, IN_ARRAY_CHUNK_SIZE))
+		{
+			final List<Object> sqlParams = new ArrayList<>();
+			final String sql = "SELECT hu." + I_M_HU.COLUMNNAME_M_HU_ID
+					+ ", " + HUAttributeConstants.sqlBestBeforeDate("hu." + I_M_HU.COLUMNNAME_M_HU_ID) + " AS " + COLUMNNAME_BestBeforeDate
+					+ " FROM " + I_M_HU.Table_Name + " hu"
+					+ " WHERE " + DB.buildSqlList("hu." + I_M_HU.COLUMNNAME_M_HU_ID, HuId.toRepoIds(huIdsChunk), sqlParams);
+
+			PreparedStatement pstmt = null;
+			ResultSet rs = null;
+			try
+			{
+				pstmt = DB.prepareStatement(sql, ITrx.TRXNAME_None);
+				DB.setParameters(pstmt, sqlParams);
+				rs = pstmt.executeQuery();
+				while (rs.next())
+				{
+					final Timestamp bestBeforeDate = rs.getTimestamp(COLUMNNAME_BestBeforeDate);
+					if (bestBeforeDate != null)
+					{
+						bestBeforeDatesByHUId.put(HuId.ofRepoId(rs.getInt(I_M_HU.COLUMNNAME_M_HU_ID)), TimeUtil.asLocalDate(bestBeforeDate));
+					}
+				}
+			}
+			catch (final SQLException ex)
+			{
+				throw new DBException(ex, sql, sqlParams);
+			}
+			finally
+			{
+				DB.close(rs, pstmt);
+			}
+		}
+		return bestBeforeDatesByHUId;
+	}
+
+	public Set<HuId> getAllHUIds()
+	{
+		return allHUIds;
+	}
+
+	public List<I_M_HU> getIncludedHUs(@NonNull final HuId huId)
+	{
+		return includedHUsByParentId.get(huId);
+	}
+
+	public boolean isAggregatedHU(@NonNull final I_M_HU hu)
+	{
+		final HuId huId = HuId.ofRepoId(hu.getM_HU_ID());
+		if (aggregatedHUIds.contains(huId))
+		{
+			return true;
+		}
+		else if (includedHUIds.contains(huId))
+		{
+			return false;
+		}
+		else
+		{
+			// the parent item of a top level HU was not loaded
+			return Services.get(IHandlingUnitsBL.class).isAggregateHU(hu);
+		}
+	}
+
+	/** @return all storages of the given HU, including the ones with zero quantity */
+	public List<I_M_HU_Storage> getStorages(@NonNull final HuId huId)
+	{
+		return storagesByHUId.get(huId);
+	}
+
+	/**
+	 * @return the storage if the given HU has exactly one storage with non-zero quantity, else null.
+	 *         Same rule as {@code IHUStorage.getSingleProductIdOrNull()}, i.e. empty storages are ignored.
+	 */
+	public I_M_HU_Storage getSingleProductStorageOrNull(@NonNull final HuId huId)
+	{
+		I_M_HU_Storage singleProductStorage = null;
+		for (final I_M_HU_Storage storage : getStorages(huId))
+		{
+			if (storage.getQty().signum() == 0)
+			{
+				continue;
+			}
+			if (singleProductStorage != null && singleProductStorage.getM_Product_ID() != storage.getM_Product_ID())
+			{
+				return null;
+			}
+			singleProductStorage = storage;
+		}
+		return singleProductStorage;
+	}
+
+	/** @return the given storage's UOM or null */
+	public I_C_UOM getUOM(@NonNull final I_M_HU_Storage storage)
+	{
+		return uomsById.get(storage.getC_UOM_ID());
+	}
+
+	/** @return best before date or null if not loaded or not set */
+	public LocalDate getBestBeforeDate(@NonNull final HuId huId)
+	{
+		return bestBeforeDatesByHUId != null ? bestBeforeDatesByHUId.get(huId) : null;
+	}
+}
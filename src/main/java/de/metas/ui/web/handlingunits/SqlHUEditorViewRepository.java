@@ -5,7 +5,6 @@ import static org.adempiere.model.InterfaceWrapperHelper.loadOutOfTrx;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.time.LocalDate;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -38,14 +37,12 @@ import de.metas.handlingunits.IHandlingUnitsBL;
 import de.metas.handlingunits.IHandlingUnitsDAO;
 import de.metas.handlingunits.exceptions.HUException;
 import de.metas.handlingunits.model.I_M_HU;
+import de.metas.handlingunits.model.I_M_HU_Storage;
 import de.metas.handlingunits.model.I_M_Locator;
 import de.metas.handlingunits.model.I_M_Warehouse;
 import de.metas.handlingunits.model.X_M_HU;
 import de.metas.handlingunits.model.X_M_HU_PI_Version;
 import de.metas.handlingunits.reservation.HUReservationService;
-import de.metas.handlingunits.storage.IHUProductStorage;
-import de.metas.handlingunits.storage.IHUStorage;
-import de.metas.handlingunits.storage.IHUStorageFactory;
 import de.metas.i18n.IMsgBL;
 import de.metas.logging.LogManager;
 import de.metas.order.OrderLineId;
@@ -69,7 +66,6 @@ import de.metas.ui.web.view.descriptor.SqlViewKeyColumnNamesMap;
 import de.metas.ui.web.view.descriptor.SqlViewRowIdsConverter;
 import de.metas.ui.web.view.descriptor.SqlViewSelectData;
 import de.metas.ui.web.view.descriptor.SqlViewSelectionQueryBuilder;
-import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import de.metas.ui.web.window.datatypes.WindowId;
 import de.metas.ui.web.window.datatypes.json.JSONLookupValue;
@@ -162,12 +158,13 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 	@Override
 	public List<HUEditorRow> retrieveHUEditorRows(@NonNull final Set<HuId> huIds, @NonNull final HUEditorRowFilter filter)
 	{
-		huReservationService.warmup(huIds);
+		final List<I_M_HU> topLevelHUs = retrieveTopLevelHUs(huIds, filter);
+		final HUTreeSnapshot huTrees = loadHUTrees(topLevelHUs);
 
 		final HuId topLevelHUId = null;
-		return retrieveTopLevelHUs(huIds, filter)
+		return topLevelHUs
 				.stream()
-				.map(hu -> createHUEditorRow(hu, topLevelHUId))
+				.map(hu -> createHUEditorRow(hu, topLevelHUId, huTrees))
 				.collect(GuavaCollectors.toImmutableList());
 	}
 
@@ -183,7 +180,21 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 
 		final I_M_HU hu = Services.get(IHandlingUnitsDAO.class).getByIdOutOfTrx(huId);
 		final HuId topLevelHUId = null; // assume given huId is a top level HU
-		return createHUEditorRow(hu, topLevelHUId);
+		return createHUEditorRow(hu, topLevelHUId, loadHUTrees(ImmutableList.of(hu)));
+	}
+
+	/**
+	 * Loads the whole HU trees (included HUs, storages and best before dates) with a few set based queries,
+	 * so that building the rows does not hit the database for each node.
+	 */
+	private HUTreeSnapshot loadHUTrees(final List<I_M_HU> topLevelHUs)
+	{
+		final boolean loadBestBeforeDates = showBestBeforeDate && attributesProvider != null;
+		final HUTreeSnapshot huTrees = HUTreeSnapshot.load(topLevelHUs, loadBestBeforeDates);
+
+		huReservationService.warmup(huTrees.getAllHUIds());
+
+		return huTrees;
 	}
 
 	private static List<I_M_HU> retrieveTopLevelHUs(@NonNull final Collection<HuId> huIds, @NonNull final HUEditorRowFilter filter)
@@ -211,12 +222,13 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 
 	private HUEditorRow createHUEditorRow(
 			@NonNull final I_M_HU hu,
-			final HuId topLevelHUId)
+			final HuId topLevelHUId,
+			@NonNull final HUTreeSnapshot huTrees)
 	{
 		// final Stopwatch stopwatch = Stopwatch.createStarted();
 
 		final IHandlingUnitsBL handlingUnitsBL = Services.get(IHandlingUnitsBL.class);
-		final boolean aggregatedTU = handlingUnitsBL.isAggregateHU(hu);
+		final boolean aggregatedTU = huTrees.isAggregatedHU(hu);
 		final String huUnitTypeCode = handlingUnitsBL.getHU_UnitType(hu);
 		final HUEditorRowType huRecordType;
 		if (aggregatedTU)
@@ -257,7 +269,7 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 		// Acquire Best Before Date if required
 		if (showBestBeforeDate)
 		{
-			huEditorRow.setBestBeforeDate(extractBestBeforeDate(attributesProvider, rowId));
+			huEditorRow.setBestBeforeDate(huTrees.getBestBeforeDate(huId));
 		}
 
 		//
@@ -267,13 +279,13 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 
 		//
 		// Product/UOM/Qty if there is only one product stored
-		final IHUProductStorage singleProductStorage = getSingleProductStorage(hu);
+		final I_M_HU_Storage singleProductStorage = huTrees.getSingleProductStorageOrNull(huId);
 		if (singleProductStorage != null)
 		{
 			huEditorRow
-					.setProduct(createProductLookupValue(singleProductStorage.getProductId()))
-					.setUOM(createUOMLookupValue(singleProductStorage.getC_UOM()))
-					.setQtyCU(singleProductStorage.getQty().getAsBigDecimal());
+					.setProduct(createProductLookupValue(ProductId.ofRepoId(singleProductStorage.getM_Product_ID())))
+					.setUOM(createUOMLookupValue(huTrees.getUOM(singleProductStorage)))
+					.setQtyCU(singleProductStorage.getQty());
 		}
 
 		//
@@ -281,33 +293,28 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 		final HuId topLevelHUIdEffective = topLevelHUId != null ? topLevelHUId : huId;
 		if (aggregatedTU)
 		{
-			final IHUStorageFactory storageFactory = handlingUnitsBL.getStorageFactory();
-			storageFactory
-					.getStorage(hu)
-					.getProductStorages()
+			huTrees.getStorages(huId)
 					.stream()
-					.map(huStorage -> createHUEditorRow(huId, topLevelHUIdEffective, huStorage, processed))
+					.map(huStorage -> createHUEditorRow(hu, huId, topLevelHUIdEffective, huStorage, huTrees, processed))
 					.forEach(huEditorRow::addIncludedRow);
 
 		}
 		else if (X_M_HU_PI_Version.HU_UNITTYPE_LoadLogistiqueUnit.equals(huUnitTypeCode))
 		{
-			final IHandlingUnitsDAO handlingUnitsDAO = Services.get(IHandlingUnitsDAO.class);
-			handlingUnitsDAO.retrieveIncludedHUs(hu)
+			huTrees.getIncludedHUs(huId)
 					.stream()
-					.map(includedHU -> createHUEditorRow(includedHU, topLevelHUIdEffective))
+					.map(includedHU -> createHUEditorRow(includedHU, topLevelHUIdEffective, huTrees))
 					.forEach(huEditorRow::addIncludedRow);
 		}
 		else if (X_M_HU_PI_Version.HU_UNITTYPE_TransportUnit.equals(huUnitTypeCode))
 		{
-			final IHandlingUnitsDAO handlingUnitsDAO = Services.get(IHandlingUnitsDAO.class);
-			final IHUStorageFactory storageFactory = handlingUnitsBL.getStorageFactory();
-			handlingUnitsDAO.retrieveIncludedHUs(hu)
-					.stream()
-					.map(includedVHU -> storageFactory.getStorage(includedVHU))
-					.flatMap(vhuStorage -> vhuStorage.getProductStorages().stream())
-					.map(vhuProductStorage -> createHUEditorRow(huId, topLevelHUIdEffective, vhuProductStorage, processed))
-					.forEach(huEditorRow::addIncludedRow);
+			for (final I_M_HU includedVHU : huTrees.getIncludedHUs(huId))
+			{
+				huTrees.getStorages(HuId.ofRepoId(includedVHU.getM_HU_ID()))
+						.stream()
+						.map(vhuStorage -> createHUEditorRow(includedVHU, huId, topLevelHUIdEffective, vhuStorage, huTrees, processed))
+						.forEach(huEditorRow::addIncludedRow);
+			}
 		}
 		else if (X_M_HU_PI_Version.HU_UNITTYPE_VirtualPI.equals(huUnitTypeCode))
 		{
@@ -350,32 +357,18 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 		}
 	}
 
-	private IHUProductStorage getSingleProductStorage(final I_M_HU hu)
-	{
-		final IHUStorage huStorage = Services.get(IHandlingUnitsBL.class).getStorageFactory()
-				.getStorage(hu);
-
-		final ProductId productId = huStorage.getSingleProductIdOrNull();
-		if (productId == null)
-		{
-			return null;
-		}
-
-		final IHUProductStorage productStorage = huStorage.getProductStorage(productId);
-		return productStorage;
-	}
-
 	private HUEditorRow createHUEditorRow(
+			@NonNull final I_M_HU hu,
 			final HuId parentHUId,
 			final HuId topLevelHUId,
-			@NonNull final IHUProductStorage huStorage,
+			@NonNull final I_M_HU_Storage huStorage,
+			@NonNull final HUTreeSnapshot huTrees,
 			final boolean processed)
 	{
 		// final Stopwatch stopwatch = Stopwatch.createStarted();
 
-		final I_M_HU hu = huStorage.getM_HU();
 		final HuId huId = HuId.ofRepoId(hu.getM_HU_ID());
-		final ProductId productId = huStorage.getProductId();
+		final ProductId productId = ProductId.ofRepoId(huStorage.getM_Product_ID());
 		final HUEditorRowAttributesProvider attributesProviderEffective = !huId.equals(parentHUId) ? attributesProvider : null;
 
 		final Optional<OrderLineId> reservedForOrderLineId = huReservationService.getOrderLineIdByReservedVhuId(huId);
@@ -395,8 +388,8 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 				.setHUStatusDisplay(createHUStatusDisplayLookupValue(hu))
 				//
 				.setProduct(createProductLookupValue(productId))
-				.setUOM(createUOMLookupValue(huStorage.getC_UOM()))
-				.setQtyCU(huStorage.getQty().getAsBigDecimal())
+				.setUOM(createUOMLookupValue(huTrees.getUOM(huStorage)))
+				.setQtyCU(huStorage.getQty())
 				//
 				.build();
 
@@ -470,18 +463,6 @@ public class SqlHUEditorViewRepository implements HUEditorViewRepository
 		return JSONLookupValue.of(huStatusKey, huStatusDisplayName);
 	}
 
-	private static LocalDate extractBestBeforeDate(final HUEditorRowAttributesProvider attributesProvider, final HUEditorRowId rowId)
-	{
-		if (attributesProvider == null)
-		{
-			return null;
-		}
-
-		final DocumentId attributesKey = attributesProvider.createAttributeKey(rowId.getHuId());
-		final HUEditorRowAttributes attributes = attributesProvider.getAttributes(rowId.toDocumentId(), attributesKey);
-		return attributes.getBestBeforeDate().orElse(null);
-	}
-
 	@Override
 	public Set<HuId> retrieveHUIdsEffective(
 			@NonNull final HUIdsFilterData huIdsFilter,
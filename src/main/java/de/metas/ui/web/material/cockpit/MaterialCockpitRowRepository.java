@@ -112,13 +112,13 @@ public class MaterialCockpitRowRepository
 	{
 		return new IRowsData<MaterialCockpitRow>()
 		{
-			private final ExtendedMemorizingSupplier<List<MaterialCockpitRow>> topLevelRows = //
-					ExtendedMemorizingSupplier.of(() -> retrieveRows(filters));
+			private final ExtendedMemorizingSupplier<Map<DocumentId, MaterialCockpitRow>> topLevelRows = //
+					ExtendedMemorizingSupplier.of(() -> Maps.uniqueIndex(retrieveRows(filters), MaterialCockpitRow::getId));
 
 			@Override
 			public Map<DocumentId, MaterialCockpitRow> getDocumentId2TopLevelRows()
 			{
-				return Maps.uniqueIndex(topLevelRows.get(), row -> row.getId());
+				return topLevelRows.get();
 			}
 
 			@Override
@@ -2,6 +2,7 @@ package de.metas.ui.web.material.cockpit;
 
 import java.util.stream.Stream;
 
+import org.adempiere.util.lang.impl.TableRecordReferenceSet;
 import org.compiere.model.I_M_Product;
 import org.springframework.stereotype.Service;
 
@@ -101,6 +102,12 @@ public class MaterialCockpitViewsIndexStorage implements IViewsIndexStorage
 		return defaultViewsRepositoryStorage.streamAllViews();
 	}
 
+	@Override
+	public Stream<IView> streamAllViewsWatching(@NonNull final TableRecordReferenceSet recordRefs)
+	{
+		return defaultViewsRepositoryStorage.streamAllViewsWatching(recordRefs);
+	}
+
 	@Override
 	public void invalidateView(ViewId viewId)
 	{
@@ -0,0 +1,243 @@
+package de.metas.ui.web.order.pricingconditions.view;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.exceptions.DBException;
+import org.compiere.model.I_M_InOut;
+import org.compiere.model.I_M_InOutLine;
+import org.compiere.model.X_M_InOut;
+import org.compiere.util.DB;
+import org.compiere.util.TimeUtil;
+import org.slf4j.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+
+import de.metas.bpartner.BPartnerId;
+import de.metas.cache.CCache;
+import de.metas.cache.CCache.CacheMapType;
+import de.metas.lang.SOTrx;
+import de.metas.logging.LogManager;
+import de.metas.product.ProductId;
+import de.metas.util.lang.RepoIdAware;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Resolves the last shipment/receipt dates of many bpartner/product pairs with a few set based queries.
+ * <p>
+ * The results are cached for a few minutes, so that they can be reused by the next pricing conditions view (e.g. opened for the next order line).
+ * The cache is reset when shipments/receipts are changed.
+ */
+final class LastInOutDatesRepository
+{
+	public static final LastInOutDatesRepository instance = new LastInOutDatesRepository(LastInOutDatesRepository::retrieveLastInOutDates);
+
+	private static final Logger logger = LogManager.getLogger(LastInOutDatesRepository.class);
+
+	private static final int IN_ARRAY_CHUNK_SIZE = 500;
+
+	private final Function<List<LastInOutDateRequest>, Map<LastInOutDateRequest, Optional<LocalDate>>> loader;
+
+	private final CCache<LastInOutDateRequest, Optional<LocalDate>> cache = CCache.<LastInOutDateRequest, Optional<LocalDate>> builder()
+			.cacheName("PricingConditions#LastInOutDates")
+			.tableName(I_M_InOut.Table_Name)
+			.cacheMapType(CacheMapType.LRU)
+			.initialCapacity(50000)
+			.expireMinutes(10)
+			.build();
+
+	@VisibleForTesting
+	LastInOutDatesRepository(@NonNull final Function<List<LastInOutDateRequest>, Map<LastInOutDateRequest, Optional<LocalDate>>> loader)
+	{
+		this.loader = loader;
+	}
+
+	/**
+	 * @return last movement date for each of the given requests; a request without any shipment/receipt is mapped to {@link Optional#empty()}.
+	 *         If the dates could not be fetched, a warning is logged and the requests are mapped to {@link Optional#empty()} too, but those are not cached.
+	 */
+	public Map<LastInOutDateRequest, Optional<LocalDate>> getLastInOutDates(@NonNull final Collection<LastInOutDateRequest> requests)
+	{
+		if (requests.isEmpty())
+		{
+			return ImmutableMap.of();
+		}
+
+		final Map<LastInOutDateRequest, Optional<LocalDate>> result = new HashMap<>(requests.size());
+		final List<LastInOutDateRequest> requestsToLoad = new ArrayList<>();
+		for (final LastInOutDateRequest request : ImmutableSet.copyOf(requests))
+		{
+			final Optional<LocalDate> lastInOutDate = cache.get(request);
+			if (lastInOutDate != null)
+			{
+				result.put(request, lastInOutDate);
+			}
+			else
+			{
+				requestsToLoad.add(request);
+			}
+		}
+
+		if (!requestsToLoad.isEmpty())
+		{
+			final Map<LastInOutDateRequest, Optional<LocalDate>> loaded = loadOrNull(requestsToLoad);
+			if (loaded != null)
+			{
+				loaded.forEach(cache::put);
+				result.putAll(loaded);
+			}
+			else
+			{
+				requestsToLoad.forEach(request -> result.put(request, Optional.empty()));
+			}
+		}
+
+		return result;
+	}
+
+	private Map<LastInOutDateRequest, Optional<LocalDate>> loadOrNull(final List<LastInOutDateRequest> requests)
+	{
+		try
+		{
+			return loader.apply(requests);
+		}
+		catch (final DBException ex)
+		{
+			logger.warn("Failed fetching last InOut dates for {}. Skipping them.", requests, ex);
+			return null;
+		}
+	}
+
+	private static Map<LastInOutDateRequest, Optional<LocalDate>> retrieveLastInOutDates(final List<LastInOutDateRequest> requests)
+	{
+		final Map<LastInOutDateRequest, Optional<LocalDate>> result = new HashMap<>(requests.size());
+		requests.forEach(request -> result.put(request, Optional.empty()));
+
+		final Map<SOTrx, List<LastInOutDateRequest>> requestsBySOTrx = requests.stream()
+				.collect(Collectors.groupingBy(LastInOutDateRequest::getSoTrx));
+		for (final Map.Entry<SOTrx, List<LastInOutDateRequest>> entry : requestsBySOTrx.entrySet())
+		{
+			final SOTrx soTrx = entry.getKey();
+			final ImmutableSet<ProductId> productIds = entry.getValue()
+					.stream()
+					.map(LastInOutDateRequest::getProductId)
+					.collect(ImmutableSet.toImmutableSet());
+			final ImmutableSet<BPartnerId> bpartnerIds = entry.getValue()
+					.stream()
+					.map(LastInOutDateRequest::getBpartnerId)
+					.collect(ImmutableSet.toImmutableSet());
+
+			for (final List<BPartnerId> bpartnerIdsChunk : Iterables.partition(bpartnerIds, IN_ARRAY_CHUNK_SIZE))
+			{
+				retrieveLastInOutDates(soTrx, bpartnerIdsChunk, productIds)
+						.forEach((request, lastInOutDate) -> result.computeIfPresent(request, (key, previousDate) -> Optional.of(lastInOutDate)));
+			}
+		}
+
+		return result;
+	}
+
+	private static Map<LastInOutDateRequest, LocalDate> retrieveLastInOutDates(
+			final SOTrx soTrx,
+			final Collection<BPartnerId> bpartnerIds,
+			final Collection<ProductId> productIds)
+	{
+		final List<Object> sqlParams = new ArrayList<>();
+		sqlParams.add(soTrx.isSales());
+		sqlParams.add(X_M_InOut.DOCSTATUS_Completed);
+		sqlParams.add(X_M_InOut.DOCSTATUS_Closed);
+
+		final String sql = "SELECT io." + I_M_InOut.COLUMNNAME_C_BPartner_ID
+				+ ", iol." + I_M_InOutLine.COLUMNNAME_M_Product_ID
+				+ ", MAX(io." + I_M_InOut.COLUMNNAME_MovementDate + ") AS " + I_M_InOut.COLUMNNAME_MovementDate
+				+ " FROM " + I_M_InOut.Table_Name + " io"
+				+ " INNER JOIN " + I_M_InOutLine.Table_Name + " iol ON iol." + I_M_InOutLine.COLUMNNAME_M_InOut_ID + "=io." + I_M_InOut.COLUMNNAME_M_InOut_ID
+				+ " WHERE io." + I_M_InOut.COLUMNNAME_IsSOTrx + "=?"
+				+ " AND io." + I_M_InOut.COLUMNNAME_DocStatus + " IN (?,?)"
+				+ " AND io." + I_M_InOut.COLUMNNAME_IsActive + "='Y'"
+				+ " AND iol." + I_M_InOutLine.COLUMNNAME_IsActive + "='Y'"
+				+ " AND " + DB.buildSqlList("io." + I_M_InOut.COLUMNNAME_C_BPartner_ID, toRepoIds(bpartnerIds), sqlParams)
+				+ " AND " + DB.buildSqlList("iol." + I_M_InOutLine.COLUMNNAME_M_Product_ID, toRepoIds(productIds), sqlParams)
+				+ " GROUP BY io." + I_M_InOut.COLUMNNAME_C_BPartner_ID + ", iol." + I_M_InOutLine.COLUMNNAME_M_Product_ID;
+
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sql, ITrx.TRXNAME_None);
+			DB.setParameters(pstmt, sqlParams);
+			rs = pstmt.executeQuery();
+
+			final Map<LastInOutDateRequest, LocalDate> result = new HashMap<>();
+			while (rs.next())
+			{
+				final Timestamp movementDate = rs.getTimestamp(I_M_InOut.COLUMNNAME_MovementDate);
+				if (movementDate == null)
+				{
+					continue;
+				}
+
+				final LastInOutDateRequest request = LastInOutDateRequest.builder()
+						.bpartnerId(BPartnerId.ofRepoId(rs.getInt(I_M_InOut.COLUMNNAME_C_BPartner_ID)))
+						.productId(ProductId.ofRepoId(rs.getInt(I_M_InOutLine.COLUMNNAME_M_Product_ID)))
+						.soTrx(soTrx)
+						.build();
+				result.put(request, TimeUtil.asLocalDate(movementDate));
+			}
+			return result;
+		}
+		catch (final SQLException ex)
+		{
+			throw new DBException(ex, sql, sqlParams);
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
+	private static List<Integer> toRepoIds(final Collection<? extends RepoIdAware> ids)
+	{
+		return ids.stream()
+				.map(RepoIdAware::getRepoId)
+				.collect(ImmutableList.toImmutableList());
+	}
+}
@@ -3,33 +3,28 @@ package de.metas.ui.web.order.pricingconditions.view;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
 
-import org.slf4j.Logger;
-
 import com.google.common.base.Predicates;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 
 import de.metas.bpartner.BPartnerId;
 import de.metas.bpartner.BPartnerType;
 import de.metas.bpartner.service.IBPartnerBL;
 import de.metas.bpartner.service.IBPartnerDAO;
-import de.metas.inout.IInOutDAO;
 import de.metas.lang.SOTrx;
-import de.metas.logging.LogManager;
 import de.metas.money.Money;
 import de.metas.order.OrderLineId;
 import de.metas.payment.paymentterm.PaymentTermId;
@@ -74,11 +69,10 @@ import lombok.NonNull;
 class PricingConditionsRowsLoader
 {
 	// services
-	private static final Logger logger = LogManager.getLogger(PricingConditionsRowsLoader.class);
 	private final IBPartnerDAO bpartnersRepo = Services.get(IBPartnerDAO.class);
 	private final IBPartnerBL bpartnerBL = Services.get(IBPartnerBL.class);
 	private final IPricingConditionsRepository pricingConditionsRepo = Services.get(IPricingConditionsRepository.class);
-	private final IInOutDAO inoutsRepo = Services.get(IInOutDAO.class);
+	private final LastInOutDatesRepository lastInOutDatesRepo = LastInOutDatesRepository.instance;
 
 	private static final Comparator<PricingConditionsRow> ROWS_SORTING = Comparator.<PricingConditionsRow, Integer> comparing(row -> row.isEditable() ? 0 : 1)
 			.thenComparing(row -> row.getBpartnerDisplayName())
@@ -91,17 +85,7 @@ class PricingConditionsRowsLoader
 	private final SourceDocumentLine sourceDocumentLine;
 
 	private ImmutableSetMultimap<PricingConditionsId, PricingConditionsInfo> pricingConditionsInfoById; // lazy
-	private final LoadingCache<LastInOutDateRequest, Optional<LocalDate>> lastInOutDates = CacheBuilder.newBuilder()
-			.build(new CacheLoader<LastInOutDateRequest, Optional<LocalDate>>()
-			{
-				@Override
-				public Optional<LocalDate> load(final LastInOutDateRequest key)
-				{
-					final LocalDate lastInOutDate = inoutsRepo.getLastInOutDate(key.getBpartnerId(), key.getProductId(), key.getSoTrx());
-					return Optional.ofNullable(lastInOutDate);
-				}
-
-			});
+	private final Map<LastInOutDateRequest, Optional<LocalDate>> lastInOutDates = new HashMap<>();
 
 	@Builder
 	private PricingConditionsRowsLoader(
@@ -122,10 +106,16 @@ class PricingConditionsRowsLoader
 	{
 		final Set<PricingConditionsId> pricingConditionsIds = getAllPricingConditionsId();
 
-		final List<PricingConditionsRow> rows = pricingConditionsRepo.getPricingConditionsByIds(pricingConditionsIds)
+		final List<PricingConditionsBreak> pricingConditionsBreaks = pricingConditionsRepo.getPricingConditionsByIds(pricingConditionsIds)
 				.stream()
 				.flatMap(pricingConditionsBreaksExtractor::streamPricingConditionsBreaks)
 				.filter(Predicates.notNull())
+				.collect(ImmutableList.toImmutableList());
+
+		loadLastInOutDates(pricingConditionsBreaks);
+
+		final List<PricingConditionsRow> rows = pricingConditionsBreaks
+				.stream()
 				.flatMap(this::createPricingConditionsRows)
 				.sorted(ROWS_SORTING)
 				.collect(ImmutableList.toImmutableList());
@@ -144,6 +134,34 @@ class PricingConditionsRowsLoader
 				.filter(filters);
 	}
 
+	/**
+	 * Fetches the last in/out dates of all rows which will be created, at once.
+	 */
+	private void loadLastInOutDates(final List<PricingConditionsBreak> pricingConditionsBreaks)
+	{
+		final Set<LastInOutDateRequest> requests = new HashSet<>();
+		for (final PricingConditionsBreak pricingConditionsBreak : pricingConditionsBreaks)
+		{
+			for (final PricingConditionsInfo pricingConditionsInfo : getPricingConditionsInfos(pricingConditionsBreak.getPricingConditionsId()))
+			{
+				final SOTrx soTrx = pricingConditionsInfo.getBpartnerType().getSOTrx();
+				createLastInOutDateRequest(pricingConditionsInfo.getBPartnerId(), soTrx, pricingConditionsBreak)
+						.ifPresent(requests::add);
+			}
+		}
+
+		if (sourceDocumentLine != null)
+		{
+			requests.add(LastInOutDateRequest.builder()
+					.bpartnerId(sourceDocumentLine.getBpartnerId())
+					.productId(sourceDocumentLine.getProductId())
+					.soTrx(sourceDocumentLine.getSoTrx())
+					.build());
+		}
+
+		lastInOutDates.putAll(lastInOutDatesRepo.getLastInOutDates(requests));
+	}
+
 	private Set<PricingConditionsId> getAllPricingConditionsId()
 	{
 		return getPricingConditionsInfosIndexedById().keySet();
@@ -287,28 +305,34 @@ class PricingConditionsRowsLoader
 			@NonNull final BPartnerId bpartnerId,
 			@NonNull final SOTrx soTrx,
 			@NonNull final PricingConditionsBreak pricingConditionsBreak)
+	{
+		final LastInOutDateRequest request = createLastInOutDateRequest(bpartnerId, soTrx, pricingConditionsBreak).orElse(null);
+		if (request == null)
+		{
+			return null;
+		}
+
+		return lastInOutDates
+				.computeIfAbsent(request, key -> lastInOutDatesRepo.getLastInOutDates(ImmutableSet.of(key)).get(key))
+				.orElse(null);
+	}
+
+	private static Optional<LastInOutDateRequest> createLastInOutDateRequest(
+			@NonNull final BPartnerId bpartnerId,
+			@NonNull final SOTrx soTrx,
+			@NonNull final PricingConditionsBreak pricingConditionsBreak)
 	{
 		final ProductId productId = pricingConditionsBreak.getMatchCriteria().getProductId();
 		if (productId == null)
 		{
-			return null;
+			return Optional.empty();
 		}
 
-		final LastInOutDateRequest request = LastInOutDateRequest.builder()
+		return Optional.of(LastInOutDateRequest.builder()
 				.bpartnerId(bpartnerId)
 				.productId(productId)
 				.soTrx(soTrx)
-				.build();
-
-		try
-		{
-			return lastInOutDates.get(request).orElse(null);
-		}
-		catch (ExecutionException ex)
-		{
-			logger.warn("Failed fetching last InOut date for {}. Returning null.", request, ex);
-			return null;
-		}
+				.build());
 	}
 
 	@lombok.Value
@@ -365,18 +389,6 @@ class PricingConditionsRowsLoader
 		PricingConditionsBreakId pricingConditionsBreakId;
 	}
 
-	@lombok.Value
-	@lombok.Builder
-	private static final class LastInOutDateRequest
-	{
-		@NonNull
-		BPartnerId bpartnerId;
-		@NonNull
-		ProductId productId;
-		@NonNull
-		SOTrx soTrx;
-	}
-
 	//
 	//
 	//
@@ -0,0 +1,194 @@
+package de.metas.ui.web.order.products_proposal.model;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.adempiere.mm.attributes.AttributeSetInstanceId;
+import org.adempiere.mm.attributes.api.IAttributeSetInstanceBL;
+import org.compiere.model.I_M_PriceList;
+import org.compiere.model.I_M_Product;
+import org.compiere.model.I_M_ProductPrice;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.cache.CCache;
+import de.metas.cache.CCache.CacheMapType;
+import de.metas.currency.Amount;
+import de.metas.currency.CurrencyCode;
+import de.metas.currency.ICurrencyDAO;
+import de.metas.money.CurrencyId;
+import de.metas.pricing.PriceListVersionId;
+import de.metas.pricing.ProductPriceId;
+import de.metas.pricing.service.IPriceListDAO;
+import de.metas.product.ProductId;
+import de.metas.ui.web.window.datatypes.LookupValue;
+import de.metas.ui.web.window.datatypes.LookupValuesList;
+import de.metas.ui.web.window.model.lookup.LookupDataSource;
+import de.metas.ui.web.window.model.lookup.LookupDataSourceFactory;
+import de.metas.util.Services;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * The product prices of one price list version, together with their product lookup values and ASI descriptions, sorted by product name.
+ * <p>
+ * The snapshots are shared between all products proposal views and are reset when a product price or a product changes.
+ * Everything which depends on the view (row IDs, campaign prices, quantities etc) is added by {@link ProductsProposalRowsLoader}.
+ */
+@Immutable
+final class ProductPricesSnapshot
+{
+	/**
+	 * @param adLanguage the language of the current context, i.e. the language in which the product lookup values are loaded
+	 */
+	public static ProductPricesSnapshot getOrLoad(@NonNull final PriceListVersionId priceListVersionId, @NonNull final String adLanguage)
+	{
+		return cache.getOrLoad(CacheKey.of(priceListVersionId, adLanguage), () -> load(priceListVersionId));
+	}
+
+	private static final CCache<CacheKey, ProductPricesSnapshot> cache = CCache.<CacheKey, ProductPricesSnapshot> builder()
+			.cacheName(I_M_ProductPrice.Table_Name + "#ProductPricesSnapshot")
+			.cacheMapType(CacheMapType.LRU)
+			.initialCapacity(20)
+			.tableName(I_M_ProductPrice.Table_Name)
+			.additionalTableNameToResetFor(I_M_Product.Table_Name)
+			.build();
+
+	/** The product names are translated and the entries are sorted by them, so we need one snapshot per language */
+	@Value(staticConstructor = "of")
+	private static class CacheKey
+	{
+		@NonNull
+		PriceListVersionId priceListVersionId;
+		@NonNull
+		String adLanguage;
+	}
+
+	@Getter
+	private final ImmutableList<Entry> entries;
+
+	private ProductPricesSnapshot(@NonNull final List<Entry> entries)
+	{
+		this.entries = ImmutableList.copyOf(entries);
+	}
+
+	private static ProductPricesSnapshot load(@NonNull final PriceListVersionId priceListVersionId)
+	{
+		final IPriceListDAO priceListsRepo = Services.get(IPriceListDAO.class);
+		final IAttributeSetInstanceBL attributeSetInstanceBL = Services.get(IAttributeSetInstanceBL.class);
+
+		final List<I_M_ProductPrice> records = priceListsRepo.retrieveProductPrices(priceListVersionId, ImmutableSet.of())
+				.collect(ImmutableList.toImmutableList());
+		if (records.isEmpty())
+		{
+			return new ProductPricesSnapshot(ImmutableList.of());
+		}
+
+		final CurrencyCode currencyCode = retrieveCurrencyCode(priceListVersionId);
+
+		//
+		// Fetch all product lookup values at once
+		final LookupDataSource productLookup = LookupDataSourceFactory.instance.searchInTableLookup(I_M_Product.Table_Name);
+		final LookupValuesList products = productLookup.findByIds(records.stream()
+				.map(I_M_ProductPrice::getM_Product_ID)
+				.collect(ImmutableSet.toImmutableSet()));
+
+		return of(records, products, currencyCode, attributeSetInstanceBL::getASIDescriptionById);
+	}
+
+	/**
+	 * @param products the product lookup values; product prices without an active product lookup value are skipped
+	 * @param asiDescriptionProvider called once per ASI
+	 */
+	@VisibleForTesting
+	static ProductPricesSnapshot of(
+			@NonNull final List<I_M_ProductPrice> records,
+			@NonNull final LookupValuesList products,
+			@NonNull final CurrencyCode currencyCode,
+			@NonNull final Function<AttributeSetInstanceId, String> asiDescriptionProvider)
+	{
+		final Map<AttributeSetInstanceId, ProductASIDescription> asiDescriptions = new HashMap<>();
+
+		final ImmutableList.Builder<Entry> entries = ImmutableList.builder();
+		for (final I_M_ProductPrice record : records)
+		{
+			final LookupValue product = products.getById(record.getM_Product_ID());
+			if (product == null || !product.isActive())
+			{
+				continue;
+			}
+
+			final AttributeSetInstanceId asiId = AttributeSetInstanceId.ofRepoIdOrNone(record.getM_AttributeSetInstance_ID());
+			final ProductASIDescription asiDescription = asiDescriptions.computeIfAbsent(asiId, id -> ProductASIDescription.ofString(asiDescriptionProvider.apply(id)));
+
+			entries.add(Entry.builder()
+					.productPriceId(ProductPriceId.ofRepoId(record.getM_ProductPrice_ID()))
+					.productId(ProductId.ofRepoId(record.getM_Product_ID()))
+					.product(product)
+					.asiDescription(asiDescription)
+					.priceListPrice(Amount.of(record.getPriceStd(), currencyCode))
+					.build());
+		}
+
+		return new ProductPricesSnapshot(entries.build()
+				.stream()
+				.sorted(Entry.ORDER_BY_PRODUCT_NAME)
+				.collect(ImmutableList.toImmutableList()));
+	}
+
+	private static CurrencyCode retrieveCurrencyCode(final PriceListVersionId priceListVersionId)
+	{
+		final I_M_PriceList priceList = Services.get(IPriceListDAO.class).getPriceListByPriceListVersionId(priceListVersionId);
+		final CurrencyId currencyId = CurrencyId.ofRepoId(priceList.getC_Currency_ID());
+		return Services.get(ICurrencyDAO.class).getCurrencyCodeById(currencyId);
+	}
+
+	@Value
+	@Builder
+	public static class Entry
+	{
+		public static final Comparator<Entry> ORDER_BY_PRODUCT_NAME = Comparator.comparing(entry -> entry.getProduct().getDisplayName());
+
+		@NonNull
+		ProductPriceId productPriceId;
+		@NonNull
+		ProductId productId;
+		@NonNull
+		LookupValue product;
+		@NonNull
+		ProductASIDescription asiDescription;
+		@NonNull
+		Amount priceListPrice;
+	}
+}
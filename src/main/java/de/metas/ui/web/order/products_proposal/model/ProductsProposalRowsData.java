@@ -2,6 +2,7 @@ package de.metas.ui.web.order.products_proposal.model;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -69,6 +70,7 @@ public class ProductsProposalRowsData implements IEditableRowsData<ProductsPropo
 	private final CampaignPriceProvider campaignPriceProvider;
 
 	private ArrayList<DocumentId> rowIdsOrderedAndFiltered;
+	private HashSet<DocumentId> rowIdsFiltered; // same as rowIdsOrderedAndFiltered, used for fast lookups
 	private final ArrayList<DocumentId> rowIdsOrdered; // used to preserve the order
 	private final HashMap<DocumentId, ProductsProposalRow> rowsById;
 
@@ -112,6 +114,7 @@ public class ProductsProposalRowsData implements IEditableRowsData<ProductsPropo
 				.map(ProductsProposalRow::getId)
 				.collect(Collectors.toCollection(ArrayList::new));
 		rowIdsOrderedAndFiltered = new ArrayList<>(rowIdsOrdered);
+		rowIdsFiltered = new HashSet<>(rowIdsOrdered);
 
 		rowsById = rows.stream()
 				.collect(GuavaCollectors.toMapByKey(HashMap::new, ProductsProposalRow::getId));
@@ -177,7 +180,7 @@ public class ProductsProposalRowsData implements IEditableRowsData<ProductsPropo
 
 	private synchronized void changeRow(@NonNull final DocumentId rowId, @NonNull final UnaryOperator<ProductsProposalRow> mapper)
 	{
-		if (!rowIdsOrderedAndFiltered.contains(rowId))
+		if (!rowIdsFiltered.contains(rowId))
 		{
 			throw new EntityNotFoundException(rowId.toJson());
 		}
@@ -257,6 +260,7 @@ public class ProductsProposalRowsData implements IEditableRowsData<ProductsPropo
 	private synchronized void addRow(final ProductsProposalRow row)
 	{
 		rowIdsOrderedAndFiltered.add(0, row.getId()); // add first
+		rowIdsFiltered.add(row.getId());
 		rowIdsOrdered.add(0, row.getId()); // add first
 
 		rowsById.put(row.getId(), row);
@@ -265,6 +269,7 @@ public class ProductsProposalRowsData implements IEditableRowsData<ProductsPropo
 	public synchronized void removeRowsByIds(@NonNull final Set<DocumentId> rowIds)
 	{
 		rowIdsOrderedAndFiltered.removeAll(rowIds);
+		rowIdsFiltered.removeAll(rowIds);
 		rowIdsOrdered.removeAll(rowIds);
 		rowIds.forEach(rowsById::remove);
 	}
@@ -287,5 +292,6 @@ public class ProductsProposalRowsData implements IEditableRowsData<ProductsPropo
 				.stream()
 				.filter(rowId -> rowsById.get(rowId).isMatching(filter))
 				.collect(Collectors.toCollection(ArrayList::new));
+		rowIdsFiltered = new HashSet<>(rowIdsOrderedAndFiltered);
 	}
 }
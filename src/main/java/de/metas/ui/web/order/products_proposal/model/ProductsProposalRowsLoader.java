@@ -1,43 +1,31 @@
 package de.metas.ui.web.order.products_proposal.model;
 
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
 
-import org.adempiere.mm.attributes.AttributeSetInstanceId;
-import org.adempiere.mm.attributes.api.IAttributeSetInstanceBL;
-import org.compiere.model.I_M_PriceList;
-import org.compiere.model.I_M_Product;
-import org.compiere.model.I_M_ProductPrice;
+import org.compiere.util.Env;
 
-import com.google.common.base.Predicates;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.bpartner.BPartnerId;
 import de.metas.bpartner.product.stats.BPartnerProductStats;
 import de.metas.bpartner.product.stats.BPartnerProductStatsService;
-import de.metas.currency.Amount;
-import de.metas.currency.CurrencyCode;
-import de.metas.currency.ICurrencyDAO;
 import de.metas.lang.SOTrx;
-import de.metas.money.CurrencyId;
 import de.metas.order.OrderId;
 import de.metas.pricing.PriceListVersionId;
-import de.metas.pricing.ProductPriceId;
 import de.metas.pricing.service.IPriceListDAO;
 import de.metas.product.ProductId;
 import de.metas.ui.web.order.products_proposal.campaign_price.CampaignPriceProvider;
 import de.metas.ui.web.order.products_proposal.campaign_price.CampaignPriceProviders;
 import de.metas.ui.web.window.datatypes.DocumentIdIntSequence;
-import de.metas.ui.web.window.datatypes.LookupValue;
-import de.metas.ui.web.window.model.lookup.LookupDataSource;
-import de.metas.ui.web.window.model.lookup.LookupDataSourceFactory;
 import de.metas.util.Check;
 import de.metas.util.Services;
 import lombok.Builder;
@@ -70,11 +58,8 @@ public final class ProductsProposalRowsLoader
 {
 	// services
 	private final IPriceListDAO priceListsRepo = Services.get(IPriceListDAO.class);
-	private final IAttributeSetInstanceBL attributeSetInstanceBL = Services.get(IAttributeSetInstanceBL.class);
-	private final ICurrencyDAO currenciesRepo = Services.get(ICurrencyDAO.class);
 	private final BPartnerProductStatsService bpartnerProductStatsService;
 	private final CampaignPriceProvider campaignPriceProvider;
-	private final LookupDataSource productLookup;
 	private final DocumentIdIntSequence nextRowIdSequence = DocumentIdIntSequence.newInstance();
 
 	private final ImmutableSet<PriceListVersionId> priceListVersionIds;
@@ -83,8 +68,6 @@ public final class ProductsProposalRowsLoader
 	private final SOTrx soTrx;
 	private final ImmutableSet<ProductId> productIdsToExclude;
 
-	private final Map<PriceListVersionId, CurrencyCode> currencyCodesByPriceListVersionId = new HashMap<>();
-
 	@Builder
 	private ProductsProposalRowsLoader(
 			@NonNull final BPartnerProductStatsService bpartnerProductStatsService,
@@ -100,7 +83,6 @@ public final class ProductsProposalRowsLoader
 
 		this.bpartnerProductStatsService = bpartnerProductStatsService;
 		this.campaignPriceProvider = campaignPriceProvider != null ? campaignPriceProvider : CampaignPriceProviders.none();
-		productLookup = LookupDataSourceFactory.instance.searchInTableLookup(I_M_Product.Table_Name);
 
 		this.priceListVersionIds = priceListVersionIds;
 
@@ -112,8 +94,7 @@ public final class ProductsProposalRowsLoader
 
 	public ProductsProposalRowsData load()
 	{
-		List<ProductsProposalRow> rows = loadRows();
-		rows = updateLastShipmentDays(rows);
+		final List<ProductsProposalRow> rows = loadRows();
 
 		final PriceListVersionId singlePriceListVersionId = priceListVersionIds.size() == 1 ? priceListVersionIds.iterator().next() : null;
 		final PriceListVersionId basePriceListVersionId;
@@ -143,92 +124,73 @@ public final class ProductsProposalRowsLoader
 
 	private List<ProductsProposalRow> loadRows()
 	{
-		return priceListVersionIds.stream()
-				.flatMap(this::loadAndStreamRowsForPriceListVersionId)
-				.sorted(Comparator.comparing(ProductsProposalRow::getProductName))
+		final String adLanguage = Env.getAD_Language();
+		final List<ProductPricesSnapshot> snapshots = priceListVersionIds.stream()
+				.map(priceListVersionId -> ProductPricesSnapshot.getOrLoad(priceListVersionId, adLanguage))
 				.collect(ImmutableList.toImmutableList());
-	}
 
-	private Stream<ProductsProposalRow> loadAndStreamRowsForPriceListVersionId(final PriceListVersionId priceListVersionId)
-	{
-		return priceListsRepo.retrieveProductPrices(priceListVersionId, productIdsToExclude)
-				.map(productPriceRecord -> toProductsProposalRowOrNull(productPriceRecord))
-				.filter(Predicates.notNull());
+		return createRows(snapshots);
 	}
 
-	private ProductsProposalRow toProductsProposalRowOrNull(@NonNull final I_M_ProductPrice record)
+	/** Creates this view's rows on top of the given shared snapshots */
+	@VisibleForTesting
+	List<ProductsProposalRow> createRows(@NonNull final List<ProductPricesSnapshot> snapshots)
 	{
-		final ProductId productId = ProductId.ofRepoId(record.getM_Product_ID());
-		final LookupValue product = productLookup.findById(productId);
-		if (!product.isActive())
+		final List<ProductPricesSnapshot.Entry> entries = getProductPriceEntries(snapshots);
+		if (entries.isEmpty())
 		{
-			return null;
+			return ImmutableList.of();
 		}
 
-		return ProductsProposalRow.builder()
-				.id(nextRowIdSequence.nextDocumentId())
-				.product(product)
-				.asiDescription(extractProductASIDescription(record))
-				.price(extractProductProposalPrice(record))
-				.qty(null)
-				.lastShipmentDays(null) // will be populated later
-				.productPriceId(ProductPriceId.ofRepoId(record.getM_ProductPrice_ID()))
-				.build();
-	}
-
-	private ProductASIDescription extractProductASIDescription(final I_M_ProductPrice record)
-	{
-		final AttributeSetInstanceId asiId = AttributeSetInstanceId.ofRepoIdOrNone(record.getM_AttributeSetInstance_ID());
-		return ProductASIDescription.ofString(attributeSetInstanceBL.getASIDescriptionById(asiId));
-	}
-
-	private ProductProposalPrice extractProductProposalPrice(final I_M_ProductPrice record)
-	{
-		final PriceListVersionId priceListVersionId = PriceListVersionId.ofRepoId(record.getM_PriceList_Version_ID());
-		final Amount priceListPrice = Amount.of(record.getPriceStd(), getCurrencyCode(priceListVersionId));
-
-		final ProductId productId = ProductId.ofRepoId(record.getM_Product_ID());
-		final ProductProposalCampaignPrice campaignPrice = campaignPriceProvider.getCampaignPrice(productId).orElse(null);
-
-		return ProductProposalPrice.builder()
-				.priceListPrice(priceListPrice)
-				.campaignPrice(campaignPrice)
-				.build();
-	}
+		final Set<ProductId> productIds = entries.stream().map(ProductPricesSnapshot.Entry::getProductId).collect(ImmutableSet.toImmutableSet());
+		final Map<ProductId, BPartnerProductStats> statsByProductId = bpartnerProductStatsService.getByPartnerAndProducts(bpartnerId, productIds);
+		final Map<ProductId, Optional<ProductProposalCampaignPrice>> campaignPrices = new HashMap<>();
 
-	private CurrencyCode getCurrencyCode(final PriceListVersionId priceListVersionId)
-	{
-		return currencyCodesByPriceListVersionId.computeIfAbsent(priceListVersionId, this::retrieveCurrencyCode);
+		return entries.stream()
+				.map(entry -> toProductsProposalRow(entry, statsByProductId.get(entry.getProductId()), campaignPrices))
+				.collect(ImmutableList.toImmutableList());
 	}
 
-	private CurrencyCode retrieveCurrencyCode(final PriceListVersionId priceListVersionId)
+	/** @return the entries of the given snapshots, without the excluded products and sorted by product name */
+	private List<ProductPricesSnapshot.Entry> getProductPriceEntries(final List<ProductPricesSnapshot> snapshots)
 	{
-		final I_M_PriceList priceList = priceListsRepo.getPriceListByPriceListVersionId(priceListVersionId);
-		final CurrencyId currencyId = CurrencyId.ofRepoId(priceList.getC_Currency_ID());
-		return currenciesRepo.getCurrencyCodeById(currencyId);
-	}
+		final Stream<ProductPricesSnapshot.Entry> entries = snapshots.stream()
+				.flatMap(snapshot -> snapshot.getEntries().stream())
+				.filter(entry -> !productIdsToExclude.contains(entry.getProductId()));
 
-	private List<ProductsProposalRow> updateLastShipmentDays(final List<ProductsProposalRow> rows)
-	{
-		final Set<ProductId> productIds = rows.stream().map(ProductsProposalRow::getProductId).collect(ImmutableSet.toImmutableSet());
-		if (productIds.isEmpty())
+		if (snapshots.size() == 1)
 		{
-			return rows;
+			return entries.collect(ImmutableList.toImmutableList()); // already sorted
+		}
+		else
+		{
+			return entries.sorted(ProductPricesSnapshot.Entry.ORDER_BY_PRODUCT_NAME)
+					.collect(ImmutableList.toImmutableList());
 		}
-
-		final Map<ProductId, BPartnerProductStats> statsByProductId = bpartnerProductStatsService.getByPartnerAndProducts(bpartnerId, productIds);
-
-		return rows.stream()
-				.map(row -> updateRowFromStats(row, statsByProductId.get(row.getProductId())))
-				.collect(ImmutableList.toImmutableList());
 	}
 
-	private ProductsProposalRow updateRowFromStats(
-			@NonNull final ProductsProposalRow row,
-			@Nullable final BPartnerProductStats stats)
+	private ProductsProposalRow toProductsProposalRow(
+			@NonNull final ProductPricesSnapshot.Entry entry,
+			@Nullable final BPartnerProductStats stats,
+			@NonNull final Map<ProductId, Optional<ProductProposalCampaignPrice>> campaignPrices)
 	{
-		final Integer lastShipmentOrReceiptInDays = calculateLastShipmentOrReceiptInDays(stats);
-		return row.withLastShipmentDays(lastShipmentOrReceiptInDays);
+		final ProductId productId = entry.getProductId();
+		final ProductProposalCampaignPrice campaignPrice = campaignPrices
+				.computeIfAbsent(productId, campaignPriceProvider::getCampaignPrice)
+				.orElse(null);
+
+		return ProductsProposalRow.builder()
+				.id(nextRowIdSequence.nextDocumentId())
+				.product(entry.getProduct())
+				.asiDescription(entry.getAsiDescription())
+				.price(ProductProposalPrice.builder()
+						.priceListPrice(entry.getPriceListPrice())
+						.campaignPrice(campaignPrice)
+						.build())
+				.qty(null)
+				.lastShipmentDays(calculateLastShipmentOrReceiptInDays(stats))
+				.productPriceId(entry.getProductPriceId())
+				.build();
 	}
 
 	private Integer calculateLastShipmentOrReceiptInDays(@Nullable final BPartnerProductStats stats)
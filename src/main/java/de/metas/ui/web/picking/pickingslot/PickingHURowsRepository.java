@@ -1,6 +1,6 @@
 package de.metas.ui.web.picking.pickingslot;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -14,8 +14,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.SetMultimap;
 
@@ -23,6 +25,7 @@ import de.metas.handlingunits.HuId;
 import de.metas.handlingunits.model.I_M_ShipmentSchedule;
 import de.metas.handlingunits.picking.IHUPickingSlotDAO;
 import de.metas.handlingunits.picking.PickingCandidate;
+import de.metas.handlingunits.picking.PickingCandidateId;
 import de.metas.handlingunits.picking.PickingCandidateRepository;
 import de.metas.handlingunits.picking.PickingCandidateStatus;
 import de.metas.handlingunits.picking.PickingCandidatesQuery;
@@ -185,13 +188,26 @@ public class PickingHURowsRepository
 		return retrievePickedHUsIndexedByPickingSlotId(pickingCandidates);
 	}
 
+	/**
+	 * Same as {@link #retrievePickedHUsIndexedByPickingSlotId(PickingCandidatesQuery)}, but loads the HUs of the given picking slots only.
+	 */
+	public ListMultimap<PickingSlotId, PickedHUEditorRow> retrievePickedHUsIndexedByPickingSlotId(
+			@NonNull final PickingCandidatesQuery pickingCandidatesQuery,
+			@NonNull final Set<PickingSlotId> onlyPickingSlotIds)
+	{
+		final List<PickingCandidate> pickingCandidates = pickingCandidatesRepo.query(pickingCandidatesQuery)
+				.stream()
+				.filter(pickingCandidate -> onlyPickingSlotIds.contains(pickingCandidate.getPickingSlotId()))
+				.collect(ImmutableList.toImmutableList());
+		return retrievePickedHUsIndexedByPickingSlotId(pickingCandidates);
+	}
+
 	private ListMultimap<PickingSlotId, PickedHUEditorRow> retrievePickedHUsIndexedByPickingSlotId(@NonNull final List<PickingCandidate> pickingCandidates)
 	{
 		final HUEditorViewRepository huEditorRepo = getHUEditorViewRepository();
 
-		final Map<HuId, PickedHUEditorRow> huId2huRow = new HashMap<>();
-
-		final ImmutableListMultimap.Builder<PickingSlotId, PickedHUEditorRow> builder = ImmutableListMultimap.builder();
+		final Map<HuId, PickingCandidate> huId2pickingCandidate = new LinkedHashMap<>();
+		final ImmutableSetMultimap.Builder<HuId, PickingCandidateId> huId2pickingCandidateIds = ImmutableSetMultimap.builder();
 		for (final PickingCandidate pickingCandidate : pickingCandidates)
 		{
 			if (pickingCandidate.isRejectedToPick())
@@ -205,10 +221,6 @@ public class PickingHURowsRepository
 				logger.warn("Skip {} because huId is null", huId);
 				continue;
 			}
-			if (huId2huRow.containsKey(huId))
-			{
-				continue;
-			}
 
 			final PickingSlotId pickingSlotId = pickingCandidate.getPickingSlotId();
 			if (pickingSlotId == null)
@@ -218,13 +230,20 @@ public class PickingHURowsRepository
 				continue;
 			}
 
+			huId2pickingCandidate.putIfAbsent(huId, pickingCandidate);
+			huId2pickingCandidateIds.put(huId, pickingCandidate.getId());
+		}
+
+		final ImmutableSetMultimap<HuId, PickingCandidateId> pickingCandidateIdsByHuId = huId2pickingCandidateIds.build();
+
+		final ImmutableListMultimap.Builder<PickingSlotId, PickedHUEditorRow> builder = ImmutableListMultimap.builder();
+		huId2pickingCandidate.forEach((huId, pickingCandidate) -> {
 			final HUEditorRow huEditorRow = huEditorRepo.retrieveForHUId(huId);
 			final boolean pickingCandidateProcessed = isPickingCandidateProcessed(pickingCandidate);
-			final PickedHUEditorRow row = new PickedHUEditorRow(huEditorRow, pickingCandidateProcessed);
+			final PickedHUEditorRow row = new PickedHUEditorRow(huEditorRow, pickingCandidateProcessed, pickingCandidateIdsByHuId.get(huId));
 
-			huId2huRow.put(huId, row);
-			builder.put(pickingSlotId, row);
-		}
+			builder.put(pickingCandidate.getPickingSlotId(), row);
+		});
 
 		return builder.build();
 	}
@@ -276,7 +295,7 @@ public class PickingHURowsRepository
 	}
 
 	/**
-	 * Immutable pojo that contains the HU editor as retrieved from {@link HUEditorViewRepository} plus the the {@code processed} value from the respective picking candidate.
+	 * Immutable pojo that contains the HU editor as retrieved from {@link HUEditorViewRepository} plus the the {@code processed} value and the IDs of the respective picking candidates.
 	 *
 	 * @author metas-dev <dev@metasfresh.com>
 	 *
@@ -288,5 +307,11 @@ public class PickingHURowsRepository
 	{
 		HUEditorRow huEditorRow;
 		boolean processed;
+		ImmutableSet<PickingCandidateId> pickingCandidateIds;
+
+		public PickedHUEditorRow(final HUEditorRow huEditorRow, final boolean processed)
+		{
+			this(huEditorRow, processed, ImmutableSet.of());
+		}
 	}
 }
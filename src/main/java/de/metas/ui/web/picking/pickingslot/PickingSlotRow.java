@@ -3,8 +3,11 @@ package de.metas.ui.web.picking.pickingslot;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
+import javax.annotation.Nullable;
+
 import org.adempiere.warehouse.LocatorId;
 import org.adempiere.warehouse.WarehouseId;
 
@@ -14,6 +17,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 
 import de.metas.handlingunits.HuId;
+import de.metas.handlingunits.picking.PickingCandidateId;
 import de.metas.i18n.ITranslatableString;
 import de.metas.i18n.TranslatableStrings;
 import de.metas.picking.api.PickingSlotId;
@@ -94,6 +98,8 @@ public final class PickingSlotRow implements IViewRow
 	//
 	// HU
 	private final boolean huTopLevel;
+	/** the picking candidates of a top level picked HU */
+	private final ImmutableSet<PickingCandidateId> pickingCandidateIds;
 
 	@ViewColumn(captionKey = "HUCode", widgetType = DocumentFieldWidgetType.Text, layouts = {
 			@ViewColumnLayout(when = JSONViewDataType.grid, seqNo = 10),
@@ -144,6 +150,7 @@ public final class PickingSlotRow implements IViewRow
 		huPackingInfo = packingInfo;
 		huQtyCU = qtyCU;
 		huTopLevel = topLevelHU;
+		pickingCandidateIds = ImmutableSet.of();
 
 		//
 		// Picking slot info
@@ -195,6 +202,7 @@ public final class PickingSlotRow implements IViewRow
 		huPackingInfo = null;
 		huQtyCU = null;
 		huTopLevel = false;
+		pickingCandidateIds = ImmutableSet.of();
 
 		// Picking slot info
 		this.pickingSlotWarehouse = pickingSlotWarehouse;
@@ -238,6 +246,7 @@ public final class PickingSlotRow implements IViewRow
 			final String packingInfo,
 			final BigDecimal qtyCU,
 			final boolean topLevelHU,
+			@Nullable final Set<PickingCandidateId> pickingCandidateIds,
 			//
 			final List<PickingSlotRow> includedHURows)
 	{
@@ -254,6 +263,7 @@ public final class PickingSlotRow implements IViewRow
 		huPackingInfo = packingInfo;
 		huQtyCU = qtyCU;
 		huTopLevel = topLevelHU;
+		this.pickingCandidateIds = pickingCandidateIds != null ? ImmutableSet.copyOf(pickingCandidateIds) : ImmutableSet.of();
 
 		// Picking slot info
 		pickingSlotWarehouse = null;
@@ -405,6 +415,14 @@ public final class PickingSlotRow implements IViewRow
 		return huTopLevel;
 	}
 
+	/**
+	 * @return the IDs of the picking candidates by which this HU was picked; empty if this is not a top level picked HU row
+	 */
+	public ImmutableSet<PickingCandidateId> getPickingCandidateIds()
+	{
+		return pickingCandidateIds;
+	}
+
 	public boolean isLU()
 	{
 		return isPickedHURow() && getType().isLU();
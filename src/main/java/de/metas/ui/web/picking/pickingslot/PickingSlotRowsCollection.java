@@ -1,24 +1,36 @@
 package de.metas.ui.web.picking.pickingslot;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
+import javax.annotation.Nullable;
+
 import org.adempiere.exceptions.AdempiereException;
-import org.adempiere.util.lang.ExtendedMemorizingSupplier;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 
+import de.metas.handlingunits.HuId;
+import de.metas.handlingunits.picking.PickingCandidateId;
+import de.metas.picking.api.PickingSlotId;
 import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import de.metas.util.GuavaCollectors;
 import lombok.NonNull;
 import lombok.ToString;
+import lombok.Value;
 
 /*
  * #%L
@@ -51,27 +63,164 @@ public final class PickingSlotRowsCollection
 		return new PickingSlotRowsCollection(rowsSupplier);
 	}
 
-	private final ExtendedMemorizingSupplier<PickingSlotRowsIndex> rowsSupplier;
+	private final Supplier<List<PickingSlotRow>> rowsSupplier;
+	private volatile PickingSlotRowsIndex _rowsIndex; // lazy
 
 	private PickingSlotRowsCollection(@NonNull final Supplier<List<PickingSlotRow>> rowsSupplier)
 	{
-		this.rowsSupplier = ExtendedMemorizingSupplier.of(() -> new PickingSlotRowsIndex(rowsSupplier.get()));
+		this.rowsSupplier = rowsSupplier;
 	}
 
 	@Override
 	public String toString()
 	{
-		return MoreObjects.toStringHelper(this).addValue(rowsSupplier).toString();
+		return MoreObjects.toStringHelper(this).addValue(_rowsIndex).toString();
 	}
 
-	public void invalidateAll()
+	public synchronized void invalidateAll()
 	{
-		rowsSupplier.forget();
+		_rowsIndex = null;
 	}
 
 	private final PickingSlotRowsIndex getRowsIndex()
 	{
-		return rowsSupplier.get();
+		PickingSlotRowsIndex rowsIndex = _rowsIndex;
+		if (rowsIndex == null)
+		{
+			synchronized (this)
+			{
+				rowsIndex = _rowsIndex;
+				if (rowsIndex == null)
+				{
+					rowsIndex = _rowsIndex = new PickingSlotRowsIndex(rowsSupplier.get());
+				}
+			}
+		}
+		return rowsIndex;
+	}
+
+	/** @return true if the rows were loaded and not invalidated since then */
+	public boolean isLoaded()
+	{
+		return _rowsIndex != null;
+	}
+
+	public boolean containsPickingSlot(@NonNull final PickingSlotId pickingSlotId)
+	{
+		return getRowsIndex().getRow(PickingSlotRowId.ofPickingSlotId(pickingSlotId)) != null;
+	}
+
+	/** @return the IDs of the root rows which are or which include any of the given HUs */
+	public Set<PickingSlotRowId> getRootRowIdsByHUIds(@NonNull final Collection<HuId> huIds)
+	{
+		final PickingSlotRowsIndex rowsIndex = getRowsIndex();
+		return huIds.stream()
+				.flatMap(huId -> rowsIndex.getRootRowIdsByHUId(huId).stream())
+				.collect(ImmutableSet.toImmutableSet());
+	}
+
+	/**
+	 * @return the IDs of the root rows which include the HUs picked by any of the given picking candidates.
+	 *         The rows are matched in memory, so this also works for picking candidates which were already deleted.
+	 */
+	public Set<PickingSlotRowId> getRootRowIdsByPickingCandidateIds(@NonNull final Collection<PickingCandidateId> pickingCandidateIds)
+	{
+		final PickingSlotRowsIndex rowsIndex = getRowsIndex();
+		return pickingCandidateIds.stream()
+				.flatMap(pickingCandidateId -> rowsIndex.getRootRowIdsByPickingCandidateId(pickingCandidateId).stream())
+				.collect(ImmutableSet.toImmutableSet());
+	}
+
+	/**
+	 * Reloads some of the rows, keeping the other ones as they are.
+	 * <p>
+	 * The rows are reloaded without holding the lock. If meanwhile the rows were replaced (invalidated or patched by somebody else),
+	 * the reloaded rows are not applied because we can't tell if they are newer than the current ones. In that case, all rows are invalidated.
+	 *
+	 * @param pickingSlotIds the picking slots to reload
+	 * @param pickingSlotRowsLoader loads the picking slot rows for given picking slots; picking slots which are not loaded are removed
+	 * @param sourceHURowsLoader loads the source HU rows, or {@code null} to keep the current source HU rows
+	 */
+	public PatchRowsResult patchRows(
+			@NonNull final Set<PickingSlotId> pickingSlotIds,
+			@NonNull final Supplier<List<PickingSlotRow>> pickingSlotRowsLoader,
+			@Nullable final Supplier<List<PickingSlotRow>> sourceHURowsLoader)
+	{
+		final PickingSlotRowsIndex rowsIndexBeforeLoad = _rowsIndex;
+		if (rowsIndexBeforeLoad == null)
+		{
+			return PatchRowsResult.NOT_LOADED; // not loaded, nothing to patch
+		}
+
+		final List<PickingSlotRow> pickingSlotRows = pickingSlotRowsLoader.get();
+		final List<PickingSlotRow> sourceHURows = sourceHURowsLoader != null ? sourceHURowsLoader.get() : null;
+
+		synchronized (this)
+		{
+			if (_rowsIndex != rowsIndexBeforeLoad)
+			{
+				_rowsIndex = null;
+				return PatchRowsResult.ALL_INVALIDATED;
+			}
+
+			final Set<PickingSlotRowId> changedRowIds = patchRows(rowsIndexBeforeLoad, pickingSlotIds, pickingSlotRows, sourceHURows);
+			return PatchRowsResult.rowsChanged(changedRowIds);
+		}
+	}
+
+	/**
+	 * Replaces some of the rows, keeping the other ones as they are.
+	 *
+	 * @return the IDs of the root rows which were changed, added or removed
+	 */
+	private Set<PickingSlotRowId> patchRows(
+			@NonNull final PickingSlotRowsIndex rowsIndex,
+			@NonNull final Set<PickingSlotId> pickingSlotIds,
+			@NonNull final List<PickingSlotRow> pickingSlotRows,
+			@Nullable final List<PickingSlotRow> sourceHURows)
+	{
+		final Map<PickingSlotId, PickingSlotRow> pickingSlotRowsById = Maps.uniqueIndex(pickingSlotRows, PickingSlotRow::getPickingSlotId);
+		final Set<PickingSlotRowId> changedRowIds = new HashSet<>();
+
+		final List<PickingSlotRow> newPickingSlotRows = new ArrayList<>();
+		final List<PickingSlotRow> newSourceHURows = new ArrayList<>();
+		rowsIndex.stream().forEach(row -> {
+			if (row.isPickingSlotRow() && pickingSlotIds.contains(row.getPickingSlotId()))
+			{
+				changedRowIds.add(row.getPickingSlotRowId());
+
+				final PickingSlotRow newRow = pickingSlotRowsById.get(row.getPickingSlotId());
+				if (newRow != null)
+				{
+					newPickingSlotRows.add(newRow);
+				}
+			}
+			else if (row.isPickingSourceHURow())
+			{
+				if (sourceHURows != null)
+				{
+					changedRowIds.add(row.getPickingSlotRowId());
+				}
+				else
+				{
+					newSourceHURows.add(row);
+				}
+			}
+			else
+			{
+				newPickingSlotRows.add(row);
+			}
+		});
+
+		if (sourceHURows != null)
+		{
+			sourceHURows.forEach(row -> changedRowIds.add(row.getPickingSlotRowId()));
+			newSourceHURows.addAll(sourceHURows);
+		}
+
+		_rowsIndex = new PickingSlotRowsIndex(ImmutableList.copyOf(Iterables.concat(newPickingSlotRows, newSourceHURows)));
+
+		return changedRowIds;
 	}
 
 	public long size()
@@ -148,11 +297,30 @@ public final class PickingSlotRowsCollection
 		}
 	}
 
+	@Value
+	public static final class PatchRowsResult
+	{
+		private static final PatchRowsResult NOT_LOADED = new PatchRowsResult(false, ImmutableSet.of());
+		private static final PatchRowsResult ALL_INVALIDATED = new PatchRowsResult(true, ImmutableSet.of());
+
+		private static PatchRowsResult rowsChanged(final Set<PickingSlotRowId> changedRowIds)
+		{
+			return new PatchRowsResult(false, ImmutableSet.copyOf(changedRowIds));
+		}
+
+		/** true if the rows were not patched but all invalidated */
+		private final boolean allInvalidated;
+		/** the IDs of the root rows which were changed, added or removed */
+		private final ImmutableSet<PickingSlotRowId> changedRowIds;
+	}
+
 	@ToString
 	private static final class PickingSlotRowsIndex
 	{
 		private final ImmutableMap<PickingSlotRowId, PickingSlotRow> rowsById;
 		private final ImmutableMap<PickingSlotRowId, PickingSlotRowId> rowId2rootRowId;
+		private final ImmutableSetMultimap<HuId, PickingSlotRowId> huId2rootRowIds;
+		private final ImmutableSetMultimap<PickingCandidateId, PickingSlotRowId> pickingCandidateId2rootRowIds;
 
 		private PickingSlotRowsIndex(final List<PickingSlotRow> rows)
 		{
@@ -161,6 +329,19 @@ public final class PickingSlotRowsCollection
 			rowId2rootRowId = rows.stream()
 					.flatMap(rootRow -> streamChild2RootRowIdsRecursivelly(rootRow))
 					.collect(GuavaCollectors.toImmutableMap());
+
+			huId2rootRowIds = rowId2rootRowId.entrySet()
+					.stream()
+					.filter(entry -> entry.getKey().getHuId() != null)
+					.collect(ImmutableSetMultimap.toImmutableSetMultimap(entry -> entry.getKey().getHuId(), Map.Entry::getValue));
+
+			final ImmutableSetMultimap.Builder<PickingCandidateId, PickingSlotRowId> pickingCandidateId2rootRowIds = ImmutableSetMultimap.builder();
+			for (final PickingSlotRow rootRow : rows)
+			{
+				rootRow.streamThisRowAndIncludedRowsRecursivelly()
+						.forEach(row -> row.getPickingCandidateIds().forEach(pickingCandidateId -> pickingCandidateId2rootRowIds.put(pickingCandidateId, rootRow.getPickingSlotRowId())));
+			}
+			this.pickingCandidateId2rootRowIds = pickingCandidateId2rootRowIds.build();
 		}
 
 		private static final Stream<Map.Entry<PickingSlotRowId, PickingSlotRowId>> streamChild2RootRowIdsRecursivelly(final PickingSlotRow row)
@@ -191,6 +372,16 @@ public final class PickingSlotRowsCollection
 			return rowId2rootRowId.get(rowId);
 		}
 
+		public Set<PickingSlotRowId> getRootRowIdsByHUId(final HuId huId)
+		{
+			return huId2rootRowIds.get(huId);
+		}
+
+		public Set<PickingSlotRowId> getRootRowIdsByPickingCandidateId(final PickingCandidateId pickingCandidateId)
+		{
+			return pickingCandidateId2rootRowIds.get(pickingCandidateId);
+		}
+
 
 		public long size()
 		{
@@ -1,5 +1,6 @@
 package de.metas.ui.web.picking.pickingslot;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Supplier;
@@ -7,25 +8,34 @@ import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
 
+import org.adempiere.util.lang.impl.TableRecordReference;
 import org.adempiere.util.lang.impl.TableRecordReferenceSet;
 import org.compiere.util.Evaluatee;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
+import de.metas.handlingunits.HuId;
+import de.metas.handlingunits.model.I_M_HU;
+import de.metas.handlingunits.model.I_M_Picking_Candidate;
+import de.metas.handlingunits.picking.PickingCandidateId;
 import de.metas.i18n.ITranslatableString;
 import de.metas.i18n.TranslatableStrings;
 import de.metas.inoutcandidate.api.ShipmentScheduleId;
+import de.metas.picking.api.PickingSlotId;
 import de.metas.picking.model.I_M_PickingSlot;
 import de.metas.process.RelatedProcessDescriptor;
 import de.metas.ui.web.document.filter.DocumentFilter;
 import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.picking.packageable.PackageableView;
+import de.metas.ui.web.picking.pickingslot.PickingSlotRowsCollection.PatchRowsResult;
 import de.metas.ui.web.view.IView;
 import de.metas.ui.web.view.IViewRow;
 import de.metas.ui.web.view.ViewId;
 import de.metas.ui.web.view.ViewResult;
 import de.metas.ui.web.view.ViewRowsOrderBy;
+import de.metas.ui.web.view.ViewWatchedTables;
+import de.metas.ui.web.view.event.ViewChangesCollector;
 import de.metas.ui.web.view.json.JSONViewDataType;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
@@ -82,6 +92,15 @@ public class PickingSlotView implements IView
 	private final ImmutableList<RelatedProcessDescriptor> additionalRelatedProcessDescriptors;
 	private final List<DocumentFilter> filters;
 
+	private static final ViewWatchedTables WATCHED_TABLES = ViewWatchedTables.ofTableNames(ImmutableSet.of(
+			I_M_HU.Table_Name,
+			I_M_Picking_Candidate.Table_Name,
+			I_M_PickingSlot.Table_Name));
+
+	/** used to reload only the rows affected by a record change; if null, all rows are reloaded */
+	private final PickingSlotViewRepository pickingSlotRepo;
+	private final PickingSlotRepoQuery pickingSlotRepoQuery;
+
 	@Builder
 	private PickingSlotView(
 			@NonNull final ViewId viewId,
@@ -91,7 +110,9 @@ public class PickingSlotView implements IView
 			@NonNull final ShipmentScheduleId currentShipmentScheduleId,
 			@NonNull final Supplier<List<PickingSlotRow>> rowsSupplier,
 			@Nullable final List<RelatedProcessDescriptor> additionalRelatedProcessDescriptors,
-			@Nullable final List<DocumentFilter> filters)
+			@Nullable final List<DocumentFilter> filters,
+			@Nullable final PickingSlotViewRepository pickingSlotRepo,
+			@Nullable final PickingSlotRepoQuery pickingSlotRepoQuery)
 	{
 		this.viewId = viewId;
 		this.parentViewId = parentViewId;
@@ -101,6 +122,8 @@ public class PickingSlotView implements IView
 		this.rows = PickingSlotRowsCollection.ofSupplier(rowsSupplier);
 		this.additionalRelatedProcessDescriptors = additionalRelatedProcessDescriptors != null ? ImmutableList.copyOf(additionalRelatedProcessDescriptors) : ImmutableList.of();
 		this.filters = filters != null ? ImmutableList.copyOf(filters) : ImmutableList.of();
+		this.pickingSlotRepo = pickingSlotRepo;
+		this.pickingSlotRepoQuery = pickingSlotRepoQuery;
 	}
 
 	@Override
@@ -232,10 +255,96 @@ public class PickingSlotView implements IView
 	}
 
 	@Override
-	public void notifyRecordsChanged(final TableRecordReferenceSet recordRefs)
+	public ViewWatchedTables getWatchedTables()
 	{
-		// TODO Auto-generated method stub
+		return WATCHED_TABLES;
+	}
 
+	/**
+	 * Reloads only the picking slot rows (and the source HU rows) which are affected by the changed records.
+	 */
+	@Override
+	public void notifyRecordsChanged(@NonNull final TableRecordReferenceSet recordRefs)
+	{
+		if (!rows.isLoaded())
+		{
+			return; // nothing loaded yet, so nothing to refresh
+		}
+
+		if (pickingSlotRepo == null || pickingSlotRepoQuery == null)
+		{
+			invalidateAll();
+			ViewChangesCollector.getCurrentOrAutoflush().collectFullyChanged(this);
+			return;
+		}
+
+		//
+		// Find out which rows are affected
+		final Set<PickingSlotId> pickingSlotIds = new HashSet<>();
+		final Set<PickingCandidateId> pickingCandidateIds = new HashSet<>();
+		final Set<HuId> huIds = new HashSet<>();
+		for (final TableRecordReference recordRef : recordRefs)
+		{
+			final String tableName = recordRef.getTableName();
+			if (I_M_PickingSlot.Table_Name.equals(tableName))
+			{
+				pickingSlotIds.add(PickingSlotId.ofRepoId(recordRef.getRecord_ID()));
+			}
+			else if (I_M_Picking_Candidate.Table_Name.equals(tableName))
+			{
+				pickingCandidateIds.add(PickingCandidateId.ofRepoId(recordRef.getRecord_ID()));
+			}
+			else if (I_M_HU.Table_Name.equals(tableName))
+			{
+				huIds.add(HuId.ofRepoId(recordRef.getRecord_ID()));
+			}
+		}
+
+		// NOTE: the picking candidates and HUs are matched against the rows we already have, because deleted picking candidates can't be found in database anymore
+		pickingSlotIds.addAll(pickingSlotRepo.retrievePickingSlotIdsByPickingCandidateIds(pickingCandidateIds));
+
+		boolean refreshSourceHUs = false;
+		final Set<PickingSlotRowId> rootRowIds = ImmutableSet.<PickingSlotRowId> builder()
+				.addAll(rows.getRootRowIdsByPickingCandidateIds(pickingCandidateIds))
+				.addAll(rows.getRootRowIdsByHUIds(huIds))
+				.build();
+		for (final PickingSlotRowId rootRowId : rootRowIds)
+		{
+			if (rootRowId.isPickingSourceHURow())
+			{
+				refreshSourceHUs = true;
+			}
+			else
+			{
+				pickingSlotIds.add(rootRowId.getPickingSlotId());
+			}
+		}
+
+		pickingSlotIds.removeIf(pickingSlotId -> !rows.containsPickingSlot(pickingSlotId));
+		if (pickingSlotIds.isEmpty() && !refreshSourceHUs)
+		{
+			return; // nothing to do
+		}
+
+		//
+		// Reload and patch the affected rows
+		final long sizeBefore = rows.size();
+		final PatchRowsResult patchResult = rows.patchRows(
+				pickingSlotIds,
+				() -> pickingSlotRepo.retrievePickingSlotRows(pickingSlotRepoQuery, pickingSlotIds),
+				refreshSourceHUs ? () -> pickingSlotRepo.retrieveSourceHURows(pickingSlotRepoQuery) : null);
+		final Set<PickingSlotRowId> changedRowIds = patchResult.getChangedRowIds();
+
+		if (patchResult.isAllInvalidated() || rows.size() != sizeBefore)
+		{
+			ViewChangesCollector.getCurrentOrAutoflush().collectFullyChanged(this);
+		}
+		else if (!changedRowIds.isEmpty())
+		{
+			ViewChangesCollector.getCurrentOrAutoflush().collectRowsChanged(this, changedRowIds.stream()
+					.map(PickingSlotRowId::toDocumentId)
+					.collect(ImmutableSet.toImmutableSet()));
+		}
 	}
 
 	@Override
@@ -150,6 +150,8 @@ public class PickingSlotViewFactory implements IViewFactory
 				.rowsSupplier(rowsSupplier)
 				.additionalRelatedProcessDescriptors(createAdditionalRelatedProcessDescriptors())
 				.filters(requestEffective.getFilters().getFilters())
+				.pickingSlotRepo(pickingSlotRepo)
+				.pickingSlotRepoQuery(query)
 				.build();
 	}
 
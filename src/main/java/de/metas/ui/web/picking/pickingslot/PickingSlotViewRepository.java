@@ -1,8 +1,11 @@
 package de.metas.ui.web.picking.pickingslot;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.warehouse.api.IWarehouseDAO;
 import org.compiere.util.DisplayType;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,9 +15,12 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.ListMultimap;
 
+import de.metas.handlingunits.model.I_M_Picking_Candidate;
+import de.metas.handlingunits.picking.PickingCandidateId;
 import de.metas.handlingunits.picking.PickingCandidatesQuery;
 import de.metas.inoutcandidate.api.IShipmentScheduleEffectiveBL;
 import de.metas.inoutcandidate.api.IShipmentSchedulePA;
@@ -147,11 +153,7 @@ public class PickingSlotViewRepository
 	{
 		Check.errorIf(query.getShipmentScheduleIds().isEmpty(), "Given query has no shipmentScheduleIds; query={}", query);
 
-		// get M_HU_Source records that reference active HUs with their locator in this WH and not on the picking location
-		final List<HUEditorRow> sourceHUEditorRows = pickingHUsRepo.retrieveSourceHUs(query);
-		final List<PickingSlotRow> sourceHUPickingSlotRows = sourceHUEditorRows.stream()
-				.map(sourceHuEditorRow -> createSourceHURow(sourceHuEditorRow))
-				.collect(Collectors.toList());
+		final List<PickingSlotRow> sourceHUPickingSlotRows = retrieveSourceHURows(query);
 
 		// get the picking slot rows, including the rows the represent picked HUs
 		final ImmutableList<PickingSlotRow> pickingSlotRows = retrievePickingSlotRows(query);
@@ -161,6 +163,72 @@ public class PickingSlotViewRepository
 				sourceHUPickingSlotRows));
 	}
 
+	/**
+	 * @return the picking source HU rows (without the picking slot rows)
+	 */
+	public List<PickingSlotRow> retrieveSourceHURows(@NonNull final PickingSlotRepoQuery query)
+	{
+		// get M_HU_Source records that reference active HUs with their locator in this WH and not on the picking location
+		final List<HUEditorRow> sourceHUEditorRows = pickingHUsRepo.retrieveSourceHUs(query);
+		return sourceHUEditorRows.stream()
+				.map(sourceHuEditorRow -> createSourceHURow(sourceHuEditorRow))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Same as {@link #retrievePickingSlotRows(PickingSlotRepoQuery)}, but retrieves only the given picking slots (and their picked HUs).
+	 * Picking slots which are no longer available for the given query are not returned.
+	 */
+	public ImmutableList<PickingSlotRow> retrievePickingSlotRows(
+			@NonNull final PickingSlotRepoQuery query,
+			@NonNull final Set<PickingSlotId> onlyPickingSlotIds)
+	{
+		if (onlyPickingSlotIds.isEmpty())
+		{
+			return ImmutableList.of();
+		}
+
+		final List<I_M_PickingSlot> pickingSlots = retrievePickingSlotsForShipmentSchedule(query)
+				.stream()
+				.filter(pickingSlot -> onlyPickingSlotIds.contains(PickingSlotId.ofRepoId(pickingSlot.getM_PickingSlot_ID())))
+				.collect(ImmutableList.toImmutableList());
+		if (pickingSlots.isEmpty())
+		{
+			return ImmutableList.of();
+		}
+
+		final ListMultimap<PickingSlotId, PickedHUEditorRow> huEditorRowsByPickingSlotId = pickingHUsRepo.retrievePickedHUsIndexedByPickingSlotId(toPickingCandidatesQuery(query), onlyPickingSlotIds);
+
+		return pickingSlots.stream()
+				.map(pickingSlot -> createPickingSlotRow(pickingSlot, huEditorRowsByPickingSlotId))
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	/**
+	 * @return the picking slots to which given picking candidates are assigned
+	 */
+	public Set<PickingSlotId> retrievePickingSlotIdsByPickingCandidateIds(@NonNull final Set<PickingCandidateId> pickingCandidateIds)
+	{
+		if (pickingCandidateIds.isEmpty())
+		{
+			return ImmutableSet.of();
+		}
+
+		final Set<Integer> pickingCandidateRepoIds = pickingCandidateIds.stream()
+				.map(PickingCandidateId::getRepoId)
+				.collect(ImmutableSet.toImmutableSet());
+
+		return Services.get(IQueryBL.class)
+				.createQueryBuilder(I_M_Picking_Candidate.class)
+				.addInArrayFilter(I_M_Picking_Candidate.COLUMN_M_Picking_Candidate_ID, pickingCandidateRepoIds)
+				.create()
+				.list(I_M_Picking_Candidate.class)
+				.stream()
+				.map(pickingCandidate -> PickingSlotId.ofRepoIdOrNull(pickingCandidate.getM_PickingSlot_ID()))
+				.filter(Objects::nonNull)
+				.collect(ImmutableSet.toImmutableSet());
+	}
+
 	@VisibleForTesting
 	ImmutableList<PickingSlotRow> retrievePickingSlotRows(@NonNull final PickingSlotRepoQuery query)
 	{
@@ -281,6 +349,7 @@ public class PickingSlotViewRepository
 				.packingInfo(huEditorRow.getPackingInfo())
 				.qtyCU(huEditorRow.getQtyCU())
 				.topLevelHU(huEditorRow.isTopLevel())
+				.pickingCandidateIds(from.getPickingCandidateIds())
 				//
 				.includedHURows(includedHURows)
 				//
@@ -1,8 +1,12 @@
 package de.metas.ui.web.pporder;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 
 import javax.annotation.Nullable;
@@ -15,6 +19,7 @@ import org.eevolution.api.BOMComponentType;
 import org.eevolution.api.IPPOrderDAO;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ListMultimap;
 
@@ -89,6 +94,8 @@ class PPOrderLinesLoader
 	private final transient IPPOrderBOMBL ppOrderBOMBL = Services.get(IPPOrderBOMBL.class);
 	private final transient IHUPPOrderQtyDAO ppOrderQtyDAO = Services.get(IHUPPOrderQtyDAO.class);
 
+	private static final int MAIN_PRODUCT_BOM_LINE_ID = 0;
+
 	//
 	private final transient HUEditorViewRepository huEditorRepo;
 	private final ASIViewRowAttributesProvider asiAttributesProvider;
@@ -119,14 +126,12 @@ class PPOrderLinesLoader
 	{
 		final I_PP_Order ppOrder = Services.get(IPPOrderDAO.class).getById(ppOrderId, I_PP_Order.class);
 
-		final int mainProductBOMLineId = 0;
-		final ListMultimap<Integer, I_PP_Order_Qty> ppOrderQtysByBOMLineId = ppOrderQtyDAO.streamOrderQtys(ppOrderId)
-				.collect(GuavaCollectors.toImmutableListMultimap(ppOrderQty -> CoalesceUtil.firstGreaterThanZero(ppOrderQty.getPP_Order_BOMLine_ID(), mainProductBOMLineId)));
+		final ListMultimap<Integer, I_PP_Order_Qty> ppOrderQtysByBOMLineId = retrievePPOrderQtysByBOMLineId(ppOrderId);
 
 		final ImmutableList.Builder<PPOrderLineRow> records = ImmutableList.builder();
 
 		// Main product
-		final PPOrderLineRow rowForMainProduct = createRowForMainProduct(ppOrder, ppOrderQtysByBOMLineId.get(mainProductBOMLineId));
+		final PPOrderLineRow rowForMainProduct = createRowForMainProduct(ppOrder, ppOrderQtysByBOMLineId.get(MAIN_PRODUCT_BOM_LINE_ID));
 		records.add(rowForMainProduct);
 
 		// BOM lines
@@ -142,6 +147,63 @@ class PPOrderLinesLoader
 		return new PPOrderLinesViewData(extractDescription(ppOrder), planningStatus, records.build());
 	}
 
+	/**
+	 * Reloads the given main product and BOM line rows, together with their included rows.
+	 * Source HU rows are not reloaded here, because they have to be matched again; see {@link #retrieveSourceHUIds(PPOrderId, List)}.
+	 *
+	 * @return reloaded rows indexed by row ID; the value is {@code null} if the row no longer exists
+	 */
+	public Map<PPOrderLineRowId, PPOrderLineRow> retrieveTopLevelRows(
+			@NonNull final PPOrderId ppOrderId,
+			@NonNull final Set<PPOrderLineRowId> rowIds)
+	{
+		if (rowIds.isEmpty())
+		{
+			return ImmutableMap.of();
+		}
+
+		final Map<PPOrderLineRowId, PPOrderLineRow> result = new HashMap<>();
+		rowIds.forEach(rowId -> result.put(rowId, null));
+
+		//
+		// Main product and BOM lines
+		final boolean hasPPOrderRows = rowIds.stream()
+				.map(PPOrderLineRowId::getType)
+				.anyMatch(type -> type == PPOrderLineRowType.PP_Order || type == PPOrderLineRowType.PP_OrderBomLine);
+		if (hasPPOrderRows)
+		{
+			final I_PP_Order ppOrder = Services.get(IPPOrderDAO.class).getById(ppOrderId, I_PP_Order.class);
+			final ListMultimap<Integer, I_PP_Order_Qty> ppOrderQtysByBOMLineId = retrievePPOrderQtysByBOMLineId(ppOrderId);
+
+			final PPOrderLineRowId mainProductRowId = PPOrderLineRowId.ofPPOrderId(ppOrderId.getRepoId());
+			if (rowIds.contains(mainProductRowId))
+			{
+				result.put(mainProductRowId, createRowForMainProduct(ppOrder, ppOrderQtysByBOMLineId.get(MAIN_PRODUCT_BOM_LINE_ID)));
+			}
+
+			final boolean readOnly = isReadOnly(ppOrder);
+			for (final I_PP_Order_BOMLine ppOrderBOMLine : ppOrderBOMDAO.retrieveOrderBOMLines(ppOrderId, I_PP_Order_BOMLine.class))
+			{
+				final PPOrderLineRowId bomLineRowId = PPOrderLineRowId.ofPPOrderBomLineId(ppOrderBOMLine.getPP_Order_BOMLine_ID());
+				if (rowIds.contains(bomLineRowId))
+				{
+					result.put(bomLineRowId, createRowForBOMLine(
+							ppOrderBOMLine,
+							readOnly,
+							ppOrderQtysByBOMLineId.get(ppOrderBOMLine.getPP_Order_BOMLine_ID())));
+				}
+			}
+		}
+
+		return result;
+	}
+
+	private ListMultimap<Integer, I_PP_Order_Qty> retrievePPOrderQtysByBOMLineId(@NonNull final PPOrderId ppOrderId)
+	{
+		return ppOrderQtyDAO.streamOrderQtys(ppOrderId)
+				.collect(GuavaCollectors.toImmutableListMultimap(ppOrderQty -> CoalesceUtil.firstGreaterThanZero(ppOrderQty.getPP_Order_BOMLine_ID(), MAIN_PRODUCT_BOM_LINE_ID)));
+	}
+
 	private static boolean isReadOnly(@NonNull final I_PP_Order ppOrder)
 	{
 		final PPOrderPlanningStatus ppOrder_planningStatus = PPOrderPlanningStatus.ofCode(ppOrder.getPlanningStatus());
@@ -173,22 +235,45 @@ class PPOrderLinesLoader
 	}
 
 	private List<PPOrderLineRow> createRowsForIssueProductSourceHUs(WarehouseId warehouseId, @NonNull final List<PPOrderLineRow> bomLineRows)
+	{
+		return createRowsForSourceHUs(retrieveSourceHUIds(warehouseId, bomLineRows));
+	}
+
+	/**
+	 * @param bomLineRows the BOM line rows of the given PP_Order
+	 * @return the IDs of the source HUs which currently match the issue products of the given BOM line rows
+	 */
+	public Set<HuId> retrieveSourceHUIds(@NonNull final PPOrderId ppOrderId, @NonNull final List<PPOrderLineRow> bomLineRows)
+	{
+		final I_PP_Order ppOrder = Services.get(IPPOrderDAO.class).getById(ppOrderId, I_PP_Order.class);
+		final WarehouseId warehouseId = WarehouseId.ofRepoId(ppOrder.getM_Warehouse_ID());
+		return retrieveSourceHUIds(warehouseId, bomLineRows);
+	}
+
+	private Set<HuId> retrieveSourceHUIds(@NonNull final WarehouseId warehouseId, @NonNull final List<PPOrderLineRow> bomLineRows)
 	{
 		final ImmutableSet<ProductId> issueProductIds = bomLineRows.stream()
 				.filter(PPOrderLineRow::isIssue)
 				.map(PPOrderLineRow::getProductId)
 				.collect(ImmutableSet.toImmutableSet());
 
-		final ImmutableList.Builder<PPOrderLineRow> result = ImmutableList.builder();
-
 		final MatchingSourceHusQuery sourceHusQuery = MatchingSourceHusQuery.builder()
 				.productIds(issueProductIds)
 				.warehouseId(warehouseId).build();
 
-		for (final HuId sourceHUId : SourceHUsService.get().retrieveMatchingSourceHUIds(sourceHusQuery))
+		return ImmutableSet.copyOf(SourceHUsService.get().retrieveMatchingSourceHUIds(sourceHusQuery));
+	}
+
+	public List<PPOrderLineRow> createRowsForSourceHUs(@NonNull final Collection<HuId> sourceHUIds)
+	{
+		final ImmutableList.Builder<PPOrderLineRow> result = ImmutableList.builder();
+		for (final HuId sourceHUId : sourceHUIds)
 		{
 			final HUEditorRow huEditorRow = huEditorRepo.retrieveForHUId(sourceHUId);
-			result.add(createRowForSourceHU(huEditorRow));
+			if (huEditorRow != null)
+			{
+				result.add(createRowForSourceHU(huEditorRow));
+			}
 		}
 
 		return result.build();
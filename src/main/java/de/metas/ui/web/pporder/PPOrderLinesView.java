@@ -2,6 +2,7 @@ package de.metas.ui.web.pporder;
 
 import static org.adempiere.model.InterfaceWrapperHelper.load;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -10,6 +11,7 @@ import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
 
+import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.util.lang.impl.TableRecordReferenceSet;
 import org.compiere.util.Evaluatee;
@@ -20,6 +22,8 @@ import org.eevolution.model.I_PP_Order_BOMLine;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
+import de.metas.handlingunits.model.I_M_HU;
+import de.metas.handlingunits.model.I_PP_Order_Qty;
 import de.metas.handlingunits.pporder.api.PPOrderPlanningStatus;
 import de.metas.i18n.ITranslatableString;
 import de.metas.material.planning.pporder.IPPOrderBOMDAO;
@@ -28,12 +32,14 @@ import de.metas.order.OrderLineId;
 import de.metas.process.RelatedProcessDescriptor;
 import de.metas.ui.web.document.filter.DocumentFilter;
 import de.metas.ui.web.exceptions.EntityNotFoundException;
+import de.metas.ui.web.pporder.PPOrderLinesViewData.ChangedRecordsMapping;
 import de.metas.ui.web.view.IView;
 import de.metas.ui.web.view.IViewRow;
 import de.metas.ui.web.view.ViewCloseReason;
 import de.metas.ui.web.view.ViewId;
 import de.metas.ui.web.view.ViewResult;
 import de.metas.ui.web.view.ViewRowsOrderBy;
+import de.metas.ui.web.view.ViewWatchedTables;
 import de.metas.ui.web.view.event.ViewChangesCollector;
 import de.metas.ui.web.view.json.JSONViewDataType;
 import de.metas.ui.web.window.datatypes.DocumentId;
@@ -71,6 +77,12 @@ import lombok.NonNull;
 
 public class PPOrderLinesView implements IView
 {
+	private static final ViewWatchedTables WATCHED_TABLES = ViewWatchedTables.ofTableNames(ImmutableSet.of(
+			I_PP_Order.Table_Name,
+			I_PP_Order_BOMLine.Table_Name,
+			I_PP_Order_Qty.Table_Name,
+			I_M_HU.Table_Name));
+
 	private final ViewId parentViewId;
 	private final DocumentId parentRowId;
 
@@ -350,9 +362,83 @@ public class PPOrderLinesView implements IView
 	}
 
 	@Override
-	public void notifyRecordsChanged(final TableRecordReferenceSet recordRefs)
+	public ViewWatchedTables getWatchedTables()
+	{
+		return WATCHED_TABLES;
+	}
+
+	/**
+	 * Identifies the top level rows whose subtrees are affected by the changed records and reloads only those.
+	 * If a source HU row is affected or a changed HU might be a new source HU, all source HU rows are matched again.
+	 * If the affected rows cannot be identified (e.g. a BOM line was added or the manufacturing order itself changed), the whole view is invalidated.
+	 */
+	@Override
+	public void notifyRecordsChanged(@NonNull final TableRecordReferenceSet recordRefs)
+	{
+		final PPOrderLinesViewData data = dataSupplier.getDataIfLoaded();
+		if (data == null)
+		{
+			return; // nothing loaded yet, so nothing to refresh
+		}
+
+		final ChangedRecordsMapping changedRecords = data.mapChangedRecords(ppOrderId, recordRefs);
+		if (changedRecords.isPpOrderChanged()
+				|| changedRecords.getNotLoadedPPOrderBOMLineIds().stream().anyMatch(this::isBOMLineOfThisPPOrder))
+		{
+			invalidateAll();
+			return;
+		}
+
+		final Set<PPOrderLineRowId> topLevelRowIds = new HashSet<>(changedRecords.getTopLevelRowIds());
+		topLevelRowIds.addAll(retrieveTopLevelRowIdsForPPOrderQtyIds(changedRecords.getNotLoadedPPOrderQtyIds()));
+		if (topLevelRowIds.isEmpty() && changedRecords.getNotLoadedHUIds().isEmpty())
+		{
+			return; // nothing to do
+		}
+
+		final boolean sourceHURowsReloaded = dataSupplier.refreshTopLevelRows(topLevelRowIds, changedRecords.getNotLoadedHUIds());
+
+		if (sourceHURowsReloaded || getData().size() != data.size())
+		{
+			ViewChangesCollector.getCurrentOrAutoflush().collectFullyChanged(this);
+		}
+		else if (!topLevelRowIds.isEmpty())
+		{
+			ViewChangesCollector.getCurrentOrAutoflush().collectRowsChanged(this, topLevelRowIds.stream()
+					.map(PPOrderLineRowId::toDocumentId)
+					.collect(ImmutableSet.toImmutableSet()));
+		}
+	}
+
+	private boolean isBOMLineOfThisPPOrder(final int ppOrderBOMLineId)
+	{
+		return Services.get(IQueryBL.class)
+				.createQueryBuilder(I_PP_Order_BOMLine.class)
+				.addEqualsFilter(I_PP_Order_BOMLine.COLUMNNAME_PP_Order_BOMLine_ID, ppOrderBOMLineId)
+				.addEqualsFilter(I_PP_Order_BOMLine.COLUMNNAME_PP_Order_ID, ppOrderId.getRepoId())
+				.create()
+				.match();
+	}
+
+	/** @return the main product or BOM line rows to which the given (newly created) PP_Order_Qty records belong */
+	private Set<PPOrderLineRowId> retrieveTopLevelRowIdsForPPOrderQtyIds(final Set<Integer> ppOrderQtyIds)
 	{
-		// TODO: notifyRecordsChanged: identify the sub-trees which could be affected and invalidate only those
+		if (ppOrderQtyIds.isEmpty())
+		{
+			return ImmutableSet.of();
+		}
+
+		return Services.get(IQueryBL.class)
+				.createQueryBuilder(I_PP_Order_Qty.class)
+				.addInArrayFilter(I_PP_Order_Qty.COLUMNNAME_PP_Order_Qty_ID, ppOrderQtyIds)
+				.addEqualsFilter(I_PP_Order_Qty.COLUMNNAME_PP_Order_ID, ppOrderId.getRepoId())
+				.create()
+				.list(I_PP_Order_Qty.class)
+				.stream()
+				.map(ppOrderQty -> ppOrderQty.getPP_Order_BOMLine_ID() > 0
+						? PPOrderLineRowId.ofPPOrderBomLineId(ppOrderQty.getPP_Order_BOMLine_ID())
+						: PPOrderLineRowId.ofPPOrderId(ppOrderQty.getPP_Order_ID()))
+				.collect(ImmutableSet.toImmutableSet());
 	}
 
 	@Override
@@ -1,19 +1,36 @@
 package de.metas.ui.web.pporder;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import javax.annotation.concurrent.Immutable;
 
+import org.adempiere.util.lang.impl.TableRecordReference;
+import org.adempiere.util.lang.impl.TableRecordReferenceSet;
+
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
 
+import de.metas.handlingunits.HuId;
+import de.metas.handlingunits.model.I_M_HU;
+import de.metas.handlingunits.model.I_PP_Order;
+import de.metas.handlingunits.model.I_PP_Order_BOMLine;
+import de.metas.handlingunits.model.I_PP_Order_Qty;
 import de.metas.handlingunits.pporder.api.PPOrderPlanningStatus;
 import de.metas.i18n.ITranslatableString;
+import de.metas.material.planning.pporder.PPOrderId;
 import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import lombok.Builder;
 import lombok.NonNull;
+import lombok.Singular;
+import lombok.Value;
 
 /*
  * #%L
@@ -53,6 +70,10 @@ import lombok.NonNull;
 	private final ImmutableList<PPOrderLineRow> records;
 	/** All records (included ones too) indexed by DocumentId */
 	private final ImmutableMap<DocumentId, PPOrderLineRow> allRecordsById;
+	/** Top level record IDs indexed by the HUs contained in their subtrees */
+	private final ImmutableSetMultimap<HuId, PPOrderLineRowId> topLevelRowIdsByHUId;
+	/** Top level record IDs indexed by the PP_Order_Qty_IDs contained in their subtrees */
+	private final ImmutableSetMultimap<Integer, PPOrderLineRowId> topLevelRowIdsByPPOrderQtyId;
 
 	PPOrderLinesViewData(
 			@NonNull final ITranslatableString description,
@@ -64,6 +85,71 @@ import lombok.NonNull;
 		this.records = ImmutableList.copyOf(records);
 
 		allRecordsById = buildRecordsByIdMap(this.records);
+
+		final ImmutableSetMultimap.Builder<HuId, PPOrderLineRowId> topLevelRowIdsByHUId = ImmutableSetMultimap.builder();
+		final ImmutableSetMultimap.Builder<Integer, PPOrderLineRowId> topLevelRowIdsByPPOrderQtyId = ImmutableSetMultimap.builder();
+		for (final PPOrderLineRow topLevelRow : this.records)
+		{
+			final PPOrderLineRowId topLevelRowId = topLevelRow.getRowId();
+			streamRecursive(topLevelRow).forEach(row -> {
+				if (row.getHuId() != null)
+				{
+					topLevelRowIdsByHUId.put(row.getHuId(), topLevelRowId);
+				}
+				if (row.getPP_Order_Qty_ID() > 0)
+				{
+					topLevelRowIdsByPPOrderQtyId.put(row.getPP_Order_Qty_ID(), topLevelRowId);
+				}
+			});
+		}
+		this.topLevelRowIdsByHUId = topLevelRowIdsByHUId.build();
+		this.topLevelRowIdsByPPOrderQtyId = topLevelRowIdsByPPOrderQtyId.build();
+	}
+
+	/**
+	 * @param changedTopLevelRows reloaded top level rows, indexed by their row ID; a {@code null} value means the row was removed.
+	 * @return a copy of this data, where the given top level rows were replaced
+	 */
+	public PPOrderLinesViewData withChangedTopLevelRows(@NonNull final Map<PPOrderLineRowId, PPOrderLineRow> changedTopLevelRows)
+	{
+		if (changedTopLevelRows.isEmpty())
+		{
+			return this;
+		}
+
+		final List<PPOrderLineRow> newRecords = new ArrayList<>(records.size());
+		for (final PPOrderLineRow row : records)
+		{
+			final PPOrderLineRowId rowId = row.getRowId();
+			if (!changedTopLevelRows.containsKey(rowId))
+			{
+				newRecords.add(row);
+				continue;
+			}
+
+			final PPOrderLineRow changedRow = changedTopLevelRows.get(rowId);
+			if (changedRow != null)
+			{
+				newRecords.add(changedRow);
+			}
+		}
+
+		return new PPOrderLinesViewData(description, planningStatus, newRecords);
+	}
+
+	/**
+	 * @param sourceHURows the new source HU rows
+	 * @return a copy of this data, where all source HU rows were replaced by the given ones
+	 */
+	public PPOrderLinesViewData withSourceHURows(@NonNull final List<PPOrderLineRow> sourceHURows)
+	{
+		final List<PPOrderLineRow> newRecords = new ArrayList<>(records.size());
+		records.stream()
+				.filter(row -> !row.isSourceHU())
+				.forEach(newRecords::add);
+		newRecords.addAll(sourceHURows);
+
+		return new PPOrderLinesViewData(description, planningStatus, newRecords);
 	}
 
 	public ITranslatableString getDescription()
@@ -133,6 +219,115 @@ import lombok.NonNull;
 		return records.size();
 	}
 
+	public boolean containsTopLevelRow(@NonNull final PPOrderLineRowId rowId)
+	{
+		return records.stream().anyMatch(row -> rowId.equals(row.getRowId()));
+	}
+
+	public Set<PPOrderLineRowId> getTopLevelRowIdsByPPOrderQtyId(final int ppOrderQtyId)
+	{
+		return topLevelRowIdsByPPOrderQtyId.get(ppOrderQtyId);
+	}
+
+	public List<PPOrderLineRow> getBOMLineRows()
+	{
+		return records.stream()
+				.filter(row -> row.getType().isBOMLine())
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	/**
+	 * Maps the given changed records to the top level rows whose subtrees contain them.
+	 * Records which are not part of this data are reported separately, so that the caller can check them against the database.
+	 */
+	public ChangedRecordsMapping mapChangedRecords(
+			@NonNull final PPOrderId ppOrderId,
+			@NonNull final TableRecordReferenceSet recordRefs)
+	{
+		final ChangedRecordsMapping.ChangedRecordsMappingBuilder result = ChangedRecordsMapping.builder();
+		for (final TableRecordReference recordRef : recordRefs)
+		{
+			final String tableName = recordRef.getTableName();
+			final int recordId = recordRef.getRecord_ID();
+			if (I_PP_Order.Table_Name.equals(tableName))
+			{
+				if (recordId == ppOrderId.getRepoId())
+				{
+					result.ppOrderChanged(true);
+				}
+			}
+			else if (I_PP_Order_BOMLine.Table_Name.equals(tableName))
+			{
+				final PPOrderLineRowId bomLineRowId = PPOrderLineRowId.ofPPOrderBomLineId(recordId);
+				if (containsTopLevelRow(bomLineRowId))
+				{
+					result.topLevelRowId(bomLineRowId);
+				}
+				else
+				{
+					result.notLoadedPPOrderBOMLineId(recordId);
+				}
+			}
+			else if (I_PP_Order_Qty.Table_Name.equals(tableName))
+			{
+				final Set<PPOrderLineRowId> rowIds = getTopLevelRowIdsByPPOrderQtyId(recordId);
+				if (rowIds.isEmpty())
+				{
+					result.notLoadedPPOrderQtyId(recordId);
+				}
+				else
+				{
+					result.topLevelRowIds(rowIds);
+				}
+			}
+			else if (I_M_HU.Table_Name.equals(tableName))
+			{
+				final HuId huId = HuId.ofRepoId(recordId);
+				final Set<PPOrderLineRowId> rowIds = topLevelRowIdsByHUId.get(huId);
+				if (rowIds.isEmpty())
+				{
+					result.notLoadedHUId(huId);
+				}
+				else
+				{
+					result.topLevelRowIds(rowIds);
+				}
+			}
+		}
+
+		return result.build();
+	}
+
+	/** The outcome of {@link PPOrderLinesViewData#mapChangedRecords(PPOrderId, TableRecordReferenceSet)}. */
+	@Value
+	@Builder
+	public static class ChangedRecordsMapping
+	{
+		/** {@code true} if the view's PP_Order itself changed */
+		boolean ppOrderChanged;
+
+		/** Top level rows whose subtrees contain at least one of the changed records */
+		@Singular
+		ImmutableSet<PPOrderLineRowId> topLevelRowIds;
+
+		/** Changed PP_Order_BOMLine_IDs without a row; might be new BOM lines of this PP_Order or lines of another one */
+		@Singular
+		ImmutableSet<Integer> notLoadedPPOrderBOMLineIds;
+
+		/** Changed PP_Order_Qty_IDs without a row; might be new issues/receipts of this PP_Order or of another one */
+		@Singular
+		ImmutableSet<Integer> notLoadedPPOrderQtyIds;
+
+		/** Changed HUs without a row; might be new source HUs */
+		@Singular
+		ImmutableSet<HuId> notLoadedHUIds;
+
+		public boolean isSourceHURowsChanged()
+		{
+			return topLevelRowIds.stream().anyMatch(rowId -> rowId.getType() == PPOrderLineRowType.Source_HU);
+		}
+	}
+
 	private static ImmutableMap<DocumentId, PPOrderLineRow> buildRecordsByIdMap(final List<PPOrderLineRow> rows)
 	{
 		if (rows.isEmpty())
@@ -1,9 +1,14 @@
 package de.metas.ui.web.pporder;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
 import javax.annotation.Nullable;
 
-import org.adempiere.util.lang.ExtendedMemorizingSupplier;
+import com.google.common.collect.ImmutableSet;
 
+import de.metas.handlingunits.HuId;
 import de.metas.handlingunits.reservation.HUReservationService;
 import de.metas.material.planning.pporder.PPOrderId;
 import de.metas.ui.web.view.ASIViewRowAttributesProvider;
@@ -36,8 +41,11 @@ import lombok.NonNull;
 
 public class PPOrderLinesViewDataSupplier
 {
+	private final PPOrderId ppOrderId;
 	private final ASIViewRowAttributesProvider asiAttributesProvider;
-	private final ExtendedMemorizingSupplier<PPOrderLinesViewData> rowsSupplier;
+	private final PPOrderLinesLoader loader;
+
+	private volatile PPOrderLinesViewData _data; // lazy
 
 	@Builder
 	private PPOrderLinesViewDataSupplier(
@@ -47,25 +55,86 @@ public class PPOrderLinesViewDataSupplier
 			@NonNull final SqlViewBinding huSQLViewBinding,
 			@NonNull final HUReservationService huReservationService)
 	{
+		this.ppOrderId = ppOrderId;
 		this.asiAttributesProvider = asiAttributesProvider;
-		rowsSupplier = ExtendedMemorizingSupplier
-				.of(() -> PPOrderLinesLoader
-						.builder(viewWindowId)
-						.asiAttributesProvider(asiAttributesProvider)
-						.huSQLViewBinding(huSQLViewBinding)
-						.huReservationService(huReservationService)
-						.build()
-						.retrieveData(ppOrderId));
+		loader = PPOrderLinesLoader
+				.builder(viewWindowId)
+				.asiAttributesProvider(asiAttributesProvider)
+				.huSQLViewBinding(huSQLViewBinding)
+				.huReservationService(huReservationService)
+				.build();
 	}
 
 	public PPOrderLinesViewData getData()
 	{
-		return rowsSupplier.get();
+		PPOrderLinesViewData data = _data;
+		if (data == null)
+		{
+			synchronized (this)
+			{
+				data = _data;
+				if (data == null)
+				{
+					data = _data = loader.retrieveData(ppOrderId);
+				}
+			}
+		}
+		return data;
+	}
+
+	/** @return loaded data or {@code null} if the data was not loaded yet or was invalidated */
+	public PPOrderLinesViewData getDataIfLoaded()
+	{
+		return _data;
+	}
+
+	/**
+	 * Reloads the given top level rows (and their included rows) and replaces them in the current data.
+	 * If any of the given rows is a source HU row or if any of the given not loaded HUs became a source HU,
+	 * all source HU rows are matched and loaded again.
+	 * If the data was not loaded yet, this method does nothing.
+	 *
+	 * @param notLoadedHUIds changed HUs which are not part of the current data
+	 * @return {@code true} if the source HU rows were reloaded
+	 */
+	public synchronized boolean refreshTopLevelRows(
+			@NonNull final Set<PPOrderLineRowId> topLevelRowIds,
+			@NonNull final Set<HuId> notLoadedHUIds)
+	{
+		PPOrderLinesViewData data = _data;
+		if (data == null)
+		{
+			return false;
+		}
+
+		final ImmutableSet<PPOrderLineRowId> ppOrderRowIds = topLevelRowIds.stream()
+				.filter(rowId -> rowId.getType() != PPOrderLineRowType.Source_HU)
+				.collect(ImmutableSet.toImmutableSet());
+		if (!ppOrderRowIds.isEmpty())
+		{
+			final Map<PPOrderLineRowId, PPOrderLineRow> changedRows = loader.retrieveTopLevelRows(ppOrderId, ppOrderRowIds);
+			data = data.withChangedTopLevelRows(changedRows);
+		}
+
+		boolean sourceHURowsReloaded = false;
+		final boolean sourceHURowsChanged = ppOrderRowIds.size() != topLevelRowIds.size();
+		if (sourceHURowsChanged || !notLoadedHUIds.isEmpty())
+		{
+			final Set<HuId> sourceHUIds = loader.retrieveSourceHUIds(ppOrderId, data.getBOMLineRows());
+			if (sourceHURowsChanged || !Collections.disjoint(sourceHUIds, notLoadedHUIds))
+			{
+				data = data.withSourceHURows(loader.createRowsForSourceHUs(sourceHUIds));
+				sourceHURowsReloaded = true;
+			}
+		}
+
+		_data = data;
+		return sourceHURowsReloaded;
 	}
 
-	public void invalidate()
+	public synchronized void invalidate()
 	{
-		rowsSupplier.forget();
+		_data = null;
 		if (asiAttributesProvider != null)
 		{
 			asiAttributesProvider.invalidateAll();
@@ -0,0 +1,209 @@
+package de.metas.ui.web.process;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import de.metas.logging.LogManager;
+import de.metas.ui.web.exceptions.EntityNotFoundException;
+import de.metas.ui.web.process.json.JSONProcessInstanceAsyncStatus;
+import de.metas.ui.web.process.json.JSONProcessInstanceAsyncStatus.Status;
+import de.metas.ui.web.process.json.JSONProcessInstanceResult;
+import de.metas.ui.web.websocket.WebSocketConfig;
+import de.metas.ui.web.websocket.WebsocketSender;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Executes process instances on a bounded thread pool, so long running processes are not blocking the HTTP request threads.
+ * <p>
+ * Each status change (queued, running, done/error) is published to the process instance's websocket topic
+ * (see {@link WebSocketConfig#buildProcessInstanceTopicName(ProcessId, DocumentId)}) and can also be polled using {@link #getStatus(ProcessId, DocumentId)}.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+@Component
+public class ProcessInstancesAsyncExecutor
+{
+	private static final Logger logger = LogManager.getLogger(ProcessInstancesAsyncExecutor.class);
+
+	private final WebsocketSender websocketSender;
+	private final ThreadPoolExecutor executor;
+
+	/** last known status of each asynchronously started process instance */
+	private final Cache<String, JSONProcessInstanceAsyncStatus> statusesByKey = CacheBuilder.newBuilder()
+			.expireAfterAccess(1, TimeUnit.HOURS)
+			.build();
+
+	public ProcessInstancesAsyncExecutor(
+			@NonNull final WebsocketSender websocketSender,
+			@Value("${metasfresh.webui.process.async.threads:4}") final int threads,
+			@Value("${metasfresh.webui.process.async.queueCapacity:100}") final int queueCapacity)
+	{
+		this.websocketSender = websocketSender;
+
+		executor = new ThreadPoolExecutor(
+				threads, // corePoolSize
+				threads, // maximumPoolSize
+				0L, TimeUnit.MILLISECONDS, // keepAliveTime
+				new ArrayBlockingQueue<>(queueCapacity),
+				CustomizableThreadFactory.builder()
+						.setDaemon(true)
+						.setThreadNamePrefix(ProcessInstancesAsyncExecutor.class.getSimpleName())
+						.build());
+
+		logger.info("Using threads={}, queueCapacity={}", threads, queueCapacity);
+	}
+
+	@PreDestroy
+	public void shutdown()
+	{
+		logger.info("Shutting down");
+		executor.shutdownNow();
+	}
+
+	private static String createKey(final ProcessId processId, final DocumentId pinstanceId)
+	{
+		return processId.toJson() + "#" + pinstanceId.toJson();
+	}
+
+	/**
+	 * Enqueues the given process execution and returns immediately.
+	 *
+	 * @param execution executes the process instance; it's called in one of the executor's threads, where there is no HTTP request, so it shall bind the user session if needed (see {@link de.metas.ui.web.session.UserSession#withCurrentUserSession(Callable)})
+	 * @return the {@link Status#QUEUED} status
+	 */
+	public JSONProcessInstanceAsyncStatus execute(
+			@NonNull final ProcessId processId,
+			@NonNull final DocumentId pinstanceId,
+			@NonNull final Callable<ProcessInstanceResult> execution)
+	{
+		final String key = createKey(processId, pinstanceId);
+		final JSONProcessInstanceAsyncStatus queuedStatus = JSONProcessInstanceAsyncStatus.builder()
+				.processId(processId.toJson())
+				.pinstanceId(pinstanceId.toJson())
+				.websocketEndpoint(WebSocketConfig.buildProcessInstanceTopicName(processId, pinstanceId))
+				.status(Status.QUEUED)
+				.build();
+
+		synchronized (statusesByKey)
+		{
+			final JSONProcessInstanceAsyncStatus currentStatus = statusesByKey.getIfPresent(key);
+			if (currentStatus != null && !currentStatus.isFinished())
+			{
+				throw new AdempiereException("Process instance was already started")
+						.setParameter("processId", processId)
+						.setParameter("pinstanceId", pinstanceId);
+			}
+			statusesByKey.put(key, queuedStatus);
+		}
+
+		// NOTE: publish it before submitting, else the RUNNING (or even the final) status could be published before it
+		publish(queuedStatus);
+
+		try
+		{
+			executor.execute(() -> executeNow(key, queuedStatus, execution));
+		}
+		catch (final RejectedExecutionException ex)
+		{
+			final AdempiereException rejectedEx = new AdempiereException("Too many processes are running. Please try again later.", ex);
+
+			statusesByKey.invalidate(key);
+			publish(queuedStatus.toBuilder()
+					.status(Status.ERROR)
+					.errorMessage(rejectedEx.getLocalizedMessage())
+					.build());
+
+			throw rejectedEx;
+		}
+
+		return queuedStatus;
+	}
+
+	private void executeNow(
+			final String key,
+			final JSONProcessInstanceAsyncStatus queuedStatus,
+			final Callable<ProcessInstanceResult> execution)
+	{
+		updateStatus(key, queuedStatus.toBuilder()
+				.status(Status.RUNNING)
+				.build());
+
+		JSONProcessInstanceAsyncStatus finalStatus;
+		try
+		{
+			final ProcessInstanceResult result = execution.call();
+			finalStatus = queuedStatus.toBuilder()
+					.status(result.isError() ? Status.ERROR : Status.DONE)
+					.result(JSONProcessInstanceResult.of(result))
+					.build();
+		}
+		catch (final Throwable ex)
+		{
+			logger.warn("Failed executing process instance: {}", key, ex);
+			finalStatus = queuedStatus.toBuilder()
+					.status(Status.ERROR)
+					.errorMessage(AdempiereException.wrapIfNeeded(ex).getLocalizedMessage())
+					.build();
+		}
+
+		updateStatus(key, finalStatus);
+	}
+
+	private void updateStatus(final String key, final JSONProcessInstanceAsyncStatus status)
+	{
+		statusesByKey.put(key, status);
+		publish(status);
+	}
+
+	private void publish(final JSONProcessInstanceAsyncStatus status)
+	{
+		websocketSender.convertAndSend(status.getWebsocketEndpoint(), status);
+	}
+
+	public JSONProcessInstanceAsyncStatus getStatus(@NonNull final ProcessId processId, @NonNull final DocumentId pinstanceId)
+	{
+		final JSONProcessInstanceAsyncStatus status = statusesByKey.getIfPresent(createKey(processId, pinstanceId));
+		if (status == null)
+		{
+			throw new EntityNotFoundException("No asynchronous execution found for " + processId + "/" + pinstanceId);
+		}
+		return status;
+	}
+}
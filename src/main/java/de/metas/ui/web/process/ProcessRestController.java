@@ -2,8 +2,10 @@ package de.metas.ui.web.process;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Properties;
 import java.util.stream.Stream;
 
+import org.adempiere.util.lang.IAutoCloseable;
 import org.compiere.util.Env;
 import org.slf4j.Logger;
 import org.springframework.http.HttpHeaders;
@@ -33,6 +35,7 @@ import de.metas.ui.web.process.descriptor.ProcessDescriptor;
 import de.metas.ui.web.process.descriptor.WebuiRelatedProcessDescriptor;
 import de.metas.ui.web.process.json.JSONCreateProcessInstanceRequest;
 import de.metas.ui.web.process.json.JSONProcessInstance;
+import de.metas.ui.web.process.json.JSONProcessInstanceAsyncStatus;
 import de.metas.ui.web.process.json.JSONProcessInstanceResult;
 import de.metas.ui.web.process.json.JSONProcessLayout;
 import de.metas.ui.web.session.UserSession;
@@ -58,6 +61,7 @@ import de.metas.ui.web.window.model.NullDocumentChangesCollector;
 import de.metas.util.Check;
 import de.metas.util.lang.CoalesceUtil;
 import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
 import lombok.NonNull;
 
 /*
@@ -94,6 +98,7 @@ public class ProcessRestController
 	private final UserSession userSession;
 	private final IViewsRepository viewsRepo;
 	private final DocumentCollection documentsCollection;
+	private final ProcessInstancesAsyncExecutor asyncExecutor;
 
 	private static final ReasonSupplier REASON_Value_DirectSetFromCommitAPI = () -> "direct set from commit API";
 
@@ -101,7 +106,8 @@ public class ProcessRestController
 			@NonNull final List<IProcessInstancesRepository> pinstancesRepositories,
 			@NonNull final UserSession userSession,
 			@NonNull final IViewsRepository viewsRepo,
-			@NonNull final DocumentCollection documentsCollection)
+			@NonNull final DocumentCollection documentsCollection,
+			@NonNull final ProcessInstancesAsyncExecutor asyncExecutor)
 	{
 		this.pinstancesRepositoriesByHandlerType = Maps.uniqueIndex(pinstancesRepositories, IProcessInstancesRepository::getProcessHandlerType);
 		logger.info("Registered process instances repositories: {}", pinstancesRepositoriesByHandlerType);
@@ -109,6 +115,7 @@ public class ProcessRestController
 		this.userSession = userSession;
 		this.viewsRepo = viewsRepo;
 		this.documentsCollection = documentsCollection;
+		this.asyncExecutor = asyncExecutor;
 	}
 
 	private JSONOptions newJsonOptions()
@@ -263,19 +270,67 @@ public class ProcessRestController
 		final ProcessId processId = ProcessId.fromJson(processIdStr);
 		final DocumentId pinstanceId = DocumentId.of(pinstanceIdStr);
 
+		final ProcessInstanceResult result = executeProcessInstance(processId, pinstanceId, Env.getCtx(), userSession.getAD_Language());
+		return JSONProcessInstanceResult.of(result);
+	}
+
+	@GetMapping(value = "/{processId}/{pinstanceId}/startAsync")
+	@ApiOperation("Starts the process instance in background and returns immediately. The status is published to the returned websocket endpoint and can also be polled.")
+	public JSONProcessInstanceAsyncStatus startProcessAsync(
+			@PathVariable("processId") final String processIdStr //
+			, @PathVariable("pinstanceId") final String pinstanceIdStr //
+	)
+	{
+		userSession.assertLoggedIn();
+
+		final ProcessId processId = ProcessId.fromJson(processIdStr);
+		final DocumentId pinstanceId = DocumentId.of(pinstanceIdStr);
+
+		// NOTE: the process will be executed in another thread, where there is no HTTP request.
+		// So we bind current user session to it, because view based processes are looking up the views, which is checking the user's permissions.
+		final Properties ctx = Env.copyCtx(Env.getCtx());
+		final String adLanguage = userSession.getAD_Language();
+
+		return asyncExecutor.execute(processId, pinstanceId, UserSession.withCurrentUserSession(() -> {
+			try (final IAutoCloseable ctxRestorer = Env.switchContext(ctx))
+			{
+				return executeProcessInstance(processId, pinstanceId, ctx, adLanguage);
+			}
+		}));
+	}
+
+	@GetMapping(value = "/{processId}/{pinstanceId}/asyncStatus")
+	public JSONProcessInstanceAsyncStatus getProcessAsyncStatus(
+			@PathVariable("processId") final String processIdStr //
+			, @PathVariable("pinstanceId") final String pinstanceIdStr //
+	)
+	{
+		userSession.assertLoggedIn();
+
+		final ProcessId processId = ProcessId.fromJson(processIdStr);
+		final DocumentId pinstanceId = DocumentId.of(pinstanceIdStr);
+
+		return asyncExecutor.getStatus(processId, pinstanceId);
+	}
+
+	private ProcessInstanceResult executeProcessInstance(
+			final ProcessId processId,
+			final DocumentId pinstanceId,
+			final Properties ctx,
+			final String adLanguage)
+	{
 		final IProcessInstancesRepository instancesRepository = getRepository(processId);
 
 		return Execution.prepareNewExecution()
 				.outOfTransaction()
 				.execute(() -> {
 					return instancesRepository.forProcessInstanceWritable(pinstanceId, NullDocumentChangesCollector.instance, processInstance -> {
-						final ProcessInstanceResult result = processInstance.startProcess(ProcessExecutionContext.builder()
-								.ctx(Env.getCtx())
-								.adLanguage(userSession.getAD_Language())
+						return processInstance.startProcess(ProcessExecutionContext.builder()
+								.ctx(ctx)
+								.adLanguage(adLanguage)
 								.viewsRepo(viewsRepo)
 								.documentsCollection(documentsCollection)
 								.build());
-						return JSONProcessInstanceResult.of(result);
 					});
 				});
 	}
@@ -177,7 +177,13 @@ public class ViewAsPreconditionsContext implements WebuiPreconditionsContext
 	@Override
 	public <T> List<T> getSelectedModels(final Class<T> modelClass)
 	{
-		return _selectedModelsSupplier.apply(modelClass).getModels(modelClass);
+		// NOTE: synchronized because the preconditions might be evaluated in parallel (see ViewQuickActionsPreconditionsEvaluator)
+		final SelectedModelsList selectedModels;
+		synchronized (_selectedModelsSupplier)
+		{
+			selectedModels = _selectedModelsSupplier.apply(modelClass);
+		}
+		return selectedModels.getModels(modelClass);
 	}
 
 	@Override
@@ -75,6 +75,10 @@ public final class WebuiRelatedProcessDescriptor
 	@NonNull
 	private final Supplier<ValueAndDuration<ProcessPreconditionsResolution>> preconditionsResolutionSupplier;
 
+	/** true if the preconditions are still evaluated in background, so the resolution is just a temporary reject */
+	@Getter
+	private final boolean preconditionsResolutionPending;
+
 	private final String debugProcessClassname;
 
 	@lombok.Builder
@@ -101,10 +105,47 @@ public final class WebuiRelatedProcessDescriptor
 		// Memorize the resolution supplier to make sure it's not invoked more than once because it might be an expensive operation.
 		// Also we assume this is a short living instance which was created right before checking
 		this.preconditionsResolutionSupplier = ExtendedMemorizingSupplier.of(() -> ValueAndDuration.fromSupplier(preconditionsResolutionSupplier));
+		this.preconditionsResolutionPending = false;
 
 		this.debugProcessClassname = debugProcessClassname;
 	}
 
+	/** copy constructor */
+	private WebuiRelatedProcessDescriptor(
+			@NonNull final WebuiRelatedProcessDescriptor from,
+			@NonNull final ValueAndDuration<ProcessPreconditionsResolution> preconditionsResolution,
+			final boolean preconditionsResolutionPending)
+	{
+		this.processId = from.processId;
+		this.internalName = from.internalName;
+		this.processCaption = from.processCaption;
+		this.processDescription = from.processDescription;
+		this.displayPlaces = from.displayPlaces;
+		this.defaultQuickAction = from.defaultQuickAction;
+		this.shortcut = from.shortcut;
+		this.preconditionsResolutionSupplier = () -> preconditionsResolution;
+		this.preconditionsResolutionPending = preconditionsResolutionPending;
+		this.debugProcessClassname = from.debugProcessClassname;
+	}
+
+	/**
+	 * Evaluates the preconditions (if not already evaluated) and returns a copy which holds only the resolution,
+	 * i.e. which is no longer referencing the preconditions context and which can be cached.
+	 */
+	public WebuiRelatedProcessDescriptor toEvaluated()
+	{
+		return new WebuiRelatedProcessDescriptor(this, preconditionsResolutionSupplier.get(), false);
+	}
+
+	/**
+	 * @return a copy which is rejected with the given reason because the preconditions were not evaluated yet
+	 */
+	public WebuiRelatedProcessDescriptor toPending(@NonNull final ITranslatableString pendingReason)
+	{
+		final ValueAndDuration<ProcessPreconditionsResolution> pendingResolution = new ValueAndDuration<>(ProcessPreconditionsResolution.reject(pendingReason), null);
+		return new WebuiRelatedProcessDescriptor(this, pendingResolution, true);
+	}
+
 	public String getCaption(final String adLanguage)
 	{
 		final String captionOverride = getPreconditionsResolution().getCaptionOverrideOrNull(adLanguage);
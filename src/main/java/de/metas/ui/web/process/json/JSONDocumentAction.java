@@ -88,6 +88,10 @@ public final class JSONDocumentAction implements Serializable
 	@JsonInclude(JsonInclude.Include.NON_NULL)
 	private final Boolean disabledWithInternalReason; // exposed only for tracing/debugging
 
+	@JsonProperty("pending")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private final Boolean pending; // preconditions are still evaluated in background; an update will be sent via websocket
+
 	@JsonProperty("evaluateDuration")
 	@JsonInclude(JsonInclude.Include.NON_EMPTY)
 	private final String evaluateDurationStr;
@@ -117,6 +121,7 @@ public final class JSONDocumentAction implements Serializable
 		disabled = relatedProcessDescriptor.isDisabled() ? Boolean.TRUE : null;
 		disabledReason = relatedProcessDescriptor.getDisabledReason(adLanguage);
 		disabledWithInternalReason = relatedProcessDescriptor.isInternal() ? Boolean.TRUE : null;
+		pending = relatedProcessDescriptor.isPreconditionsResolutionPending() ? Boolean.TRUE : null;
 
 		final Duration preconditionsResolutionCalcDuration = relatedProcessDescriptor.getPreconditionsResolutionCalcDuration();
 		evaluateDurationStr = preconditionsResolutionCalcDuration != null ? TimeUtil.formatElapsed(preconditionsResolutionCalcDuration) : null;
@@ -0,0 +1,68 @@
+package de.metas.ui.web.process.json;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Status of a process instance which was started asynchronously.
+ * <p>
+ * Sent to process instance's websocket topic on each status change and also returned by the polling endpoint.
+ */
+@JsonAutoDetect(fieldVisibility = Visibility.ANY, getterVisibility = Visibility.NONE, isGetterVisibility = Visibility.NONE, setterVisibility = Visibility.NONE)
+@Builder(toBuilder = true)
+@Value
+public class JSONProcessInstanceAsyncStatus
+{
+	public enum Status
+	{
+		QUEUED, RUNNING, DONE, ERROR
+	}
+
+	@NonNull
+	private final String processId;
+	@NonNull
+	private final String pinstanceId;
+	@NonNull
+	private final String websocketEndpoint;
+
+	@NonNull
+	private final Status status;
+
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private final JSONProcessInstanceResult result;
+
+	@JsonInclude(JsonInclude.Include.NON_EMPTY)
+	private final String errorMessage;
+
+	public boolean isFinished()
+	{
+		return status == Status.DONE || status == Status.ERROR;
+	}
+}
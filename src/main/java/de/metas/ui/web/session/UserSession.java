@@ -5,6 +5,7 @@ import java.time.ZoneId;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.Callable;
 import java.util.function.Supplier;
 
 import org.adempiere.service.ClientId;
@@ -14,6 +15,7 @@ import org.compiere.util.Env;
 import org.compiere.util.Evaluatee;
 import org.compiere.util.Evaluatees;
 import org.slf4j.Logger;
+import org.springframework.aop.scope.ScopedObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
@@ -78,6 +80,14 @@ public class UserSession
 	 */
 	public static UserSession getCurrentOrNull()
 	{
+		//
+		// Check if a user session was explicitly bound to current (background) thread
+		final UserSession threadBoundUserSession = threadBoundUserSessionHolder.get();
+		if (threadBoundUserSession != null)
+		{
+			return threadBoundUserSession;
+		}
+
 		//
 		// Quickly check if the session scoped UserSession bean will be really available
 		// NOTE: it's not about that the object will be null but if it's method calls will be really working
@@ -145,6 +155,47 @@ public class UserSession
 		return getCurrent().getUserRolePermissions();
 	}
 
+	/**
+	 * Wraps the given callable so that it runs with the current user session, also when it's called in another thread (e.g. a background executor's thread).
+	 * <p>
+	 * Shall be called from a webui thread, i.e. when the user session is available. If there is no current user session, the callable is returned as is.
+	 */
+	public static <T> Callable<T> withCurrentUserSession(@NonNull final Callable<T> callable)
+	{
+		final UserSession userSession = getCurrentOrNull();
+		if (userSession == null)
+		{
+			return callable;
+		}
+		return withUserSession(userSession.detachFromRequest(), callable);
+	}
+
+	/**
+	 * Wraps the given callable so that, while it's running, the given user session is returned by {@link #getCurrentOrNull()} and the other static accessors.
+	 */
+	public static <T> Callable<T> withUserSession(@NonNull final UserSession userSession, @NonNull final Callable<T> callable)
+	{
+		return () -> {
+			final UserSession previousUserSession = threadBoundUserSessionHolder.get();
+			threadBoundUserSessionHolder.set(userSession);
+			try
+			{
+				return callable.call();
+			}
+			finally
+			{
+				if (previousUserSession != null)
+				{
+					threadBoundUserSessionHolder.set(previousUserSession);
+				}
+				else
+				{
+					threadBoundUserSessionHolder.remove();
+				}
+			}
+		};
+	}
+
 	/** @return true if we are running in a webui thread (i.e. NOT a background daemon thread) */
 	public static boolean isWebuiThread()
 	{
@@ -156,6 +207,7 @@ public class UserSession
 	private final transient ApplicationEventPublisher eventPublisher;
 
 	private static UserSession _staticUserSession = null;
+	private static final ThreadLocal<UserSession> threadBoundUserSessionHolder = new ThreadLocal<>();
 
 	@Autowired
 	private InternalUserSessionData _data; // session scoped
@@ -166,6 +218,26 @@ public class UserSession
 		this.eventPublisher = eventPublisher;
 	}
 
+	/** detached user session constructor */
+	private UserSession(final ApplicationEventPublisher eventPublisher, final InternalUserSessionData data)
+	{
+		this.eventPublisher = eventPublisher;
+		this._data = data;
+	}
+
+	/**
+	 * @return a user session which is directly bound to current session's data, so it can be used also when there is no HTTP request, see {@link #withUserSession(UserSession, Callable)}
+	 */
+	private UserSession detachFromRequest()
+	{
+		// NOTE: our session data is a session scoped proxy, which is resolved using current HTTP request
+		final InternalUserSessionData data = _data instanceof ScopedObject
+				? (InternalUserSessionData)((ScopedObject)_data).getTargetObject()
+				: _data;
+
+		return new UserSession(eventPublisher, data);
+	}
+
 	private InternalUserSessionData getData()
 	{
 		_data.initializeIfNeeded();
@@ -1,9 +1,11 @@
 package de.metas.ui.web.view;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
@@ -77,6 +79,8 @@ public abstract class AbstractCustomView<T extends IViewRow> implements IView
 
 	private final DocumentFilterDescriptorsProvider viewFilterDescriptors;
 
+	private volatile SortedRowsCache<T> _sortedRowsCache; // lazy
+
 	/**
 	 *
 	 * @param viewId
@@ -136,6 +140,7 @@ public abstract class AbstractCustomView<T extends IViewRow> implements IView
 	public void invalidateAll()
 	{
 		rowsData.invalidateAll();
+		_sortedRowsCache = null;
 		ViewChangesCollector
 				.getCurrentOrAutoflush()
 				.collectFullyChanged(this);
@@ -239,9 +244,9 @@ public abstract class AbstractCustomView<T extends IViewRow> implements IView
 				? orderBys
 				: orderBys.withOrderBys(getDefaultOrderBys());
 
-		final List<IViewRow> pageRows = getRows()
+		final List<IViewRow> pageRows = getSortedRowsCache()
+				.getSortedRows(orderBysEffective)
 				.stream()
-				.sorted(orderBysEffective.toComparator())
 				.skip(firstRow >= 0 ? firstRow : 0)
 				.limit(pageLength > 0 ? pageLength : 30)
 				.collect(ImmutableList.toImmutableList());
@@ -249,6 +254,18 @@ public abstract class AbstractCustomView<T extends IViewRow> implements IView
 		return ViewResult.ofViewAndPage(this, firstRow, pageLength, orderBysEffective.toDocumentQueryOrderByList(), pageRows);
 	}
 
+	private SortedRowsCache<T> getSortedRowsCache()
+	{
+		final Collection<T> rows = getRows();
+
+		SortedRowsCache<T> sortedRowsCache = _sortedRowsCache;
+		if (sortedRowsCache == null || !sortedRowsCache.isUpToDate(rows))
+		{
+			sortedRowsCache = _sortedRowsCache = new SortedRowsCache<>(rows);
+		}
+		return sortedRowsCache;
+	}
+
 	@Override
 	public final T getById(@NonNull final DocumentId rowId) throws EntityNotFoundException
 	{
@@ -295,6 +312,7 @@ public abstract class AbstractCustomView<T extends IViewRow> implements IView
 		}
 
 		rowsData.invalidateAll();
+		_sortedRowsCache = null;
 		ViewChangesCollector.getCurrentOrAutoflush()
 				.collectRowsChanged(this, documentIdsToInvalidate);
 	}
@@ -324,6 +342,57 @@ public abstract class AbstractCustomView<T extends IViewRow> implements IView
 		}
 	}
 
+	/**
+	 * The top level rows, sorted by the {@link ViewRowsOrderBy}s which were requested so far.
+	 * <p>
+	 * Rows are immutable, so a changed row is a new instance. That's why, instead of relying on each {@link IRowsData} to tell us about changes,
+	 * we compare (by identity) the current top level rows with the ones we sorted.
+	 */
+	private static final class SortedRowsCache<T extends IViewRow>
+	{
+		private static final int MAX_ORDER_BYS = 10;
+
+		private final ImmutableList<T> rows;
+		private final ConcurrentHashMap<ViewRowsOrderBy, ImmutableList<T>> sortedRowsByOrderBy = new ConcurrentHashMap<>();
+
+		private SortedRowsCache(final Collection<T> rows)
+		{
+			this.rows = ImmutableList.copyOf(rows);
+		}
+
+		public boolean isUpToDate(final Collection<T> currentRows)
+		{
+			if (rows.size() != currentRows.size())
+			{
+				return false;
+			}
+
+			final Iterator<T> rowsIterator = rows.iterator();
+			for (final T currentRow : currentRows)
+			{
+				if (rowsIterator.next() != currentRow)
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+
+		public ImmutableList<T> getSortedRows(final ViewRowsOrderBy orderBy)
+		{
+			if (orderBy.isEmpty())
+			{
+				return rows;
+			}
+
+			if (sortedRowsByOrderBy.size() >= MAX_ORDER_BYS)
+			{
+				sortedRowsByOrderBy.clear();
+			}
+			return sortedRowsByOrderBy.computeIfAbsent(orderBy, k -> k.sort(rows));
+		}
+	}
+
 	private static class RowsDataTool
 	{
 		private static <T extends IViewRow> Map<DocumentId, T> extractAllRows(Collection<T> topLevelRows)
@@ -386,7 +455,12 @@ public abstract class AbstractCustomView<T extends IViewRow> implements IView
 		/** @return top level or include row */
 		default T getById(final DocumentId rowId) throws EntityNotFoundException
 		{
-			final T row = getDocumentId2AllRows().get(rowId);
+			// NOTE: first check the top level rows, because building the map of all rows is expensive
+			T row = getDocumentId2TopLevelRows().get(rowId);
+			if (row == null)
+			{
+				row = getDocumentId2AllRows().get(rowId);
+			}
 			if (row == null)
 			{
 				throw new EntityNotFoundException("Row not found")
@@ -6,7 +6,9 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -37,7 +39,6 @@ import de.metas.ui.web.document.filter.DocumentFilter;
 import de.metas.ui.web.document.filter.json.JSONDocumentFilter;
 import de.metas.ui.web.document.filter.provider.DocumentFilterDescriptorsProvider;
 import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverterContext;
-import de.metas.ui.web.exceptions.EntityNotFoundException;
 import de.metas.ui.web.view.event.ViewChangesCollector;
 import de.metas.ui.web.view.json.JSONViewDataType;
 import de.metas.ui.web.window.datatypes.DocumentId;
@@ -532,20 +533,38 @@ public final class DefaultView implements IEditableView
 			throw new UnsupportedOperationException("Streaming all rows is not supported");
 		}
 
-		// NOTE: we get/retrive one by one because we assume the "selected documents" were recently retrieved,
+		checkChangedRows();
+
+		// NOTE: we first look in our cache because we assume the "selected documents" were recently retrieved,
 		// and the records recently retrieved have a big chance to be cached.
-		return rowIds.stream()
-				.distinct()
-				.map(rowId -> {
-					try
-					{
-						return getOrRetrieveById(rowId);
-					}
-					catch (final EntityNotFoundException e)
-					{
-						return null;
-					}
-				})
+		// The missing ones are retrieved in bulk.
+		final ImmutableList<DocumentId> rowIdsOrdered = rowIds.stream().distinct().collect(ImmutableList.toImmutableList());
+		final Map<DocumentId, IViewRow> rowsById = new HashMap<>(rowIdsOrdered.size());
+		final Set<DocumentId> rowIdsToRetrieve = new LinkedHashSet<>();
+		for (final DocumentId rowId : rowIdsOrdered)
+		{
+			final IViewRow row = cache_rowsById.get(rowId);
+			if (row != null)
+			{
+				rowsById.put(rowId, row);
+			}
+			else
+			{
+				rowIdsToRetrieve.add(rowId);
+			}
+		}
+
+		if (!rowIdsToRetrieve.isEmpty())
+		{
+			viewDataRepository.retrieveByIds(getViewEvaluationCtx(), getViewId(), DocumentIdsSelection.of(rowIdsToRetrieve))
+					.forEach(row -> {
+						cache_rowsById.put(row.getId(), row);
+						rowsById.put(row.getId(), row);
+					});
+		}
+
+		return rowIdsOrdered.stream()
+				.map(rowsById::get)
 				.filter(row -> row != null);
 	}
 
@@ -555,6 +574,12 @@ public final class DefaultView implements IEditableView
 		return viewDataRepository.retrieveModelsByIds(getViewId(), rowIds, modelClass);
 	}
 
+	@Override
+	public ViewWatchedTables getWatchedTables()
+	{
+		return viewInvalidationAdvisor.getWatchedTables(this);
+	}
+
 	@Override
 	public void notifyRecordsChanged(final TableRecordReferenceSet recordRefs)
 	{
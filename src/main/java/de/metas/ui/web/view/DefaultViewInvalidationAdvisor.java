@@ -60,4 +60,10 @@ public final class DefaultViewInvalidationAdvisor implements IViewInvalidationAd
 				.collect(ImmutableSet.toImmutableSet());
 	}
 
+	@Override
+	public ViewWatchedTables getWatchedTables(final IView view)
+	{
+		return ViewWatchedTables.ofTableName(view.getTableNameOrNull());
+	}
+
 }
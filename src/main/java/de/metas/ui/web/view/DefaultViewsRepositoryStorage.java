@@ -3,6 +3,8 @@ package de.metas.ui.web.view;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
+import org.adempiere.util.lang.impl.TableRecordReferenceSet;
+
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.RemovalNotification;
@@ -41,6 +43,8 @@ public final class DefaultViewsRepositoryStorage implements IViewsIndexStorage
 			.removalListener(notification -> onViewRemoved(notification))
 			.build();
 
+	private final ViewsByWatchedTableIndex viewsByWatchedTable = new ViewsByWatchedTableIndex();
+
 	@Override
 	public WindowId getWindowId()
 	{
@@ -50,6 +54,8 @@ public final class DefaultViewsRepositoryStorage implements IViewsIndexStorage
 	private void onViewRemoved(final RemovalNotification<Object, Object> notification)
 	{
 		final IView view = (IView)notification.getValue();
+		viewsByWatchedTable.removeIfSame(view);
+
 		final ViewCloseReason closeReason = ViewCloseReason.fromCacheEvictedFlag(notification.wasEvicted());
 		view.close(closeReason);
 	}
@@ -58,6 +64,7 @@ public final class DefaultViewsRepositoryStorage implements IViewsIndexStorage
 	public void put(@NonNull final IView view)
 	{
 		views.put(view.getViewId(), view);
+		viewsByWatchedTable.add(view);
 	}
 
 	@Override
@@ -102,4 +109,10 @@ public final class DefaultViewsRepositoryStorage implements IViewsIndexStorage
 		return views.asMap().values().stream();
 	}
 
+	@Override
+	public Stream<IView> streamAllViewsWatching(@NonNull final TableRecordReferenceSet recordRefs)
+	{
+		return viewsByWatchedTable.streamViewsWatching(recordRefs);
+	}
+
 }
@@ -201,6 +201,15 @@ public interface IView
 	 */
 	void notifyRecordsChanged(TableRecordReferenceSet recordRefs);
 
+	/**
+	 * @return the tables for which this view wants to be notified via {@link #notifyRecordsChanged(TableRecordReferenceSet)}.
+	 *         The returned value shall not change during view's lifetime.
+	 */
+	default ViewWatchedTables getWatchedTables()
+	{
+		return ViewWatchedTables.ALL;
+	}
+
 	/** @return actions which were registered particularly for this view instance */
 	default ViewActionDescriptorsList getActions()
 	{
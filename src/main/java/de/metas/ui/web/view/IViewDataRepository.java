@@ -56,6 +56,13 @@ public interface IViewDataRepository
 
 	IViewRow retrieveById(ViewEvaluationCtx viewEvalCtx, ViewId viewId, DocumentId rowId);
 
+	/**
+	 * Retrieves the rows for given IDs, using as few database round trips as possible.
+	 * 
+	 * @return rows, ordered by their position in view's default selection; rows which were not found are skipped
+	 */
+	List<IViewRow> retrieveByIds(ViewEvaluationCtx viewEvalCtx, ViewId viewId, DocumentIdsSelection rowIds);
+
 	List<IViewRow> retrievePage(ViewEvaluationCtx viewEvalCtx, ViewRowIdsOrderedSelection orderedSelection, int firstRow, int pageLength) throws DBException;
 
 	List<DocumentId> retrieveRowIdsByPage(ViewEvaluationCtx viewEvalCtx, ViewRowIdsOrderedSelection orderedSelection, int firstRow, int pageLength);
@@ -44,4 +44,10 @@ public interface IViewInvalidationAdvisor
 	WindowId getWindowId();
 
 	Set<DocumentId> findAffectedRowIds(final TableRecordReferenceSet recordRefs, IView view);
+
+	/** @return the tables which can produce affected rows for given view; see {@link #findAffectedRowIds(TableRecordReferenceSet, IView)} */
+	default ViewWatchedTables getWatchedTables(final IView view)
+	{
+		return ViewWatchedTables.ALL;
+	}
 }
@@ -2,7 +2,10 @@ package de.metas.ui.web.view;
 
 import java.util.stream.Stream;
 
+import org.adempiere.util.lang.impl.TableRecordReferenceSet;
+
 import de.metas.ui.web.window.datatypes.WindowId;
+import lombok.NonNull;
 
 /*
  * #%L
@@ -53,6 +56,16 @@ public interface IViewsIndexStorage
 
 	Stream<IView> streamAllViews();
 
+	/**
+	 * @return views which are interested in the given changed records (see {@link IView#getWatchedTables()}).
+	 *         Implementations which are storing a lot of views are advised to maintain an index instead of scanning all views.
+	 */
+	default Stream<IView> streamAllViewsWatching(@NonNull final TableRecordReferenceSet recordRefs)
+	{
+		return streamAllViews()
+				.filter(view -> view.getWatchedTables().isMatching(recordRefs));
+	}
+
 	void invalidateView(ViewId viewId);
 
 }
@@ -16,13 +16,17 @@ import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.exceptions.DBException;
 import org.adempiere.model.PlainContextAware;
+import org.adempiere.util.comparator.FixedOrderByKeyComparator;
 import org.compiere.util.DB;
 import org.compiere.util.DisplayType;
 import org.slf4j.Logger;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 
 import de.metas.logging.LogManager;
@@ -48,6 +52,7 @@ import de.metas.ui.web.window.datatypes.json.JSONLookupValue;
 import de.metas.ui.web.window.datatypes.json.JSONNullValue;
 import de.metas.ui.web.window.datatypes.json.JSONOptions;
 import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.descriptor.sql.ResultSetColumnIndexes;
 import de.metas.ui.web.window.model.DocumentQueryOrderBy;
 import de.metas.ui.web.window.model.sql.SqlOptions;
 import de.metas.util.Check;
@@ -80,6 +85,8 @@ class SqlViewDataRepository implements IViewDataRepository
 {
 	private static final Logger logger = LogManager.getLogger(SqlViewDataRepository.class);
 
+	private static final int RETRIEVE_BY_IDS_CHUNK_SIZE = 500;
+
 	private final String tableName;
 	private final String tableAlias;
 	private final SqlViewKeyColumnNamesMap keyColumnNamesMap;
@@ -103,7 +110,8 @@ class SqlViewDataRepository implements IViewDataRepository
 		widgetTypesByFieldName = sqlBindings.getWidgetTypesByFieldName();
 		sqlViewSelect = sqlBindings.getSqlViewSelect();
 		viewFilterDescriptors = sqlBindings.getViewFilterDescriptors();
-		viewRowIdsOrderedSelectionFactory = SqlViewRowIdsOrderedSelectionFactory.of(sqlBindings);
+		final boolean allowInMemorySelections = true;
+		viewRowIdsOrderedSelectionFactory = SqlViewRowIdsOrderedSelectionFactory.of(sqlBindings, allowInMemorySelections);
 		defaultOrderBys = sqlBindings.getDefaultOrderBys();
 
 		this.hasIncludedRows = sqlBindings.hasGroupingFields();
@@ -262,18 +270,102 @@ class SqlViewDataRepository implements IViewDataRepository
 		}
 	}
 
-	private final ImmutableList<IViewRow> loadViewRows(
+	@Override
+	public List<IViewRow> retrieveByIds(
+			@NonNull final ViewEvaluationCtx viewEvalCtx,
+			@NonNull final ViewId viewId,
+			@NonNull final DocumentIdsSelection rowIds)
+	{
+		if (rowIds.isEmpty())
+		{
+			return ImmutableList.of();
+		}
+		else if (rowIds.isAll())
+		{
+			throw new AdempiereException("Retrieving all rows is not supported");
+		}
+
+		final boolean allRowIdsAreInts = rowIds.stream().allMatch(DocumentId::isInt);
+		if (!keyColumnNamesMap.isSingleKey() || !allRowIdsAreInts)
+		{
+			return retrieveByIdsOneByOne(viewEvalCtx, viewId, rowIds);
+		}
+
+		final ImmutableList.Builder<IViewRow> rows = ImmutableList.builder();
+		for (final List<DocumentId> rowIdsChunk : Iterables.partition(rowIds.toSet(), RETRIEVE_BY_IDS_CHUNK_SIZE))
+		{
+			rows.addAll(retrieveByIdsChunk(viewEvalCtx, viewId, DocumentIdsSelection.of(rowIdsChunk)));
+		}
+		return rows.build();
+	}
+
+	private List<IViewRow> retrieveByIdsChunk(
+			final ViewEvaluationCtx viewEvalCtx,
+			final ViewId viewId,
+			final DocumentIdsSelection rowIds)
+	{
+		final SqlAndParams sqlAndParams = sqlViewSelect.selectByIds()
+				.viewEvalCtx(viewEvalCtx)
+				.viewId(viewId)
+				.rowIds(rowIds)
+				.build();
+
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sqlAndParams.getSql(), ITrx.TRXNAME_ThreadInherited);
+			DB.setParameters(pstmt, sqlAndParams.getSqlParams());
+
+			rs = pstmt.executeQuery();
+
+			return loadViewRows(rs, viewEvalCtx, viewId, -1/* limit */);
+		}
+		catch (final SQLException | DBException e)
+		{
+			throw DBException.wrapIfNeeded(e)
+					.setSqlIfAbsent(sqlAndParams.getSql(), sqlAndParams.getSqlParams());
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
+	private List<IViewRow> retrieveByIdsOneByOne(
+			final ViewEvaluationCtx viewEvalCtx,
+			final ViewId viewId,
+			final DocumentIdsSelection rowIds)
+	{
+		final ImmutableList.Builder<IViewRow> rows = ImmutableList.builder();
+		for (final DocumentId rowId : rowIds.toSet())
+		{
+			try
+			{
+				rows.add(retrieveById(viewEvalCtx, viewId, rowId));
+			}
+			catch (final EntityNotFoundException e)
+			{
+				logger.trace("Skip row {} because it was not found in {}", rowId, viewId, e);
+			}
+		}
+		return rows.build();
+	}
+
+	@VisibleForTesting
+	final ImmutableList<IViewRow> loadViewRows(
 			@NonNull final ResultSet rs,
 			final ViewEvaluationCtx viewEvalCtx,
 			final ViewId viewId,
 			final int limit) throws SQLException
 	{
 		final JSONOptions jsonOpts = viewEvalCtx.toJSONOptions();
+		final ImmutableMap<String, SqlViewRowFieldLoader> fieldLoaders = compileRowFieldLoaders(rs);
 		final Map<DocumentId, ViewRow.Builder> rowBuilders = new LinkedHashMap<>();
 		final Set<DocumentId> rootRowIds = new HashSet<>();
 		while (rs.next())
 		{
-			final ViewRow.Builder rowBuilder = loadViewRow(rs, viewId.getWindowId(), jsonOpts);
+			final ViewRow.Builder rowBuilder = loadViewRow(rs, fieldLoaders, viewId.getWindowId(), jsonOpts);
 			if (rowBuilder == null)
 			{
 				continue;
@@ -317,8 +409,18 @@ class SqlViewDataRepository implements IViewDataRepository
 				.collect(ImmutableList.toImmutableList());
 	}
 
+	/**
+	 * @return the row field loaders, compiled to read the columns of given result set by index instead of by name
+	 */
+	private ImmutableMap<String, SqlViewRowFieldLoader> compileRowFieldLoaders(final ResultSet rs) throws SQLException
+	{
+		final ResultSetColumnIndexes columnIndexes = ResultSetColumnIndexes.of(rs);
+		return ImmutableMap.copyOf(Maps.transformValues(rowFieldLoaders, fieldLoader -> fieldLoader.compile(columnIndexes)));
+	}
+
 	private ViewRow.Builder loadViewRow(
 			@NonNull final ResultSet rs,
+			@NonNull final ImmutableMap<String, SqlViewRowFieldLoader> fieldLoaders,
 			final WindowId windowId,
 			final JSONOptions jsonOpts) throws SQLException
 	{
@@ -341,7 +443,7 @@ class SqlViewDataRepository implements IViewDataRepository
 			viewRowBuilder.setType(DefaultRowType.Row);
 		}
 
-		final DocumentId rowId = retrieveRowId(rs, jsonOpts);
+		final DocumentId rowId = retrieveRowId(rs, fieldLoaders, jsonOpts);
 		if (rowId == null)
 		{
 			logger.warn("No ID found for current row. Skipping the row.");
@@ -349,7 +451,7 @@ class SqlViewDataRepository implements IViewDataRepository
 		}
 		viewRowBuilder.setRowId(rowId);
 
-		for (final Map.Entry<String, SqlViewRowFieldLoader> fieldNameAndLoader : rowFieldLoaders.entrySet())
+		for (final Map.Entry<String, SqlViewRowFieldLoader> fieldNameAndLoader : fieldLoaders.entrySet())
 		{
 			final String fieldName = fieldNameAndLoader.getKey();
 			final SqlViewRowFieldLoader fieldLoader = fieldNameAndLoader.getValue();
@@ -365,22 +467,28 @@ class SqlViewDataRepository implements IViewDataRepository
 		return viewRowBuilder;
 	}
 
-	private DocumentId retrieveRowId(final ResultSet rs, final JSONOptions jsonOpts) throws SQLException
+	private DocumentId retrieveRowId(
+			final ResultSet rs,
+			final ImmutableMap<String, SqlViewRowFieldLoader> fieldLoaders,
+			final JSONOptions jsonOpts) throws SQLException
 	{
 		if (keyColumnNamesMap.isSingleKey())
 		{
-			return retrieveRowId_SingleKey(rs, jsonOpts);
+			return retrieveRowId_SingleKey(rs, fieldLoaders, jsonOpts);
 		}
 		else
 		{
-			return retrieveRowId_MultiKey(rs, jsonOpts.getAdLanguage());
+			return retrieveRowId_MultiKey(rs, fieldLoaders, jsonOpts.getAdLanguage());
 		}
 	}
 
-	private DocumentId retrieveRowId_SingleKey(final ResultSet rs, final JSONOptions jsonOpts) throws SQLException
+	private DocumentId retrieveRowId_SingleKey(
+			final ResultSet rs,
+			final ImmutableMap<String, SqlViewRowFieldLoader> fieldLoaders,
+			final JSONOptions jsonOpts) throws SQLException
 	{
 		final String keyColumnName = keyColumnNamesMap.getSingleKeyColumnName();
-		final SqlViewRowFieldLoader fieldLoader = rowFieldLoaders.get(keyColumnName);
+		final SqlViewRowFieldLoader fieldLoader = fieldLoaders.get(keyColumnName);
 		final Object rowIdObj = fieldLoader.retrieveValue(rs, jsonOpts.getAdLanguage());
 		return convertToRowId(rowIdObj);
 	}
@@ -421,14 +529,17 @@ class SqlViewDataRepository implements IViewDataRepository
 		}
 	}
 
-	private DocumentId retrieveRowId_MultiKey(final ResultSet rs, final String adLanguage) throws SQLException
+	private DocumentId retrieveRowId_MultiKey(
+			final ResultSet rs,
+			final ImmutableMap<String, SqlViewRowFieldLoader> fieldLoaders,
+			final String adLanguage) throws SQLException
 	{
 		final List<Object> rowIdParts = new ArrayList<>(keyColumnNamesMap.getKeyPartsCount());
 		boolean onlyNullValues = true;
 
 		for (final String keyColumnName : keyColumnNamesMap.getKeyColumnNames())
 		{
-			final SqlViewRowFieldLoader fieldLoader = rowFieldLoaders.get(keyColumnName);
+			final SqlViewRowFieldLoader fieldLoader = fieldLoaders.get(keyColumnName);
 			// Check.assumeNotNull(fieldLoader, "fieldLoader shall exist for {}", keyColumnName);
 
 			final Object rowIdPartObj = fieldLoader.retrieveValue(rs, adLanguage);
@@ -491,6 +602,15 @@ class SqlViewDataRepository implements IViewDataRepository
 		logger.debug("Using: {}", orderedSelection);
 
 		final ViewId viewId = orderedSelection.getViewId();
+		if (orderedSelection.isInMemory())
+		{
+			final List<DocumentId> rowIds = orderedSelection.getRowIdsPage(firstRow, pageLength);
+			final List<IViewRow> rows = retrieveByIds(viewEvalCtx, viewId, DocumentIdsSelection.of(rowIds));
+
+			// NOTE: the rows are loaded in the default selection order, but the page has to follow the in memory selection order
+			return sortByRowIds(rows, rowIds);
+		}
+
 		final SqlAndParams sqlAndParams = sqlViewSelect.selectByPage()
 				.viewEvalCtx(viewEvalCtx)
 				.viewId(viewId)
@@ -521,6 +641,14 @@ class SqlViewDataRepository implements IViewDataRepository
 		}
 	}
 
+	@VisibleForTesting
+	static List<IViewRow> sortByRowIds(final List<IViewRow> rows, final List<DocumentId> rowIds)
+	{
+		return rows.stream()
+				.sorted(FixedOrderByKeyComparator.notMatchedAtTheEnd(rowIds, IViewRow::getId))
+				.collect(ImmutableList.toImmutableList());
+	}
+
 	@Override
 	public List<DocumentId> retrieveRowIdsByPage(final ViewEvaluationCtx viewEvalCtx,
 			final ViewRowIdsOrderedSelection orderedSelection,
@@ -530,6 +658,11 @@ class SqlViewDataRepository implements IViewDataRepository
 		logger.debug("Getting page: firstRow={}, pageLength={} - {}", firstRow, pageLength, this);
 		logger.debug("Using: {}", orderedSelection);
 
+		if (orderedSelection.isInMemory())
+		{
+			return orderedSelection.getRowIdsPage(firstRow, pageLength);
+		}
+
 		final ViewId viewId = orderedSelection.getViewId();
 		final SqlAndParams sqlAndParams = sqlViewSelect.selectRowIdsByPage()
 				.viewEvalCtx(viewEvalCtx)
@@ -550,10 +683,11 @@ class SqlViewDataRepository implements IViewDataRepository
 
 			final ImmutableList.Builder<DocumentId> rowIds = ImmutableList.builder();
 			final JSONOptions jsonOpts = JSONOptions.newInstance(); // not important
+			final ImmutableMap<String, SqlViewRowFieldLoader> fieldLoaders = compileRowFieldLoaders(rs);
 
 			while (rs.next())
 			{
-				final DocumentId rowId = retrieveRowId(rs, jsonOpts);
+				final DocumentId rowId = retrieveRowId(rs, fieldLoaders, jsonOpts);
 				if (rowId == null)
 				{
 					continue;
@@ -44,6 +44,7 @@ import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
 import de.metas.ui.web.window.descriptor.LookupDescriptor;
 import de.metas.ui.web.window.descriptor.factory.DocumentDescriptorFactory;
 import de.metas.ui.web.window.descriptor.sql.DocumentFieldValueLoader;
+import de.metas.ui.web.window.descriptor.sql.ResultSetColumnIndexes;
 import de.metas.ui.web.window.descriptor.sql.SqlDocumentEntityDataBindingDescriptor;
 import de.metas.ui.web.window.descriptor.sql.SqlDocumentFieldDataBindingDescriptor;
 import de.metas.ui.web.window.model.DocumentReference;
@@ -502,5 +503,10 @@ public class SqlViewFactory implements IViewFactory
 					(LookupDescriptor)null);
 		}
 
+		@Override
+		public SqlViewRowFieldLoader compile(@NonNull final ResultSetColumnIndexes columnIndexes)
+		{
+			return new DocumentFieldValueLoaderAsSqlViewRowFieldLoader(fieldValueLoader.compile(columnIndexes), isDisplayColumnAvailable);
+		}
 	}
 }
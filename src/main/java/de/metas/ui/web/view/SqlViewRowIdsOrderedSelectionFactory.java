@@ -3,11 +3,13 @@ package de.metas.ui.web.view;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 
 import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.exceptions.DBException;
+import org.adempiere.service.ISysConfigBL;
 import org.compiere.util.DB;
 import org.slf4j.Logger;
 
@@ -59,16 +61,32 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 {
 	public static final SqlViewRowIdsOrderedSelectionFactory of(final SqlViewBinding viewBinding)
 	{
-		return new SqlViewRowIdsOrderedSelectionFactory(viewBinding);
+		final boolean allowInMemorySelections = false;
+		return new SqlViewRowIdsOrderedSelectionFactory(viewBinding, allowInMemorySelections);
+	}
+
+	/**
+	 * @param allowInMemorySelections if true, the selections which are created from other selections (i.e. when sorting) are kept in memory,
+	 *            if they are small enough (see {@value #SYSCONFIG_InMemorySelectionMaxSize}).
+	 *            The caller is responsible for retrieving the rows of such selections using {@link ViewRowIdsOrderedSelection#getRowIdsPage(int, int)}.
+	 */
+	public static final SqlViewRowIdsOrderedSelectionFactory of(final SqlViewBinding viewBinding, final boolean allowInMemorySelections)
+	{
+		return new SqlViewRowIdsOrderedSelectionFactory(viewBinding, allowInMemorySelections);
 	}
 
 	private static final Logger logger = LogManager.getLogger(SqlViewRowIdsOrderedSelectionFactory.class);
 
+	private static final String SYSCONFIG_InMemorySelectionMaxSize = "webui.view.InMemorySelectionMaxSize";
+	private static final int DEFAULT_InMemorySelectionMaxSize = 5000;
+
 	private final SqlViewBinding viewBinding;
+	private final boolean allowInMemorySelections;
 
-	private SqlViewRowIdsOrderedSelectionFactory(@NonNull final SqlViewBinding viewBinding)
+	private SqlViewRowIdsOrderedSelectionFactory(@NonNull final SqlViewBinding viewBinding, final boolean allowInMemorySelections)
 	{
 		this.viewBinding = viewBinding;
+		this.allowInMemorySelections = allowInMemorySelections;
 	}
 
 	private SqlViewSelectionQueryBuilder newSqlViewSelectionQueryBuilder()
@@ -135,6 +153,11 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 	@Override
 	public ViewRowIdsOrderedSelection createOrderedSelectionFromSelection(final ViewEvaluationCtx viewEvalCtx, final ViewRowIdsOrderedSelection fromSelection, final List<DocumentQueryOrderBy> orderBys)
 	{
+		if (isCreateInMemorySelection(fromSelection))
+		{
+			return createInMemoryOrderedSelectionFromSelection(viewEvalCtx, fromSelection, orderBys);
+		}
+
 		final WindowId windowId = fromSelection.getWindowId();
 		final String fromSelectionId = fromSelection.getSelectionId();
 		final ViewId newViewId = ViewId.random(windowId);
@@ -170,6 +193,83 @@ public class SqlViewRowIdsOrderedSelectionFactory implements ViewRowIdsOrderedSe
 				.build();
 	}
 
+	private boolean isCreateInMemorySelection(final ViewRowIdsOrderedSelection fromSelection)
+	{
+		if (!allowInMemorySelections)
+		{
+			return false;
+		}
+
+		// NOTE: in memory selections are always created from the default (database) selection
+		if (fromSelection.isInMemory())
+		{
+			return false;
+		}
+
+		if (viewBinding.hasGroupingFields() || !viewBinding.getSqlViewKeyColumnNamesMap().isSingleIntKey())
+		{
+			return false;
+		}
+
+		final long size = fromSelection.getSize();
+		final int maxSize = Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_InMemorySelectionMaxSize, DEFAULT_InMemorySelectionMaxSize);
+		return size >= 0 && size <= maxSize;
+	}
+
+	/**
+	 * Fetches the row IDs of <code>fromSelection</code> ordered by <code>orderBys</code> and keeps them in memory.
+	 * The resulting selection has the same selection ID as <code>fromSelection</code>, so nothing is written to the database.
+	 */
+	private ViewRowIdsOrderedSelection createInMemoryOrderedSelectionFromSelection(final ViewEvaluationCtx viewEvalCtx, final ViewRowIdsOrderedSelection fromSelection, final List<DocumentQueryOrderBy> orderBys)
+	{
+		final SqlAndParams sqlAndParams = newSqlViewSelectionQueryBuilder().buildSqlSelectOrderedRowIdsFromSelection(viewEvalCtx, fromSelection.getSelectionId(), orderBys);
+
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		final int[] rowIds = retrieveRowIds(sqlAndParams, (int)fromSelection.getSize());
+		logger.trace("Created in memory selection from {}, rowsCount={}, duration={}", fromSelection, rowIds.length, stopwatch);
+
+		return ViewRowIdsOrderedSelection.builder()
+				.setViewId(fromSelection.getViewId())
+				.setRowIds(rowIds)
+				.setSize(rowIds.length)
+				.setOrderBys(orderBys)
+				.setQueryLimit(fromSelection.getQueryLimit())
+				.build();
+	}
+
+	private static int[] retrieveRowIds(final SqlAndParams sqlAndParams, final int expectedSize)
+	{
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sqlAndParams.getSql(), ITrx.TRXNAME_ThreadInherited);
+			DB.setParameters(pstmt, sqlAndParams.getSqlParams());
+			rs = pstmt.executeQuery();
+
+			int[] rowIds = new int[Math.max(expectedSize, 16)];
+			int size = 0;
+			while (rs.next())
+			{
+				if (size >= rowIds.length)
+				{
+					rowIds = Arrays.copyOf(rowIds, rowIds.length * 2);
+				}
+				rowIds[size++] = rs.getInt(1);
+			}
+
+			return size == rowIds.length ? rowIds : Arrays.copyOf(rowIds, size);
+		}
+		catch (final SQLException ex)
+		{
+			throw new DBException(ex, sqlAndParams.getSql(), sqlAndParams.getSqlParams());
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
 	@Override
 	public ViewRowIdsOrderedSelection addRowIdsToSelection(final ViewRowIdsOrderedSelection selection, final DocumentIdsSelection rowIds)
 	{
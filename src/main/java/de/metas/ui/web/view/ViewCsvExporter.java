@@ -0,0 +1,171 @@
+package de.metas.ui.web.view;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.compiere.util.DisplayType;
+
+import de.metas.i18n.Language;
+import de.metas.ui.web.view.descriptor.ViewLayout;
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import lombok.Builder;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Exports view rows as CSV (RFC 4180, UTF-8).
+ * <p>
+ * Numbers are written without grouping and with "." as decimal separator, dates and times are written in ISO-8601 format.
+ */
+/* package */ final class ViewCsvExporter extends ViewStreamingExporter
+{
+	private static final char FIELD_SEPARATOR = ',';
+	private static final char QUOTE = '"';
+	private static final String LINE_SEPARATOR = "\r\n";
+	/** UTF-8 byte order mark, so that spreadsheet applications are detecting the encoding */
+	private static final char BOM = '\uFEFF';
+
+	private Writer writer;
+
+	@Builder
+	private ViewCsvExporter(
+			@NonNull final IView view,
+			@NonNull final DocumentIdsSelection rowIds,
+			@NonNull final ViewLayout layout,
+			@NonNull final Language language,
+			final int pageSize)
+	{
+		super(view, rowIds, layout, language, pageSize);
+	}
+
+	@Override
+	protected void start(final OutputStream out) throws IOException
+	{
+		writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		writer.write(BOM);
+
+		final List<Column> columns = getColumns();
+		for (int columnIndex = 0; columnIndex < columns.size(); columnIndex++)
+		{
+			if (columnIndex > 0)
+			{
+				writer.write(FIELD_SEPARATOR);
+			}
+			writeEscaped(columns.get(columnIndex).getCaption());
+		}
+		writer.write(LINE_SEPARATOR);
+	}
+
+	@Override
+	protected void writeRow(final IViewRow row)
+	{
+		try
+		{
+			final List<Column> columns = getColumns();
+			for (int columnIndex = 0; columnIndex < columns.size(); columnIndex++)
+			{
+				if (columnIndex > 0)
+				{
+					writer.write(FIELD_SEPARATOR);
+				}
+				writeEscaped(toString(getCellValue(row, columns.get(columnIndex))));
+			}
+			writer.write(LINE_SEPARATOR);
+		}
+		catch (final IOException ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex);
+		}
+	}
+
+	private static String toString(final Object value)
+	{
+		if (value == null)
+		{
+			return null;
+		}
+		else if (value instanceof BigDecimal)
+		{
+			return ((BigDecimal)value).toPlainString();
+		}
+		else if (value instanceof Boolean)
+		{
+			return DisplayType.toBooleanString((Boolean)value);
+		}
+		else if (value instanceof ZonedDateTime)
+		{
+			return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format((ZonedDateTime)value);
+		}
+		else
+		{
+			// Strings, other numbers, LocalDate, LocalTime, Instant
+			return value.toString();
+		}
+	}
+
+	private void writeEscaped(final String value) throws IOException
+	{
+		if (value == null || value.isEmpty())
+		{
+			return;
+		}
+
+		final boolean quote = value.indexOf(FIELD_SEPARATOR) >= 0
+				|| value.indexOf(QUOTE) >= 0
+				|| value.indexOf('\n') >= 0
+				|| value.indexOf('\r') >= 0;
+		if (!quote)
+		{
+			writer.write(value);
+			return;
+		}
+
+		writer.write(QUOTE);
+		for (int i = 0; i < value.length(); i++)
+		{
+			final char ch = value.charAt(i);
+			if (ch == QUOTE)
+			{
+				writer.write(QUOTE);
+			}
+			writer.write(ch);
+		}
+		writer.write(QUOTE);
+	}
+
+	@Override
+	protected void finish(final OutputStream out) throws IOException
+	{
+		writer.flush();
+	}
+}
@@ -0,0 +1,178 @@
+package de.metas.ui.web.view;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.Temporal;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.compiere.util.TimeUtil;
+
+import de.metas.i18n.Language;
+import de.metas.ui.web.view.descriptor.ViewLayout;
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import lombok.Builder;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Exports view rows to an xlsx file, using POI's streaming {@link SXSSFWorkbook}, so only a window of rows is kept in memory.
+ */
+/* package */ final class ViewExcelStreamingExporter extends ViewStreamingExporter
+{
+	/** how many rows are kept in memory, the others are flushed to the workbook's (compressed) temporary file */
+	private static final int ROW_ACCESS_WINDOW_SIZE = 100;
+
+	private SXSSFWorkbook workbook;
+	private Sheet sheet;
+	private CellStyle dateStyle;
+	private CellStyle dateTimeStyle;
+	private int nextRowIndex = 0;
+
+	@Builder
+	private ViewExcelStreamingExporter(
+			@NonNull final IView view,
+			@NonNull final DocumentIdsSelection rowIds,
+			@NonNull final ViewLayout layout,
+			@NonNull final Language language,
+			final int pageSize)
+	{
+		super(view, rowIds, layout, language, pageSize);
+	}
+
+	@Override
+	protected void start(final OutputStream out)
+	{
+		workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW_SIZE);
+		workbook.setCompressTempFiles(true);
+
+		final DataFormat dataFormat = workbook.createDataFormat();
+		dateStyle = workbook.createCellStyle();
+		dateStyle.setDataFormat(dataFormat.getFormat(getLanguage().getDateFormat().toPattern()));
+		dateTimeStyle = workbook.createCellStyle();
+		dateTimeStyle.setDataFormat(dataFormat.getFormat(getLanguage().getDateTimeFormat().toPattern()));
+
+		sheet = workbook.createSheet();
+		sheet.createFreezePane(0, 1);
+
+		writeHeader();
+	}
+
+	private void writeHeader()
+	{
+		final Font headerFont = workbook.createFont();
+		headerFont.setBold(true);
+		final CellStyle headerStyle = workbook.createCellStyle();
+		headerStyle.setFont(headerFont);
+
+		final Row headerRow = sheet.createRow(nextRowIndex++);
+		final List<Column> columns = getColumns();
+		for (int columnIndex = 0; columnIndex < columns.size(); columnIndex++)
+		{
+			final Cell cell = headerRow.createCell(columnIndex);
+			cell.setCellValue(columns.get(columnIndex).getCaption());
+			cell.setCellStyle(headerStyle);
+		}
+	}
+
+	@Override
+	protected void writeRow(final IViewRow row)
+	{
+		final Row excelRow = sheet.createRow(nextRowIndex++);
+		final List<Column> columns = getColumns();
+		for (int columnIndex = 0; columnIndex < columns.size(); columnIndex++)
+		{
+			final Object value = getCellValue(row, columns.get(columnIndex));
+			if (value == null)
+			{
+				continue;
+			}
+
+			final Cell cell = excelRow.createCell(columnIndex);
+			if (value instanceof Number)
+			{
+				cell.setCellValue(((Number)value).doubleValue());
+			}
+			else if (value instanceof Boolean)
+			{
+				cell.setCellValue((Boolean)value);
+			}
+			else if (value instanceof LocalTime)
+			{
+				cell.setCellValue(value.toString());
+			}
+			else if (value instanceof LocalDate)
+			{
+				cell.setCellValue(TimeUtil.asDate(value));
+				cell.setCellStyle(dateStyle);
+			}
+			else if (value instanceof Temporal)
+			{
+				cell.setCellValue(TimeUtil.asDate(value));
+				cell.setCellStyle(dateTimeStyle);
+			}
+			else
+			{
+				cell.setCellValue(value.toString());
+			}
+		}
+	}
+
+	@Override
+	protected void finish(final OutputStream out) throws IOException
+	{
+		try
+		{
+			workbook.write(out);
+		}
+		finally
+		{
+			disposeWorkbook();
+		}
+	}
+
+	@Override
+	protected void close()
+	{
+		// in case the export failed before finishing
+		disposeWorkbook();
+	}
+
+	private void disposeWorkbook()
+	{
+		if (workbook != null)
+		{
+			workbook.dispose(); // delete the temporary files
+			workbook = null;
+		}
+	}
+}
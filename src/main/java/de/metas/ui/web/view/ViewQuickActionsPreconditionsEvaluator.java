@@ -0,0 +1,376 @@
+package de.metas.ui.web.view;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+import javax.annotation.PreDestroy;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.service.ISysConfigBL;
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.adempiere.util.lang.IAutoCloseable;
+import org.compiere.util.Env;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import de.metas.i18n.IMsgBL;
+import de.metas.i18n.ITranslatableString;
+import de.metas.i18n.TranslatableStrings;
+import de.metas.logging.LogManager;
+import de.metas.process.RelatedProcessDescriptor.DisplayPlace;
+import de.metas.ui.web.process.ProcessId;
+import de.metas.ui.web.process.ViewAsPreconditionsContext;
+import de.metas.ui.web.process.descriptor.WebuiRelatedProcessDescriptor;
+import de.metas.ui.web.session.UserSession;
+import de.metas.ui.web.view.json.JSONViewActionsChanged;
+import de.metas.ui.web.websocket.WebSocketConfig;
+import de.metas.ui.web.websocket.WebsocketSender;
+import de.metas.util.Check;
+import de.metas.util.Services;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Evaluates the preconditions of view actions and quick actions.
+ * <p>
+ * The preconditions are evaluated in parallel, on a dedicated thread pool, and the caller is waiting only up to a given time budget.
+ * The actions which were not evaluated in time are returned as pending and when they are finally evaluated,
+ * a {@link JSONViewActionsChanged} event is sent to {@link WebSocketConfig#buildViewActionsTopicName(String)}.
+ * <p>
+ * The evaluation results are cached per view selection and process, until the rows of the view are changed (see {@link #invalidateView(ViewId)}).
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+@Component
+public class ViewQuickActionsPreconditionsEvaluator
+{
+	private static final Logger logger = LogManager.getLogger(ViewQuickActionsPreconditionsEvaluator.class);
+
+	private static final String SYSCONFIG_TimeBudgetMillis = "webui.view.actions.preconditionsTimeBudgetMillis";
+	private static final int DEFAULT_TimeBudgetMillis = 500;
+
+	private static final String MSG_PreconditionsPending = "WEBUI_ProcessPreconditionsPending";
+	/** used as long as the {@link #MSG_PreconditionsPending} AD_Message is not available */
+	private static final String MSG_PreconditionsPending_Fallback = "Checking...";
+
+	private final WebsocketSender websocketSender;
+	private final ThreadPoolExecutor executor;
+
+	private final Cache<EvaluationKey, CompletableFuture<WebuiRelatedProcessDescriptor>> evaluationsByKey;
+
+	public ViewQuickActionsPreconditionsEvaluator(
+			@NonNull final WebsocketSender websocketSender,
+			@Value("${metasfresh.webui.view.actions.preconditions.threads:4}") final int threads,
+			@Value("${metasfresh.webui.view.actions.preconditions.queueCapacity:500}") final int queueCapacity,
+			@Value("${metasfresh.webui.view.actions.preconditions.cacheSize:5000}") final int cacheSize,
+			@Value("${metasfresh.webui.view.actions.preconditions.cacheExpireMinutes:10}") final int cacheExpireMinutes)
+	{
+		this.websocketSender = websocketSender;
+
+		executor = new ThreadPoolExecutor(
+				threads, // corePoolSize
+				threads, // maximumPoolSize
+				0L, TimeUnit.MILLISECONDS, // keepAliveTime
+				new ArrayBlockingQueue<>(queueCapacity),
+				CustomizableThreadFactory.builder()
+						.setDaemon(true)
+						.setThreadNamePrefix(ViewQuickActionsPreconditionsEvaluator.class.getSimpleName())
+						.build(),
+				new ThreadPoolExecutor.CallerRunsPolicy()); // when the queue is full, evaluate in the HTTP request thread, like we did before
+
+		// NOTE: the expiration is just a safety net for the preconditions which are depending on data which is not part of the view
+		evaluationsByKey = CacheBuilder.newBuilder()
+				.maximumSize(cacheSize)
+				.expireAfterWrite(cacheExpireMinutes, TimeUnit.MINUTES)
+				.build();
+
+		logger.info("Using threads={}, queueCapacity={}, cacheSize={}, cacheExpireMinutes={}", threads, queueCapacity, cacheSize, cacheExpireMinutes);
+	}
+
+	@PreDestroy
+	public void shutdown()
+	{
+		executor.shutdownNow();
+	}
+
+	/**
+	 * @return the descriptors with the preconditions already evaluated; those which could not be evaluated in the time budget are flagged as pending and rejected
+	 */
+	public Stream<WebuiRelatedProcessDescriptor> evaluate(
+			@NonNull final ViewAsPreconditionsContext preconditionsContext,
+			@NonNull final Stream<WebuiRelatedProcessDescriptor> descriptors)
+	{
+		return evaluate(preconditionsContext, descriptors, getTimeBudgetMillis());
+	}
+
+	@VisibleForTesting
+	Stream<WebuiRelatedProcessDescriptor> evaluate(
+			@NonNull final ViewAsPreconditionsContext preconditionsContext,
+			@NonNull final Stream<WebuiRelatedProcessDescriptor> descriptors,
+			final int timeBudgetMillis)
+	{
+		// NOTE: the preconditions are evaluated in other threads, so we have to provide them a copy of current context
+		final Properties ctx = Env.copyCtx(Env.getCtx());
+
+		final Map<WebuiRelatedProcessDescriptor, CompletableFuture<WebuiRelatedProcessDescriptor>> evaluations = new LinkedHashMap<>();
+		descriptors.forEach(descriptor -> evaluations.put(descriptor, getOrStartEvaluation(preconditionsContext, descriptor, ctx)));
+
+		waitForEvaluations(evaluations.values(), timeBudgetMillis);
+
+		final List<WebuiRelatedProcessDescriptor> result = new ArrayList<>(evaluations.size());
+		final List<CompletableFuture<WebuiRelatedProcessDescriptor>> pendingEvaluations = new ArrayList<>();
+		final JSONViewActionsChanged.JSONViewActionsChangedBuilder pendingEvent = JSONViewActionsChanged.builder();
+		final ITranslatableString pendingReason = getPendingReason(Env.getAD_Language(ctx));
+		for (final Map.Entry<WebuiRelatedProcessDescriptor, CompletableFuture<WebuiRelatedProcessDescriptor>> e : evaluations.entrySet())
+		{
+			final WebuiRelatedProcessDescriptor descriptor = e.getKey();
+			final CompletableFuture<WebuiRelatedProcessDescriptor> evaluation = e.getValue();
+			if (evaluation.isDone())
+			{
+				result.add(getEvaluated(evaluation));
+			}
+			else
+			{
+				result.add(descriptor.toPending(pendingReason));
+				pendingEvaluations.add(evaluation);
+				pendingEvent.processId(descriptor.getProcessId().toJson());
+			}
+		}
+
+		if (!pendingEvaluations.isEmpty())
+		{
+			final ViewRowIdsSelection viewRowIdsSelection = preconditionsContext.getViewRowIdsSelection();
+			pendingEvent
+					.viewId(viewRowIdsSelection.getViewId().getViewId())
+					.selectedIds(viewRowIdsSelection.getRowIds().toCommaSeparatedString());
+
+			CompletableFuture.allOf(pendingEvaluations.toArray(new CompletableFuture<?>[pendingEvaluations.size()]))
+					.whenComplete((ignored, ex) -> publish(pendingEvent.build()));
+		}
+
+		return result.stream();
+	}
+
+	private static ITranslatableString getPendingReason(final String adLanguage)
+	{
+		final String pendingReason = Services.get(IMsgBL.class).getTranslatableMsgText(MSG_PreconditionsPending).translate(adLanguage);
+		if (Check.isEmpty(pendingReason, true) || MSG_PreconditionsPending.equals(pendingReason))
+		{
+			return TranslatableStrings.constant(MSG_PreconditionsPending_Fallback);
+		}
+		return TranslatableStrings.constant(pendingReason);
+	}
+
+	private static int getTimeBudgetMillis()
+	{
+		return Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_TimeBudgetMillis, DEFAULT_TimeBudgetMillis);
+	}
+
+	private CompletableFuture<WebuiRelatedProcessDescriptor> getOrStartEvaluation(
+			final ViewAsPreconditionsContext preconditionsContext,
+			final WebuiRelatedProcessDescriptor descriptor,
+			final Properties ctx)
+	{
+		final EvaluationKey key = EvaluationKey.of(preconditionsContext, descriptor.getProcessId(), ctx);
+		try
+		{
+			CompletableFuture<WebuiRelatedProcessDescriptor> evaluation = evaluationsByKey.get(key, () -> startEvaluation(descriptor, ctx));
+			if (evaluation.isDone() && !isCacheable(evaluation))
+			{
+				// not cacheable but not removed yet (see below)
+				evaluationsByKey.asMap().remove(key, evaluation);
+				evaluation = evaluationsByKey.get(key, () -> startEvaluation(descriptor, ctx));
+			}
+
+			// don't cache the failed evaluations
+			final CompletableFuture<WebuiRelatedProcessDescriptor> evaluationFinal = evaluation;
+			evaluation.whenComplete((evaluated, ex) -> {
+				if (!isCacheable(evaluated, ex))
+				{
+					evaluationsByKey.asMap().remove(key, evaluationFinal);
+				}
+			});
+
+			return evaluation;
+		}
+		catch (final ExecutionException ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex);
+		}
+	}
+
+	private static boolean isCacheable(final CompletableFuture<WebuiRelatedProcessDescriptor> evaluation)
+	{
+		if (evaluation.isCompletedExceptionally())
+		{
+			return false;
+		}
+		return isCacheable(evaluation.join(), null);
+	}
+
+	/**
+	 * @return false if the evaluation failed or if the preconditions were rejected with an internal reason.
+	 *         The latter is also the outcome when the preconditions check failed with an exception, so we cannot tell them apart and we shall not cache any of them.
+	 */
+	private static boolean isCacheable(final WebuiRelatedProcessDescriptor evaluated, final Throwable ex)
+	{
+		if (ex != null || evaluated == null)
+		{
+			return false;
+		}
+		return !(evaluated.isDisabled() && evaluated.isInternal());
+	}
+
+	private CompletableFuture<WebuiRelatedProcessDescriptor> startEvaluation(final WebuiRelatedProcessDescriptor descriptor, final Properties ctx)
+	{
+		// NOTE: some preconditions are looking up views, which is checking the permissions of current user session,
+		// so we have to bind it to the evaluation thread, because there is no HTTP request
+		final Callable<WebuiRelatedProcessDescriptor> evaluation = UserSession.withCurrentUserSession(() -> {
+			try (final IAutoCloseable ctxRestorer = Env.switchContext(ctx))
+			{
+				return descriptor.toEvaluated();
+			}
+		});
+
+		return CompletableFuture.supplyAsync(() -> {
+			try
+			{
+				return evaluation.call();
+			}
+			catch (final Exception ex)
+			{
+				throw AdempiereException.wrapIfNeeded(ex);
+			}
+		}, executor);
+	}
+
+	private static void waitForEvaluations(final Collection<CompletableFuture<WebuiRelatedProcessDescriptor>> evaluations, final int timeBudgetMillis)
+	{
+		try
+		{
+			CompletableFuture.allOf(evaluations.toArray(new CompletableFuture<?>[evaluations.size()]))
+					.get(timeBudgetMillis, TimeUnit.MILLISECONDS);
+		}
+		catch (final TimeoutException | ExecutionException ex)
+		{
+			// the pending and failed evaluations are handled by the caller
+		}
+		catch (final InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw AdempiereException.wrapIfNeeded(ex);
+		}
+	}
+
+	private static WebuiRelatedProcessDescriptor getEvaluated(final CompletableFuture<WebuiRelatedProcessDescriptor> evaluation)
+	{
+		try
+		{
+			return evaluation.join();
+		}
+		catch (final CompletionException ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex.getCause() != null ? ex.getCause() : ex);
+		}
+	}
+
+	private void publish(final JSONViewActionsChanged event)
+	{
+		final String endpoint = WebSocketConfig.buildViewActionsTopicName(event.getViewId());
+		try
+		{
+			websocketSender.convertAndSend(endpoint, event);
+			logger.debug("Send to websocket {}: {}", endpoint, event);
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed sending to websocket {}: {}", endpoint, event, ex);
+		}
+	}
+
+	/**
+	 * Forgets all evaluations which are about given view, including the ones where the view is the parent or the child view.
+	 */
+	public void invalidateView(@NonNull final ViewId viewId)
+	{
+		evaluationsByKey.asMap().keySet().removeIf(key -> key.isAboutView(viewId));
+	}
+
+	/** Identifies an evaluation. The preconditions might depend on the user's permissions, so the logged in user and role are part of it. */
+	@lombok.Value
+	private static final class EvaluationKey
+	{
+		public static EvaluationKey of(final ViewAsPreconditionsContext preconditionsContext, final ProcessId processId, final Properties ctx)
+		{
+			return new EvaluationKey(
+					preconditionsContext.getViewRowIdsSelection(),
+					preconditionsContext.getParentViewRowIdsSelection(),
+					preconditionsContext.getChildViewRowIdsSelection(),
+					preconditionsContext.getViewProfileId(),
+					preconditionsContext.getDisplayPlace(),
+					processId,
+					Env.getContextAsInt(ctx, Env.CTXNAME_AD_User_ID),
+					Env.getContextAsInt(ctx, Env.CTXNAME_AD_Role_ID));
+		}
+
+		private final ViewRowIdsSelection viewRowIdsSelection;
+		private final ViewRowIdsSelection parentViewRowIdsSelection;
+		private final ViewRowIdsSelection childViewRowIdsSelection;
+		private final ViewProfileId viewProfileId;
+		private final DisplayPlace displayPlace;
+		private final ProcessId processId;
+		private final int adUserId;
+		private final int adRoleId;
+
+		public boolean isAboutView(final ViewId viewId)
+		{
+			return isAboutView(viewRowIdsSelection, viewId)
+					|| isAboutView(parentViewRowIdsSelection, viewId)
+					|| isAboutView(childViewRowIdsSelection, viewId);
+		}
+
+		private static boolean isAboutView(final ViewRowIdsSelection viewRowIdsSelection, final ViewId viewId)
+		{
+			return viewRowIdsSelection != null && viewId.equals(viewRowIdsSelection.getViewId());
+		}
+	}
+}
@@ -1,19 +1,16 @@
 package de.metas.ui.web.view;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.IOException;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Stream;
+
+import javax.servlet.http.HttpServletResponse;
 
 import org.adempiere.exceptions.AdempiereException;
 import org.compiere.util.MimeType;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -25,6 +22,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.request.WebRequest;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 
 import de.metas.impexp.excel.ExcelFormat;
@@ -34,7 +32,7 @@ import de.metas.ui.web.cache.ETagResponseEntityBuilder;
 import de.metas.ui.web.config.WebConfig;
 import de.metas.ui.web.process.ProcessRestController;
 import de.metas.ui.web.process.ViewAsPreconditionsContext;
-import de.metas.ui.web.process.WebuiPreconditionsContext;
+import de.metas.ui.web.process.descriptor.WebuiRelatedProcessDescriptor;
 import de.metas.ui.web.process.json.JSONDocumentActionsList;
 import de.metas.ui.web.session.UserSession;
 import de.metas.ui.web.view.descriptor.ViewLayout;
@@ -53,6 +51,7 @@ import de.metas.ui.web.window.datatypes.json.JSONDocumentLayoutOptions;
 import de.metas.ui.web.window.datatypes.json.JSONLookupValuesList;
 import de.metas.ui.web.window.datatypes.json.JSONOptions;
 import de.metas.ui.web.window.datatypes.json.JSONZoomInto;
+import de.metas.util.Check;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiParam;
 import lombok.Builder;
@@ -101,6 +100,8 @@ public class ViewRestController
 	//
 	private static final String PARAM_FilterId = "filterId";
 
+	private static final String FILEEXTENSION_XLSX = "xlsx";
+
 	@Autowired
 	private UserSession userSession;
 
@@ -113,6 +114,9 @@ public class ViewRestController
 	@Autowired
 	private WindowRestController windowRestController;
 
+	@Autowired
+	private ViewQuickActionsPreconditionsEvaluator preconditionsEvaluator;
+
 	public ViewRestController()
 	{
 	}
@@ -381,7 +385,7 @@ public class ViewRestController
 	{
 		userSession.assertLoggedIn();
 
-		final WebuiPreconditionsContext preconditionsContext = newPreconditionsContextBuilder()
+		final ViewAsPreconditionsContext preconditionsContext = newPreconditionsContextBuilder()
 				.windowId(windowId)
 				.viewIdString(viewIdStr)
 				.selectedIdsList(selectedIdsListStr)
@@ -392,9 +396,11 @@ public class ViewRestController
 				.displayPlace(DisplayPlace.ViewActionsMenu)
 				.build();
 
-		return processRestController.streamDocumentRelatedProcesses(preconditionsContext)
-				.filter(descriptor -> descriptor.isDisplayedOn(preconditionsContext.getDisplayPlace())) // shall be already filtered out, but just to make sure
-				.filter(descriptor -> all || descriptor.isEnabled()) // only those which are enabled and not internally rejected
+		final Stream<WebuiRelatedProcessDescriptor> descriptors = processRestController.streamDocumentRelatedProcesses(preconditionsContext)
+				.filter(descriptor -> descriptor.isDisplayedOn(preconditionsContext.getDisplayPlace())); // shall be already filtered out, but just to make sure
+
+		return preconditionsEvaluator.evaluate(preconditionsContext, descriptors)
+				.filter(descriptor -> all || descriptor.isEnabled() || descriptor.isPreconditionsResolutionPending()) // only those which are enabled (or still evaluating) and not internally rejected
 				.collect(JSONDocumentActionsList.collect(newJSONOptions()));
 	}
 
@@ -412,7 +418,7 @@ public class ViewRestController
 	{
 		userSession.assertLoggedIn();
 
-		final WebuiPreconditionsContext preconditionsContext = newPreconditionsContextBuilder()
+		final ViewAsPreconditionsContext preconditionsContext = newPreconditionsContextBuilder()
 				.windowId(windowId)
 				.viewIdString(viewIdStr)
 				.viewProfileIdStr(viewProfileIdStr)
@@ -424,8 +430,10 @@ public class ViewRestController
 				.displayPlace(DisplayPlace.ViewQuickActions)
 				.build();
 
-		return processRestController.streamDocumentRelatedProcesses(preconditionsContext)
-				.filter(descriptor -> descriptor.isDisplayedOn(preconditionsContext.getDisplayPlace())) // shall be already filtered out, but just to make sure
+		final Stream<WebuiRelatedProcessDescriptor> descriptors = processRestController.streamDocumentRelatedProcesses(preconditionsContext)
+				.filter(descriptor -> descriptor.isDisplayedOn(preconditionsContext.getDisplayPlace())); // shall be already filtered out, but just to make sure
+
+		return preconditionsEvaluator.evaluate(preconditionsContext, descriptors)
 				.filter(descriptor -> all || descriptor.isEnabledOrNotSilent()) // only those which are enabled or not silent
 				.collect(JSONDocumentActionsList.collect(newJSONOptions()));
 	}
@@ -447,39 +455,107 @@ public class ViewRestController
 	}
 
 	@GetMapping("/{viewId}/export/excel")
-	public ResponseEntity<Resource> exportToExcel(
+	public void exportToExcel(
 			@PathVariable("windowId") final String windowIdStr,
 			@PathVariable(PARAM_ViewId) final String viewIdStr,
-			@RequestParam(name = "selectedIds", required = false) @ApiParam("comma separated IDs") final String selectedIdsListStr)
+			@RequestParam(name = "selectedIds", required = false) @ApiParam("comma separated IDs") final String selectedIdsListStr,
+			final HttpServletResponse response)
 			throws Exception
 	{
 		userSession.assertLoggedIn();
 
 		final ViewId viewId = ViewId.ofViewIdString(viewIdStr, WindowId.fromJson(windowIdStr));
+		final IView view = viewsRepo.getView(viewId);
+		final DocumentIdsSelection rowIds = DocumentIdsSelection.ofCommaSeparatedString(selectedIdsListStr);
+		final ViewLayout layout = viewsRepo.getViewLayout(viewId.getWindowId(), JSONViewDataType.grid, ViewProfileId.NULL);
 
 		final ExcelFormat excelFormat = ExcelFormats.getDefaultFormat();
-		final File tmpFile = File.createTempFile("exportToExcel", "." + excelFormat.getFileExtension());
+		final String filename = buildExportFilename(view, layout, excelFormat.getFileExtension());
 
-		try (final FileOutputStream out = new FileOutputStream(tmpFile))
+		if (FILEEXTENSION_XLSX.equals(excelFormat.getFileExtension()))
 		{
-			ViewExcelExporter.builder()
+			// NOTE: only a window of rows is kept in memory, the other ones are flushed to the workbook's compressed temporary files.
+			// The xlsx file is written to the response only at the end, after all rows were fetched.
+			final ViewExcelStreamingExporter exporter = ViewExcelStreamingExporter.builder()
+					.view(view)
+					.rowIds(rowIds)
+					.layout(layout)
+					.language(userSession.getLanguage())
+					.build();
+
+			setExportResponseHeaders(response, filename);
+			exporter.export(response.getOutputStream());
+		}
+		else
+		{
+			// the other formats (i.e. xls) are not supporting streaming, so the whole workbook is built in memory
+			final ViewExcelExporter exporter = ViewExcelExporter.builder()
 					.excelFormat(excelFormat)
-					.view(viewsRepo.getView(viewId))
-					.rowIds(DocumentIdsSelection.ofCommaSeparatedString(selectedIdsListStr))
-					.layout(viewsRepo.getViewLayout(viewId.getWindowId(), JSONViewDataType.grid, ViewProfileId.NULL))
+					.view(view)
+					.rowIds(rowIds)
+					.layout(layout)
 					.language(userSession.getLanguage())
-					.build()
-					.export(out);
+					.build();
+
+			setExportResponseHeaders(response, filename);
+			exporter.export(response.getOutputStream());
+		}
+	}
+
+	@GetMapping("/{viewId}/export/csv")
+	public void exportToCsv(
+			@PathVariable("windowId") final String windowIdStr,
+			@PathVariable(PARAM_ViewId) final String viewIdStr,
+			@RequestParam(name = "selectedIds", required = false) @ApiParam("comma separated IDs") final String selectedIdsListStr,
+			final HttpServletResponse response)
+			throws IOException
+	{
+		userSession.assertLoggedIn();
+
+		final ViewId viewId = ViewId.ofViewIdString(viewIdStr, WindowId.fromJson(windowIdStr));
+
+		final IView view = viewsRepo.getView(viewId);
+		final ViewLayout layout = viewsRepo.getViewLayout(viewId.getWindowId(), JSONViewDataType.grid, ViewProfileId.NULL);
+
+		final ViewCsvExporter exporter = ViewCsvExporter.builder()
+				.view(view)
+				.rowIds(DocumentIdsSelection.ofCommaSeparatedString(selectedIdsListStr))
+				.layout(layout)
+				.language(userSession.getLanguage())
+				.build();
+
+		setExportResponseHeaders(response, buildExportFilename(view, layout, "csv"));
+		exporter.export(response.getOutputStream());
+	}
+
+	/**
+	 * @return export file name, built from view's description or, if that's empty, from view layout's caption (e.g. the window name)
+	 */
+	private String buildExportFilename(final IView view, final ViewLayout layout, final String fileExtension)
+	{
+		final String adLanguage = userSession.getAD_Language();
+
+		String name = view.getDescription().translate(adLanguage);
+		if (Check.isEmpty(name, true))
+		{
+			name = layout.getCaption(adLanguage);
 		}
 
-		final String filename = "report." + excelFormat.getFileExtension(); // TODO: use a better name
-		final String contentType = MimeType.getMimeType(filename);
-		final HttpHeaders headers = new HttpHeaders();
-		headers.setContentType(MediaType.parseMediaType(contentType));
-		headers.set(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"");
-		headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+		return toExportFilename(name, fileExtension);
+	}
 
-		final ResponseEntity<Resource> response = new ResponseEntity<>(new InputStreamResource(new FileInputStream(tmpFile)), headers, HttpStatus.OK);
-		return response;
+	@VisibleForTesting
+	static String toExportFilename(final String name, final String fileExtension)
+	{
+		// keep only the characters which are safe in a file name and in the Content-Disposition header
+		final String nameNormalized = name == null ? null : name.trim().replaceAll("[^\\p{L}\\p{N} ._-]|[^\\x00-\\xFF]", "_");
+		return (Check.isEmpty(nameNormalized, true) ? "report" : nameNormalized) + "." + fileExtension;
+	}
+
+	private static void setExportResponseHeaders(final HttpServletResponse response, final String filename)
+	{
+		response.setContentType(MimeType.getMimeType(filename));
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"");
+		response.setHeader(HttpHeaders.CACHE_CONTROL, "must-revalidate, post-check=0, pre-check=0");
 	}
 }
@@ -2,6 +2,8 @@ package de.metas.ui.web.view;
 
 import java.math.BigDecimal;
 
+import javax.annotation.Nullable;
+
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
@@ -71,6 +73,15 @@ public final class ViewRowFieldNameAndJsonValues
 		return map.keySet();
 	}
 
+	/**
+	 * @return the value as it was put (i.e. not converted to JSON) or null
+	 */
+	@Nullable
+	public Object getAsObject(@NonNull final String fieldName)
+	{
+		return JSONNullValue.toNullIfInstance(map.get(fieldName));
+	}
+
 	public Object getAsJsonObject(
 			@NonNull final String fieldName,
 			@NonNull final JSONOptions jsonOpts)
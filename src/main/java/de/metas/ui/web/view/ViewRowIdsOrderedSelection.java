@@ -7,6 +7,7 @@ import javax.annotation.concurrent.Immutable;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
 
+import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.WindowId;
 import de.metas.ui.web.window.model.DocumentQueryOrderBy;
 import de.metas.util.Check;
@@ -50,11 +51,18 @@ public final class ViewRowIdsOrderedSelection
 	private final int queryLimit;
 	private final boolean queryLimitHit;
 
+	/**
+	 * Ordered row IDs, in case this selection is kept in memory.
+	 * In this case the rows themselves are still in the database selection identified by {@link #getSelectionId()}, but ordered differently.
+	 */
+	private final int[] rowIds;
+
 	private ViewRowIdsOrderedSelection(final Builder builder)
 	{
 		super();
 		viewId = builder.getViewId();
-		size = builder.getSize();
+		rowIds = builder.getRowIds();
+		size = rowIds != null ? rowIds.length : builder.getSize();
 		orderBys = builder.getOrderBys();
 
 		queryLimit = builder.getQueryLimit();
@@ -69,6 +77,7 @@ public final class ViewRowIdsOrderedSelection
 				.add("viewId", viewId)
 				.add("size", size)
 				.add("orderBys", orderBys.isEmpty() ? null : orderBys)
+				.add("inMemory", rowIds != null ? Boolean.TRUE : null)
 				.toString();
 	}
 	
@@ -78,7 +87,8 @@ public final class ViewRowIdsOrderedSelection
 				.setViewId(viewId)
 				.setSize(size)
 				.setOrderBys(orderBys)
-				.setQueryLimit(queryLimit);
+				.setQueryLimit(queryLimit)
+				.setRowIds(rowIds);
 	}
 
 	public ViewId getViewId()
@@ -116,6 +126,31 @@ public final class ViewRowIdsOrderedSelection
 		return queryLimitHit;
 	}
 
+	/**
+	 * @return true if the ordered row IDs are kept in memory, see {@link #getRowIdsPage(int, int)}
+	 */
+	public boolean isInMemory()
+	{
+		return rowIds != null;
+	}
+
+	public List<DocumentId> getRowIdsPage(final int firstRow, final int pageLength)
+	{
+		Check.assumeNotNull(rowIds, "selection is in memory: {}", this);
+		Check.assume(firstRow >= 0, "firstRow >= 0 but it was {}", firstRow);
+		Check.assume(pageLength > 0, "pageLength > 0 but it was {}", pageLength);
+
+		final int fromIndex = Math.min(firstRow, rowIds.length);
+		final int toIndex = Math.min(fromIndex + pageLength, rowIds.length);
+
+		final ImmutableList.Builder<DocumentId> page = ImmutableList.builder();
+		for (int i = fromIndex; i < toIndex; i++)
+		{
+			page.add(DocumentId.of(rowIds[i]));
+		}
+		return page.build();
+	}
+
 	public static final class Builder
 	{
 		private ViewId viewId;
@@ -124,6 +159,8 @@ public final class ViewRowIdsOrderedSelection
 
 		private int queryLimit;
 
+		private int[] rowIds;
+
 		private Builder()
 		{
 		}
@@ -178,6 +215,20 @@ public final class ViewRowIdsOrderedSelection
 			return queryLimit;
 		}
 
+		/**
+		 * Sets the ordered row IDs of an in memory selection. The array is not copied, so it shall not be changed afterwards.
+		 */
+		public Builder setRowIds(final int[] rowIds)
+		{
+			this.rowIds = rowIds;
+			return this;
+		}
+
+		private int[] getRowIds()
+		{
+			return rowIds;
+		}
+
 		private boolean isQueryLimitHit()
 		{
 			return queryLimit > 0
@@ -1,5 +1,6 @@
 package de.metas.ui.web.view;
 
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
@@ -96,4 +97,10 @@ public final class ViewRowsOrderBy
 		return !orderBys.isEmpty() ? toComparator() : null;
 	}
 
+	/** @return given rows, sorted. Each row's sort values are extracted only once, so prefer this over {@link #toComparator()} for bigger collections. */
+	public <T extends IViewRow> ImmutableList<T> sort(@NonNull final Collection<T> rows)
+	{
+		return DocumentQueryOrderBys.sort(rows, orderBys, jsonOpts);
+	}
+
 }
@@ -0,0 +1,233 @@
+package de.metas.ui.web.view;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.service.ISysConfigBL;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+
+import de.metas.i18n.ITranslatableString;
+import de.metas.i18n.Language;
+import de.metas.ui.web.view.descriptor.ViewLayout;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import de.metas.ui.web.window.datatypes.LookupValue;
+import de.metas.ui.web.window.datatypes.LookupValuesList;
+import de.metas.ui.web.window.datatypes.json.DateTimeConverters;
+import de.metas.ui.web.window.datatypes.json.JSONLookupValue;
+import de.metas.ui.web.window.datatypes.json.JSONLookupValuesList;
+import de.metas.ui.web.window.datatypes.json.JSONOptions;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.descriptor.DocumentLayoutElementDescriptor;
+import de.metas.ui.web.window.descriptor.DocumentLayoutElementFieldDescriptor;
+import de.metas.util.Services;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Exports view rows to an {@link OutputStream}, without keeping all the rows in memory.
+ * <p>
+ * The rows are fetched page by page (i.e. from the view's ordered selection) and they are written as soon as they were fetched.
+ * The cell values are extracted directly from the row's values (see {@link #getCellValue(IViewRow, Column)}), without converting them to JSON first.
+ */
+/* package */ abstract class ViewStreamingExporter
+{
+	private static final String SYSCONFIG_PageSize = "webui.view.export.PageSize";
+	private static final int DEFAULT_PageSize = 500;
+
+	private final IView view;
+	private final DocumentIdsSelection rowIds;
+	private final int pageSize;
+	private final Language language;
+	private final JSONOptions jsonOpts;
+	private final ImmutableList<Column> columns;
+
+	/**
+	 * @param pageSize how many rows shall be fetched at once; if not positive, the {@value #SYSCONFIG_PageSize} sysconfig is used
+	 */
+	protected ViewStreamingExporter(
+			@NonNull final IView view,
+			@NonNull final DocumentIdsSelection rowIds,
+			@NonNull final ViewLayout layout,
+			@NonNull final Language language,
+			final int pageSize)
+	{
+		if (rowIds.isEmpty())
+		{
+			throw new AdempiereException("@NoSelection@");
+		}
+
+		this.view = view;
+		this.rowIds = rowIds;
+		this.pageSize = pageSize > 0 ? pageSize : Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_PageSize, DEFAULT_PageSize);
+		this.language = language;
+		this.jsonOpts = JSONOptions.builder()
+				.adLanguage(language.getAD_Language())
+				.build();
+		this.columns = layout.getElements()
+				.stream()
+				.map(element -> Column.of(element, language.getAD_Language()))
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	protected final Language getLanguage()
+	{
+		return language;
+	}
+
+	protected final List<Column> getColumns()
+	{
+		return columns;
+	}
+
+	public final void export(@NonNull final OutputStream out) throws IOException
+	{
+		try
+		{
+			start(out);
+			forEachRow(this::writeRow);
+			finish(out);
+		}
+		finally
+		{
+			close();
+		}
+	}
+
+	protected abstract void start(OutputStream out) throws IOException;
+
+	protected abstract void writeRow(IViewRow row);
+
+	protected abstract void finish(OutputStream out) throws IOException;
+
+	/** Called after the export, also when it failed. Does nothing by default. */
+	protected void close()
+	{
+	}
+
+	private void forEachRow(final Consumer<IViewRow> consumer)
+	{
+		if (rowIds.isAll())
+		{
+			final ViewRowsOrderBy orderBys = ViewRowsOrderBy.empty(jsonOpts); // default
+			for (int firstRow = 0;; firstRow += pageSize)
+			{
+				final List<IViewRow> page = view.getPage(firstRow, pageSize, orderBys).getPage();
+				page.forEach(consumer);
+				if (page.size() < pageSize)
+				{
+					break;
+				}
+			}
+		}
+		else
+		{
+			for (final List<DocumentId> rowIdsChunk : Iterables.partition(rowIds.toSet(), pageSize))
+			{
+				view.streamByIds(DocumentIdsSelection.of(rowIdsChunk)).forEach(consumer);
+			}
+		}
+	}
+
+	/**
+	 * @return cell value, which is one of: {@link String}, {@link Number}, {@link Boolean}, a <code>java.time</code> date/time (see {@link DateTimeConverters#fromObject(Object, DocumentFieldWidgetType)}) or null
+	 */
+	@Nullable
+	protected final Object getCellValue(@NonNull final IViewRow row, @NonNull final Column column)
+	{
+		final Object value = row.getFieldNameAndJsonValues().getAsObject(column.getFieldName());
+		if (value == null)
+		{
+			return null;
+		}
+
+		final String adLanguage = language.getAD_Language();
+		final DocumentFieldWidgetType widgetType = column.getWidgetType();
+		if (widgetType.isDateOrTime())
+		{
+			return DateTimeConverters.fromObject(value, widgetType);
+		}
+		else if (value instanceof LookupValue)
+		{
+			return ((LookupValue)value).getDisplayName(adLanguage);
+		}
+		else if (value instanceof LookupValuesList)
+		{
+			return ((LookupValuesList)value).stream()
+					.map(lookupValue -> lookupValue.getDisplayName(adLanguage))
+					.collect(Collectors.joining(", "));
+		}
+		else if (value instanceof JSONLookupValue)
+		{
+			return ((JSONLookupValue)value).getCaption();
+		}
+		else if (value instanceof JSONLookupValuesList)
+		{
+			return ((JSONLookupValuesList)value).getValues()
+					.stream()
+					.map(JSONLookupValue::getCaption)
+					.collect(Collectors.joining(", "));
+		}
+		else if (value instanceof ITranslatableString)
+		{
+			return ((ITranslatableString)value).translate(adLanguage);
+		}
+		else if (value instanceof Number || value instanceof Boolean || value instanceof String)
+		{
+			return value;
+		}
+		else
+		{
+			return value.toString();
+		}
+	}
+
+	@Value
+	protected static class Column
+	{
+		private static Column of(@NonNull final DocumentLayoutElementDescriptor element, final String adLanguage)
+		{
+			final Set<DocumentLayoutElementFieldDescriptor> fields = element.getFields();
+
+			return new Column(
+					fields.iterator().next().getField(),
+					element.getWidgetType(),
+					element.getCaption(adLanguage));
+		}
+
+		String fieldName;
+		DocumentFieldWidgetType widgetType;
+		String caption;
+	}
+}
@@ -0,0 +1,120 @@
+package de.metas.ui.web.view;
+
+import java.util.Collection;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.util.lang.impl.TableRecordReference;
+import org.adempiere.util.lang.impl.TableRecordReferenceSet;
+
+import com.google.common.collect.ImmutableSet;
+
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.ToString;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * The set of table names a view is interested in when it comes to {@link IView#notifyRecordsChanged(TableRecordReferenceSet)}.
+ * 
+ * Used by {@link IViewsIndexStorage}s to notify only the views which are watching the changed tables.
+ */
+@EqualsAndHashCode
+@ToString
+public final class ViewWatchedTables
+{
+	public static ViewWatchedTables ofTableNames(@Nullable final Collection<String> tableNames)
+	{
+		if (tableNames == null || tableNames.isEmpty())
+		{
+			return NONE;
+		}
+		return new ViewWatchedTables(false, ImmutableSet.copyOf(tableNames));
+	}
+
+	public static ViewWatchedTables ofTableName(@Nullable final String tableName)
+	{
+		if (tableName == null)
+		{
+			return NONE;
+		}
+		return new ViewWatchedTables(false, ImmutableSet.of(tableName));
+	}
+
+	/** The view wants to be notified about any table change (i.e. it does not know in advance which tables it needs) */
+	public static final ViewWatchedTables ALL = new ViewWatchedTables(true, ImmutableSet.of());
+
+	/** The view is not interested in any table change */
+	public static final ViewWatchedTables NONE = new ViewWatchedTables(false, ImmutableSet.of());
+
+	private final boolean all;
+	private final ImmutableSet<String> tableNames;
+
+	private ViewWatchedTables(final boolean all, @NonNull final ImmutableSet<String> tableNames)
+	{
+		this.all = all;
+		this.tableNames = tableNames;
+	}
+
+	public boolean isAll()
+	{
+		return all;
+	}
+
+	public boolean isNone()
+	{
+		return !all && tableNames.isEmpty();
+	}
+
+	/** @return watched table names; fails if {@link #isAll()} */
+	public ImmutableSet<String> getTableNames()
+	{
+		if (all)
+		{
+			throw new IllegalStateException("Getting table names is not allowed for " + this);
+		}
+		return tableNames;
+	}
+
+	public boolean isMatching(@NonNull final TableRecordReferenceSet recordRefs)
+	{
+		if (all)
+		{
+			return true;
+		}
+		if (tableNames.isEmpty())
+		{
+			return false;
+		}
+
+		for (final TableRecordReference recordRef : recordRefs)
+		{
+			if (tableNames.contains(recordRef.getTableName()))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,129 @@
+package de.metas.ui.web.view;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.adempiere.util.lang.impl.TableRecordReference;
+import org.adempiere.util.lang.impl.TableRecordReferenceSet;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Reverse index: watched table name to views.
+ * 
+ * Maintained by {@link IViewsIndexStorage} implementations on put/remove, in order to avoid scanning all views on each records changed event.
+ */
+final class ViewsByWatchedTableIndex
+{
+	private final ConcurrentHashMap<ViewId, IView> viewsWatchingAllTables = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, ConcurrentHashMap<ViewId, IView>> viewsByTableName = new ConcurrentHashMap<>();
+
+	/** Adds or replaces the given view */
+	public void add(@NonNull final IView view)
+	{
+		final ViewId viewId = view.getViewId();
+		remove(viewId);
+
+		final ViewWatchedTables watchedTables = view.getWatchedTables();
+		if (watchedTables.isAll())
+		{
+			viewsWatchingAllTables.put(viewId, view);
+		}
+		else
+		{
+			for (final String tableName : watchedTables.getTableNames())
+			{
+				// NOTE: adding inside compute(), so a concurrent removal cannot prune the views map we are adding to
+				viewsByTableName.compute(tableName, (k, views) -> {
+					final ConcurrentHashMap<ViewId, IView> viewsNew = views != null ? views : new ConcurrentHashMap<>();
+					viewsNew.put(viewId, view);
+					return viewsNew;
+				});
+			}
+		}
+	}
+
+	public void remove(@NonNull final ViewId viewId)
+	{
+		viewsWatchingAllTables.remove(viewId);
+
+		// NOTE: we are not asking the view for it's watched tables because the view might be already closed or it might return something else now.
+		for (final String tableName : viewsByTableName.keySet())
+		{
+			viewsByTableName.computeIfPresent(tableName, (k, views) -> {
+				views.remove(viewId);
+				return views.isEmpty() ? null : views;
+			});
+		}
+	}
+
+	/**
+	 * Removes the given view, but only if it's the one currently indexed for its view ID.
+	 * Useful when the view was replaced and the removal notification of the old view arrives later.
+	 */
+	public void removeIfSame(@NonNull final IView view)
+	{
+		final ViewId viewId = view.getViewId();
+		viewsWatchingAllTables.remove(viewId, view);
+		for (final String tableName : viewsByTableName.keySet())
+		{
+			viewsByTableName.computeIfPresent(tableName, (k, views) -> {
+				views.remove(viewId, view);
+				return views.isEmpty() ? null : views;
+			});
+		}
+	}
+
+	/** @return views which are watching at least one of the tables of given records; each view is returned only once */
+	public Stream<IView> streamViewsWatching(@NonNull final TableRecordReferenceSet recordRefs)
+	{
+		final Map<ViewId, IView> result = new LinkedHashMap<>(viewsWatchingAllTables);
+		for (final String tableName : extractTableNames(recordRefs))
+		{
+			final Map<ViewId, IView> views = viewsByTableName.get(tableName);
+			if (views != null)
+			{
+				result.putAll(views);
+			}
+		}
+
+		return result.values().stream();
+	}
+
+	private static Set<String> extractTableNames(final TableRecordReferenceSet recordRefs)
+	{
+		final Set<String> tableNames = new HashSet<>();
+		for (final TableRecordReference recordRef : recordRefs)
+		{
+			tableNames.add(recordRef.getTableName());
+		}
+		return tableNames;
+	}
+
+}
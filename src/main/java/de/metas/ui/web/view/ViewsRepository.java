@@ -219,6 +219,12 @@ public class ViewsRepository implements IViewsRepository
 				.flatMap(IViewsIndexStorage::streamAllViews);
 	}
 
+	private Stream<IView> streamAllViewsWatching(final TableRecordReferenceSet recordRefs)
+	{
+		return Streams.concat(viewsIndexStorages.values().stream(), Stream.of(defaultViewsIndexStorage))
+				.flatMap(viewsIndexStorage -> viewsIndexStorage.streamAllViewsWatching(recordRefs));
+	}
+
 	@Override
 	public List<ViewProfile> getAvailableProfiles(final WindowId windowId, final JSONViewDataType viewDataType)
 	{
@@ -395,7 +401,7 @@ public class ViewsRepository implements IViewsRepository
 		try (final IAutoCloseable c = ViewChangesCollector.currentOrNewThreadLocalCollector())
 		{
 			final MutableInt notifiedCount = MutableInt.zero();
-			streamAllViews()
+			streamAllViewsWatching(recordRefs)
 					.forEach(view -> {
 						view.notifyRecordsChanged(recordRefs);
 						notifiedCount.incrementAndGet();
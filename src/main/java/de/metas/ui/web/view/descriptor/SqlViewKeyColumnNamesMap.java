@@ -167,6 +167,12 @@ public final class SqlViewKeyColumnNamesMap
 		return singleKeyColumnName != null;
 	}
 
+	public boolean isSingleIntKey()
+	{
+		return singleWebuiSelectionColumnName != null
+				&& I_T_WEBUI_ViewSelection.COLUMNNAME_IntKeys.contains(singleWebuiSelectionColumnName);
+	}
+
 	public String getWebuiSelectionColumnNameForKeyColumnName(@NonNull final String keyColumnName)
 	{
 		final String webuiSelectionColumnName = webuiSelectionColumnNamesByKeyColumnName.get(keyColumnName);
@@ -313,7 +319,7 @@ public final class SqlViewKeyColumnNamesMap
 			}
 
 			final List<Object> sqlParams = embedSqlParams ? null : new ArrayList<>();
-			final String sql = DB.buildSqlList(keyColumnName, recordIds, sqlParams);
+			final String sql = DB.buildSqlList(keyColumnName, embedSqlParams ? recordIds : padToStableParamsCount(recordIds), sqlParams);
 			return SqlAndParams.of(sql, sqlParams != null ? sqlParams : ImmutableList.of());
 		}
 		else
@@ -327,6 +333,28 @@ public final class SqlViewKeyColumnNamesMap
 		}
 	}
 
+	/**
+	 * Pads given IDs (by repeating the last one) up to the next power of two,
+	 * so the "IN (?,?,...)" SQLs are having only a few distinct shapes which can be reused from the prepared statements cache.
+	 */
+	private static List<Integer> padToStableParamsCount(final Set<Integer> recordIds)
+	{
+		final List<Integer> recordIdsList = new ArrayList<>(recordIds);
+		final int count = recordIdsList.size();
+		if (count <= 1)
+		{
+			return recordIdsList;
+		}
+
+		final int paramsCount = Integer.highestOneBit(count - 1) << 1;
+		final Integer lastRecordId = recordIdsList.get(count - 1);
+		while (recordIdsList.size() < paramsCount)
+		{
+			recordIdsList.add(lastRecordId);
+		}
+		return recordIdsList;
+	}
+
 	private SqlAndParams getSqlFilterByRowId(
 			@NonNull final DocumentId rowId,
 			final String sqlColumnPrefix,
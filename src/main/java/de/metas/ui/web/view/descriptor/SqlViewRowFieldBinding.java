@@ -7,6 +7,7 @@ import org.adempiere.ad.expression.api.IStringExpression;
 import org.adempiere.ad.expression.api.impl.ConstantStringExpression;
 
 import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.descriptor.sql.ResultSetColumnIndexes;
 import de.metas.ui.web.window.descriptor.sql.SqlEntityFieldBinding;
 import lombok.Builder;
 import lombok.NonNull;
@@ -44,6 +45,14 @@ public class SqlViewRowFieldBinding implements SqlEntityFieldBinding
 	public interface SqlViewRowFieldLoader
 	{
 		Object retrieveValue(ResultSet rs, String adLanguage) throws SQLException;
+
+		/**
+		 * @return loader which reads its columns by index from result sets having given column indexes, or this loader if that is not supported
+		 */
+		default SqlViewRowFieldLoader compile(@NonNull final ResultSetColumnIndexes columnIndexes)
+		{
+			return this;
+		}
 	}
 
 	private final String fieldName;
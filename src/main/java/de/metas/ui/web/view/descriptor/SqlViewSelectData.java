@@ -5,7 +5,6 @@ import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import org.adempiere.ad.expression.api.IExpressionEvaluator.OnVariableNotFound;
 import org.adempiere.ad.expression.api.IStringExpression;
 import org.adempiere.ad.expression.api.impl.CompositeStringExpression;
 
@@ -60,10 +59,11 @@ public class SqlViewSelectData
 	public static final String COLUMNNAME_IsRecordMissing = COLUMNNAME_Paging_Prefix + "IsRecordMissing";
 
 	private final SqlViewKeyColumnNamesMap keyColumnNamesMap;
-	private final IStringExpression _sqlSelectByPage;
-	private final IStringExpression _sqlSelectRowIdsByPage;
-	private final IStringExpression _sqlSelectById;
-	private final IStringExpression _sqlSelectLines;
+	private final SqlViewSelectTemplate _sqlSelectByPage;
+	private final SqlViewSelectTemplate _sqlSelectRowIdsByPage;
+	private final SqlViewSelectTemplate _sqlSelectById;
+	private final SqlViewSelectTemplate _sqlSelectByIds;
+	private final SqlViewSelectTemplate _sqlSelectLines;
 
 	@Builder
 	private SqlViewSelectData(
@@ -77,14 +77,14 @@ public class SqlViewSelectData
 		this.keyColumnNamesMap = keyColumnNamesMap;
 		final IStringExpression sqlSelect = buildSqlSelect(sqlTableName, sqlTableAlias, keyColumnNamesMap, displayFieldNames, allFields, groupingBinding);
 
-		_sqlSelectByPage = sqlSelect.toComposer()
+		_sqlSelectByPage = SqlViewSelectTemplate.of(sqlSelect.toComposer()
 				.append("\n WHERE ")
 				// NOTE: already filtered by UUID
 				.append("\n " + COLUMNNAME_Paging_SeqNo_OneBased + " BETWEEN ? AND ?")
 				.append("\n ORDER BY " + COLUMNNAME_Paging_SeqNo_OneBased)
-				.build();
+				.build());
 
-		_sqlSelectRowIdsByPage = buildSqlSelect(
+		_sqlSelectRowIdsByPage = SqlViewSelectTemplate.of(buildSqlSelect(
 				sqlTableName,
 				sqlTableAlias,
 				keyColumnNamesMap,
@@ -97,9 +97,9 @@ public class SqlViewSelectData
 						// NOTE: already filtered by UUID
 						.append("\n " + COLUMNNAME_Paging_SeqNo_OneBased + " BETWEEN ? AND ?")
 						.append("\n ORDER BY " + COLUMNNAME_Paging_SeqNo_OneBased)
-						.build();
+						.build());
 
-		_sqlSelectById = sqlSelect.toComposer()
+		_sqlSelectById = SqlViewSelectTemplate.of(sqlSelect.toComposer()
 				.append("\n WHERE ")
 				// NOTE: already filtered by UUID
 				.append("\n")
@@ -107,11 +107,13 @@ public class SqlViewSelectData
 						.stream()
 						.map(keyColumnName -> COLUMNNAME_Paging_Prefix + keyColumnName + "=?")
 						.collect(Collectors.joining("\nAND ")))
-				.build();
+				.build());
+
+		_sqlSelectByIds = SqlViewSelectTemplate.of(sqlSelect);
 
 		if (groupingBinding != null)
 		{
-			this._sqlSelectLines = buildSqlSelectLines(sqlTableName, sqlTableAlias, keyColumnNamesMap, displayFieldNames, allFields);
+			this._sqlSelectLines = SqlViewSelectTemplate.of(buildSqlSelectLines(sqlTableName, sqlTableAlias, keyColumnNamesMap, displayFieldNames, allFields));
 		}
 		else
 		{
@@ -119,22 +121,27 @@ public class SqlViewSelectData
 		}
 	}
 
-	private IStringExpression getSqlSelectByPage()
+	private SqlViewSelectTemplate getSqlSelectByPage()
 	{
 		return _sqlSelectByPage;
 	}
 
-	private IStringExpression getSqlSelectRowIdsByPage()
+	private SqlViewSelectTemplate getSqlSelectRowIdsByPage()
 	{
 		return _sqlSelectRowIdsByPage;
 	}
 
-	private IStringExpression getSqlSelectById()
+	private SqlViewSelectTemplate getSqlSelectById()
 	{
 		return _sqlSelectById;
 	}
 
-	private IStringExpression getSqlSelectLines()
+	private SqlViewSelectTemplate getSqlSelectByIds()
+	{
+		return _sqlSelectByIds;
+	}
+
+	private SqlViewSelectTemplate getSqlSelectLines()
 	{
 		Check.assumeNotNull(_sqlSelectLines, "sqlSelectLines is not null (grouping not supported)");
 		return _sqlSelectLines;
@@ -389,8 +396,7 @@ public class SqlViewSelectData
 		final int firstSeqNo = firstRowZeroBased + 1; // NOTE: firstRow is 0-based while SeqNo are 1-based
 		final int lastSeqNo = firstRowZeroBased + pageLength;
 
-		final IStringExpression sqlSelectByPage = getSqlSelectByPage();
-		final String sql = sqlSelectByPage.evaluate(viewEvalCtx.toEvaluatee(), OnVariableNotFound.Fail);
+		final String sql = getSqlSelectByPage().evaluate(viewEvalCtx);
 		return SqlAndParams.of(sql, viewSelectionId, firstSeqNo, lastSeqNo);
 	}
 
@@ -408,8 +414,7 @@ public class SqlViewSelectData
 		final int firstSeqNo = firstRowZeroBased + 1; // NOTE: firstRow is 0-based while SeqNo are 1-based
 		final int lastSeqNo = firstRowZeroBased + pageLength;
 
-		final IStringExpression sqlSelectRowIdsByPage = getSqlSelectRowIdsByPage();
-		final String sql = sqlSelectRowIdsByPage.evaluate(viewEvalCtx.toEvaluatee(), OnVariableNotFound.Fail);
+		final String sql = getSqlSelectRowIdsByPage().evaluate(viewEvalCtx);
 		return SqlAndParams.of(sql, viewSelectionId, firstSeqNo, lastSeqNo);
 	}
 
@@ -419,7 +424,7 @@ public class SqlViewSelectData
 			@NonNull final ViewId viewId,
 			@NonNull final DocumentId rowId)
 	{
-		final String sql = getSqlSelectById().evaluate(viewEvalCtx.toEvaluatee(), OnVariableNotFound.Fail);
+		final String sql = getSqlSelectById().evaluate(viewEvalCtx);
 
 		final ArrayList<Object> sqlParams = new ArrayList<>();
 		sqlParams.add(viewId.getViewId());
@@ -427,6 +432,35 @@ public class SqlViewSelectData
 		return SqlAndParams.of(sql, sqlParams);
 	}
 
+	/**
+	 * Selects multiple rows by their IDs, using one single SQL.
+	 * The rows are ordered by their position in the view's selection.
+	 */
+	@Builder(builderMethodName = "selectByIds", builderClassName = "SelectByIdsBuilder")
+	private SqlAndParams selectByIdsBuilder(
+			@NonNull final ViewEvaluationCtx viewEvalCtx,
+			@NonNull final ViewId viewId,
+			@NonNull final DocumentIdsSelection rowIds)
+	{
+		final List<Object> sqlParams = new ArrayList<>();
+		sqlParams.add(viewId.getViewId());
+
+		final SqlAndParams sqlFilterByRowIds = keyColumnNamesMap.prepareSqlFilterByRowIds()
+				.sqlColumnPrefix(COLUMNNAME_Paging_Prefix)
+				.rowIds(rowIds)
+				.build();
+		final String sql = new StringBuilder()
+				.append(getSqlSelectByIds().evaluate(viewEvalCtx))
+				// NOTE: already filtered by UUID
+				.append("\n WHERE ")
+				.append("\n").append(sqlFilterByRowIds.getSql())
+				.append("\n ORDER BY " + COLUMNNAME_Paging_SeqNo_OneBased)
+				.toString();
+		sqlParams.addAll(sqlFilterByRowIds.getSqlParams());
+
+		return SqlAndParams.of(sql, sqlParams);
+	}
+
 	@Builder(builderMethodName = "selectIncludedLines", builderClassName = "SelectIncludedLinesBuilder")
 	private SqlAndParams selectIncludedLinesBuilder(
 			@NonNull final ViewEvaluationCtx viewEvalCtx,
@@ -441,7 +475,7 @@ public class SqlViewSelectData
 				.rowIds(rowIds)
 				.build();
 		final String sql = new StringBuilder()
-				.append(getSqlSelectLines().evaluate(viewEvalCtx.toEvaluatee(), OnVariableNotFound.Fail))
+				.append(getSqlSelectLines().evaluate(viewEvalCtx))
 				// NOTE: already filtered by UUID
 				.append("\n WHERE ")
 				.append("\n").append(sqlFilterByRowIds.getSql())
@@ -0,0 +1,103 @@
+package de.metas.ui.web.view.descriptor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.adempiere.ad.expression.api.IExpressionEvaluator.OnVariableNotFound;
+import org.adempiere.ad.expression.api.IStringExpression;
+import org.adempiere.exceptions.AdempiereException;
+import org.compiere.util.Evaluatee;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import de.metas.ui.web.view.ViewEvaluationCtx;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * A view's select SQL expression, evaluated once per distinct values of the context variables it actually depends on (usually only the language).
+ * <p>
+ * All requests for the same view binding and language are getting the very same SQL string,
+ * so it's not evaluated again for each page and the JDBC driver can reuse the server side prepared statement.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+final class SqlViewSelectTemplate
+{
+	public static SqlViewSelectTemplate of(@NonNull final IStringExpression sqlExpression)
+	{
+		return new SqlViewSelectTemplate(sqlExpression);
+	}
+
+	/** max number of evaluated SQLs to keep, i.e. languages x users, for the expressions which depend on the user */
+	private static final int MAX_CACHED_SQLS = 200;
+
+	private final IStringExpression sqlExpression;
+	private final ImmutableList<String> parameterNames;
+	private final Cache<List<String>, String> sqlsByParameterValues = CacheBuilder.newBuilder()
+			.maximumSize(MAX_CACHED_SQLS)
+			.build();
+
+	private SqlViewSelectTemplate(final IStringExpression sqlExpression)
+	{
+		this.sqlExpression = sqlExpression;
+		this.parameterNames = ImmutableList.copyOf(sqlExpression.getParameterNames());
+	}
+
+	@Override
+	public String toString()
+	{
+		return sqlExpression.toString();
+	}
+
+	public String evaluate(@NonNull final ViewEvaluationCtx viewEvalCtx)
+	{
+		final Evaluatee evaluatee = viewEvalCtx.toEvaluatee();
+		final List<String> parameterValues = extractParameterValues(evaluatee);
+
+		try
+		{
+			return sqlsByParameterValues.get(parameterValues, () -> sqlExpression.evaluate(evaluatee, OnVariableNotFound.Fail));
+		}
+		catch (final ExecutionException | UncheckedExecutionException e)
+		{
+			// propagate the actual evaluation failure
+			throw AdempiereException.wrapIfNeeded(e.getCause() != null ? e.getCause() : e);
+		}
+	}
+
+	private List<String> extractParameterValues(final Evaluatee evaluatee)
+	{
+		final String[] parameterValues = new String[parameterNames.size()];
+		for (int i = 0; i < parameterValues.length; i++)
+		{
+			parameterValues[i] = evaluatee.get_ValueAsString(parameterNames.get(i));
+		}
+		return Arrays.asList(parameterValues);
+	}
+}
@@ -502,60 +502,9 @@ public final class SqlViewSelectionQueryBuilder
 		final String sqlTableAlias = getTableAlias();
 		final SqlViewKeyColumnNamesMap keyColumnNamesMap = getSqlViewKeyColumnNamesMap();
 
-		final List<DocumentQueryOrderBy> orderBysEffective = orderBys.stream()
-				.flatMap(this::flatMapEffectiveFieldNames)
-				.collect(ImmutableList.toImmutableList());
-		final String sqlOrderBys = replaceTableNameWithTableAlias(
-				SqlDocumentOrderByBuilder.newInstance(fieldName -> ConstantStringExpression.of(sqlTableAlias + "." + fieldName))
-						.buildSqlOrderBy(orderBysEffective)
-						.evaluate(viewEvalCtx.toEvaluatee(), OnVariableNotFound.Fail));
-
-		//
-		// Build the table we will join.
-		// In case we are ordering by some virtual columns we shall build an INLINE view which contains those virtual columns.
-		// Else, we will just simply join by table name.
-		final String sqlSourceTable;
-		{
-			final boolean isOrderBySomeVirtualColumns = orderBysEffective.stream()
-					.anyMatch(orderBy -> isVirtualColumn(orderBy.getFieldName()));
-
-			if (isOrderBySomeVirtualColumns)
-			{
-				final StringBuilder sqlKeyColumnNames = new StringBuilder();
-				for (final String keyColumnName : keyColumnNamesMap.getKeyColumnNames())
-				{
-					if (sqlKeyColumnNames.length() > 0)
-					{
-						sqlKeyColumnNames.append("\n, ");
-					}
-					sqlKeyColumnNames.append(getColumnSql(keyColumnName)).append(" AS ").append(keyColumnName);
-				}
-
-				final StringBuilder sqlSourceTableBuilder = new StringBuilder();
-				sqlSourceTableBuilder.append("SELECT ").append(sqlKeyColumnNames);
-
-				orderBysEffective.forEach(orderBy -> {
-					final String fieldName = orderBy.getFieldName();
-					if (isVirtualColumn(fieldName))
-					{
-						final String columnSql = getColumnSql(fieldName);
-						sqlSourceTableBuilder.append("\n, (").append(columnSql).append(") AS ").append(fieldName);
-					}
-					else
-					{
-						sqlSourceTableBuilder.append("\n, ").append(fieldName);
-					}
-				});
-
-				sqlSourceTableBuilder.append("\n FROM ").append(getTableName());
-
-				sqlSourceTable = sqlSourceTableBuilder.insert(0, "(").append(")").toString();
-			}
-			else
-			{
-				sqlSourceTable = getTableName();
-			}
-		}
+		final List<DocumentQueryOrderBy> orderBysEffective = getEffectiveOrderBys(orderBys);
+		final String sqlOrderBys = buildSqlOrderBys(viewEvalCtx, orderBysEffective);
+		final String sqlSourceTable = buildSqlSourceTable(orderBysEffective);
 
 		//
 		// INSERT INTO T_WEBUI_ViewSelection (UUID, Line, Keys)
@@ -587,6 +536,102 @@ public final class SqlViewSelectionQueryBuilder
 		return SqlAndParams.of(sql, newViewId.getViewId(), fromSelectionId);
 	}
 
+	/**
+	 * Same as {@link #buildSqlCreateSelectionFromSelection(ViewEvaluationCtx, ViewId, String, List)} but instead of inserting the ordered rows into a new selection,
+	 * it just selects the selection's key column ordered by <code>orderBys</code>.
+	 * <p>
+	 * Applies only to views with one single integer key column.
+	 *
+	 * @return
+	 *
+	 *         <pre>
+	 * SELECT sel.keyColumn FROM T_WEBUI_ViewSelection sel LEFT OUTER JOIN ourTable WHERE sel.UUID=[fromUUID] ORDER BY ...
+	 *         </pre>
+	 */
+	public SqlAndParams buildSqlSelectOrderedRowIdsFromSelection(final ViewEvaluationCtx viewEvalCtx,
+			final String fromSelectionId,
+			final List<DocumentQueryOrderBy> orderBys)
+	{
+		final String sqlTableAlias = getTableAlias();
+		final SqlViewKeyColumnNamesMap keyColumnNamesMap = getSqlViewKeyColumnNamesMap();
+		Check.assume(keyColumnNamesMap.isSingleIntKey(), "single integer key: {}", keyColumnNamesMap);
+
+		final List<DocumentQueryOrderBy> orderBysEffective = getEffectiveOrderBys(orderBys);
+		final String sqlOrderBys = buildSqlOrderBys(viewEvalCtx, orderBysEffective);
+		final String sqlSourceTable = buildSqlSourceTable(orderBysEffective);
+		final String sqlJoinCondition = keyColumnNamesMap.getSqlJoinCondition(sqlTableAlias, "sel");
+
+		final String sql = "SELECT sel." + keyColumnNamesMap.getSingleWebuiSelectionColumnName()
+				+ "\n FROM " + I_T_WEBUI_ViewSelection.Table_Name + " sel"
+				+ "\n LEFT OUTER JOIN " + sqlSourceTable + " " + sqlTableAlias + " ON (" + sqlJoinCondition + ")"
+				+ "\n WHERE sel." + I_T_WEBUI_ViewSelection.COLUMNNAME_UUID + "=?" // fromUUID
+				+ "\n ORDER BY " + sqlOrderBys;
+
+		return SqlAndParams.of(sql, fromSelectionId);
+	}
+
+	private List<DocumentQueryOrderBy> getEffectiveOrderBys(final List<DocumentQueryOrderBy> orderBys)
+	{
+		return orderBys.stream()
+				.flatMap(this::flatMapEffectiveFieldNames)
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	private String buildSqlOrderBys(final ViewEvaluationCtx viewEvalCtx, final List<DocumentQueryOrderBy> orderBysEffective)
+	{
+		final String sqlTableAlias = getTableAlias();
+		return replaceTableNameWithTableAlias(
+				SqlDocumentOrderByBuilder.newInstance(fieldName -> ConstantStringExpression.of(sqlTableAlias + "." + fieldName))
+						.buildSqlOrderBy(orderBysEffective)
+						.evaluate(viewEvalCtx.toEvaluatee(), OnVariableNotFound.Fail));
+	}
+
+	/**
+	 * Build the table we will join.
+	 * In case we are ordering by some virtual columns we shall build an INLINE view which contains those virtual columns.
+	 * Else, we will just simply join by table name.
+	 */
+	private String buildSqlSourceTable(final List<DocumentQueryOrderBy> orderBysEffective)
+	{
+		final boolean isOrderBySomeVirtualColumns = orderBysEffective.stream()
+				.anyMatch(orderBy -> isVirtualColumn(orderBy.getFieldName()));
+		if (!isOrderBySomeVirtualColumns)
+		{
+			return getTableName();
+		}
+
+		final SqlViewKeyColumnNamesMap keyColumnNamesMap = getSqlViewKeyColumnNamesMap();
+		final StringBuilder sqlKeyColumnNames = new StringBuilder();
+		for (final String keyColumnName : keyColumnNamesMap.getKeyColumnNames())
+		{
+			if (sqlKeyColumnNames.length() > 0)
+			{
+				sqlKeyColumnNames.append("\n, ");
+			}
+			sqlKeyColumnNames.append(getColumnSql(keyColumnName)).append(" AS ").append(keyColumnName);
+		}
+
+		final StringBuilder sqlSourceTableBuilder = new StringBuilder();
+		sqlSourceTableBuilder.append("SELECT ").append(sqlKeyColumnNames);
+
+		orderBysEffective.forEach(orderBy -> {
+			final String fieldName = orderBy.getFieldName();
+			if (isVirtualColumn(fieldName))
+			{
+				final String columnSql = getColumnSql(fieldName);
+				sqlSourceTableBuilder.append("\n, (").append(columnSql).append(") AS ").append(fieldName);
+			}
+			else
+			{
+				sqlSourceTableBuilder.append("\n, ").append(fieldName);
+			}
+		});
+
+		sqlSourceTableBuilder.append("\n FROM ").append(getTableName());
+
+		return sqlSourceTableBuilder.insert(0, "(").append(")").toString();
+	}
+
 	/**
 	 * @return
 	 *
@@ -1,6 +1,8 @@
 package de.metas.ui.web.view.event;
 
 import java.io.Serializable;
+import java.util.LinkedHashSet;
+import java.util.Objects;
 import java.util.Set;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
@@ -8,7 +10,9 @@ import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableSet;
 
+import de.metas.ui.web.websocket.MergeableWebsocketEvent;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import de.metas.ui.web.window.datatypes.WindowId;
 
@@ -36,7 +40,7 @@ import de.metas.ui.web.window.datatypes.WindowId;
 
 @SuppressWarnings("serial")
 @JsonAutoDetect(fieldVisibility = Visibility.ANY, getterVisibility = Visibility.NONE, setterVisibility = Visibility.NONE)
-public final class JSONViewChanges implements Serializable
+public final class JSONViewChanges implements Serializable, MergeableWebsocketEvent
 {
 	public static JSONViewChanges of(final ViewChanges changes)
 	{
@@ -82,6 +86,14 @@ public final class JSONViewChanges implements Serializable
 		}
 	}
 
+	private JSONViewChanges(final String viewId, final WindowId windowId, final Boolean fullyChanged, final Set<String> changedIds)
+	{
+		this.viewId = viewId;
+		this.windowId = windowId;
+		this.fullyChanged = fullyChanged;
+		this.changedIds = changedIds;
+	}
+
 	@Override
 	public String toString()
 	{
@@ -108,4 +120,51 @@ public final class JSONViewChanges implements Serializable
 	{
 		return fullyChanged;
 	}
+
+	private boolean isFullyChanged()
+	{
+		return fullyChanged != null && fullyChanged;
+	}
+
+	/**
+	 * Merges the changes of the same view: if any of them is fully changed, the result is fully changed, else the changed row IDs are unioned.
+	 */
+	@Override
+	public JSONViewChanges mergeWith(final Object otherEvent)
+	{
+		if (!(otherEvent instanceof JSONViewChanges))
+		{
+			return null;
+		}
+
+		final JSONViewChanges other = (JSONViewChanges)otherEvent;
+		if (!Objects.equals(viewId, other.viewId) || !Objects.equals(windowId, other.windowId))
+		{
+			return null;
+		}
+
+		if (isFullyChanged() || other.isFullyChanged())
+		{
+			return new JSONViewChanges(viewId, windowId, Boolean.TRUE, null);
+		}
+
+		final Set<String> changedIdsMerged = new LinkedHashSet<>();
+		if (changedIds != null)
+		{
+			changedIdsMerged.addAll(changedIds);
+		}
+		if (other.changedIds != null)
+		{
+			changedIdsMerged.addAll(other.changedIds);
+		}
+
+		if (changedIdsMerged.isEmpty())
+		{
+			return new JSONViewChanges(viewId, windowId, null, null);
+		}
+		else
+		{
+			return new JSONViewChanges(viewId, windowId, Boolean.FALSE, ImmutableSet.copyOf(changedIdsMerged));
+		}
+	}
 }
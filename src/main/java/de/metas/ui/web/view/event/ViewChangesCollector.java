@@ -22,6 +22,7 @@ import com.google.common.collect.ImmutableList;
 import de.metas.logging.LogManager;
 import de.metas.ui.web.view.IView;
 import de.metas.ui.web.view.ViewId;
+import de.metas.ui.web.view.ViewQuickActionsPreconditionsEvaluator;
 import de.metas.ui.web.websocket.WebSocketConfig;
 import de.metas.ui.web.websocket.WebsocketSender;
 import de.metas.ui.web.window.datatypes.DocumentId;
@@ -132,6 +133,10 @@ public class ViewChangesCollector implements IAutoCloseable
 	@Lazy
 	private WebsocketSender websocketSender;
 
+	@Autowired
+	@Lazy
+	private ViewQuickActionsPreconditionsEvaluator quickActionsPreconditionsEvaluator;
+
 	private final boolean autoflush;
 
 	private final AtomicBoolean closed = new AtomicBoolean(false);
@@ -262,8 +267,14 @@ public class ViewChangesCollector implements IAutoCloseable
 		else
 		{
 			logger.trace("Flushing {} to websocket", this);
-			changesList.stream()
+			final List<ViewChanges> changesToSend = changesList.stream()
 					.filter(ViewChanges::hasChanges)
+					.collect(ImmutableList.toImmutableList());
+
+			// the view rows changed, so the cached preconditions of view's actions are no longer valid
+			changesToSend.forEach(this::invalidateActionsPreconditions);
+
+			changesToSend.stream()
 					.map(JSONViewChanges::of)
 					.forEach(this::sendToWebsocket);
 		}
@@ -291,6 +302,18 @@ public class ViewChangesCollector implements IAutoCloseable
 		return changesList;
 	}
 
+	private void invalidateActionsPreconditions(final ViewChanges changes)
+	{
+		try
+		{
+			quickActionsPreconditionsEvaluator.invalidateView(changes.getViewId());
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed invalidating the actions preconditions of {}", changes.getViewId(), ex);
+		}
+	}
+
 	private void sendToWebsocket(final JSONViewChanges jsonChangeEvent)
 	{
 		final String endpoint = WebSocketConfig.buildViewNotificationsTopicName(jsonChangeEvent.getViewId());
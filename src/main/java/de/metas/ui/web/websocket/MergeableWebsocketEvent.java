@@ -0,0 +1,44 @@
+package de.metas.ui.web.websocket;
+
+import javax.annotation.Nullable;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Websocket event which can be merged with other events that are sent to the same destination.
+ * <p>
+ * {@link WebsocketSender} uses it to send only one message when more events for the same destination are produced in a short time window.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+public interface MergeableWebsocketEvent
+{
+	/**
+	 * @return a new event which contains the changes of this event and of the given one, or <code>null</code> if the events cannot be merged.
+	 *         Neither this event, nor the given one shall be changed.
+	 */
+	@Nullable
+	Object mergeWith(@NonNull Object otherEvent);
+}
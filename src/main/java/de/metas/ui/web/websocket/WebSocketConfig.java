@@ -31,6 +31,7 @@ import org.springframework.web.socket.server.HandshakeInterceptor;
 import com.google.common.base.Preconditions;
 
 import de.metas.logging.LogManager;
+import de.metas.ui.web.process.ProcessId;
 import de.metas.ui.web.session.UserSession;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.WindowId;
@@ -74,6 +75,7 @@ public class WebSocketConfig extends AbstractWebSocketMessageBrokerConfigurer
 	private static final String TOPIC_Board = "/board";
 	public static final String TOPIC_Dashboard = "/dashboard";
 	public static final String TOPIC_Devices = "/devices";
+	private static final String TOPIC_Process = "/process";
 
 	public static final String buildUserSessionTopicName(@NonNull final UserId adUserId)
 	{
@@ -91,6 +93,11 @@ public class WebSocketConfig extends AbstractWebSocketMessageBrokerConfigurer
 		return TOPIC_View + "/" + viewId;
 	}
 
+	public static final String buildViewActionsTopicName(final String viewId)
+	{
+		return buildViewNotificationsTopicName(viewId) + "/actions";
+	}
+
 	public static final String buildDocumentTopicName(@NonNull final WindowId windowId, @NonNull final DocumentId documentId)
 	{
 		return TOPIC_Document + "/" + windowId.toJson() + "/" + documentId.toJson();
@@ -102,6 +109,11 @@ public class WebSocketConfig extends AbstractWebSocketMessageBrokerConfigurer
 		return TOPIC_Board + "/" + boardId;
 	}
 
+	public static final String buildProcessInstanceTopicName(@NonNull final ProcessId processId, @NonNull final DocumentId pinstanceId)
+	{
+		return TOPIC_Process + "/" + processId.toJson() + "/" + pinstanceId.toJson();
+	}
+
 	@Override
 	public void registerStompEndpoints(final StompEndpointRegistry registry)
 	{
@@ -125,7 +137,8 @@ public class WebSocketConfig extends AbstractWebSocketMessageBrokerConfigurer
 				TOPIC_Document,
 				TOPIC_Board,
 				TOPIC_Dashboard,
-				TOPIC_Devices);
+				TOPIC_Devices,
+				TOPIC_Process);
 
 		// use the /app prefix for others
 		config.setApplicationDestinationPrefixes("/app");
@@ -0,0 +1,337 @@
+package de.metas.ui.web.websocket;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.slf4j.Logger;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.logging.LogManager;
+import de.metas.util.Check;
+import lombok.Builder;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Sends websocket events in batches.
+ * <p>
+ * The events which are enqueued in a short time window are collected by destination.
+ * An event is merged into the previous pending event of the same destination, if both are {@link MergeableWebsocketEvent}s which can be merged.
+ * Each resulting event is converted to a {@link Message} exactly once and then sent.
+ * <p>
+ * If the time window is zero, the events are sent right away, in caller's thread.
+ * <p>
+ * One flush at a time is sending, so the events of a given destination are sent in the order they were enqueued.
+ */
+final class WebsocketBatchingSender
+{
+	private static final transient Logger logger = LogManager.getLogger(WebsocketBatchingSender.class);
+
+	private static final int MAX_DESTINATIONS_WITH_STATISTICS = 1000;
+
+	private final SimpMessagingTemplate websocketMessagingTemplate;
+	private final WebsocketEventsLog eventsLog;
+	private final long windowMillis;
+	private final int maxPendingEvents;
+	private final ScheduledExecutorService scheduler;
+
+	/** Held while a flush takes the pending events and sends them, so two flushes cannot reorder the events of a destination */
+	private final Object sendLock = new Object();
+
+	private final Object lock = new Object();
+	private LinkedHashMap<String, List<WebsocketEvent>> pendingEventsByDestination = new LinkedHashMap<>();
+	private int pendingEventsCount = 0;
+	private boolean flushScheduled = false;
+
+	private final LoadingCache<String, DestinationCounters> countersByDestination = CacheBuilder.newBuilder()
+			.maximumSize(MAX_DESTINATIONS_WITH_STATISTICS)
+			.build(CacheLoader.from(DestinationCounters::new));
+
+	@Builder
+	private WebsocketBatchingSender(
+			@NonNull final SimpMessagingTemplate websocketMessagingTemplate,
+			@NonNull final WebsocketEventsLog eventsLog,
+			final long windowMillis,
+			final int maxPendingEvents)
+	{
+		Check.assume(maxPendingEvents > 0, "maxPendingEvents > 0 but it was {}", maxPendingEvents);
+
+		this.websocketMessagingTemplate = websocketMessagingTemplate;
+		this.eventsLog = eventsLog;
+		this.windowMillis = windowMillis > 0 ? windowMillis : 0;
+		this.maxPendingEvents = maxPendingEvents;
+
+		if (this.windowMillis > 0)
+		{
+			scheduler = Executors.newSingleThreadScheduledExecutor(CustomizableThreadFactory.builder()
+					.setDaemon(true)
+					.setThreadNamePrefix(WebsocketBatchingSender.class.getSimpleName())
+					.build());
+		}
+		else
+		{
+			scheduler = null;
+		}
+	}
+
+	public void enqueue(@NonNull final WebsocketEvent event)
+	{
+		enqueueAll(ImmutableList.of(event));
+	}
+
+	public void enqueueAll(@NonNull final Collection<WebsocketEvent> events)
+	{
+		if (events.isEmpty())
+		{
+			return;
+		}
+
+		final boolean flushNow;
+		synchronized (lock)
+		{
+			events.forEach(this::addToPendingEvents);
+
+			if (scheduler == null || scheduler.isShutdown() || pendingEventsCount >= maxPendingEvents)
+			{
+				flushNow = true;
+			}
+			else
+			{
+				flushNow = false;
+				if (!flushScheduled)
+				{
+					flushScheduled = true;
+					scheduler.schedule(this::flushNoFail, windowMillis, TimeUnit.MILLISECONDS);
+				}
+			}
+		}
+
+		if (flushNow)
+		{
+			flush();
+		}
+	}
+
+	private void addToPendingEvents(final WebsocketEvent event)
+	{
+		final String destination = event.getDestination();
+		getCounters(destination).eventsCount.incrementAndGet();
+		logger.trace("Enqueued event={}", event);
+
+		final List<WebsocketEvent> pendingEvents = pendingEventsByDestination.computeIfAbsent(destination, k -> new ArrayList<>());
+		final int lastIndex = pendingEvents.size() - 1;
+		final WebsocketEvent mergedEvent = lastIndex >= 0 ? mergeOrNull(pendingEvents.get(lastIndex), event) : null;
+		if (mergedEvent != null)
+		{
+			pendingEvents.set(lastIndex, mergedEvent);
+		}
+		else
+		{
+			pendingEvents.add(event);
+			pendingEventsCount++;
+		}
+	}
+
+	private static WebsocketEvent mergeOrNull(final WebsocketEvent previousEvent, final WebsocketEvent event)
+	{
+		if (previousEvent.isConverted() || event.isConverted())
+		{
+			return null;
+		}
+
+		final Object previousPayload = previousEvent.getPayload();
+		if (!(previousPayload instanceof MergeableWebsocketEvent))
+		{
+			return null;
+		}
+
+		final Object mergedPayload = ((MergeableWebsocketEvent)previousPayload).mergeWith(event.getPayload());
+		if (mergedPayload == null)
+		{
+			return null;
+		}
+
+		return WebsocketEvent.builder()
+				.destination(event.getDestination())
+				.payload(mergedPayload)
+				.converted(false)
+				.build();
+	}
+
+	private void flushNoFail()
+	{
+		try
+		{
+			flush();
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed sending websocket events. Ignored.", ex);
+		}
+	}
+
+	private void flush()
+	{
+		synchronized (sendLock)
+		{
+			final Map<String, List<WebsocketEvent>> eventsByDestination;
+			synchronized (lock)
+			{
+				flushScheduled = false;
+				if (pendingEventsByDestination.isEmpty())
+				{
+					return;
+				}
+
+				eventsByDestination = pendingEventsByDestination;
+				pendingEventsByDestination = new LinkedHashMap<>();
+				pendingEventsCount = 0;
+			}
+
+			logger.debug("Sending events for {} destinations", eventsByDestination.size());
+
+			eventsByDestination.values().forEach(events -> events.forEach(this::sendNoFail));
+		}
+	}
+
+	/**
+	 * Sends the pending events and stops the scheduler. Events which are enqueued afterwards are sent right away, in caller's thread.
+	 */
+	public void shutdown()
+	{
+		if (scheduler != null)
+		{
+			synchronized (lock)
+			{
+				scheduler.shutdownNow();
+			}
+		}
+		flushNoFail();
+	}
+
+	private void sendNoFail(final WebsocketEvent event)
+	{
+		try
+		{
+			send(event);
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed sending {}. Ignored.", event, ex);
+		}
+	}
+
+	private void send(final WebsocketEvent event)
+	{
+		final String destination = event.getDestination();
+		final Object payload = event.getPayload();
+
+		final Message<?> message = event.isConverted() ? (Message<?>)payload : toMessage(payload);
+		websocketMessagingTemplate.send(destination, message);
+		logger.trace("Sent to destination={}: payload={}", destination, payload);
+
+		if (!event.isConverted())
+		{
+			eventsLog.logEvent(destination, payload);
+		}
+
+		final DestinationCounters counters = getCounters(destination);
+		counters.messagesCount.incrementAndGet();
+		if (message.getPayload() instanceof byte[])
+		{
+			counters.bytesCount.addAndGet(((byte[])message.getPayload()).length);
+		}
+	}
+
+	/** Converts the payload the same way {@link SimpMessagingTemplate#convertAndSend(Object, Object)} does. */
+	private Message<?> toMessage(final Object payload)
+	{
+		final SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+		headerAccessor.setLeaveMutable(true);
+
+		final Message<?> message = websocketMessagingTemplate.getMessageConverter().toMessage(payload, headerAccessor.getMessageHeaders());
+		if (message == null)
+		{
+			throw new MessageConversionException("Unable to convert payload with type='" + payload.getClass().getName() + "'");
+		}
+		return message;
+	}
+
+	private DestinationCounters getCounters(final String destination)
+	{
+		return countersByDestination.getUnchecked(destination);
+	}
+
+	public List<WebsocketDestinationStatistics> getStatistics()
+	{
+		return countersByDestination.asMap()
+				.entrySet()
+				.stream()
+				.map(entry -> entry.getValue().toStatistics(entry.getKey()))
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	@lombok.Value
+	@lombok.Builder
+	static final class WebsocketEvent
+	{
+		private final String destination;
+		private final Object payload;
+		private final boolean converted;
+	}
+
+	private static final class DestinationCounters
+	{
+		private final AtomicLong eventsCount = new AtomicLong();
+		private final AtomicLong messagesCount = new AtomicLong();
+		private final AtomicLong bytesCount = new AtomicLong();
+
+		public WebsocketDestinationStatistics toStatistics(final String destination)
+		{
+			return WebsocketDestinationStatistics.builder()
+					.destination(destination)
+					.eventsCount(eventsCount.get())
+					.messagesCount(messagesCount.get())
+					.bytesCount(bytesCount.get())
+					.build();
+		}
+	}
+}
@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import javax.annotation.PreDestroy;
+
 import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.ad.trx.api.ITrxListenerManager.TrxEventTiming;
 import org.adempiere.ad.trx.api.ITrxManager;
@@ -16,6 +18,7 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
 import de.metas.logging.LogManager;
+import de.metas.ui.web.websocket.WebsocketBatchingSender.WebsocketEvent;
 import de.metas.util.Services;
 import lombok.NonNull;
 
@@ -47,6 +50,8 @@ import lombok.NonNull;
  * NOTE: by default, all methods will send the events after the current DB transaction is committed.
  * If there is no current transaction, the events will be sent right away.
  *
+ * The events are not sent directly but via {@link WebsocketBatchingSender}, which merges the events sent to the same destination in a short time window.
+ *
  * @author metas-dev <dev@metasfresh.com>
  *
  */
@@ -55,17 +60,26 @@ public class WebsocketSender implements InitializingBean
 {
 	private static final transient Logger logger = LogManager.getLogger(WebsocketSender.class);
 
-	private final SimpMessagingTemplate websocketMessagingTemplate;
 	private final WebsocketEventsLog eventsLog = new WebsocketEventsLog();
+	private final WebsocketBatchingSender batchingSender;
 	private final WebsocketEventsQueue autoflushQueue;
 
 	@Value("${metasfresh.webui.websocket.logEventsEnabled:false}")
 	private boolean logEventsEnabledDefault;
 
-	public WebsocketSender(final SimpMessagingTemplate websocketMessagingTemplate)
+	public WebsocketSender(
+			final SimpMessagingTemplate websocketMessagingTemplate,
+			@Value("${metasfresh.webui.websocket.sendWindowMillis:50}") final long sendWindowMillis,
+			@Value("${metasfresh.webui.websocket.maxPendingEvents:1000}") final int maxPendingEvents)
 	{
-		this.websocketMessagingTemplate = websocketMessagingTemplate;
-		autoflushQueue = new WebsocketEventsQueue("AUTOFLUSH", websocketMessagingTemplate, eventsLog, /* autoflush */true);
+		batchingSender = WebsocketBatchingSender.builder()
+				.websocketMessagingTemplate(websocketMessagingTemplate)
+				.eventsLog(eventsLog)
+				.windowMillis(sendWindowMillis)
+				.maxPendingEvents(maxPendingEvents)
+				.build();
+		autoflushQueue = new WebsocketEventsQueue("AUTOFLUSH", batchingSender, /* autoflush */true);
+		logger.info("Using sendWindowMillis={}, maxPendingEvents={}", sendWindowMillis, maxPendingEvents);
 	}
 
 	@Override
@@ -74,6 +88,12 @@ public class WebsocketSender implements InitializingBean
 		eventsLog.setLogEventsEnabled(logEventsEnabledDefault);
 	}
 
+	@PreDestroy
+	public void shutdown()
+	{
+		batchingSender.shutdown();
+	}
+
 	public void convertAndSend(final Collection<? extends WebsocketEndpointAware> events)
 	{
 		events.forEach(this::convertAndSend);
@@ -116,7 +136,7 @@ public class WebsocketSender implements InitializingBean
 	{
 		final String name = trx.getTrxName();
 		final boolean autoflush = false;
-		final WebsocketEventsQueue queue = new WebsocketEventsQueue(name, websocketMessagingTemplate, eventsLog, autoflush);
+		final WebsocketEventsQueue queue = new WebsocketEventsQueue(name, batchingSender, autoflush);
 
 		// Bind
 		trx.getTrxListenerManager()
@@ -141,108 +161,68 @@ public class WebsocketSender implements InitializingBean
 		return eventsLog.getLoggedEvents(destinationFilter);
 	}
 
-	@lombok.Value
-	@lombok.Builder
-	private static final class WebsocketEvent
+	public List<WebsocketDestinationStatistics> getStatistics()
 	{
-		private final String destination;
-		private final Object payload;
-		private final boolean converted;
+		return batchingSender.getStatistics();
 	}
 
 	private static class WebsocketEventsQueue
 	{
 		/** internal name, used for logging */
 		private final String name;
-		private final SimpMessagingTemplate websocketMessagingTemplate;
-		private final WebsocketEventsLog eventsLog;
+		private final WebsocketBatchingSender batchingSender;
 		private final boolean autoflush;
 		private final List<WebsocketEvent> events = new ArrayList<>();
 
 		public WebsocketEventsQueue(
 				@NonNull final String name,
-				@NonNull final SimpMessagingTemplate websocketMessagingTemplate,
-				@NonNull final WebsocketEventsLog eventsLog,
+				@NonNull final WebsocketBatchingSender batchingSender,
 				final boolean autoflush)
 		{
 			this.name = name;
-			this.websocketMessagingTemplate = websocketMessagingTemplate;
-			this.eventsLog = eventsLog;
+			this.batchingSender = batchingSender;
 			this.autoflush = autoflush;
 		}
 
 		public void enqueueObject(final String destination, final Object payload)
 		{
-			final boolean converted = false;
-			if (autoflush)
-			{
-				sendEvent(destination, payload, converted);
-			}
-			else
-			{
-				enqueue(WebsocketEvent.builder()
-						.destination(destination)
-						.payload(payload)
-						.converted(converted)
-						.build());
-			}
+			enqueue(WebsocketEvent.builder()
+					.destination(destination)
+					.payload(payload)
+					.converted(false)
+					.build());
 		}
 
 		public void enqueueMessage(final String destination, final Message<?> message)
 		{
-			final boolean converted = true;
+			enqueue(WebsocketEvent.builder()
+					.destination(destination)
+					.payload(message)
+					.converted(true)
+					.build());
+		}
+
+		private void enqueue(@NonNull final WebsocketEvent event)
+		{
 			if (autoflush)
 			{
-				sendEvent(destination, message, converted);
+				batchingSender.enqueue(event);
 			}
 			else
 			{
-				enqueue(WebsocketEvent.builder()
-						.destination(destination)
-						.payload(message)
-						.converted(converted)
-						.build());
+				events.add(event);
+				logger.trace("[name={}] Enqueued event={}", name, event);
 			}
 		}
 
-		private void enqueue(@NonNull final WebsocketEvent event)
-		{
-			events.add(event);
-			logger.info("[name={}] Enqueued event={}", name, event);
-		}
-
 		public void sendEventsAndClear()
 		{
-			logger.info("Sending all queued events");
+			logger.debug("[name={}] Sending all {} queued events", name, events.size());
 
 			final List<WebsocketEvent> eventsToSend = new ArrayList<>(events);
 			events.clear();
 
-			eventsToSend.forEach(this::sendEvent);
-		}
-
-		private void sendEvent(final WebsocketEvent event)
-		{
-			final String destination = event.getDestination();
-			final Object payload = event.getPayload();
-			final boolean converted = event.isConverted();
-			sendEvent(destination, payload, converted);
-		}
-
-		private void sendEvent(final String destination, final Object payload, final boolean converted)
-		{
-			logger.info("[name={}] Sending to destination={}: payload={}", name, destination, payload);
-
-			if (converted)
-			{
-				final Message<?> message = (Message<?>)payload;
-				websocketMessagingTemplate.send(destination, message);
-			}
-			else
-			{
-				websocketMessagingTemplate.convertAndSend(destination, payload);
-				eventsLog.logEvent(destination, payload);
-			}
+			batchingSender.enqueueAll(eventsToSend);
 		}
 	}
 }
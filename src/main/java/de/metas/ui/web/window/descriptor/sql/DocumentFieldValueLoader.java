@@ -4,6 +4,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 
 import de.metas.ui.web.window.descriptor.LookupDescriptor;
+import lombok.NonNull;
 
 /*
  * #%L
@@ -36,4 +37,12 @@ import de.metas.ui.web.window.descriptor.LookupDescriptor;
 public interface DocumentFieldValueLoader
 {
 	Object retrieveFieldValue(ResultSet rs, boolean isDisplayColumnAvailable, String adLanguage, LookupDescriptor lookupDescriptor) throws SQLException;
+
+	/**
+	 * @return loader which reads its columns by index from result sets having given column indexes, or this loader if that is not supported
+	 */
+	default DocumentFieldValueLoader compile(@NonNull final ResultSetColumnIndexes columnIndexes)
+	{
+		return this;
+	}
 }
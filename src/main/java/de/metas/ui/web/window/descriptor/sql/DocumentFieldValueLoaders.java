@@ -71,11 +71,11 @@ public final class DocumentFieldValueLoaders
 	{
 		if (encrypted)
 		{
-			return new EncryptedStringDocumentFieldValueLoader(sqlColumnName);
+			return new EncryptedStringDocumentFieldValueLoader(SqlColumn.ofName(sqlColumnName));
 		}
 		else
 		{
-			return new StringDocumentFieldValueLoader(sqlColumnName);
+			return new StringDocumentFieldValueLoader(SqlColumn.ofName(sqlColumnName));
 		}
 	}
 
@@ -83,64 +83,64 @@ public final class DocumentFieldValueLoaders
 	{
 		if (encrypted)
 		{
-			return new EncryptedPasswordDocumentFieldValueLoader(sqlColumnName);
+			return new EncryptedPasswordDocumentFieldValueLoader(SqlColumn.ofName(sqlColumnName));
 		}
 		else
 		{
-			return new PasswordDocumentFieldValueLoader(sqlColumnName);
+			return new PasswordDocumentFieldValueLoader(SqlColumn.ofName(sqlColumnName));
 		}
 	}
 
 	public static DocumentFieldValueLoader toByteArray(final String sqlColumnName, final boolean encrypted)
 	{
-		return new ByteArrayDocumentFieldValueLoader(sqlColumnName, encrypted);
+		return new ByteArrayDocumentFieldValueLoader(SqlColumn.ofName(sqlColumnName), encrypted);
 	}
 
 	public static DocumentFieldValueLoader toBoolean(final String sqlColumnName, final boolean encrypted)
 	{
-		return new BooleanDocumentFieldValueLoader(sqlColumnName, encrypted);
+		return new BooleanDocumentFieldValueLoader(SqlColumn.ofName(sqlColumnName), encrypted);
 	}
 
 	public static DocumentFieldValueLoader toJULDate(final String sqlColumnName, final boolean encrypted)
 	{
-		return new JULDateDocumentFieldValueLoader(sqlColumnName, encrypted);
+		return new JULDateDocumentFieldValueLoader(SqlColumn.ofName(sqlColumnName), encrypted);
 	}
 
 	public static DocumentFieldValueLoader toZonedDateTime(final String sqlColumnName, final boolean encrypted)
 	{
-		return new ZonedDateTimeDocumentFieldValueLoader(sqlColumnName, encrypted);
+		return new ZonedDateTimeDocumentFieldValueLoader(SqlColumn.ofName(sqlColumnName), encrypted);
 	}
 
 	public static DocumentFieldValueLoader toInstant(final String sqlColumnName, final boolean encrypted)
 	{
-		return new InstantDocumentFieldValueLoader(sqlColumnName, encrypted);
+		return new InstantDocumentFieldValueLoader(SqlColumn.ofName(sqlColumnName), encrypted);
 	}
 
 	public static DocumentFieldValueLoader toLocalDate(final String sqlColumnName, final boolean encrypted)
 	{
-		return new LocalDateDocumentFieldValueLoader(sqlColumnName, encrypted);
+		return new LocalDateDocumentFieldValueLoader(SqlColumn.ofName(sqlColumnName), encrypted);
 	}
 
 	public static DocumentFieldValueLoader toLocalTime(final String sqlColumnName, final boolean encrypted)
 	{
-		return new LocalTimeDocumentFieldValueLoader(sqlColumnName, encrypted);
+		return new LocalTimeDocumentFieldValueLoader(SqlColumn.ofName(sqlColumnName), encrypted);
 	}
 
 	public static DocumentFieldValueLoader toBigDecimal(final String sqlColumnName, final boolean encrypted, final Integer precision)
 	{
 		if (precision != null)
 		{
-			return new BigDecimalWithPrecisionDocumentFieldValueLoader(sqlColumnName, encrypted, precision);
+			return new BigDecimalWithPrecisionDocumentFieldValueLoader(SqlColumn.ofName(sqlColumnName), encrypted, precision);
 		}
 		else
 		{
-			return new BigDecimalDocumentFieldValueLoader(sqlColumnName, encrypted);
+			return new BigDecimalDocumentFieldValueLoader(SqlColumn.ofName(sqlColumnName), encrypted);
 		}
 	}
 
 	public static DocumentFieldValueLoader toInteger(final String sqlColumnName, final boolean encrypted)
 	{
-		return new IntegerDocumentFieldValueLoader(sqlColumnName, encrypted);
+		return new IntegerDocumentFieldValueLoader(SqlColumn.ofName(sqlColumnName), encrypted);
 	}
 
 	public static DocumentFieldValueLoader toLookupValue(
@@ -155,11 +155,11 @@ public final class DocumentFieldValueLoaders
 
 		if (numericKey)
 		{
-			return new IntegerLookupValueDocumentFieldValueLoader(sqlColumnName, sqlDisplayColumnName/* , sqlDescriptionColumnName */);
+			return new IntegerLookupValueDocumentFieldValueLoader(SqlColumn.ofName(sqlColumnName), SqlColumn.ofName(sqlDisplayColumnName)/* , sqlDescriptionColumnName */);
 		}
 		else
 		{
-			return new StringLookupValueDocumentFieldValueLoader(sqlColumnName, sqlDisplayColumnName/* , sqlDescriptionColumnName */);
+			return new StringLookupValueDocumentFieldValueLoader(SqlColumn.ofName(sqlColumnName), SqlColumn.ofName(sqlDisplayColumnName)/* , sqlDescriptionColumnName */);
 		}
 	}
 
@@ -170,7 +170,7 @@ public final class DocumentFieldValueLoaders
 
 	public static DocumentFieldValueLoader toColor(final String sqlColumnName)
 	{
-		return new ColorDocumentFieldValueLoader(sqlColumnName);
+		return new ColorDocumentFieldValueLoader(SqlColumn.ofName(sqlColumnName));
 	}
 
 	//
@@ -194,54 +194,131 @@ public final class DocumentFieldValueLoaders
 		return SecureEngine.decrypt(value);
 	}
 
+	/**
+	 * A result set column, referenced by name or, once compiled, by index.
+	 */
+	@Value
+	private static final class SqlColumn
+	{
+		public static SqlColumn ofName(@NonNull final String name)
+		{
+			return new SqlColumn(name, ResultSetColumnIndexes.NONE);
+		}
+
+		@NonNull
+		String name;
+		int index;
+
+		public SqlColumn compile(@NonNull final ResultSetColumnIndexes columnIndexes)
+		{
+			final int index = columnIndexes.getColumnIndexOrNone(name);
+
+			// if the result set does not have our column, keep reading it by name so the JDBC driver reports it as before
+			return index != ResultSetColumnIndexes.NONE ? new SqlColumn(name, index) : this;
+		}
+
+		private boolean isIndexed()
+		{
+			return index != ResultSetColumnIndexes.NONE;
+		}
+
+		public String getString(final ResultSet rs) throws SQLException
+		{
+			return isIndexed() ? rs.getString(index) : rs.getString(name);
+		}
+
+		public Object getObject(final ResultSet rs) throws SQLException
+		{
+			return isIndexed() ? rs.getObject(index) : rs.getObject(name);
+		}
+
+		public Timestamp getTimestamp(final ResultSet rs) throws SQLException
+		{
+			return isIndexed() ? rs.getTimestamp(index) : rs.getTimestamp(name);
+		}
+
+		public BigDecimal getBigDecimal(final ResultSet rs) throws SQLException
+		{
+			return isIndexed() ? rs.getBigDecimal(index) : rs.getBigDecimal(name);
+		}
+
+		public int getInt(final ResultSet rs) throws SQLException
+		{
+			return isIndexed() ? rs.getInt(index) : rs.getInt(name);
+		}
+
+		public Array getArray(final ResultSet rs) throws SQLException
+		{
+			return isIndexed() ? rs.getArray(index) : rs.getArray(name);
+		}
+	}
+
 	@Value
 	private static final class StringDocumentFieldValueLoader implements DocumentFieldValueLoader
 	{
-		private final String sqlColumnName;
+		private final SqlColumn sqlColumn;
 
 		@Override
 		public Object retrieveFieldValue(final ResultSet rs, final boolean isDisplayColumnAvailable, final String adLanguage, final LookupDescriptor lookupDescriptor_NOTUSED) throws SQLException
 		{
-			final String value = rs.getString(sqlColumnName);
+			final String value = sqlColumn.getString(rs);
 			return value;
 		}
+
+		@Override
+		public DocumentFieldValueLoader compile(@NonNull final ResultSetColumnIndexes columnIndexes)
+		{
+			return new StringDocumentFieldValueLoader(sqlColumn.compile(columnIndexes));
+		}
 	}
 
 	@Value
 	private static final class EncryptedStringDocumentFieldValueLoader implements DocumentFieldValueLoader
 	{
-		private final String sqlColumnName;
+		private final SqlColumn sqlColumn;
 
 		@Override
 		public Object retrieveFieldValue(final ResultSet rs, final boolean isDisplayColumnAvailable, final String adLanguage, final LookupDescriptor lookupDescriptor_NOTUSED) throws SQLException
 		{
-			final String value = rs.getString(sqlColumnName);
+			final String value = sqlColumn.getString(rs);
 			return decrypt(value);
 		}
+
+		@Override
+		public DocumentFieldValueLoader compile(@NonNull final ResultSetColumnIndexes columnIndexes)
+		{
+			return new EncryptedStringDocumentFieldValueLoader(sqlColumn.compile(columnIndexes));
+		}
 	}
 
 	@Value
 	private static final class PasswordDocumentFieldValueLoader implements DocumentFieldValueLoader
 	{
-		private final String sqlColumnName;
+		private final SqlColumn sqlColumn;
 
 		@Override
 		public Password retrieveFieldValue(final ResultSet rs, final boolean isDisplayColumnAvailable, final String adLanguage, final LookupDescriptor lookupDescriptor_NOTUSED) throws SQLException
 		{
-			final String value = rs.getString(sqlColumnName);
+			final String value = sqlColumn.getString(rs);
 			return Password.ofNullableString(value);
 		}
+
+		@Override
+		public DocumentFieldValueLoader compile(@NonNull final ResultSetColumnIndexes columnIndexes)
+		{
+			return new PasswordDocumentFieldValueLoader(sqlColumn.compile(columnIndexes));
+		}
 	}
 
 	@Value
 	private static final class EncryptedPasswordDocumentFieldValueLoader implements DocumentFieldValueLoader
 	{
-		private final String sqlColumnName;
+		private final SqlColumn sqlColumn;
 
 		@Override
 		public Password retrieveFieldValue(final ResultSet rs, final boolean isDisplayColumnAvailable, final String adLanguage, final LookupDescriptor lookupDescriptor_NOTUSED) throws SQLException
 		{
-			final String value = rs.getString(sqlColumnName);
+			final String value = sqlColumn.getString(rs);
 			final Object valueDecrypted = decrypt(value);
 			if (valueDecrypted == null)
 			{
@@ -249,18 +326,24 @@ public final class DocumentFieldValueLoaders
 			}
 			return Password.ofNullableString(valueDecrypted.toString());
 		}
+
+		@Override
+		public DocumentFieldValueLoader compile(@NonNull final ResultSetColumnIndexes columnIndexes)
+		{
+			return new EncryptedPasswordDocumentFieldValueLoader(sqlColumn.compile(columnIndexes));
+		}
 	}
 
 	@Value
 	private static final class ByteArrayDocumentFieldValueLoader implements DocumentFieldValueLoader
 	{
-		private final String sqlColumnName;
+		private final SqlColumn sqlColumn;
 		private final boolean encrypted;
 
 		@Override
 		public byte[] retrieveFieldValue(final ResultSet rs, final boolean isDisplayColumnAvailable, final String adLanguage, final LookupDescriptor lookupDescriptor_NOTUSED) throws SQLException
 		{
-			final Object valueObj = rs.getObject(sqlColumnName);
+			final Object valueObj = sqlColumn.getObject(rs);
 			final byte[] valueBytes;
 			if (rs.wasNull())
 			{
@@ -288,24 +371,30 @@ public final class DocumentFieldValueLoaders
 			}
 			else
 			{
-				logger.warn("Unknown LOB value '{}' for {}. Considering it null.", valueObj, sqlColumnName);
+				logger.warn("Unknown LOB value '{}' for {}. Considering it null.", valueObj, sqlColumn);
 				valueBytes = null;
 			}
 			//
 			return valueBytes;
 		}
+
+		@Override
+		public DocumentFieldValueLoader compile(@NonNull final ResultSetColumnIndexes columnIndexes)
+		{
+			return new ByteArrayDocumentFieldValueLoader(sqlColumn.compile(columnIndexes), encrypted);
+		}
 	}
 
 	@Value
 	private static final class BooleanDocumentFieldValueLoader implements DocumentFieldValueLoader
 	{
-		private final String sqlColumnName;
+		private final SqlColumn sqlColumn;
 		private final boolean encrypted;
 
 		@Override
 		public Boolean retrieveFieldValue(final ResultSet rs, final boolean isDisplayColumnAvailable, final String adLanguage, final LookupDescriptor lookupDescriptor_NOTUSED) throws SQLException
 		{
-			String valueStr = rs.getString(sqlColumnName);
+			String valueStr = sqlColumn.getString(rs);
 			if (encrypted)
 			{
 				valueStr = valueStr == null ? null : decrypt(valueStr).toString();
@@ -313,132 +402,186 @@ public final class DocumentFieldValueLoaders
 
 			return DisplayType.toBoolean(valueStr);
 		}
+
+		@Override
+		public DocumentFieldValueLoader compile(@NonNull final ResultSetColumnIndexes columnIndexes)
+		{
+			return new BooleanDocumentFieldValueLoader(sqlColumn.compile(columnIndexes), encrypted);
+		}
 	}
 
 	@Value
 	private static final class JULDateDocumentFieldValueLoader implements DocumentFieldValueLoader
 	{
-		private final String sqlColumnName;
+		private final SqlColumn sqlColumn;
 		private final boolean encrypted;
 
 		@Override
 		public Object retrieveFieldValue(final ResultSet rs, final boolean isDisplayColumnAvailable, final String adLanguage, final LookupDescriptor lookupDescriptor_NOTUSED) throws SQLException
 		{
-			final Timestamp valueTS = rs.getTimestamp(sqlColumnName);
+			final Timestamp valueTS = sqlColumn.getTimestamp(rs);
 			final java.util.Date value = valueTS == null ? null : new java.util.Date(valueTS.getTime());
 			return encrypted ? decrypt(value) : value;
 		}
+
+		@Override
+		public DocumentFieldValueLoader compile(@NonNull final ResultSetColumnIndexes columnIndexes)
+		{
+			return new JULDateDocumentFieldValueLoader(sqlColumn.compile(columnIndexes), encrypted);
+		}
 	}
 
 	@Value
 	private static final class ZonedDateTimeDocumentFieldValueLoader implements DocumentFieldValueLoader
 	{
-		private final String sqlColumnName;
+		private final SqlColumn sqlColumn;
 		private final boolean encrypted;
 
 		@Override
 		public Object retrieveFieldValue(final ResultSet rs, final boolean isDisplayColumnAvailable, final String adLanguage, final LookupDescriptor lookupDescriptor_NOTUSED) throws SQLException
 		{
-			final ZonedDateTime value = TimeUtil.asZonedDateTime(rs.getTimestamp(sqlColumnName));
+			final ZonedDateTime value = TimeUtil.asZonedDateTime(sqlColumn.getTimestamp(rs));
 			return encrypted ? decrypt(value) : value;
 		}
+
+		@Override
+		public DocumentFieldValueLoader compile(@NonNull final ResultSetColumnIndexes columnIndexes)
+		{
+			return new ZonedDateTimeDocumentFieldValueLoader(sqlColumn.compile(columnIndexes), encrypted);
+		}
 	}
 
 	@Value
 	private static final class InstantDocumentFieldValueLoader implements DocumentFieldValueLoader
 	{
-		private final String sqlColumnName;
+		private final SqlColumn sqlColumn;
 		private final boolean encrypted;
 
 		@Override
 		public Object retrieveFieldValue(final ResultSet rs, final boolean isDisplayColumnAvailable, final String adLanguage, final LookupDescriptor lookupDescriptor_NOTUSED) throws SQLException
 		{
-			final Instant value = TimeUtil.asInstant(rs.getTimestamp(sqlColumnName));
+			final Instant value = TimeUtil.asInstant(sqlColumn.getTimestamp(rs));
 			return encrypted ? decrypt(value) : value;
 		}
+
+		@Override
+		public DocumentFieldValueLoader compile(@NonNull final ResultSetColumnIndexes columnIndexes)
+		{
+			return new InstantDocumentFieldValueLoader(sqlColumn.compile(columnIndexes), encrypted);
+		}
 	}
 
 	@Value
 	private static final class LocalDateDocumentFieldValueLoader implements DocumentFieldValueLoader
 	{
-		private final String sqlColumnName;
+		private final SqlColumn sqlColumn;
 		private final boolean encrypted;
 
 		@Override
 		public Object retrieveFieldValue(final ResultSet rs, final boolean isDisplayColumnAvailable, final String adLanguage, final LookupDescriptor lookupDescriptor_NOTUSED) throws SQLException
 		{
-			final LocalDate value = TimeUtil.asLocalDate(rs.getTimestamp(sqlColumnName));
+			final LocalDate value = TimeUtil.asLocalDate(sqlColumn.getTimestamp(rs));
 			return encrypted ? decrypt(value) : value;
 		}
+
+		@Override
+		public DocumentFieldValueLoader compile(@NonNull final ResultSetColumnIndexes columnIndexes)
+		{
+			return new LocalDateDocumentFieldValueLoader(sqlColumn.compile(columnIndexes), encrypted);
+		}
 	}
 
 	@Value
 	private static final class LocalTimeDocumentFieldValueLoader implements DocumentFieldValueLoader
 	{
-		private final String sqlColumnName;
+		private final SqlColumn sqlColumn;
 		private final boolean encrypted;
 
 		@Override
 		public Object retrieveFieldValue(final ResultSet rs, final boolean isDisplayColumnAvailable, final String adLanguage, final LookupDescriptor lookupDescriptor_NOTUSED) throws SQLException
 		{
-			final LocalTime value = TimeUtil.asLocalTime(rs.getTimestamp(sqlColumnName));
+			final LocalTime value = TimeUtil.asLocalTime(sqlColumn.getTimestamp(rs));
 			return encrypted ? decrypt(value) : value;
 		}
+
+		@Override
+		public DocumentFieldValueLoader compile(@NonNull final ResultSetColumnIndexes columnIndexes)
+		{
+			return new LocalTimeDocumentFieldValueLoader(sqlColumn.compile(columnIndexes), encrypted);
+		}
 	}
 
 	@Value
 	private static final class BigDecimalDocumentFieldValueLoader implements DocumentFieldValueLoader
 	{
-		private final String sqlColumnName;
+		private final SqlColumn sqlColumn;
 		private final boolean encrypted;
 
 		@Override
 		public Object retrieveFieldValue(final ResultSet rs, final boolean isDisplayColumnAvailable, final String adLanguage, final LookupDescriptor lookupDescriptor_NOTUSED) throws SQLException
 		{
-			final BigDecimal value = rs.getBigDecimal(sqlColumnName);
+			final BigDecimal value = sqlColumn.getBigDecimal(rs);
 			return encrypted ? decrypt(value) : value;
 		}
+
+		@Override
+		public DocumentFieldValueLoader compile(@NonNull final ResultSetColumnIndexes columnIndexes)
+		{
+			return new BigDecimalDocumentFieldValueLoader(sqlColumn.compile(columnIndexes), encrypted);
+		}
 	}
 
 	@Value
 	private static final class BigDecimalWithPrecisionDocumentFieldValueLoader implements DocumentFieldValueLoader
 	{
-		private final String sqlColumnName;
+		private final SqlColumn sqlColumn;
 		private final boolean encrypted;
 		private final int precision;
 
 		@Override
 		public Object retrieveFieldValue(final ResultSet rs, final boolean isDisplayColumnAvailable, final String adLanguage, final LookupDescriptor lookupDescriptor_NOTUSED) throws SQLException
 		{
-			BigDecimal value = rs.getBigDecimal(sqlColumnName);
+			BigDecimal value = sqlColumn.getBigDecimal(rs);
 			value = value == null ? null : NumberUtils.setMinimumScale(value, precision);
 			return encrypted ? decrypt(value) : value;
 		}
+
+		@Override
+		public DocumentFieldValueLoader compile(@NonNull final ResultSetColumnIndexes columnIndexes)
+		{
+			return new BigDecimalWithPrecisionDocumentFieldValueLoader(sqlColumn.compile(columnIndexes), encrypted, precision);
+		}
 	}
 
 	@Value
 	private static final class IntegerDocumentFieldValueLoader implements DocumentFieldValueLoader
 	{
-		private final String sqlColumnName;
+		private final SqlColumn sqlColumn;
 		private final boolean encrypted;
 
 		@Override
 		public Object retrieveFieldValue(final ResultSet rs, final boolean isDisplayColumnAvailable, final String adLanguage, final LookupDescriptor lookupDescriptor_NOTUSED) throws SQLException
 		{
-			final int valueInt = rs.getInt(sqlColumnName);
+			final int valueInt = sqlColumn.getInt(rs);
 			final Integer value = rs.wasNull() ? null : valueInt;
 			return encrypted ? decrypt(value) : value;
 		}
+
+		@Override
+		public DocumentFieldValueLoader compile(@NonNull final ResultSetColumnIndexes columnIndexes)
+		{
+			return new IntegerDocumentFieldValueLoader(sqlColumn.compile(columnIndexes), encrypted);
+		}
 	}
 
 	@Value
 	private static final class IntegerLookupValueDocumentFieldValueLoader implements DocumentFieldValueLoader
 	{
 		@NonNull
-		private final String sqlColumnName;
+		private final SqlColumn sqlColumn;
 
 		@NonNull
-		private final String sqlDisplayColumnName;
+		private final SqlColumn sqlDisplayColumn;
 
 		@Override
 		public IntegerLookupValue retrieveFieldValue(
@@ -447,7 +590,7 @@ public final class DocumentFieldValueLoaders
 				final String adLanguage,
 				final LookupDescriptor lookupDescriptor_NOTUSED) throws SQLException
 		{
-			final int id = rs.getInt(sqlColumnName);
+			final int id = sqlColumn.getInt(rs);
 			if (rs.wasNull())
 			{
 				return null;
@@ -457,7 +600,7 @@ public final class DocumentFieldValueLoaders
 			{
 				final DisplayNameAndDescription result = DocumentFieldValueLoaders.extractDisplayNameAndDescription(
 						rs,
-						sqlDisplayColumnName,
+						sqlDisplayColumn,
 						adLanguage);
 
 				return IntegerLookupValue.builder()
@@ -471,16 +614,22 @@ public final class DocumentFieldValueLoaders
 				return IntegerLookupValue.unknown(id);
 			}
 		}
+
+		@Override
+		public DocumentFieldValueLoader compile(@NonNull final ResultSetColumnIndexes columnIndexes)
+		{
+			return new IntegerLookupValueDocumentFieldValueLoader(sqlColumn.compile(columnIndexes), sqlDisplayColumn.compile(columnIndexes));
+		}
 	}
 
 	@Value
 	private static final class StringLookupValueDocumentFieldValueLoader implements DocumentFieldValueLoader
 	{
 		@NonNull
-		private final String sqlColumnName;
+		private final SqlColumn sqlColumn;
 
 		@NonNull
-		private final String sqlDisplayColumnName;
+		private final SqlColumn sqlDisplayColumn;
 
 		@Override
 		public StringLookupValue retrieveFieldValue(
@@ -489,7 +638,7 @@ public final class DocumentFieldValueLoaders
 				final String adLanguage,
 				final LookupDescriptor lookupDescriptor_NOTUSED) throws SQLException
 		{
-			final String key = rs.getString(sqlColumnName);
+			final String key = sqlColumn.getString(rs);
 			if (rs.wasNull())
 			{
 				return null;
@@ -499,7 +648,7 @@ public final class DocumentFieldValueLoaders
 			{
 				final DisplayNameAndDescription result = DocumentFieldValueLoaders.extractDisplayNameAndDescription(
 						rs,
-						sqlDisplayColumnName,
+						sqlDisplayColumn,
 						adLanguage);
 
 				return StringLookupValue.builder()
@@ -513,17 +662,23 @@ public final class DocumentFieldValueLoaders
 				return StringLookupValue.unknown(key);
 			}
 		}
+
+		@Override
+		public DocumentFieldValueLoader compile(@NonNull final ResultSetColumnIndexes columnIndexes)
+		{
+			return new StringLookupValueDocumentFieldValueLoader(sqlColumn.compile(columnIndexes), sqlDisplayColumn.compile(columnIndexes));
+		}
 	}
 
 	private static DisplayNameAndDescription extractDisplayNameAndDescription(
 			@NonNull final ResultSet rs,
-			final String sqlDisplayColumnName,
+			final SqlColumn sqlDisplayColumn,
 			final String adLanguage) throws SQLException
 	{
 		final ITranslatableString displayName;
 		final ITranslatableString description;
 
-		final Array array = rs.getArray(sqlDisplayColumnName);
+		final Array array = sqlDisplayColumn.getArray(rs);
 		if (array == null)
 		{
 			displayName = TranslatableStrings.empty();
@@ -590,12 +745,12 @@ public final class DocumentFieldValueLoaders
 	private static class ColorDocumentFieldValueLoader implements DocumentFieldValueLoader
 	{
 		@NonNull
-		private final String sqlColumnName;
+		private final SqlColumn sqlColumn;
 
 		@Override
 		public Object retrieveFieldValue(ResultSet rs, boolean isDisplayColumnAvailable, String adLanguage, LookupDescriptor lookupDescriptor) throws SQLException
 		{
-			final int adColorId = rs.getInt(sqlColumnName);
+			final int adColorId = sqlColumn.getInt(rs);
 			if (adColorId <= 0)
 			{
 				return null;
@@ -612,5 +767,10 @@ public final class DocumentFieldValueLoaders
 			return ColorValue.ofRGB(awtColor.getRed(), awtColor.getGreen(), awtColor.getBlue());
 		}
 
+		@Override
+		public DocumentFieldValueLoader compile(@NonNull final ResultSetColumnIndexes columnIndexes)
+		{
+			return new ColorDocumentFieldValueLoader(sqlColumn.compile(columnIndexes));
+		}
 	}
 }
@@ -60,6 +60,7 @@ import de.metas.ui.web.window.datatypes.LookupValuesList;
 import de.metas.ui.web.window.datatypes.WindowId;
 import de.metas.ui.web.window.descriptor.DocumentLayoutElementFieldDescriptor.LookupSource;
 import de.metas.ui.web.window.descriptor.LookupDescriptor;
+import de.metas.ui.web.window.descriptor.sql.ProductLookupIndex.RowKey;
 import de.metas.ui.web.window.model.lookup.LookupDataSourceContext;
 import de.metas.ui.web.window.model.lookup.LookupDataSourceFetcher;
 import de.metas.util.Check;
@@ -119,7 +120,7 @@ public class ProductLookupDescriptor implements LookupDescriptor, LookupDataSour
 	private static final Optional<String> LookupTableName = Optional.of(I_M_Product.Table_Name);
 	private static final String CONTEXT_LookupTableName = LookupTableName.get();
 
-	private static final String COLUMNNAME_ProductDisplayName = "ProductDisplayName";
+	static final String COLUMNNAME_ProductDisplayName = "ProductDisplayName";
 
 	private final CtxName param_C_BPartner_ID;
 	private final CtxName param_PricingDate;
@@ -213,8 +214,18 @@ public class ProductLookupDescriptor implements LookupDescriptor, LookupDataSour
 			return LookupValuesList.EMPTY;
 		}
 
+		//
+		// Match the search string in memory, if possible
+		final ImmutableSet<RowKey> indexedMatchingRows = ProductLookupIndex.instance
+				.findMatchingRows(evalCtx.getFilter(), evalCtx.getAD_Language(), isFullTextSearchEnabled())
+				.orElse(null);
+		if (indexedMatchingRows != null && indexedMatchingRows.isEmpty())
+		{
+			return LookupValuesList.EMPTY;
+		}
+
 		final SqlParamsCollector sqlParams = SqlParamsCollector.newInstance();
-		final String sql = buildSql(sqlParams, evalCtx);
+		final String sql = buildSql(sqlParams, evalCtx, indexedMatchingRows);
 
 		PreparedStatement pstmt = null;
 		ResultSet rs = null;
@@ -285,16 +296,27 @@ public class ProductLookupDescriptor implements LookupDescriptor, LookupDataSour
 		return stockdateOrNull;
 	}
 
+	/**
+	 * @param indexedMatchingRows rows matching the search string, as found by {@link ProductLookupIndex}; if null, the search string is matched in SQL
+	 */
 	private String buildSql(
 			@NonNull final SqlParamsCollector sqlParams,
-			@NonNull final LookupDataSourceContext evalCtx)
+			@NonNull final LookupDataSourceContext evalCtx,
+			@Nullable final Set<RowKey> indexedMatchingRows)
 	{
 		//
 		// Build the SQL filter
 		final StringBuilder sqlWhereClause = new StringBuilder();
 		final SqlParamsCollector sqlWhereClauseParams = SqlParamsCollector.newInstance();
 		appendFilterByIsActive(sqlWhereClause, sqlWhereClauseParams);
-		appendFilterBySearchString(sqlWhereClause, sqlWhereClauseParams, evalCtx.getFilter(), isFullTextSearchEnabled());
+		if (indexedMatchingRows != null)
+		{
+			appendFilterByRowKeys(sqlWhereClause, sqlWhereClauseParams, indexedMatchingRows);
+		}
+		else
+		{
+			appendFilterBySearchString(sqlWhereClause, sqlWhereClauseParams, evalCtx.getFilter(), isFullTextSearchEnabled());
+		}
 		appendFilterById(sqlWhereClause, sqlWhereClauseParams, evalCtx);
 		appendFilterByBPartner(sqlWhereClause, sqlWhereClauseParams, evalCtx);
 		appendFilterByPriceList(sqlWhereClause, sqlWhereClauseParams, evalCtx);
@@ -304,11 +326,7 @@ public class ProductLookupDescriptor implements LookupDescriptor, LookupDataSour
 
 		//
 		// SQL: SELECT ... FROM
-		final String sqlDisplayName = MLookupFactory.getLookup_TableDirEmbed(
-				LanguageInfo.ofSpecificLanguage(evalCtx.getAD_Language()),
-				org.compiere.model.I_M_Product.COLUMNNAME_M_Product_ID, // columnName
-				null, // baseTable
-				"p." + I_M_Product_Lookup_V.COLUMNNAME_M_Product_ID);
+		final String sqlDisplayName = buildSqlDisplayName(evalCtx.getAD_Language());
 		final StringBuilder sql = new StringBuilder("SELECT"
 				+ "\n p." + I_M_Product_Lookup_V.COLUMNNAME_M_Product_ID
 				+ "\n, (" + sqlDisplayName + ") AS " + COLUMNNAME_ProductDisplayName
@@ -342,6 +360,15 @@ public class ProductLookupDescriptor implements LookupDescriptor, LookupDataSour
 		return sql.toString();
 	}
 
+	static String buildSqlDisplayName(final String adLanguage)
+	{
+		return MLookupFactory.getLookup_TableDirEmbed(
+				LanguageInfo.ofSpecificLanguage(adLanguage),
+				org.compiere.model.I_M_Product.COLUMNNAME_M_Product_ID, // columnName
+				null, // baseTable
+				"p." + I_M_Product_Lookup_V.COLUMNNAME_M_Product_ID);
+	}
+
 	private static StringBuilder appendFilterByIsActive(final StringBuilder sqlWhereClause, final SqlParamsCollector sqlWhereClauseParams)
 	{
 		return sqlWhereClause.append("\n p.").append(I_M_Product_Lookup_V.COLUMNNAME_IsActive).append("=").append(sqlWhereClauseParams.placeholder(true));
@@ -385,6 +412,29 @@ public class ProductLookupDescriptor implements LookupDescriptor, LookupDataSour
 		}
 	}
 
+	private static void appendFilterByRowKeys(
+			final StringBuilder sqlWhereClause,
+			final SqlParamsCollector sqlWhereClauseParams,
+			final Set<RowKey> rowKeys)
+	{
+		sqlWhereClause.append("\n AND (p." + I_M_Product_Lookup_V.COLUMNNAME_M_Product_ID + ", COALESCE(p." + I_M_Product_Lookup_V.COLUMNNAME_C_BPartner_ID + ", 0)) IN (");
+		boolean first = true;
+		for (final RowKey rowKey : rowKeys)
+		{
+			if (!first)
+			{
+				sqlWhereClause.append(",");
+			}
+			sqlWhereClause.append("(")
+					.append(sqlWhereClauseParams.placeholder(rowKey.getProductId()))
+					.append(",")
+					.append(sqlWhereClauseParams.placeholder(rowKey.getBpartnerId()))
+					.append(")");
+			first = false;
+		}
+		sqlWhereClause.append(")");
+	}
+
 	private static void appendFilterById(final StringBuilder sqlWhereClause, final SqlParamsCollector sqlWhereClauseParams, final LookupDataSourceContext evalCtx)
 	{
 		final Integer idToFilter = evalCtx.getIdToFilterAsInt(-1);
@@ -752,7 +802,7 @@ public class ProductLookupDescriptor implements LookupDescriptor, LookupDataSour
 		private final ImmutableAttributeSet attributes = ImmutableAttributeSet.EMPTY;
 	}
 
-	private interface I_M_Product_Lookup_V
+	interface I_M_Product_Lookup_V
 	{
 		String Table_Name = "M_Product_Lookup_V";
 
@@ -0,0 +1,618 @@
+package de.metas.ui.web.window.descriptor.sql;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.exceptions.DBException;
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.compiere.util.DB;
+import org.compiere.util.Language;
+import org.slf4j.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+
+import de.metas.cache.model.CacheInvalidateRequest;
+import de.metas.logging.LogManager;
+import de.metas.product.model.I_M_Product;
+import de.metas.ui.web.window.descriptor.sql.ProductLookupDescriptor.I_M_Product_Lookup_V;
+import de.metas.util.Check;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * In-memory trigram index of the {@link I_M_Product_Lookup_V} rows, used by {@link ProductLookupDescriptor} to match the typeahead search string
+ * without running the <code>ILIKE '%...%'</code> filters in database.
+ * <p>
+ * The index is disabled by default. When enabled, it's built asynchronously and kept up to date by {@link #onRecordsChanged(Collection)}.
+ * While it's not available, the callers are expected to fall back to SQL.
+ * <p>
+ * Only the base language is indexed.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+public final class ProductLookupIndex
+{
+	public static final transient ProductLookupIndex instance = new ProductLookupIndex();
+
+	private static final Logger logger = LogManager.getLogger(ProductLookupIndex.class);
+
+	private static final int NGRAM_SIZE = 3;
+
+	/** If more rows are matching, it's cheaper to let the database filter them */
+	private static final int MAX_MATCHING_ROWS = 5000;
+
+	/** How many products can be reloaded incrementally before the whole index is rebuilt */
+	private static final int MAX_CHANGED_PRODUCTS = 10000;
+
+	private static final int RELOAD_CHUNK_SIZE = 500;
+
+	private static final String TABLENAME_C_BPartner_Product = "C_BPartner_Product";
+	private static final ImmutableSet<String> WATCHED_TABLE_NAMES = ImmutableSet.of(I_M_Product.Table_Name, TABLENAME_C_BPartner_Product);
+
+	private final AtomicBoolean enabled = new AtomicBoolean(false);
+	private final AtomicBoolean rebuildScheduled = new AtomicBoolean(false);
+	private final AtomicBoolean rebuildRunning = new AtomicBoolean(false);
+	private final ExecutorService async;
+
+	private volatile IndexData data = null;
+
+	private ProductLookupIndex()
+	{
+		async = Executors.newSingleThreadExecutor(CustomizableThreadFactory.builder()
+				.setDaemon(true)
+				.setThreadNamePrefix(ProductLookupIndex.class.getSimpleName())
+				.build());
+	}
+
+	/**
+	 * Enables the index and starts building it asynchronously.
+	 */
+	public void enable()
+	{
+		if (enabled.getAndSet(true))
+		{
+			return;
+		}
+
+		scheduleRebuild();
+	}
+
+	public boolean isEnabled()
+	{
+		return enabled.get();
+	}
+
+	/**
+	 * @param filter the search string, as typed by user
+	 * @param fullTextSearch if true, the same columns as {@link ProductLookupDescriptor}'s full text search are matched, else only Value and Name
+	 * @return the keys of the matching rows or empty if the index cannot answer this search, in which case the caller shall fall back to SQL
+	 */
+	public Optional<ImmutableSet<RowKey>> findMatchingRows(
+			@Nullable final String filter,
+			@NonNull final String adLanguage,
+			final boolean fullTextSearch)
+	{
+		if (!isEnabled())
+		{
+			return Optional.empty();
+		}
+
+		final IndexData data = this.data;
+		if (data == null)
+		{
+			if (!rebuildRunning.get())
+			{
+				scheduleRebuild(); // in case the startup build failed
+			}
+			return Optional.empty();
+		}
+
+		if (!Language.isBaseLanguage(adLanguage))
+		{
+			// only the base language display names are indexed
+			return Optional.empty();
+		}
+
+		final String searchString = normalizeSearchString(filter);
+		if (searchString == null)
+		{
+			return Optional.empty();
+		}
+
+		return data.findMatchingRows(searchString, fullTextSearch, MAX_MATCHING_ROWS);
+	}
+
+	/**
+	 * @return normalized search string or null if the search string uses SQL wildcards, which are not supported by this index
+	 */
+	@VisibleForTesting
+	static String normalizeSearchString(@Nullable final String filter)
+	{
+		if (filter == null)
+		{
+			return null;
+		}
+
+		final String searchString = normalizeText(filter.trim());
+		if (searchString.isEmpty() || searchString.contains("%") || searchString.contains("_"))
+		{
+			return null;
+		}
+
+		return searchString;
+	}
+
+	private static String normalizeText(@Nullable final String text)
+	{
+		return text != null ? text.toLowerCase(Locale.ROOT) : "";
+	}
+
+	/**
+	 * Updates the index for given changed records. Requests which are not about products are ignored.
+	 */
+	public void onRecordsChanged(@NonNull final Collection<CacheInvalidateRequest> requests)
+	{
+		if (!isEnabled())
+		{
+			return;
+		}
+
+		boolean rebuild = false;
+		final Set<Integer> productIds = new HashSet<>();
+		for (final CacheInvalidateRequest request : requests)
+		{
+			if (I_M_Product.Table_Name.equals(request.getRootTableName()) && request.getRootRecordId() > 0)
+			{
+				// the product itself or one of its child records (e.g. C_BPartner_Product) changed
+				productIds.add(request.getRootRecordId());
+			}
+			else if (WATCHED_TABLE_NAMES.contains(request.getTableNameEffective()))
+			{
+				// we don't know which product was affected
+				rebuild = true;
+			}
+		}
+
+		if (rebuild)
+		{
+			scheduleRebuild();
+		}
+		else if (!productIds.isEmpty())
+		{
+			async.execute(() -> reloadProducts(productIds));
+		}
+	}
+
+	private void scheduleRebuild()
+	{
+		if (!rebuildScheduled.compareAndSet(false, true))
+		{
+			return;
+		}
+
+		async.execute(() -> {
+			rebuildScheduled.set(false);
+			rebuildNow();
+		});
+	}
+
+	private void rebuildNow()
+	{
+		rebuildRunning.set(true);
+		try
+		{
+			final Stopwatch stopwatch = Stopwatch.createStarted();
+			final List<IndexedRow> rows = retrieveRows(null);
+			data = IndexData.of(rows);
+			logger.info("Built product lookup index for {} rows in {}", rows.size(), stopwatch.stop());
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed building the product lookup index. Product lookups will fall back to SQL.", ex);
+		}
+		finally
+		{
+			rebuildRunning.set(false);
+		}
+	}
+
+	private void reloadProducts(final Set<Integer> productIds)
+	{
+		final IndexData data = this.data;
+		if (data == null)
+		{
+			// not built yet; the build will fetch the latest rows anyway
+			return;
+		}
+
+		try
+		{
+			for (final List<Integer> productIdsChunk : Iterables.partition(productIds, RELOAD_CHUNK_SIZE))
+			{
+				final Map<Integer, List<IndexedRow>> rowsByProductId = new HashMap<>();
+				productIdsChunk.forEach(productId -> rowsByProductId.put(productId, new ArrayList<>())); // products not found will be removed
+				retrieveRows(productIdsChunk).forEach(row -> rowsByProductId.get(row.getProductId()).add(row));
+
+				rowsByProductId.forEach(data::replaceProductRows);
+			}
+
+			if (data.getChangedProductsCount() > MAX_CHANGED_PRODUCTS)
+			{
+				scheduleRebuild();
+			}
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed reloading products {} in the product lookup index. Rebuilding it.", productIds, ex);
+			scheduleRebuild();
+		}
+	}
+
+	/**
+	 * @param onlyProductIds products to retrieve or null to retrieve all
+	 */
+	private static List<IndexedRow> retrieveRows(@Nullable final Collection<Integer> onlyProductIds)
+	{
+		final List<Object> sqlParams = new ArrayList<>();
+		final StringBuilder sql = new StringBuilder("SELECT "
+				+ "\n p." + I_M_Product_Lookup_V.COLUMNNAME_M_Product_ID
+				+ "\n, p." + I_M_Product_Lookup_V.COLUMNNAME_C_BPartner_ID
+				+ "\n, (" + ProductLookupDescriptor.buildSqlDisplayName(Language.getBaseAD_Language()) + ") AS " + ProductLookupDescriptor.COLUMNNAME_ProductDisplayName
+				+ "\n, p." + I_M_Product_Lookup_V.COLUMNNAME_Value
+				+ "\n, p." + I_M_Product_Lookup_V.COLUMNNAME_Name
+				+ "\n, p." + I_M_Product_Lookup_V.COLUMNNAME_UPC
+				+ "\n, p." + I_M_Product_Lookup_V.COLUMNNAME_BPartnerProductNo
+				+ "\n, p." + I_M_Product_Lookup_V.COLUMNNAME_BPartnerProductName
+				+ "\n FROM " + I_M_Product_Lookup_V.Table_Name + " p");
+		if (onlyProductIds != null)
+		{
+			sql.append("\n WHERE ").append(DB.buildSqlList("p." + I_M_Product_Lookup_V.COLUMNNAME_M_Product_ID, onlyProductIds, sqlParams));
+		}
+
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sql.toString(), ITrx.TRXNAME_None);
+			DB.setParameters(pstmt, sqlParams);
+			rs = pstmt.executeQuery();
+
+			final List<IndexedRow> rows = new ArrayList<>();
+			while (rs.next())
+			{
+				rows.add(IndexedRow.builder()
+						.productId(rs.getInt(I_M_Product_Lookup_V.COLUMNNAME_M_Product_ID))
+						.bpartnerId(Math.max(rs.getInt(I_M_Product_Lookup_V.COLUMNNAME_C_BPartner_ID), 0))
+						.displayName(rs.getString(ProductLookupDescriptor.COLUMNNAME_ProductDisplayName))
+						.value(rs.getString(I_M_Product_Lookup_V.COLUMNNAME_Value))
+						.name(rs.getString(I_M_Product_Lookup_V.COLUMNNAME_Name))
+						.upc(rs.getString(I_M_Product_Lookup_V.COLUMNNAME_UPC))
+						.bpartnerProductNo(rs.getString(I_M_Product_Lookup_V.COLUMNNAME_BPartnerProductNo))
+						.bpartnerProductName(rs.getString(I_M_Product_Lookup_V.COLUMNNAME_BPartnerProductName))
+						.build());
+			}
+			return rows;
+		}
+		catch (final SQLException ex)
+		{
+			throw new DBException(ex, sql.toString(), sqlParams);
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
+	/** Identifies an {@link I_M_Product_Lookup_V} row. */
+	@Value(staticConstructor = "of")
+	public static class RowKey
+	{
+		int productId;
+		/** C_BPartner_ID or 0 if the row is not about a business partner */
+		int bpartnerId;
+	}
+
+	@Value
+	@VisibleForTesting
+	static class IndexedRow
+	{
+		RowKey key;
+
+		String displayName;
+		String value;
+		String name;
+		String upc;
+		String bpartnerProductNo;
+		String bpartnerProductName;
+
+		@Builder
+		private IndexedRow(
+				final int productId,
+				final int bpartnerId,
+				@Nullable final String displayName,
+				@Nullable final String value,
+				@Nullable final String name,
+				@Nullable final String upc,
+				@Nullable final String bpartnerProductNo,
+				@Nullable final String bpartnerProductName)
+		{
+			Check.assumeGreaterThanZero(productId, "productId");
+
+			key = RowKey.of(productId, bpartnerId);
+			this.displayName = normalizeText(displayName);
+			this.value = normalizeText(value);
+			this.name = normalizeText(name);
+			this.upc = normalizeText(upc);
+			this.bpartnerProductNo = normalizeText(bpartnerProductNo);
+			this.bpartnerProductName = normalizeText(bpartnerProductName);
+		}
+
+		public int getProductId()
+		{
+			return key.getProductId();
+		}
+
+		/** Shall match the SQL filters of ProductLookupDescriptor.appendFilterBySearchString */
+		public boolean isMatching(@NonNull final String searchString, final boolean fullTextSearch)
+		{
+			if (fullTextSearch)
+			{
+				return displayName.contains(searchString)
+						|| upc.contains(searchString)
+						|| bpartnerProductNo.contains(searchString)
+						|| bpartnerProductName.contains(searchString);
+			}
+			else
+			{
+				return value.contains(searchString)
+						|| name.contains(searchString);
+			}
+		}
+
+		private Set<String> getNGrams()
+		{
+			final Set<String> ngrams = new HashSet<>();
+			collectNGrams(displayName, ngrams);
+			collectNGrams(value, ngrams);
+			collectNGrams(name, ngrams);
+			collectNGrams(upc, ngrams);
+			collectNGrams(bpartnerProductNo, ngrams);
+			collectNGrams(bpartnerProductName, ngrams);
+			return ngrams;
+		}
+	}
+
+	private static void collectNGrams(final String text, final Set<String> ngrams)
+	{
+		for (int i = 0; i + NGRAM_SIZE <= text.length(); i++)
+		{
+			ngrams.add(text.substring(i, i + NGRAM_SIZE));
+		}
+	}
+
+	/**
+	 * Immutable trigram postings built on full rebuild, plus the rows of the products which changed since then.
+	 */
+	@VisibleForTesting
+	static final class IndexData
+	{
+		public static IndexData of(final List<IndexedRow> rows)
+		{
+			return new IndexData(rows);
+		}
+
+		private final ImmutableList<IndexedRow> rows;
+		/** n-gram to (ascending) indexes in {@link #rows} */
+		private final Map<String, int[]> postings;
+
+		private final ConcurrentHashMap<Integer, ImmutableList<IndexedRow>> changedRowsByProductId = new ConcurrentHashMap<>();
+
+		private IndexData(final List<IndexedRow> rows)
+		{
+			this.rows = ImmutableList.copyOf(rows);
+
+			final Map<String, IntArrayBuilder> postingsBuilders = new HashMap<>();
+			for (int rowIndex = 0, rowsCount = this.rows.size(); rowIndex < rowsCount; rowIndex++)
+			{
+				for (final String ngram : this.rows.get(rowIndex).getNGrams())
+				{
+					postingsBuilders.computeIfAbsent(ngram, k -> new IntArrayBuilder()).add(rowIndex);
+				}
+			}
+
+			final Map<String, int[]> postings = new HashMap<>(postingsBuilders.size());
+			postingsBuilders.forEach((ngram, builder) -> postings.put(ngram, builder.toArray()));
+			this.postings = postings;
+		}
+
+		public void replaceProductRows(final int productId, final List<IndexedRow> productRows)
+		{
+			changedRowsByProductId.put(productId, ImmutableList.copyOf(productRows));
+		}
+
+		public int getChangedProductsCount()
+		{
+			return changedRowsByProductId.size();
+		}
+
+		public Optional<ImmutableSet<RowKey>> findMatchingRows(
+				@NonNull final String searchString,
+				final boolean fullTextSearch,
+				final int maxMatchingRows)
+		{
+			final Set<RowKey> result = new HashSet<>();
+
+			//
+			// Rows from the full build
+			final int[] candidateRowIndexes = getCandidateRowIndexes(searchString);
+			if (candidateRowIndexes == null)
+			{
+				for (final IndexedRow row : rows)
+				{
+					if (isStale(row))
+					{
+						continue;
+					}
+					if (!collectIfMatching(row, searchString, fullTextSearch, result, maxMatchingRows))
+					{
+						return Optional.empty();
+					}
+				}
+			}
+			else
+			{
+				for (final int rowIndex : candidateRowIndexes)
+				{
+					final IndexedRow row = rows.get(rowIndex);
+					if (isStale(row))
+					{
+						continue;
+					}
+					if (!collectIfMatching(row, searchString, fullTextSearch, result, maxMatchingRows))
+					{
+						return Optional.empty();
+					}
+				}
+			}
+
+			//
+			// Rows changed since the full build
+			for (final List<IndexedRow> productRows : changedRowsByProductId.values())
+			{
+				for (final IndexedRow row : productRows)
+				{
+					if (!collectIfMatching(row, searchString, fullTextSearch, result, maxMatchingRows))
+					{
+						return Optional.empty();
+					}
+				}
+			}
+
+			return Optional.of(ImmutableSet.copyOf(result));
+		}
+
+		/**
+		 * @return the rows containing the rarest n-gram of given search string or null if the search string is too short
+		 */
+		private int[] getCandidateRowIndexes(final String searchString)
+		{
+			if (searchString.length() < NGRAM_SIZE)
+			{
+				return null;
+			}
+
+			final Set<String> searchNGrams = new HashSet<>();
+			collectNGrams(searchString, searchNGrams);
+
+			int[] candidateRowIndexes = null;
+			for (final String ngram : searchNGrams)
+			{
+				final int[] rowIndexes = postings.get(ngram);
+				if (rowIndexes == null)
+				{
+					return new int[0];
+				}
+				if (candidateRowIndexes == null || rowIndexes.length < candidateRowIndexes.length)
+				{
+					candidateRowIndexes = rowIndexes;
+				}
+			}
+			return candidateRowIndexes;
+		}
+
+		/**
+		 * @return true if given row from the full build was replaced by {@link #replaceProductRows(int, List)}
+		 */
+		private boolean isStale(final IndexedRow row)
+		{
+			return changedRowsByProductId.containsKey(row.getProductId());
+		}
+
+		/**
+		 * @return false if the max matching rows limit was exceeded
+		 */
+		private boolean collectIfMatching(
+				final IndexedRow row,
+				final String searchString,
+				final boolean fullTextSearch,
+				final Set<RowKey> result,
+				final int maxMatchingRows)
+		{
+			if (!row.isMatching(searchString, fullTextSearch))
+			{
+				return true;
+			}
+
+			result.add(row.getKey());
+			return result.size() <= maxMatchingRows;
+		}
+	}
+
+	private static final class IntArrayBuilder
+	{
+		private int[] values = new int[4];
+		private int size = 0;
+
+		public void add(final int value)
+		{
+			if (size >= values.length)
+			{
+				final int[] newValues = new int[values.length * 2];
+				System.arraycopy(values, 0, newValues, 0, size);
+				values = newValues;
+			}
+			values[size++] = value;
+		}
+
+		public int[] toArray()
+		{
+			final int[] result = new int[size];
+			System.arraycopy(values, 0, result, 0, size);
+			return result;
+		}
+	}
+}
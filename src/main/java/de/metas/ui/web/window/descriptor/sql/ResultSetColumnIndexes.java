@@ -0,0 +1,92 @@
+package de.metas.ui.web.window.descriptor.sql;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * The (1-based) indexes of the columns of a given {@link ResultSet}, resolved once from its {@link ResultSetMetaData}.
+ * <p>
+ * Used to compile name based column readers (e.g. {@link DocumentFieldValueLoader}s) to index based ones, so the JDBC driver does not have to look up the column name for each value.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+@EqualsAndHashCode
+public final class ResultSetColumnIndexes
+{
+	public static ResultSetColumnIndexes of(@NonNull final ResultSet rs) throws SQLException
+	{
+		return of(rs.getMetaData());
+	}
+
+	public static ResultSetColumnIndexes of(@NonNull final ResultSetMetaData metaData) throws SQLException
+	{
+		return new ResultSetColumnIndexes(metaData);
+	}
+
+	public static final int NONE = -1;
+
+	private final ImmutableMap<String, Integer> columnIndexesByName;
+
+	private ResultSetColumnIndexes(final ResultSetMetaData metaData) throws SQLException
+	{
+		final int columnCount = metaData.getColumnCount();
+		final Map<String, Integer> columnIndexesByName = new HashMap<>(columnCount);
+		for (int columnIndex = 1; columnIndex <= columnCount; columnIndex++)
+		{
+			// NOTE: same as the JDBC drivers, the first column with a given name wins
+			columnIndexesByName.putIfAbsent(normalizeColumnName(metaData.getColumnLabel(columnIndex)), columnIndex);
+		}
+		this.columnIndexesByName = ImmutableMap.copyOf(columnIndexesByName);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "ResultSetColumnIndexes" + columnIndexesByName;
+	}
+
+	private static String normalizeColumnName(final String columnName)
+	{
+		// column names are case insensitive, unless quoted
+		return columnName.toLowerCase();
+	}
+
+	/**
+	 * @return 1-based column index or {@link #NONE} if the result set has no such column
+	 */
+	public int getColumnIndexOrNone(@NonNull final String columnName)
+	{
+		final Integer columnIndex = columnIndexesByName.get(normalizeColumnName(columnName));
+		return columnIndex != null ? columnIndex : NONE;
+	}
+}
@@ -132,6 +132,8 @@ public final class SqlLookupDescriptor implements ISqlLookupDescriptor
 	}
 
 	public static final CtxName SQL_PARAM_KeyId = CtxNames.parse("SqlKeyId");
+	/** SQL list of key IDs, e.g. "(?,?,?)"; used when fetching multiple lookup values at once */
+	public static final CtxName SQL_PARAM_KeyIds = CtxNames.parse("SqlKeyIds");
 
 	public static final String SQL_PARAM_VALUE_ShowInactive_Yes = "Y"; // i.e. show all
 	public static final String SQL_PARAM_VALUE_ShowInactive_No = "N";
@@ -143,6 +145,7 @@ public final class SqlLookupDescriptor implements ISqlLookupDescriptor
 	private final Optional<WindowId> zoomIntoWindowId;
 	private final ICachedStringExpression sqlForFetchingExpression;
 	private final ICachedStringExpression sqlForFetchingLookupByIdExpression;
+	private final ICachedStringExpression sqlForFetchingLookupByIdsExpression;
 	private final int entityTypeIndex;
 	private final INamePairPredicate postQueryPredicate;
 
@@ -161,6 +164,7 @@ public final class SqlLookupDescriptor implements ISqlLookupDescriptor
 		zoomIntoWindowId = builder.getZoomIntoWindowId();
 		sqlForFetchingExpression = builder.sqlForFetchingExpression;
 		sqlForFetchingLookupByIdExpression = builder.sqlForFetchingLookupByIdExpression;
+		sqlForFetchingLookupByIdsExpression = builder.sqlForFetchingLookupByIdsExpression;
 		entityTypeIndex = builder.entityTypeIndex;
 
 		postQueryPredicate = builder.getPostQueryPredicate();
@@ -270,6 +274,14 @@ public final class SqlLookupDescriptor implements ISqlLookupDescriptor
 		return sqlForFetchingLookupByIdExpression;
 	}
 
+	/**
+	 * @return SQL which fetches the key column followed by the same array as {@link #getSqlForFetchingLookupByIdExpression()}, for all IDs given by {@link #SQL_PARAM_KeyIds}
+	 */
+	public IStringExpression getSqlForFetchingLookupByIdsExpression()
+	{
+		return sqlForFetchingLookupByIdsExpression;
+	}
+
 	@Override
 	public IStringExpression getSqlForFetchingLookupByIdExpression(final String sqlKeyColumn)
 	{
@@ -345,6 +357,7 @@ public final class SqlLookupDescriptor implements ISqlLookupDescriptor
 		private String sqlTableName;
 		private ICachedStringExpression sqlForFetchingExpression;
 		private ICachedStringExpression sqlForFetchingLookupByIdExpression;
+		private ICachedStringExpression sqlForFetchingLookupByIdsExpression;
 		private int entityTypeIndex = -1;
 
 		private int zoomIntoWindowId = -1;
@@ -473,7 +486,9 @@ public final class SqlLookupDescriptor implements ISqlLookupDescriptor
 				zoomIntoWindowId = lookupInfo.getZoomAD_Window_ID_Override();
 				sqlForFetchingExpression = buildSqlForFetching(lookupInfo, sqlWhereFinal, lookup_SqlOrderBy)
 						.caching();
-				sqlForFetchingLookupByIdExpression = buildSqlForFetchingById(lookupInfo)
+				sqlForFetchingLookupByIdExpression = buildSqlForFetchingById(lookupInfo, false)
+						.caching();
+				sqlForFetchingLookupByIdsExpression = buildSqlForFetchingById(lookupInfo, true)
 						.caching();
 
 				if (lookupInfo.isQueryHasEntityType())
@@ -540,12 +555,20 @@ public final class SqlLookupDescriptor implements ISqlLookupDescriptor
 					.append("\n WHERE ").append(keyColumnNameFQ).append("=").append(SQL_PARAM_KeyId)
 					.build();
 
+			final IStringExpression sqlForFetchingLookupByIds = IStringExpression
+					.composer()
+					.append("SELECT ").append(keyColumnNameFQ).append(", ARRAY[").append(displayColumnSql).append(", NULL]")
+					.append("\n FROM ").append(tableName) // FROM
+					.append("\n WHERE ").append(keyColumnNameFQ).append(" IN ").append(SQL_PARAM_KeyIds)
+					.build();
+
 			//
 			// Set the SQLs
 			{
 				sqlTableName = tableName;
 				sqlForFetchingExpression = sqlForFetching.caching();
 				sqlForFetchingLookupByIdExpression = sqlForFetchingLookupById.caching();
+				sqlForFetchingLookupByIdsExpression = sqlForFetchingLookupByIds.caching();
 			}
 		}
 
@@ -615,7 +638,10 @@ public final class SqlLookupDescriptor implements ISqlLookupDescriptor
 					.build();
 		}
 
-		private IStringExpression buildSqlForFetchingById(final MLookupInfo lookupInfo)
+		/**
+		 * @param multipleIds if true, the key column is also selected and the records are filtered by {@link #SQL_PARAM_KeyIds} instead of {@link #SQL_PARAM_KeyId}
+		 */
+		private IStringExpression buildSqlForFetchingById(final MLookupInfo lookupInfo, final boolean multipleIds)
 		{
 			final IStringExpression displayColumnSQL = TranslatableParameterizedStringExpression.of(lookupInfo.getDisplayColumnSql());
 
@@ -638,13 +664,26 @@ public final class SqlLookupDescriptor implements ISqlLookupDescriptor
 
 			final org.adempiere.ad.expression.api.impl.CompositeStringExpression.Builder composer = IStringExpression
 					.composer()
-					.append("SELECT ")
+					.append("SELECT ");
+			if (multipleIds)
+			{
+				composer.append(keyColumnFQ).append(",");
+			}
+			composer
 					.append("\n ARRAY[").append(displayColumnSQL).append(", ").append(descriptionColumnSQL).append(",").append(lookupInfo.getActiveColumnSQL()).append("]")
 					.append("\n FROM ")
 					.append(fromSqlPart)
 					.append("\n WHERE ")
-					.append(keyColumnFQ).append("=").append(SQL_PARAM_KeyId)
-					.append(" ");
+					.append(keyColumnFQ);
+			if (multipleIds)
+			{
+				composer.append(" IN ").append(SQL_PARAM_KeyIds);
+			}
+			else
+			{
+				composer.append("=").append(SQL_PARAM_KeyId);
+			}
+			composer.append(" ");
 
 			final boolean listOrButton = DisplayType.List == displayType || DisplayType.Button == displayType;
 			if (listOrButton)
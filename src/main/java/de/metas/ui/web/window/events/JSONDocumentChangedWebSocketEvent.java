@@ -17,6 +17,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import de.metas.ui.web.websocket.WebSocketConfig;
+import de.metas.ui.web.websocket.MergeableWebsocketEvent;
 import de.metas.ui.web.websocket.WebsocketEndpointAware;
 import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.WindowId;
@@ -61,7 +62,7 @@ import lombok.ToString;
 @JsonAutoDetect(fieldVisibility = Visibility.ANY, getterVisibility = Visibility.NONE, isGetterVisibility = Visibility.NONE, setterVisibility = Visibility.NONE)
 @ToString
 @EqualsAndHashCode
-final class JSONDocumentChangedWebSocketEvent implements WebsocketEndpointAware
+final class JSONDocumentChangedWebSocketEvent implements WebsocketEndpointAware, MergeableWebsocketEvent
 {
 	public static JSONDocumentChangedWebSocketEvent rootDocument(final WindowId windowId, final DocumentId documentId)
 	{
@@ -199,12 +200,17 @@ final class JSONDocumentChangedWebSocketEvent implements WebsocketEndpointAware
 		getIncludedTabInfo(tabId).staleRow(rowId);
 	}
 
+	private boolean isSameDocument(@NonNull final JSONDocumentChangedWebSocketEvent other)
+	{
+		return Objects.equals(windowId, other.windowId)
+				&& Objects.equals(documentId, other.documentId)
+				&& Objects.equals(tabId, other.tabId)
+				&& Objects.equals(rowId, other.rowId);
+	}
+
 	void mergeFrom(@NonNull final JSONDocumentChangedWebSocketEvent from)
 	{
-		if (!Objects.equals(windowId, from.windowId)
-				|| !Objects.equals(documentId, from.documentId)
-				|| !Objects.equals(tabId, from.tabId)
-				|| !Objects.equals(rowId, from.rowId))
+		if (!isSameDocument(from))
 		{
 			throw new AdempiereException("Cannot merge events because they are not matching")
 					.setParameter("from", from)
@@ -219,4 +225,23 @@ final class JSONDocumentChangedWebSocketEvent implements WebsocketEndpointAware
 
 		from.getIncludedTabsInfo().values().forEach(this::addIncludedTabInfo);
 	}
+
+	@Override
+	public JSONDocumentChangedWebSocketEvent mergeWith(@NonNull final Object otherEvent)
+	{
+		if (!(otherEvent instanceof JSONDocumentChangedWebSocketEvent))
+		{
+			return null;
+		}
+
+		final JSONDocumentChangedWebSocketEvent other = (JSONDocumentChangedWebSocketEvent)otherEvent;
+		if (!isSameDocument(other))
+		{
+			return null;
+		}
+
+		final JSONDocumentChangedWebSocketEvent merged = copy();
+		merged.mergeFrom(other);
+		return merged;
+	}
 }
@@ -0,0 +1,172 @@
+package de.metas.ui.web.window.model;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.ad.expression.api.IExpressionEvaluator.OnVariableNotFound;
+import org.adempiere.ad.expression.api.ILogicExpression;
+import org.adempiere.ad.expression.api.LogicExpressionResult;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.window.datatypes.DataTypes;
+import lombok.Getter;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * An {@link ILogicExpression} prepared for repeated evaluation against a {@link Document}.
+ * <p>
+ * The expression's parameter names are extracted only once per expression instance.
+ * Each {@link Evaluation} remembers the input values it was computed from, so re-evaluating it is skipped as long as none of those values changed.
+ * Expressions without parameters are evaluated only once.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+/* package */ final class CompiledLogicExpression
+{
+	public static CompiledLogicExpression of(@NonNull final ILogicExpression expression)
+	{
+		return cache.getUnchecked(expression);
+	}
+
+	/** {@link ILogicExpression} to {@link CompiledLogicExpression} cache. Weak keys, so the entries are dropped together with the descriptors holding the expressions. */
+	private static final LoadingCache<ILogicExpression, CompiledLogicExpression> cache = CacheBuilder.newBuilder()
+			.weakKeys()
+			.build(new CacheLoader<ILogicExpression, CompiledLogicExpression>()
+			{
+				@Override
+				public CompiledLogicExpression load(final ILogicExpression expression)
+				{
+					return new CompiledLogicExpression(expression);
+				}
+			});
+
+	private final ILogicExpression expression;
+	private final ImmutableList<String> parameterNames;
+	private volatile Evaluation constantEvaluation; // lazy, only if there are no parameters
+
+	private CompiledLogicExpression(@NonNull final ILogicExpression expression)
+	{
+		this.expression = expression;
+		parameterNames = ImmutableList.copyOf(expression.getParameterNames());
+	}
+
+	@Override
+	public String toString()
+	{
+		return MoreObjects.toStringHelper(this)
+				.add("expression", expression)
+				.add("parameterNames", parameterNames)
+				.toString();
+	}
+
+	/**
+	 * Evaluates the expression.
+	 *
+	 * @param previousEvaluation the evaluation previously returned for the same document and the same purpose; if it was computed from the very same input values, it's returned as is.
+	 * @throws RuntimeException if the evaluation failed
+	 */
+	public Evaluation evaluate(@NonNull final IDocumentEvaluatee evaluatee, @Nullable final Evaluation previousEvaluation)
+	{
+		if (parameterNames.isEmpty())
+		{
+			Evaluation constantEvaluation = this.constantEvaluation;
+			if (constantEvaluation == null)
+			{
+				constantEvaluation = this.constantEvaluation = new Evaluation(this, new Object[] {}, evaluateNow(evaluatee));
+			}
+			return constantEvaluation;
+		}
+
+		final Object[] inputValues = getInputValues(evaluatee);
+		if (previousEvaluation != null && previousEvaluation.isComputedFrom(this, inputValues))
+		{
+			return previousEvaluation;
+		}
+
+		return new Evaluation(this, inputValues, evaluateNow(evaluatee));
+	}
+
+	private LogicExpressionResult evaluateNow(final IDocumentEvaluatee evaluatee)
+	{
+		return expression.evaluateToResult(evaluatee, OnVariableNotFound.Fail);
+	}
+
+	private Object[] getInputValues(final IDocumentEvaluatee evaluatee)
+	{
+		final int parametersCount = parameterNames.size();
+		final Object[] inputValues = new Object[parametersCount];
+		for (int i = 0; i < parametersCount; i++)
+		{
+			inputValues[i] = evaluatee.get_ValueIfExists(parameterNames.get(i), Object.class).orElse(null);
+		}
+		return inputValues;
+	}
+
+	/** The result of a {@link CompiledLogicExpression} evaluation, together with the input values it was computed from. */
+	public static final class Evaluation
+	{
+		private final CompiledLogicExpression compiledExpression;
+		private final Object[] inputValues;
+		@Getter
+		private final LogicExpressionResult result;
+
+		private Evaluation(final CompiledLogicExpression compiledExpression, final Object[] inputValues, final LogicExpressionResult result)
+		{
+			this.compiledExpression = compiledExpression;
+			this.inputValues = inputValues;
+			this.result = result;
+		}
+
+		@Override
+		public String toString()
+		{
+			return MoreObjects.toStringHelper(this)
+					.add("result", result)
+					.add("inputValues", inputValues)
+					.toString();
+		}
+
+		private boolean isComputedFrom(final CompiledLogicExpression compiledExpression, final Object[] inputValues)
+		{
+			if (this.compiledExpression != compiledExpression)
+			{
+				return false;
+			}
+
+			for (int i = 0; i < inputValues.length; i++)
+			{
+				if (!DataTypes.equals(this.inputValues[i], inputValues[i]))
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package de.metas.ui.web.window.model;
 
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
@@ -9,6 +10,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
@@ -36,7 +38,6 @@ import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableSet;
 
 import de.metas.document.engine.IDocumentBL;
 import de.metas.document.exceptions.DocumentProcessingException;
@@ -108,6 +109,12 @@ public final class Document
 	private static final ReasonSupplier REASON_Value_Refreshing = () -> "direct set on Document (refresh)";
 	private static final ReasonSupplier REASON_Value_ParentLinkUpdateOnSave = () -> "parent link update on save";
 
+	private static final EnumSet<DependencyType> LOGIC_DEPENDENCY_TYPES = EnumSet.of(
+			DependencyType.DocumentReadonlyLogic,
+			DependencyType.ReadonlyLogic,
+			DependencyType.DisplayLogic,
+			DependencyType.MandatoryLogic);
+
 	//
 	// Descriptors & paths
 	private final DocumentEntityDescriptor entityDescriptor;
@@ -151,13 +158,21 @@ public final class Document
 	// Evaluatee
 	private IDocumentEvaluatee _evaluatee; // lazy
 	private transient IDocumentEvaluatee _shadowParentEvaluatee;
+	/**
+	 * Last logic expression evaluations (readonly, mandatory, displayed...), indexed by dependency type and field name.
+	 * A copy shares them with its source until it has to change them (copy on write).
+	 * NOTE: the source might still change them meanwhile, but that's fine because each evaluation is reused only if it was computed from our current values.
+	 */
+	private EnumMap<DependencyType, Map<String, CompiledLogicExpression.Evaluation>> logicEvaluations;
+	private boolean logicEvaluationsShared;
 
 	// Changes tracking
 	private final transient IDocumentChangesCollector changesCollector;
 
 	//
 	// Misc
-	private Map<String, Object> _dynAttributes = null; // lazy
+	/** immutable, so it can be shared between document copies; it's replaced on each change */
+	private ImmutableMap<String, Object> _dynAttributes = ImmutableMap.of();
 
 	public static interface DocumentValuesSupplier
 	{
@@ -236,6 +251,8 @@ public final class Document
 		// Evaluatee
 		_evaluatee = null; // lazy
 		_shadowParentEvaluatee = null;
+		logicEvaluations = newLogicEvaluations();
+		logicEvaluationsShared = false;
 
 		//
 		// Set default dynamic attributes
@@ -372,17 +389,12 @@ public final class Document
 
 		_evaluatee = null; // lazy
 		_shadowParentEvaluatee = null; // never copy it!
+		logicEvaluations = from.logicEvaluations;
+		logicEvaluationsShared = true;
 
 		//
-		// Copy dynamic attributes
-		if (from._dynAttributes != null && !from._dynAttributes.isEmpty())
-		{
-			_dynAttributes = new HashMap<>(from._dynAttributes);
-		}
-		else
-		{
-			_dynAttributes = null;
-		}
+		// Share dynamic attributes (the map is immutable)
+		_dynAttributes = from._dynAttributes;
 
 		//
 		// Done
@@ -1133,6 +1145,47 @@ public final class Document
 		return _evaluatee;
 	}
 
+	/**
+	 * Evaluates given logic expression against this document.
+	 * If the expression was already evaluated for the same field and dependency type and none of its parameters changed since then, the previous result is returned.
+	 */
+	private LogicExpressionResult evaluateLogic(final ILogicExpression logic, final String fieldName, final DependencyType dependencyType)
+	{
+		final CompiledLogicExpression.Evaluation previousEvaluation = logicEvaluations.get(dependencyType).get(fieldName);
+		final CompiledLogicExpression.Evaluation evaluation = CompiledLogicExpression.of(logic).evaluate(asEvaluatee(), previousEvaluation);
+		if (evaluation != previousEvaluation)
+		{
+			if (logicEvaluationsShared)
+			{
+				logicEvaluations = copyLogicEvaluations(logicEvaluations);
+				logicEvaluationsShared = false;
+			}
+			logicEvaluations.get(dependencyType).put(fieldName, evaluation);
+		}
+		return evaluation.getResult();
+	}
+
+	/**
+	 * @return evaluations map having an entry for each logic dependency type.
+	 *         The entries are never changed afterwards and the evaluation maps are concurrent, because they might be shared with document copies.
+	 */
+	private static EnumMap<DependencyType, Map<String, CompiledLogicExpression.Evaluation>> newLogicEvaluations()
+	{
+		final EnumMap<DependencyType, Map<String, CompiledLogicExpression.Evaluation>> evaluations = new EnumMap<>(DependencyType.class);
+		for (final DependencyType dependencyType : LOGIC_DEPENDENCY_TYPES)
+		{
+			evaluations.put(dependencyType, new ConcurrentHashMap<>());
+		}
+		return evaluations;
+	}
+
+	private static EnumMap<DependencyType, Map<String, CompiledLogicExpression.Evaluation>> copyLogicEvaluations(final EnumMap<DependencyType, Map<String, CompiledLogicExpression.Evaluation>> from)
+	{
+		final EnumMap<DependencyType, Map<String, CompiledLogicExpression.Evaluation>> copy = newLogicEvaluations();
+		from.forEach((dependencyType, evaluations) -> copy.get(dependencyType).putAll(evaluations)); // evaluations are immutable
+		return copy;
+	}
+
 	/**
 	 * Similar with {@link #setValue(String, Object, ReasonSupplier)} but this method is also checking if we are allowed to change that field
 	 *
@@ -1314,7 +1367,7 @@ public final class Document
 		LogicExpressionResult allFieldsReadonly;
 		try
 		{
-			allFieldsReadonly = allFieldsReadonlyLogic.evaluateToResult(asEvaluatee(), OnVariableNotFound.Fail);
+			allFieldsReadonly = evaluateLogic(allFieldsReadonlyLogic, DocumentFieldDependencyMap.DOCUMENT_Readonly, DependencyType.DocumentReadonlyLogic);
 		}
 		catch (final Exception e)
 		{
@@ -1355,7 +1408,7 @@ public final class Document
 		final ILogicExpression fieldReadonlyLogic = documentField.getDescriptor().getReadonlyLogic();
 		try
 		{
-			final LogicExpressionResult readonly = fieldReadonlyLogic.evaluateToResult(asEvaluatee(), OnVariableNotFound.Fail);
+			final LogicExpressionResult readonly = evaluateLogic(fieldReadonlyLogic, documentField.getFieldName(), DependencyType.ReadonlyLogic);
 			return readonly;
 		}
 		catch (final Exception e)
@@ -1372,7 +1425,7 @@ public final class Document
 		final ILogicExpression displayLogic = documentField.getDescriptor().getDisplayLogic();
 		try
 		{
-			displayed = displayLogic.evaluateToResult(asEvaluatee(), OnVariableNotFound.Fail);
+			displayed = evaluateLogic(displayLogic, documentField.getFieldName(), DependencyType.DisplayLogic);
 		}
 		catch (final Exception e)
 		{
@@ -1434,7 +1487,7 @@ public final class Document
 			final ILogicExpression mandatoryLogic = documentField.getDescriptor().getMandatoryLogic();
 			try
 			{
-				final LogicExpressionResult mandatory = mandatoryLogic.evaluateToResult(asEvaluatee(), OnVariableNotFound.Fail);
+				final LogicExpressionResult mandatory = evaluateLogic(mandatoryLogic, documentField.getFieldName(), DependencyType.MandatoryLogic);
 				documentField.setMandatory(mandatory, changesCollector);
 			}
 			catch (final Exception e)
@@ -1588,11 +1641,24 @@ public final class Document
 
 		if (!Objects.equals(parentReadonlyOld, parentReadonly))
 		{
-			updateReadonlyAndPropagate(() -> "parent readonly state changed");
-			updateIncludedDetailsStatus();
+			onParentReadonlyChanged();
 		}
 	}
 
+	/* package */ DocumentReadonly getParentReadonly()
+	{
+		return parentReadonly;
+	}
+
+	/**
+	 * Updates this document's readonly status (and propagates it) after the parent readonly status was changed.
+	 */
+	/* package */ void onParentReadonlyChanged()
+	{
+		updateReadonlyAndPropagate(() -> "parent readonly state changed");
+		updateIncludedDetailsStatus();
+	}
+
 	/**
 	 * Set Dynamic Attribute.
 	 * A dynamic attribute is an attribute that is not stored in database and is kept as long as this this instance is not destroyed.
@@ -1610,11 +1676,9 @@ public final class Document
 	{
 		Check.assumeNotEmpty(name, "name not empty");
 
-		if (_dynAttributes == null)
-		{
-			_dynAttributes = new HashMap<>();
-		}
-		final Object valueOld = _dynAttributes.put(name, value);
+		final HashMap<String, Object> dynAttributes = new HashMap<>(_dynAttributes);
+		final Object valueOld = value != null ? dynAttributes.put(name, value) : dynAttributes.remove(name);
+		_dynAttributes = ImmutableMap.copyOf(dynAttributes);
 
 		logger.trace("Changed document dyn attribute {}'s value: {} -> {}", name, valueOld, value);
 		return valueOld;
@@ -1641,11 +1705,6 @@ public final class Document
 	 */
 	public final <T> T getDynAttribute(final String name, final T defaultValue)
 	{
-		if (_dynAttributes == null)
-		{
-			return defaultValue;
-		}
-
 		final Object valueObj = _dynAttributes.get(name);
 		if (valueObj == null)
 		{
@@ -1659,18 +1718,12 @@ public final class Document
 
 	public final boolean hasDynAttribute(final String name)
 	{
-		final Map<String, Object> dynAttributes = _dynAttributes;
-		return dynAttributes != null && dynAttributes.get(name) != null;
+		return _dynAttributes.get(name) != null;
 	}
 
 	Set<String> getAvailableDynAttributes()
 	{
-		final Map<String, Object> dynAttributes = _dynAttributes;
-		if (dynAttributes == null)
-		{
-			return ImmutableSet.of();
-		}
-		return ImmutableSet.copyOf(dynAttributes.keySet());
+		return _dynAttributes.keySet();
 	}
 
 	/* package */ static interface OnValidStatusChanged
@@ -3,10 +3,9 @@ package de.metas.ui.web.window.model;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.ad.trx.api.ITrxListenerManager.TrxEventTiming;
@@ -16,7 +15,7 @@ import org.adempiere.util.lang.IAutoCloseable;
 import org.adempiere.util.lang.impl.TableRecordReferenceSet;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.google.common.collect.ImmutableSet;
@@ -71,14 +70,23 @@ public class DocumentCacheInvalidationDispatcher implements ICacheResetListener
 	@Autowired
 	private IViewsRepository viewsRepository;
 
-	private final Executor async;
+	private final DocumentCacheInvalidationPipeline pipeline;
 
-	public DocumentCacheInvalidationDispatcher()
+	public DocumentCacheInvalidationDispatcher(
+			@Value("${metasfresh.webui.cacheInvalidation.windowMillis:200}") final long windowMillis,
+			@Value("${metasfresh.webui.cacheInvalidation.partitions:4}") final int partitions,
+			@Value("${metasfresh.webui.cacheInvalidation.maxPendingRequests:5000}") final int maxPendingRequests,
+			@Value("${metasfresh.webui.cacheInvalidation.maxQueuedBatches:100}") final int maxQueuedBatches)
 	{
-		final CustomizableThreadFactory asyncThreadFactory = new CustomizableThreadFactory(DocumentCacheInvalidationDispatcher.class.getSimpleName());
-		asyncThreadFactory.setDaemon(true);
-
-		async = Executors.newSingleThreadExecutor(asyncThreadFactory);
+		pipeline = DocumentCacheInvalidationPipeline.builder()
+				.name(DocumentCacheInvalidationDispatcher.class.getSimpleName())
+				.handler(this::resetNow)
+				.windowMillis(windowMillis)
+				.partitions(partitions)
+				.maxPendingRequests(maxPendingRequests)
+				.maxQueuedBatches(maxQueuedBatches)
+				.build();
+		logger.info("Using window={}ms, partitions={}, maxPendingRequests={}, maxQueuedBatches={}", windowMillis, partitions, maxPendingRequests, maxQueuedBatches);
 	}
 
 	@PostConstruct
@@ -87,6 +95,12 @@ public class DocumentCacheInvalidationDispatcher implements ICacheResetListener
 		CacheMgt.get().addCacheResetListener(this);
 	}
 
+	@PreDestroy
+	public void shutdown()
+	{
+		pipeline.shutdown();
+	}
+
 	@Override
 	public long reset(@NonNull final CacheInvalidateMultiRequest request)
 	{
@@ -95,7 +109,7 @@ public class DocumentCacheInvalidationDispatcher implements ICacheResetListener
 		final ITrx currentTrx = trxManager.getThreadInheritedTrx(OnTrxMissingPolicy.ReturnTrxNone);
 		if (trxManager.isNull(currentTrx))
 		{
-			async.execute(() -> resetNow(request));
+			pipeline.enqueue(request);
 		}
 		else
 		{
@@ -109,7 +123,7 @@ public class DocumentCacheInvalidationDispatcher implements ICacheResetListener
 							{
 								return;
 							}
-							async.execute(() -> resetNow(aggregatedRequest));
+							pipeline.enqueue(aggregatedRequest);
 						});
 				return c;
 			});
@@ -120,6 +134,11 @@ public class DocumentCacheInvalidationDispatcher implements ICacheResetListener
 		return 1; // not relevant
 	}
 
+	public DocumentCacheInvalidationPipeline.Stats getStats()
+	{
+		return pipeline.getStats();
+	}
+
 	private void resetNow(final CacheInvalidateMultiRequest request)
 	{
 		try (final IAutoCloseable c = documents.getWebsocketPublisher().temporaryCollectOnThisThread())
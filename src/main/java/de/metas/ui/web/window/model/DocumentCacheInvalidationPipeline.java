@@ -0,0 +1,353 @@
+package de.metas.ui.web.window.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.slf4j.Logger;
+
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.cache.model.CacheInvalidateMultiRequest;
+import de.metas.cache.model.CacheInvalidateRequest;
+import de.metas.logging.LogManager;
+import de.metas.util.Check;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Collects {@link CacheInvalidateRequest}s for a short time window, merges the duplicates and then dispatches them to a small pool of workers.
+ * <p>
+ * Requests are partitioned by root record and each partition is handled by one single thread.
+ * The batches are dispatched one flush at a time, so the order of the requests for a given root record is preserved.
+ * <p>
+ * If too many distinct requests are pending, they are dispatched right away, without waiting for the time window to pass.
+ * Each partition queues at most <code>maxQueuedBatches</code> batches. When that queue is full, the dispatching blocks until the partition's worker catches up,
+ * so a slow handler slows down the producers instead of piling up requests in memory.
+ * Workers never block that way: requests which are enqueued by a handler are dispatched by the scheduler thread.
+ * <p>
+ * Call {@link #shutdown()} when the pipeline is no longer needed.
+ */
+public final class DocumentCacheInvalidationPipeline
+{
+	private static final Logger logger = LogManager.getLogger(DocumentCacheInvalidationPipeline.class);
+
+	private final Consumer<CacheInvalidateMultiRequest> handler;
+	private final long windowMillis;
+	private final int maxPendingRequests;
+
+	private final ScheduledExecutorService scheduler;
+	private final List<ThreadPoolExecutor> workers;
+
+	/** Partition of the worker which is running on the current thread; {@code null} if this is not a worker thread */
+	private final ThreadLocal<Integer> currentWorkerPartition = new ThreadLocal<>();
+	private volatile boolean shutdown = false;
+
+	/** Held while a flush takes the pending requests and hands them over to the workers, so two flushes cannot reorder the batches of a partition */
+	private final Object dispatchLock = new Object();
+
+	private final Object lock = new Object();
+	private LinkedHashSet<CacheInvalidateRequest> pendingRequests = new LinkedHashSet<>();
+	private long pendingSinceMillis = 0;
+	private boolean flushScheduled = false;
+
+	// Stats
+	private final AtomicLong receivedRequestsCount = new AtomicLong();
+	private final AtomicLong dispatchedRequestsCount = new AtomicLong();
+	private final AtomicLong lastLagMillis = new AtomicLong();
+	private final AtomicLong maxLagMillis = new AtomicLong();
+
+	@Builder
+	private DocumentCacheInvalidationPipeline(
+			@NonNull final String name,
+			@NonNull final Consumer<CacheInvalidateMultiRequest> handler,
+			final long windowMillis,
+			final int partitions,
+			final int maxPendingRequests,
+			final int maxQueuedBatches)
+	{
+		Check.assume(windowMillis >= 0, "windowMillis >= 0 but it was {}", windowMillis);
+		Check.assume(partitions > 0, "partitions > 0 but it was {}", partitions);
+		Check.assume(maxPendingRequests > 0, "maxPendingRequests > 0 but it was {}", maxPendingRequests);
+		Check.assume(maxQueuedBatches > 0, "maxQueuedBatches > 0 but it was {}", maxQueuedBatches);
+
+		this.handler = handler;
+		this.windowMillis = windowMillis;
+		this.maxPendingRequests = maxPendingRequests;
+
+		scheduler = Executors.newSingleThreadScheduledExecutor(CustomizableThreadFactory.builder()
+				.setDaemon(true)
+				.setThreadNamePrefix(name + "-scheduler")
+				.build());
+
+		final List<ThreadPoolExecutor> workers = new ArrayList<>(partitions);
+		for (int i = 0; i < partitions; i++)
+		{
+			final int partition = i;
+			workers.add(new ThreadPoolExecutor(
+					1, // corePoolSize
+					1, // maximumPoolSize
+					0L, TimeUnit.MILLISECONDS, // keepAliveTime
+					new ArrayBlockingQueue<>(maxQueuedBatches),
+					CustomizableThreadFactory.builder()
+							.setDaemon(true)
+							.setThreadNamePrefix(name + "-" + i)
+							.build(),
+					(task, worker) -> waitUntilQueued(task, worker, partition)));
+		}
+		this.workers = workers;
+	}
+
+	public void enqueue(@NonNull final CacheInvalidateMultiRequest multiRequest)
+	{
+		final Collection<CacheInvalidateRequest> requests = multiRequest.getRequests();
+		if (requests.isEmpty() || shutdown)
+		{
+			return;
+		}
+		receivedRequestsCount.addAndGet(requests.size());
+
+		final boolean flushNow;
+		synchronized (lock)
+		{
+			if (pendingRequests.isEmpty())
+			{
+				pendingSinceMillis = System.currentTimeMillis();
+			}
+			pendingRequests.addAll(requests);
+
+			if (pendingRequests.size() >= maxPendingRequests || windowMillis <= 0)
+			{
+				flushNow = true;
+			}
+			else
+			{
+				flushNow = false;
+				if (!flushScheduled)
+				{
+					flushScheduled = true;
+					scheduler.schedule(this::flushNoFail, windowMillis, TimeUnit.MILLISECONDS);
+				}
+			}
+		}
+
+		if (flushNow)
+		{
+			if (currentWorkerPartition.get() != null)
+			{
+				// a worker which blocks on dispatching might wait for itself
+				scheduler.execute(this::flushNoFail);
+			}
+			else
+			{
+				flush();
+			}
+		}
+	}
+
+	public void shutdown()
+	{
+		shutdown = true;
+		scheduler.shutdownNow();
+		workers.forEach(ThreadPoolExecutor::shutdownNow);
+	}
+
+	private void flushNoFail()
+	{
+		try
+		{
+			flush();
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed dispatching cache invalidation requests. Ignored.", ex);
+		}
+	}
+
+	private void flush()
+	{
+		synchronized (dispatchLock)
+		{
+			final Set<CacheInvalidateRequest> requests;
+			final long requestsSinceMillis;
+			synchronized (lock)
+			{
+				flushScheduled = false;
+				if (pendingRequests.isEmpty())
+				{
+					return;
+				}
+
+				requests = pendingRequests;
+				requestsSinceMillis = pendingSinceMillis;
+				pendingRequests = new LinkedHashSet<>();
+			}
+
+			dispatch(requests, requestsSinceMillis);
+		}
+	}
+
+	private void dispatch(final Set<CacheInvalidateRequest> requests, final long requestsSinceMillis)
+	{
+		dispatchedRequestsCount.addAndGet(requests.size());
+
+		final List<ImmutableSet.Builder<CacheInvalidateRequest>> requestsByPartition = new ArrayList<>(workers.size());
+		for (int i = 0; i < workers.size(); i++)
+		{
+			requestsByPartition.add(ImmutableSet.builder());
+		}
+		for (final CacheInvalidateRequest request : requests)
+		{
+			requestsByPartition.get(getPartition(request)).add(request);
+		}
+
+		for (int i = 0; i < workers.size(); i++)
+		{
+			final ImmutableSet<CacheInvalidateRequest> partitionRequests = requestsByPartition.get(i).build();
+			if (partitionRequests.isEmpty())
+			{
+				continue;
+			}
+
+			final CacheInvalidateMultiRequest multiRequest = CacheInvalidateMultiRequest.of(partitionRequests);
+			final int partition = i;
+			workers.get(i).execute(() -> handle(multiRequest, requestsSinceMillis, partition));
+		}
+	}
+
+	/**
+	 * Called when the worker's queue is full: blocks until there is space in the queue.
+	 * If the worker itself is dispatching, the task is executed right away, because waiting for its own queue would never end.
+	 */
+	private void waitUntilQueued(final Runnable task, final ThreadPoolExecutor worker, final int partition)
+	{
+		if (worker.isShutdown())
+		{
+			throw new RejectedExecutionException("Worker was shut down: " + worker);
+		}
+
+		final Integer currentPartition = currentWorkerPartition.get();
+		if (currentPartition != null && currentPartition == partition)
+		{
+			task.run();
+			return;
+		}
+
+		try
+		{
+			worker.getQueue().put(task);
+		}
+		catch (final InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new RejectedExecutionException("Interrupted while waiting to queue " + task, ex);
+		}
+	}
+
+	private int getPartition(final CacheInvalidateRequest request)
+	{
+		return Math.floorMod(Objects.hash(request.getRootTableName(), request.getRootRecordId()), workers.size());
+	}
+
+	private void handle(final CacheInvalidateMultiRequest multiRequest, final long requestsSinceMillis, final int partition)
+	{
+		final long lagMillis = System.currentTimeMillis() - requestsSinceMillis;
+		lastLagMillis.set(lagMillis);
+		maxLagMillis.accumulateAndGet(lagMillis, Math::max);
+
+		final Integer previousPartition = currentWorkerPartition.get();
+		currentWorkerPartition.set(partition);
+		try
+		{
+			handler.accept(multiRequest);
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed handling {}. Ignored.", multiRequest, ex);
+		}
+		finally
+		{
+			currentWorkerPartition.set(previousPartition);
+		}
+	}
+
+	public Stats getStats()
+	{
+		final int pendingRequestsCount;
+		synchronized (lock)
+		{
+			pendingRequestsCount = pendingRequests.size();
+		}
+
+		final int queuedBatchesCount = workers.stream()
+				.mapToInt(worker -> worker.getQueue().size())
+				.sum();
+
+		final long received = receivedRequestsCount.get();
+		final long dispatched = dispatchedRequestsCount.get();
+
+		return Stats.builder()
+				.pendingRequestsCount(pendingRequestsCount)
+				.queuedBatchesCount(queuedBatchesCount)
+				.receivedRequestsCount(received)
+				.dispatchedRequestsCount(dispatched)
+				.mergeRatio(dispatched > 0 ? (double)received / dispatched : 1)
+				.lastLagMillis(lastLagMillis.get())
+				.maxLagMillis(maxLagMillis.get())
+				.build();
+	}
+
+	@Value
+	@Builder
+	public static class Stats
+	{
+		/** requests waiting for the time window to pass */
+		int pendingRequestsCount;
+		/** merged batches waiting to be handled by workers */
+		int queuedBatchesCount;
+
+		long receivedRequestsCount;
+		long dispatchedRequestsCount;
+		/** how many received requests were merged into one dispatched request, on average */
+		double mergeRatio;
+
+		/** time between receiving a request and starting to handle it */
+		long lastLagMillis;
+		long maxLagMillis;
+	}
+}
@@ -136,6 +136,12 @@ public final class DocumentQueryOrderBy
 		return Comparator.comparing(keyExtractor, keyComparator);
 	}
 
+	/** @return comparator of (already extracted) field values, considering the ascending and nulls last flags */
+	public Comparator<Object> asValueComparator()
+	{
+		return ValueComparator.ofAscendingAndNullsLast(ascending, nullsLast);
+	}
+
 	@FunctionalInterface
 	public interface FieldValueExtractor<T>
 	{
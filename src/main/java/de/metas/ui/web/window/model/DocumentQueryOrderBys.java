@@ -1,5 +1,7 @@
 package de.metas.ui.web.window.model;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 
@@ -8,6 +10,7 @@ import com.google.common.collect.ImmutableList;
 import de.metas.ui.web.view.IViewRow;
 import de.metas.ui.web.window.datatypes.json.JSONOptions;
 import de.metas.ui.web.window.model.DocumentQueryOrderBy.FieldValueExtractor;
+import lombok.AllArgsConstructor;
 import lombok.NonNull;
 import lombok.experimental.UtilityClass;
 
@@ -55,4 +58,59 @@ public class DocumentQueryOrderBys
 				.reduce(Comparator::thenComparing)
 				.orElse(noopComparator);
 	}
+
+	/**
+	 * Sorts given rows.
+	 * <p>
+	 * Same order as when using {@link #asComparator(List, JSONOptions)}, but each row's field values are extracted (and converted to JSON) only once, and not on each comparison.
+	 */
+	public static <T extends IViewRow> ImmutableList<T> sort(
+			@NonNull final Collection<T> rows,
+			@NonNull final List<DocumentQueryOrderBy> orderBys,
+			@NonNull final JSONOptions jsonOpts)
+	{
+		if (orderBys.isEmpty() || rows.size() <= 1)
+		{
+			return ImmutableList.copyOf(rows);
+		}
+
+		final int orderBysCount = orderBys.size();
+		final ImmutableList<Comparator<Object>> valueComparators = orderBys.stream()
+				.map(DocumentQueryOrderBy::asValueComparator)
+				.collect(ImmutableList.toImmutableList());
+
+		final List<SortableRow<T>> sortableRows = new ArrayList<>(rows.size());
+		for (final T row : rows)
+		{
+			final Object[] sortKeys = new Object[orderBysCount];
+			for (int i = 0; i < orderBysCount; i++)
+			{
+				sortKeys[i] = row.getFieldValueAsJsonObject(orderBys.get(i).getFieldName(), jsonOpts);
+			}
+			sortableRows.add(new SortableRow<>(row, sortKeys));
+		}
+
+		sortableRows.sort((row1, row2) -> {
+			for (int i = 0; i < orderBysCount; i++)
+			{
+				final int cmp = valueComparators.get(i).compare(row1.sortKeys[i], row2.sortKeys[i]);
+				if (cmp != 0)
+				{
+					return cmp;
+				}
+			}
+			return 0;
+		});
+
+		return sortableRows.stream()
+				.map(sortableRow -> sortableRow.row)
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	@AllArgsConstructor
+	private static final class SortableRow<T>
+	{
+		private final T row;
+		private final Object[] sortKeys;
+	}
 }
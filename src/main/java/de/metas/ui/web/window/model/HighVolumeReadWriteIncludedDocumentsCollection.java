@@ -2,10 +2,12 @@ package de.metas.ui.web.window.model;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import org.adempiere.ad.expression.api.LogicExpressionResult;
@@ -13,7 +15,6 @@ import org.compiere.util.Evaluatee;
 import org.slf4j.Logger;
 
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.Maps;
 
 import de.metas.logging.LogManager;
 import de.metas.ui.web.window.datatypes.DocumentId;
@@ -65,6 +66,11 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 	private final DetailId detailId;
 	private final DocumentPath parentDocumentPath;;
 	private final LinkedHashMap<DocumentId, Document> _documentsWithChanges;
+	/**
+	 * IDs of those documents from {@link #_documentsWithChanges} which are shared with the collection we were copied from or with the collections copied from us.
+	 * They are copied only when they are accessed, so a check-out/check-in cycle does not copy all changed documents.
+	 */
+	private final HashSet<DocumentId> _documentIdsToCopy;
 
 	private final IncludedDocumentsCollectionActions actions;
 	private final ActionsContext actionsContext = new ActionsContext();
@@ -79,6 +85,7 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 		this.entityDescriptor = entityDescriptor;
 
 		_documentsWithChanges = new LinkedHashMap<>();
+		_documentIdsToCopy = new HashSet<>();
 
 		actions = IncludedDocumentsCollectionActions.builder()
 				.parentDocumentPath(parentDocumentPath)
@@ -93,15 +100,24 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 	/** copy constructor */
 	private HighVolumeReadWriteIncludedDocumentsCollection(
 			@NonNull final HighVolumeReadWriteIncludedDocumentsCollection from,
-			@NonNull final Document parentDocumentCopy,
-			@NonNull final CopyMode copyMode)
+			@NonNull final Document parentDocumentCopy)
 	{
 		parentDocument = parentDocumentCopy;
 		parentDocumentPath = from.parentDocumentPath;
 		detailId = from.detailId;
 		entityDescriptor = from.entityDescriptor;
 
-		_documentsWithChanges = new LinkedHashMap<>(Maps.transformValues(from._documentsWithChanges, includedDocumentOrig -> includedDocumentOrig.copy(parentDocumentCopy, copyMode)));
+		// Share the documents with the collection we copy from. They will be copied on demand, by both collections,
+		// so none of them is changing a document which is seen by the other one.
+		// NOTE: documents which are still shared by "from" are shared by us too.
+		// That's safe because copying a document is transitive, i.e. it does not matter from which copy generation we copy it, as long as it was not accessed in between.
+		// NOTE: "from" might be a cached readonly document which is copied by more threads at the same time.
+		synchronized (from)
+		{
+			from._documentIdsToCopy.addAll(from._documentsWithChanges.keySet());
+			_documentsWithChanges = new LinkedHashMap<>(from._documentsWithChanges);
+			_documentIdsToCopy = new HashSet<>(_documentsWithChanges.keySet());
+		}
 
 		actions = from.actions.copy();
 		parentReadonly = from.parentReadonly;
@@ -123,32 +139,80 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 		parentDocument.assertWritable();
 	}
 
-	private final void addChangedDocument(final Document document)
+	private final synchronized void addChangedDocument(final Document document)
 	{
 		final DocumentId documentId = document.getDocumentId();
 		_documentsWithChanges.put(documentId, document);
+		_documentIdsToCopy.remove(documentId);
 	}
 
-	private final void forgetChangedDocument(final DocumentId documentId)
+	private final synchronized void forgetChangedDocument(final DocumentId documentId)
 	{
 		_documentsWithChanges.remove(documentId);
+		_documentIdsToCopy.remove(documentId);
 	}
 
 	private final Collection<Document> getChangedDocuments()
 	{
+		copySharedDocuments();
 		return _documentsWithChanges.values();
 	}
 
-	private final Document getChangedDocumentOrNull(final DocumentId documentId)
+	private final synchronized Document getChangedDocumentOrNull(final DocumentId documentId)
 	{
-		return _documentsWithChanges.get(documentId);
+		final Document document = _documentsWithChanges.get(documentId);
+		if (document == null)
+		{
+			return null;
+		}
+
+		if (_documentIdsToCopy.remove(documentId))
+		{
+			final Document documentCopy = copySharedDocument(document);
+			_documentsWithChanges.put(documentId, documentCopy);
+			return documentCopy;
+		}
+
+		return document;
 	}
 
 	private final Map<DocumentId, Document> getInnerDocumentsWithChanges()
 	{
+		copySharedDocuments();
 		return _documentsWithChanges;
 	}
 
+	private synchronized void copySharedDocuments()
+	{
+		if (_documentIdsToCopy.isEmpty())
+		{
+			return;
+		}
+
+		// NOTE: replacing the values of existing keys does not change the iteration order
+		for (final DocumentId documentId : _documentIdsToCopy)
+		{
+			final Document documentCopy = copySharedDocument(_documentsWithChanges.get(documentId));
+			_documentsWithChanges.put(documentId, documentCopy);
+		}
+		_documentIdsToCopy.clear();
+	}
+
+	private Document copySharedDocument(final Document sharedDocument)
+	{
+		final CopyMode copyMode = parentDocument.isWritable() ? CopyMode.CheckOutWritable : CopyMode.CheckInReadonly;
+		final Document documentCopy = sharedDocument.copy(parentDocument, copyMode);
+
+		// The shared document was not notified when our parent's readonly status changed (see setParentReadonlyAndCollect),
+		// so the copy has to catch up now.
+		if (!Objects.equals(documentCopy.getParentReadonly(), sharedDocument.getParentReadonly()))
+		{
+			documentCopy.onParentReadonlyChanged();
+		}
+
+		return documentCopy;
+	}
+
 	@Override
 	public DetailId getDetailId()
 	{
@@ -158,7 +222,8 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 	@Override
 	public IIncludedDocumentsCollection copy(final Document parentDocumentCopy, final CopyMode copyMode)
 	{
-		return new HighVolumeReadWriteIncludedDocumentsCollection(this, parentDocumentCopy, copyMode);
+		// NOTE: the included documents are copied on demand, using the copy mode matching the parent document copy's writable status
+		return new HighVolumeReadWriteIncludedDocumentsCollection(this, parentDocumentCopy);
 	}
 
 	@Override
@@ -235,7 +300,14 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 			parentDocument.getChangesCollector().collectStaleDetailId(parentDocumentPath, detailId);
 		}
 
-		getChangedDocuments().forEach(changedDocument -> changedDocument.setParentReadonly(parentReadonlyNew));
+		// NOTE: documents which are still shared are not touched (that would mean copying them);
+		// they will pick up the new parent readonly status when they get copied.
+		_documentsWithChanges.forEach((documentId, changedDocument) -> {
+			if (!_documentIdsToCopy.contains(documentId))
+			{
+				changedDocument.setParentReadonly(parentReadonlyNew);
+			}
+		});
 	}
 
 	@Override
@@ -330,7 +402,8 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 	@Override
 	public boolean hasChangesRecursivelly()
 	{
-		return getChangedDocuments()
+		// NOTE: checking for changes has no side effects, so we can also ask the documents which are still shared, without copying them
+		return _documentsWithChanges.values()
 				.stream()
 				.anyMatch(document -> document.hasChangesRecursivelly());
 	}
@@ -443,7 +516,8 @@ public class HighVolumeReadWriteIncludedDocumentsCollection implements IIncluded
 		@Override
 		public Collection<Document> getIncludedDocuments()
 		{
-			return getChangedDocuments();
+			// NOTE: the documents are only inspected (new/save status), so we can also provide the documents which are still shared, without copying them
+			return Collections.unmodifiableCollection(_documentsWithChanges.values());
 		}
 
 		@Override
@@ -1,6 +1,10 @@
 package de.metas.ui.web.window.model.lookup;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import com.google.common.base.MoreObjects;
@@ -137,6 +141,39 @@ public final class CachedLookupDataSourceFetcherAdapter implements LookupDataSou
 		return cache_retrieveLookupValueById.getOrLoad(evalCtx, () -> delegate.retrieveLookupValueById(evalCtx));
 	}
 
+	@Override
+	public Map<LookupDataSourceContext, LookupValue> retrieveLookupValueByIds(final Collection<LookupDataSourceContext> evalCtxs)
+	{
+		final Map<LookupDataSourceContext, LookupValue> result = new LinkedHashMap<>(evalCtxs.size());
+		final List<LookupDataSourceContext> evalCtxsToLoad = new ArrayList<>();
+		for (final LookupDataSourceContext evalCtx : evalCtxs)
+		{
+			final LookupValue lookupValue = cache_retrieveLookupValueById.get(evalCtx);
+			if (lookupValue != null)
+			{
+				result.put(evalCtx, lookupValue);
+			}
+			else
+			{
+				result.put(evalCtx, null); // placeholder, to preserve the order
+				evalCtxsToLoad.add(evalCtx);
+			}
+		}
+
+		if (!evalCtxsToLoad.isEmpty())
+		{
+			final Map<LookupDataSourceContext, LookupValue> loadedLookupValues = delegate.retrieveLookupValueByIds(evalCtxsToLoad);
+			for (final LookupDataSourceContext evalCtx : evalCtxsToLoad)
+			{
+				final LookupValue lookupValue = loadedLookupValues.getOrDefault(evalCtx, LOOKUPVALUE_NULL);
+				cache_retrieveLookupValueById.put(evalCtx, lookupValue);
+				result.put(evalCtx, lookupValue);
+			}
+		}
+
+		return result;
+	}
+
 	@Override
 	public Builder newContextForFetchingList()
 	{
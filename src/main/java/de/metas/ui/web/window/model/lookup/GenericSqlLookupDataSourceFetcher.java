@@ -1,5 +1,12 @@
 package de.metas.ui.web.window.model.lookup;
 
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -10,11 +17,17 @@ import org.adempiere.ad.expression.api.IStringExpression;
 import org.adempiere.ad.service.impl.LookupDAO.SQLNamePairIterator;
 import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.ad.validationRule.INamePairPredicate;
+import org.adempiere.exceptions.DBException;
 import org.compiere.util.DB;
+import org.compiere.util.Evaluatees;
 import org.slf4j.Logger;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Multimaps;
 
 import de.metas.cache.CCache.CCacheStats;
 import de.metas.i18n.ITranslatableString;
@@ -62,6 +75,8 @@ public class GenericSqlLookupDataSourceFetcher implements LookupDataSourceFetche
 
 	private static final Logger logger = LogManager.getLogger(GenericSqlLookupDataSourceFetcher.class);
 
+	private static final int RETRIEVE_BY_IDS_CHUNK_SIZE = 500;
+
 	private final @NonNull String lookupTableName;
 	private final @NonNull Optional<String> lookupTableNameAsOptional;
 	private final boolean numericKey;
@@ -69,6 +84,7 @@ public class GenericSqlLookupDataSourceFetcher implements LookupDataSourceFetche
 
 	private final IStringExpression sqlForFetchingExpression;
 	private final IStringExpression sqlForFetchingLookupByIdExpression;
+	private final IStringExpression sqlForFetchingLookupByIdsExpression;
 	private final INamePairPredicate postQueryPredicate;
 
 	private final boolean isTranslatable;
@@ -85,6 +101,7 @@ public class GenericSqlLookupDataSourceFetcher implements LookupDataSourceFetche
 		entityTypeIndex = sqlLookupDescriptor.getEntityTypeIndex();
 		sqlForFetchingExpression = sqlLookupDescriptor.getSqlForFetchingExpression();
 		sqlForFetchingLookupByIdExpression = sqlLookupDescriptor.getSqlForFetchingLookupByIdExpression();
+		sqlForFetchingLookupByIdsExpression = sqlLookupDescriptor.getSqlForFetchingLookupByIdsExpression();
 		postQueryPredicate = sqlLookupDescriptor.getPostQueryPredicate();
 
 		isTranslatable = sqlForFetchingLookupByIdExpression.requiresParameter(LookupDataSourceContext.PARAM_AD_Language.getName());
@@ -212,6 +229,113 @@ public class GenericSqlLookupDataSourceFetcher implements LookupDataSourceFetche
 			return LOOKUPVALUE_NULL;
 		}
 
+		final String adLanguage = isTranslatable ? evalCtx.getAD_Language() : null;
+		return createLookupValue(id, nameAndDescriptionAndActive, adLanguage);
+	}
+
+	/**
+	 * Retrieves the lookup values using one SQL query for each chunk of {@value #RETRIEVE_BY_IDS_CHUNK_SIZE} IDs.
+	 */
+	@Override
+	public Map<LookupDataSourceContext, LookupValue> retrieveLookupValueByIds(@NonNull final Collection<LookupDataSourceContext> evalCtxs)
+	{
+		if (evalCtxs.isEmpty())
+		{
+			return ImmutableMap.of();
+		}
+
+		//
+		// Group the contexts by their SQL, resolved up to the key IDs.
+		// Contexts which were built for the same lookup and the same parent context are sharing the same SQL.
+		final Map<String, IStringExpression> sqlExpressionsBySqlString = new LinkedHashMap<>();
+		final Map<String, List<LookupDataSourceContext>> evalCtxsBySqlString = new LinkedHashMap<>();
+		for (final LookupDataSourceContext evalCtx : evalCtxs)
+		{
+			if (evalCtx.getIdToFilter() == null)
+			{
+				throw new IllegalStateException("No ID provided in " + evalCtx);
+			}
+
+			final IStringExpression sqlExpression = sqlForFetchingLookupByIdsExpression.resolvePartial(evalCtx);
+			final String sqlString = sqlExpression.getExpressionString();
+			sqlExpressionsBySqlString.putIfAbsent(sqlString, sqlExpression);
+			evalCtxsBySqlString.computeIfAbsent(sqlString, k -> new ArrayList<>()).add(evalCtx);
+		}
+
+		final Map<LookupDataSourceContext, LookupValue> result = new HashMap<>(evalCtxs.size());
+		evalCtxsBySqlString.forEach((sqlString, evalCtxsForSql) -> {
+			final IStringExpression sqlExpression = sqlExpressionsBySqlString.get(sqlString);
+			for (final List<LookupDataSourceContext> evalCtxsChunk : Iterables.partition(evalCtxsForSql, RETRIEVE_BY_IDS_CHUNK_SIZE))
+			{
+				retrieveLookupValueByIds(sqlExpression, evalCtxsChunk, result);
+			}
+		});
+
+		return result;
+	}
+
+	private void retrieveLookupValueByIds(
+			final IStringExpression sqlExpression,
+			final List<LookupDataSourceContext> evalCtxs,
+			final Map<LookupDataSourceContext, LookupValue> result)
+	{
+		// NOTE: contexts which differ only in parameters which are not part of the SQL are sharing the same ID
+		final ImmutableListMultimap<Object, LookupDataSourceContext> evalCtxsById = Multimaps.index(evalCtxs, LookupDataSourceContext::getIdToFilter);
+
+		final List<Object> sqlParams = new ArrayList<>(evalCtxsById.size());
+		final String sqlKeyIds = DB.buildSqlList(evalCtxsById.keySet(), sqlParams::addAll);
+		final String sql = sqlExpression.evaluate(Evaluatees.mapBuilder()
+				.put(SqlLookupDescriptor.SQL_PARAM_KeyIds, sqlKeyIds)
+				.build(), OnVariableNotFound.Fail);
+
+		// NOTE: all contexts from this chunk are sharing the same SQL, so also the same language
+		final String adLanguage = isTranslatable ? evalCtxs.get(0).getAD_Language() : null;
+
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sql, ITrx.TRXNAME_None);
+			DB.setParameters(pstmt, sqlParams);
+			rs = pstmt.executeQuery();
+			while (rs.next())
+			{
+				final Object id = numericKey ? (Object)rs.getInt(1) : rs.getString(1);
+				final List<LookupDataSourceContext> evalCtxsForId = evalCtxsById.get(id);
+				if (evalCtxsForId.isEmpty())
+				{
+					continue;
+				}
+
+				final Array array = rs.getArray(2);
+				final String[] nameAndDescriptionAndActive = array != null ? (String[])array.getArray() : null;
+				if (nameAndDescriptionAndActive == null || nameAndDescriptionAndActive.length == 0)
+				{
+					continue;
+				}
+
+				final LookupValue lookupValue = createLookupValue(evalCtxsForId.get(0).getIdToFilter(), nameAndDescriptionAndActive, adLanguage);
+				evalCtxsForId.forEach(evalCtx -> result.put(evalCtx, lookupValue));
+			}
+		}
+		catch (final SQLException ex)
+		{
+			throw DBException.wrapIfNeeded(ex)
+					.setSqlIfAbsent(sql, sqlParams);
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+
+		evalCtxs.forEach(evalCtx -> result.putIfAbsent(evalCtx, LOOKUPVALUE_NULL));
+	}
+
+	private LookupValue createLookupValue(
+			@NonNull final Object id,
+			@NonNull final String[] nameAndDescriptionAndActive,
+			final String adLanguage)
+	{
 		final String displayName = nameAndDescriptionAndActive[0];
 		final String description = nameAndDescriptionAndActive.length >= 2 ? nameAndDescriptionAndActive[1] : null;
 		final boolean active = nameAndDescriptionAndActive.length >= 3 ? StringUtils.toBoolean(nameAndDescriptionAndActive[2]) : true;
@@ -220,7 +344,6 @@ public class GenericSqlLookupDataSourceFetcher implements LookupDataSourceFetche
 		final ITranslatableString descriptionTrl;
 		if (isTranslatable)
 		{
-			final String adLanguage = evalCtx.getAD_Language();
 			displayNameTrl = TranslatableStrings.singleLanguage(adLanguage, displayName);
 			descriptionTrl = TranslatableStrings.singleLanguage(adLanguage, description);
 		}
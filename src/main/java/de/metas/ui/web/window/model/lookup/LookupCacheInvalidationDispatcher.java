@@ -2,6 +2,8 @@ package de.metas.ui.web.window.model.lookup;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
@@ -12,16 +14,19 @@ import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.ad.trx.api.ITrxListenerManager.TrxEventTiming;
 import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.ad.trx.api.OnTrxMissingPolicy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
-import com.google.common.base.Predicates;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.cache.CacheMgt;
 import de.metas.cache.ICacheResetListener;
 import de.metas.cache.model.CacheInvalidateMultiRequest;
 import de.metas.cache.model.CacheInvalidateRequest;
+import de.metas.ui.web.window.descriptor.sql.ProductLookupIndex;
 import de.metas.util.Services;
 
 /*
@@ -55,12 +60,16 @@ import de.metas.util.Services;
 @Component
 public class LookupCacheInvalidationDispatcher implements ICacheResetListener
 {
-	private static final String TRXPROP_TableNamesToInvalidate = LookupCacheInvalidationDispatcher.class + ".TableNamesToInvalidate";
+	private static final String TRXPROP_RequestsToInvalidate = LookupCacheInvalidationDispatcher.class + ".RequestsToInvalidate";
 
 	private final Executor async;
+	private final boolean productLookupIndexEnabled;
 
-	public LookupCacheInvalidationDispatcher()
+	public LookupCacheInvalidationDispatcher(
+			@Value("${metasfresh.webui.productLookup.inMemoryIndex.enabled:false}") final boolean productLookupIndexEnabled)
 	{
+		this.productLookupIndexEnabled = productLookupIndexEnabled;
+
 		final CustomizableThreadFactory asyncThreadFactory = new CustomizableThreadFactory(LookupCacheInvalidationDispatcher.class.getSimpleName());
 		asyncThreadFactory.setDaemon(true);
 
@@ -71,6 +80,11 @@ public class LookupCacheInvalidationDispatcher implements ICacheResetListener
 	private void postConstruct()
 	{
 		CacheMgt.get().addCacheResetListener(this);
+
+		if (productLookupIndexEnabled)
+		{
+			ProductLookupIndex.instance.enable();
+		}
 	}
 
 	@Override
@@ -81,69 +95,136 @@ public class LookupCacheInvalidationDispatcher implements ICacheResetListener
 		final ITrx currentTrx = trxManager.getThreadInheritedTrx(OnTrxMissingPolicy.ReturnTrxNone);
 		if (trxManager.isNull(currentTrx))
 		{
-			async.execute(() -> resetNow(extractTableNames(multiRequest)));
+			final RequestsToResetCollector collector = new RequestsToResetCollector(productLookupIndexEnabled);
+			collector.addRequests(extractRequests(multiRequest));
+			resetAsync(collector);
 		}
 		else
 		{
-			final TableNamesToResetCollector collector = currentTrx.getProperty(TRXPROP_TableNamesToInvalidate, trx -> {
-				final TableNamesToResetCollector c = new TableNamesToResetCollector();
+			final RequestsToResetCollector collector = currentTrx.getProperty(TRXPROP_RequestsToInvalidate, trx -> {
+				final RequestsToResetCollector c = new RequestsToResetCollector(productLookupIndexEnabled);
 				trx.getTrxListenerManager()
 						.newEventListener(TrxEventTiming.AFTER_COMMIT)
-						.registerHandlingMethod(innerTrx -> {
-							final Set<String> tableNames = c.toSet();
-							if (tableNames.isEmpty())
-							{
-								return;
-							}
-							async.execute(() -> resetNow(tableNames));
-						});
+						.registerHandlingMethod(innerTrx -> resetAsync(c));
 				return c;
 			});
 
-			collector.addTableNames(extractTableNames(multiRequest));
+			collector.addRequests(extractRequests(multiRequest));
 		}
 
 		return 1; // not relevant
 	}
 
-	private Set<String> extractTableNames(final CacheInvalidateMultiRequest multiRequest)
+	private List<CacheInvalidateRequest> extractRequests(final CacheInvalidateMultiRequest multiRequest)
 	{
 		if (multiRequest.isResetAll())
 		{
 			// not relevant for our lookups
-			return ImmutableSet.of();
+			return ImmutableList.of();
 		}
 
 		return multiRequest.getRequests()
 				.stream()
 				.filter(request -> !request.isAll()) // not relevant for our lookups
-				.map(CacheInvalidateRequest::getTableNameEffective)
-				.filter(Predicates.notNull())
-				.collect(ImmutableSet.toImmutableSet());
+				.filter(request -> request.getTableNameEffective() != null)
+				.collect(ImmutableList.toImmutableList());
 	}
 
-	private void resetNow(final Set<String> tableNames)
+	private void resetAsync(final RequestsToResetCollector collector)
 	{
-		if (tableNames.isEmpty())
+		if (collector.isEmpty())
 		{
 			return;
 		}
 
+		final Set<String> tableNames = collector.getTableNames();
+		final List<CacheInvalidateRequest> requests = collector.getRequests();
+		async.execute(() -> resetNow(tableNames, requests));
+	}
+
+	private void resetNow(final Set<String> tableNames, final List<CacheInvalidateRequest> requests)
+	{
 		LookupDataSourceFactory.instance.cacheInvalidateOnRecordsChanged(tableNames);
+
+		if (!requests.isEmpty())
+		{
+			ProductLookupIndex.instance.onRecordsChanged(requests);
+		}
 	}
 
-	private static final class TableNamesToResetCollector
+	/**
+	 * Collects the table names to be invalidated.
+	 * The requests themselves are collected only if they are needed, i.e. if the {@link ProductLookupIndex} is enabled.
+	 */
+	@VisibleForTesting
+	static final class RequestsToResetCollector
 	{
-		private final Set<String> tableNames = new HashSet<>();
+		private final boolean collectRequests;
+
+		private final Set<String> tableNames = new LinkedHashSet<>();
+		private final Set<String> tableNamesFullyInvalidated = new HashSet<>();
+		private final Set<CacheInvalidateRequest> requests = new LinkedHashSet<>();
+
+		RequestsToResetCollector(final boolean collectRequests)
+		{
+			this.collectRequests = collectRequests;
+		}
+
+		public synchronized boolean isEmpty()
+		{
+			return tableNames.isEmpty();
+		}
 
-		public Set<String> toSet()
+		public synchronized Set<String> getTableNames()
 		{
 			return ImmutableSet.copyOf(tableNames);
 		}
 
-		public void addTableNames(final Collection<String> tableNamesToAdd)
+		public synchronized List<CacheInvalidateRequest> getRequests()
+		{
+			return ImmutableList.copyOf(requests);
+		}
+
+		public synchronized void addRequests(final Collection<CacheInvalidateRequest> requestsToAdd)
+		{
+			requestsToAdd.forEach(this::addRequest);
+		}
+
+		private void addRequest(final CacheInvalidateRequest request)
+		{
+			final String tableName = request.getTableNameEffective();
+			tableNames.add(tableName);
+
+			if (!collectRequests)
+			{
+				return;
+			}
+
+			if (isTableWide(request))
+			{
+				// the whole table is invalidated, so the record level requests are no longer relevant
+				if (tableNamesFullyInvalidated.add(tableName))
+				{
+					requests.removeIf(existingRequest -> tableName.equals(existingRequest.getTableNameEffective()));
+					requests.add(request);
+				}
+			}
+			else if (!tableNamesFullyInvalidated.contains(tableName))
+			{
+				requests.add(request);
+			}
+		}
+
+		private static boolean isTableWide(final CacheInvalidateRequest request)
 		{
-			tableNames.addAll(tableNamesToAdd);
+			if (request.getChildTableName() != null)
+			{
+				return request.getChildRecordId() < 0;
+			}
+			else
+			{
+				return request.getRootRecordId() < 0;
+			}
 		}
 	}
 }
@@ -1,7 +1,11 @@
 package de.metas.ui.web.window.model.lookup;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.compiere.util.Evaluatee;
 
@@ -134,6 +138,45 @@ final class LookupDataSourceAdapter implements LookupDataSource
 		return lookupValue;
 	}
 
+	@Override
+	public LookupValuesList findByIds(@NonNull final Collection<? extends Object> ids)
+	{
+		if (ids.isEmpty())
+		{
+			return LookupValuesList.EMPTY;
+		}
+
+		//
+		// Normalize the IDs to Integer/String and build one validation context for each of them
+		final boolean numericKey = fetcher.isNumericKey();
+		final Set<LookupDataSourceContext> evalCtxs = new LinkedHashSet<>(ids.size());
+		for (final Object idObj : ids)
+		{
+			final Object idNormalized = idObj != null ? LookupValue.normalizeId(idObj, numericKey) : null;
+			if (idNormalized == null)
+			{
+				continue;
+			}
+
+			evalCtxs.add(fetcher.newContextForFetchingById(idNormalized)
+					.putFilterById(idNormalized)
+					.putShowInactive(true)
+					.build());
+		}
+		if (evalCtxs.isEmpty())
+		{
+			return LookupValuesList.EMPTY;
+		}
+
+		//
+		// Get the lookup values, all at once
+		final Map<LookupDataSourceContext, LookupValue> lookupValues = fetcher.retrieveLookupValueByIds(evalCtxs);
+		return lookupValues.values()
+				.stream()
+				.filter(lookupValue -> lookupValue != null && lookupValue != LookupDataSourceFetcher.LOOKUPVALUE_NULL)
+				.collect(LookupValuesList.collect());
+	}
+
 	@Override
 	public List<CCacheStats> getCacheStats()
 	{
@@ -1,6 +1,9 @@
 package de.metas.ui.web.window.model.lookup;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import com.google.common.collect.ImmutableList;
@@ -46,6 +49,21 @@ public interface LookupDataSourceFetcher
 
 	LookupValue retrieveLookupValueById(LookupDataSourceContext evalCtx);
 
+	/**
+	 * Retrieves the lookup values for given contexts, each of them built by {@link #newContextForFetchingById(Object)}.
+	 *
+	 * @return lookup value for each given context; if not found, {@link #LOOKUPVALUE_NULL} is returned for that context
+	 */
+	default Map<LookupDataSourceContext, LookupValue> retrieveLookupValueByIds(final Collection<LookupDataSourceContext> evalCtxs)
+	{
+		final Map<LookupDataSourceContext, LookupValue> result = new LinkedHashMap<>(evalCtxs.size());
+		for (final LookupDataSourceContext evalCtx : evalCtxs)
+		{
+			result.put(evalCtx, retrieveLookupValueById(evalCtx));
+		}
+		return result;
+	}
+
 	LookupDataSourceContext.Builder newContextForFetchingList();
 
 	LookupValuesList retrieveEntities(LookupDataSourceContext evalCtx);
@@ -0,0 +1,473 @@
+package de.metas.ui.web.window.model.sql;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.exceptions.DBException;
+import org.adempiere.service.ISysConfigBL;
+import org.adempiere.util.lang.impl.TableRecordReference;
+import org.compiere.model.POInfo;
+import org.compiere.util.DB;
+import org.compiere.util.Env;
+import org.compiere.util.TimeUtil;
+import org.slf4j.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+import de.metas.cache.CacheMgt;
+import de.metas.cache.model.CacheInvalidateMultiRequest;
+import de.metas.cache.model.CacheInvalidateRequest;
+import de.metas.logging.LogManager;
+import de.metas.ui.web.window.WindowConstants;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.descriptor.DocumentFieldDataBindingDescriptor;
+import de.metas.ui.web.window.descriptor.DocumentFieldDescriptor;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.descriptor.sql.SqlDocumentEntityDataBindingDescriptor;
+import de.metas.ui.web.window.model.Document;
+import de.metas.ui.web.window.model.Document.DocumentValuesSupplier;
+import de.metas.ui.web.window.model.IDocumentFieldView;
+import de.metas.util.Check;
+import de.metas.util.Services;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Singular;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Saves an existing {@link Document} using one <code>UPDATE ... RETURNING ...</code> statement, instead of loading, saving and re-loading the PO.
+ * <p>
+ * Only the changed columns are updated. The update is guarded by the changed columns' initial values, so if the record was changed meanwhile, no row is updated.
+ * The columns returned by the database (including the ones changed by DB triggers) are set back to the document, so no reload is needed.
+ * Changed encrypted or password columns are not supported, because only the PO knows how to encrypt them.
+ * <p>
+ * IMPORTANT: this bypasses the PO layer, i.e. no model interceptors, no change log etc. That's why it's enabled only for the tables where the sysconfig
+ * {@value #SYSCONFIG_Enabled_Prefix}&lt;TableName&gt; is set to <code>Y</code>.
+ *
+ * @author metas-dev <dev@metasfresh.com>
+ */
+/* package */ final class SqlDocumentDirectUpdate
+{
+	private static final Logger logger = LogManager.getLogger(SqlDocumentDirectUpdate.class);
+
+	private static final String SYSCONFIG_Enabled_Prefix = "webui.documents.DirectUpdate.";
+
+	public enum DirectUpdateResult
+	{
+		/** The document cannot be saved this way, or the record was changed meanwhile. The caller shall save it via PO. */
+		NOT_APPLICABLE,
+
+		/** There was nothing to save */
+		NO_CHANGES,
+
+		/** Saved and all document fields are up to date */
+		SAVED,
+
+		/** Saved, but some fields are based on virtual columns, so the document shall be refreshed */
+		SAVED_NEEDS_REFRESH
+	}
+
+	public static DirectUpdateResult update(@NonNull final Document document)
+	{
+		if (document.isNew())
+		{
+			return DirectUpdateResult.NOT_APPLICABLE;
+		}
+
+		final SqlDocumentEntityDataBindingDescriptor dataBinding = SqlDocumentEntityDataBindingDescriptor.cast(document.getEntityDescriptor().getDataBinding());
+		if (!dataBinding.isSingleKey())
+		{
+			return DirectUpdateResult.NOT_APPLICABLE;
+		}
+
+		final String tableName = dataBinding.getTableName();
+		if (!isEnabled(tableName))
+		{
+			return DirectUpdateResult.NOT_APPLICABLE;
+		}
+
+		final POInfo poInfo = POInfo.getPOInfo(tableName);
+		if (poInfo == null)
+		{
+			return DirectUpdateResult.NOT_APPLICABLE;
+		}
+
+		final int recordId = document.getDocumentIdAsInt();
+		final DirectUpdateStatement.DirectUpdateStatementBuilder statement = DirectUpdateStatement.builder()
+				.document(document)
+				.tableName(tableName)
+				.keyColumnName(dataBinding.getKeyFields().get(0).getColumnName())
+				.recordId(recordId)
+				.updatedBy(Env.getAD_User_ID(document.getCtx()))
+				.cacheInvalidateRequest(createCacheInvalidateRequest(document, tableName, recordId));
+
+		//
+		// Collect the columns to update and the columns to read back
+		boolean hasChanges = false;
+		boolean hasVirtualColumns = false;
+		for (final IDocumentFieldView documentField : document.getFieldViews())
+		{
+			if (DocumentFieldWidgetType.Labels == documentField.getWidgetType() && documentField.hasChangesToSave())
+			{
+				return DirectUpdateResult.NOT_APPLICABLE; // labels are saved in separate records, after the PO
+			}
+
+			final DocumentFieldDataBindingDescriptor fieldDataBinding = documentField.getDescriptor().getDataBinding().orElse(null);
+			if (fieldDataBinding == null)
+			{
+				continue;
+			}
+
+			final String columnName = fieldDataBinding.getColumnName();
+			final int poColumnIndex = poInfo.getColumnIndex(columnName);
+			if (poColumnIndex < 0)
+			{
+				continue;
+			}
+			if (poInfo.isVirtualColumn(poColumnIndex))
+			{
+				hasVirtualColumns = true;
+				continue;
+			}
+			if (poInfo.isEncrypted(poColumnIndex) || DocumentFieldWidgetType.Password == documentField.getWidgetType())
+			{
+				if (documentField.hasChangesToSave())
+				{
+					return DirectUpdateResult.NOT_APPLICABLE; // only the PO knows how to encrypt the value
+				}
+				continue; // don't read it back because the database value is encrypted
+			}
+
+			final Class<?> poValueClass = poInfo.getColumnClass(poColumnIndex);
+			statement.returningColumn(ReturningColumn.builder()
+					.columnName(columnName)
+					.fieldName(documentField.getFieldName())
+					.widgetType(documentField.getWidgetType())
+					.poValueClass(poValueClass)
+					.build());
+
+			if (!documentField.hasChangesToSave())
+			{
+				continue;
+			}
+			if (poInfo.isKey(poColumnIndex) || WindowConstants.FIELDNAMES_CreatedUpdated.contains(columnName))
+			{
+				continue;
+			}
+
+			final Object value = SqlDocumentsRepository.convertValueToPO(documentField.getValue(), columnName, documentField.getWidgetType(), poValueClass);
+			final Object initialValue = SqlDocumentsRepository.convertValueToPO(documentField.getInitialValue(), columnName, documentField.getWidgetType(), poValueClass);
+			if (SqlDocumentsRepository.poFieldValueEqual(value, initialValue))
+			{
+				continue;
+			}
+
+			statement.changedColumn(ChangedColumn.builder()
+					.columnName(columnName)
+					.value(value)
+					.initialValue(initialValue)
+					.build());
+			hasChanges = true;
+		}
+
+		if (!hasChanges)
+		{
+			return DirectUpdateResult.NO_CHANGES;
+		}
+
+		return execute(statement.hasVirtualColumns(hasVirtualColumns).build(), SqlDocumentDirectUpdate::executeUpdateReturning);
+	}
+
+	@VisibleForTesting
+	static DirectUpdateResult execute(@NonNull final DirectUpdateStatement statement, @NonNull final UpdateReturningExecutor executor)
+	{
+		final Map<String, Object> returnedValuesByColumnName = executor.executeAndReturn(statement.getSql(), statement.getSqlParams(), statement.getReturningColumnNames());
+		if (returnedValuesByColumnName == null)
+		{
+			logger.debug("No record updated for {}. Either it was deleted or changed meanwhile. -- SQL: {} -- {}", statement.getDocument(), statement.getSql(), statement.getSqlParams());
+			return DirectUpdateResult.NOT_APPLICABLE;
+		}
+
+		statement.getDocument().refreshFromSupplier(new ReturnedDocumentValuesSupplier(statement, returnedValuesByColumnName));
+
+		CacheMgt.get().resetLocalNowAndBroadcastOnTrxCommit(ITrx.TRXNAME_ThreadInherited, CacheInvalidateMultiRequest.of(statement.getCacheInvalidateRequest()));
+
+		return statement.isHasVirtualColumns() ? DirectUpdateResult.SAVED_NEEDS_REFRESH : DirectUpdateResult.SAVED;
+	}
+
+	/**
+	 * @return the values of the returning columns, indexed by column name, or <code>null</code> if no row was updated
+	 */
+	private static Map<String, Object> executeUpdateReturning(final String sql, final List<Object> sqlParams, final List<String> returningColumnNames)
+	{
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sql, ITrx.TRXNAME_ThreadInherited);
+			DB.setParameters(pstmt, sqlParams);
+			rs = pstmt.executeQuery();
+			if (!rs.next())
+			{
+				return null;
+			}
+
+			final Map<String, Object> returnedValuesByColumnName = new HashMap<>();
+			for (final String columnName : returningColumnNames)
+			{
+				returnedValuesByColumnName.put(columnName, rs.getObject(columnName));
+			}
+			return returnedValuesByColumnName;
+		}
+		catch (final SQLException ex)
+		{
+			throw new DBException(ex, sql, sqlParams);
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+	}
+
+	private static boolean isEnabled(final String tableName)
+	{
+		return Services.get(ISysConfigBL.class).getBooleanValue(SYSCONFIG_Enabled_Prefix + tableName, false);
+	}
+
+	private static CacheInvalidateRequest createCacheInvalidateRequest(final Document document, final String tableName, final int recordId)
+	{
+		final TableRecordReference rootRecordReference = SqlDocumentsRepository.extractRootRecordReference(document);
+		if (rootRecordReference == null)
+		{
+			return CacheInvalidateRequest.rootRecord(tableName, recordId);
+		}
+		else
+		{
+			return CacheInvalidateRequest.builder()
+					.rootRecord(rootRecordReference.getTableName(), rootRecordReference.getRecord_ID())
+					.childRecord(tableName, recordId)
+					.build();
+		}
+	}
+
+	@FunctionalInterface
+	@VisibleForTesting
+	interface UpdateReturningExecutor
+	{
+		/**
+		 * @return the values of the returning columns, indexed by column name, or <code>null</code> if no row was updated
+		 */
+		Map<String, Object> executeAndReturn(String sql, List<Object> sqlParams, List<String> returningColumnNames);
+	}
+
+	@Value
+	@Builder
+	@VisibleForTesting
+	static class ChangedColumn
+	{
+		@NonNull
+		String columnName;
+		Object value;
+		Object initialValue;
+	}
+
+	@Value
+	@Builder
+	@VisibleForTesting
+	static class ReturningColumn
+	{
+		@NonNull
+		String columnName;
+		@NonNull
+		String fieldName;
+		@NonNull
+		DocumentFieldWidgetType widgetType;
+		@NonNull
+		Class<?> poValueClass;
+	}
+
+	/**
+	 * The <code>UPDATE ... RETURNING ...</code> statement of one document.
+	 */
+	@Value
+	@VisibleForTesting
+	static class DirectUpdateStatement
+	{
+		Document document;
+		String tableName;
+		String keyColumnName;
+		int recordId;
+		int updatedBy;
+		ImmutableList<ChangedColumn> changedColumns;
+		ImmutableMap<String, ReturningColumn> returningColumnsByFieldName;
+		boolean hasVirtualColumns;
+		CacheInvalidateRequest cacheInvalidateRequest;
+
+		String sql;
+		List<Object> sqlParams;
+		List<String> returningColumnNames;
+
+		@Builder
+		private DirectUpdateStatement(
+				@NonNull final Document document,
+				@NonNull final String tableName,
+				@NonNull final String keyColumnName,
+				final int recordId,
+				final int updatedBy,
+				@NonNull @Singular final ImmutableList<ChangedColumn> changedColumns,
+				@NonNull @Singular final ImmutableList<ReturningColumn> returningColumns,
+				final boolean hasVirtualColumns,
+				@NonNull final CacheInvalidateRequest cacheInvalidateRequest)
+		{
+			Check.assumeNotEmpty(changedColumns, "changedColumns is not empty");
+
+			this.document = document;
+			this.tableName = tableName;
+			this.keyColumnName = keyColumnName;
+			this.recordId = recordId;
+			this.updatedBy = updatedBy;
+			this.changedColumns = changedColumns;
+			this.returningColumnsByFieldName = Maps.uniqueIndex(returningColumns, ReturningColumn::getFieldName);
+			this.hasVirtualColumns = hasVirtualColumns;
+			this.cacheInvalidateRequest = cacheInvalidateRequest;
+
+			final List<String> sqlSet = new ArrayList<>();
+			final List<Object> sqlSetParams = new ArrayList<>();
+			final List<String> sqlWhere = new ArrayList<>();
+			final List<Object> sqlWhereParams = new ArrayList<>();
+			for (final ChangedColumn changedColumn : changedColumns)
+			{
+				final String columnName = changedColumn.getColumnName();
+				sqlSet.add(columnName + "=?");
+				sqlSetParams.add(changedColumn.getValue());
+
+				// Make sure the column was not changed from when we last queried it
+				final Object initialValue = changedColumn.getInitialValue();
+				if (initialValue == null || "".equals(initialValue))
+				{
+					sqlWhere.add("(" + columnName + " IS NULL OR " + columnName + "::text = '')");
+				}
+				else
+				{
+					sqlWhere.add(columnName + "=?");
+					sqlWhereParams.add(initialValue);
+				}
+			}
+
+			sqlSet.add(WindowConstants.FIELDNAME_Updated + "=now()");
+			sqlSet.add(WindowConstants.FIELDNAME_UpdatedBy + "=?");
+			sqlSetParams.add(updatedBy);
+
+			final List<Object> sqlParams = new ArrayList<>(sqlSetParams);
+			sqlParams.add(recordId);
+			sqlParams.addAll(sqlWhereParams);
+			this.sqlParams = Collections.unmodifiableList(sqlParams);
+
+			final List<String> returningColumnNames = returningColumns.stream()
+					.map(ReturningColumn::getColumnName)
+					.collect(Collectors.toCollection(ArrayList::new));
+			if (!returningColumnNames.contains(WindowConstants.FIELDNAME_Updated))
+			{
+				returningColumnNames.add(WindowConstants.FIELDNAME_Updated);
+			}
+			this.returningColumnNames = Collections.unmodifiableList(returningColumnNames);
+
+			this.sql = "UPDATE " + tableName
+					+ " SET " + Joiner.on(", ").join(sqlSet)
+					+ " WHERE " + keyColumnName + "=?"
+					+ " AND " + Joiner.on(" AND ").join(sqlWhere)
+					+ " RETURNING " + Joiner.on(", ").join(returningColumnNames);
+		}
+	}
+
+	private static final class ReturnedDocumentValuesSupplier implements DocumentValuesSupplier
+	{
+		private final DirectUpdateStatement statement;
+		private final Map<String, Object> valuesByColumnName;
+
+		private ReturnedDocumentValuesSupplier(
+				@NonNull final DirectUpdateStatement statement,
+				@NonNull final Map<String, Object> valuesByColumnName)
+		{
+			this.statement = statement;
+			this.valuesByColumnName = valuesByColumnName;
+		}
+
+		@Override
+		public DocumentId getDocumentId()
+		{
+			return statement.getDocument().getDocumentId();
+		}
+
+		@Override
+		public String getVersion()
+		{
+			final Instant updated = TimeUtil.asInstant(valuesByColumnName.get(WindowConstants.FIELDNAME_Updated));
+			return updated == null ? SqlDocumentsRepository.VERSION_DEFAULT : String.valueOf(updated.toEpochMilli());
+		}
+
+		@Override
+		public Object getValue(final DocumentFieldDescriptor fieldDescriptor)
+		{
+			final ReturningColumn returningColumn = statement.getReturningColumnsByFieldName().get(fieldDescriptor.getFieldName());
+			if (returningColumn == null)
+			{
+				return NO_VALUE;
+			}
+
+			final String columnName = returningColumn.getColumnName();
+			if (!valuesByColumnName.containsKey(columnName))
+			{
+				return NO_VALUE;
+			}
+
+			//
+			// If the database value is the one we already have, keep our value (e.g. to avoid re-fetching a lookup value)
+			final Object returnedValue = valuesByColumnName.get(columnName);
+			final Object currentValue = statement.getDocument().getFieldView(fieldDescriptor.getFieldName()).getValue();
+			final Object currentValueConv = SqlDocumentsRepository.convertValueToPO(currentValue, columnName, returningColumn.getWidgetType(), returningColumn.getPoValueClass());
+			if (SqlDocumentsRepository.poFieldValueEqual(currentValueConv, returnedValue))
+			{
+				return currentValue;
+			}
+
+			// Changed in database (e.g. by a trigger) => let the document field convert it
+			return returnedValue;
+		}
+	}
+}
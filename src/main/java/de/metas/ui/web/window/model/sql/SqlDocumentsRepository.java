@@ -6,6 +6,7 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -50,6 +51,7 @@ import de.metas.ui.web.window.descriptor.DocumentFieldDescriptor;
 import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
 import de.metas.ui.web.window.descriptor.LookupDescriptor;
 import de.metas.ui.web.window.descriptor.sql.DocumentFieldValueLoader;
+import de.metas.ui.web.window.descriptor.sql.ResultSetColumnIndexes;
 import de.metas.ui.web.window.descriptor.sql.SqlDocumentEntityDataBindingDescriptor;
 import de.metas.ui.web.window.descriptor.sql.SqlDocumentFieldDataBindingDescriptor;
 import de.metas.ui.web.window.exceptions.DocumentNotFoundException;
@@ -61,6 +63,7 @@ import de.metas.ui.web.window.model.IDocumentChangesCollector;
 import de.metas.ui.web.window.model.IDocumentFieldView;
 import de.metas.ui.web.window.model.OrderedDocumentsList;
 import de.metas.ui.web.window.model.lookup.LabelsLookup;
+import de.metas.ui.web.window.model.sql.SqlDocumentDirectUpdate.DirectUpdateResult;
 import de.metas.util.Services;
 import lombok.NonNull;
 
@@ -99,7 +102,7 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 
 	private static final transient Logger logger = LogManager.getLogger(SqlDocumentsRepository.class);
 
-	private static final String VERSION_DEFAULT = "0";
+	/* package */ static final String VERSION_DEFAULT = "0";
 
 	private static final String SYSCONFIG_LoadLimitWarn = "webui.documents.LoadLimitWarn";
 	private static final int DEFAULT_LoadLimitWarn = 100;
@@ -180,10 +183,11 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 			DB.setParameters(pstmt, sqlParams);
 			rs = pstmt.executeQuery();
 
+			final ResultSetFieldValueLoaders fieldValueLoaders = new ResultSetFieldValueLoaders(rs);
 			boolean loadLimitWarnReported = false;
 			while (rs.next())
 			{
-				final ResultSetDocumentValuesSupplier documentValuesSupplier = new ResultSetDocumentValuesSupplier(entityDescriptor, adLanguage, rs);
+				final ResultSetDocumentValuesSupplier documentValuesSupplier = new ResultSetDocumentValuesSupplier(entityDescriptor, adLanguage, rs, fieldValueLoaders);
 
 				Document document = null;
 				if (existingDocumentsSupplier != null)
@@ -311,17 +315,23 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 		private final DocumentEntityDescriptor entityDescriptor;
 		private final String adLanguage;
 		private final ResultSet rs;
+		private final ResultSetFieldValueLoaders fieldValueLoaders;
 
 		private boolean idAquired = false;
 		private DocumentId id;
 
 		private String version;
 
-		public ResultSetDocumentValuesSupplier(@NonNull final DocumentEntityDescriptor entityDescriptor, final String adLanguage, @NonNull final ResultSet rs)
+		public ResultSetDocumentValuesSupplier(
+				@NonNull final DocumentEntityDescriptor entityDescriptor,
+				final String adLanguage,
+				@NonNull final ResultSet rs,
+				@NonNull final ResultSetFieldValueLoaders fieldValueLoaders)
 		{
 			this.entityDescriptor = entityDescriptor;
 			this.adLanguage = adLanguage;
 			this.rs = rs;
+			this.fieldValueLoaders = fieldValueLoaders;
 		}
 
 		@Override
@@ -395,7 +405,7 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 				return NO_VALUE;
 			}
 
-			final DocumentFieldValueLoader fieldValueLoader = fieldDataBinding.getDocumentFieldValueLoader();
+			final DocumentFieldValueLoader fieldValueLoader = fieldValueLoaders.getFieldValueLoader(fieldDescriptor.getFieldName(), fieldDataBinding);
 			final boolean isDisplayColumnAvailable = true;
 			final LookupDescriptor lookupDescriptor = fieldDescriptor.getLookupDescriptor().orElse(null);
 
@@ -410,6 +420,25 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 		}
 	}
 
+	/**
+	 * The fields' {@link DocumentFieldValueLoader}s, compiled (on demand) to read the columns of one particular result set by index.
+	 */
+	private static final class ResultSetFieldValueLoaders
+	{
+		private final ResultSetColumnIndexes columnIndexes;
+		private final HashMap<String, DocumentFieldValueLoader> fieldValueLoadersByFieldName = new HashMap<>();
+
+		public ResultSetFieldValueLoaders(@NonNull final ResultSet rs) throws SQLException
+		{
+			columnIndexes = ResultSetColumnIndexes.of(rs);
+		}
+
+		public DocumentFieldValueLoader getFieldValueLoader(final String fieldName, final SqlDocumentFieldDataBindingDescriptor fieldDataBinding)
+		{
+			return fieldValueLoadersByFieldName.computeIfAbsent(fieldName, k -> fieldDataBinding.getDocumentFieldValueLoader().compile(columnIndexes));
+		}
+	}
+
 	@Override
 	public void refresh(final Document document)
 	{
@@ -460,7 +489,7 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 			rs = pstmt.executeQuery();
 			if (rs.next())
 			{
-				final ResultSetDocumentValuesSupplier fieldValueSupplier = new ResultSetDocumentValuesSupplier(entityDescriptor, adLanguage, rs);
+				final ResultSetDocumentValuesSupplier fieldValueSupplier = new ResultSetDocumentValuesSupplier(entityDescriptor, adLanguage, rs, new ResultSetFieldValueLoaders(rs));
 				document.refreshFromSupplier(fieldValueSupplier);
 			}
 			else
@@ -493,6 +522,14 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 		assertThisRepository(document.getEntityDescriptor());
 		DocumentPermissionsHelper.assertCanEdit(document);
 
+		//
+		// Try saving it directly, without loading/saving/reloading the PO
+		final DirectUpdateResult directUpdateResult = SqlDocumentDirectUpdate.update(document);
+		if (directUpdateResult != DirectUpdateResult.NOT_APPLICABLE)
+		{
+			return saveDirectlyUpdated(document, directUpdateResult);
+		}
+
 		// Runnables to be executed after the PO is saved
 		final List<Runnable> afterSaveRunnables = new ArrayList<>();
 
@@ -574,6 +611,29 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 		return deleted ? SaveResult.DELETED : SaveResult.SAVED;
 	}
 
+	private SaveResult saveDirectlyUpdated(final Document document, final DirectUpdateResult directUpdateResult)
+	{
+		boolean deleted = false;
+		if (directUpdateResult == DirectUpdateResult.SAVED_NEEDS_REFRESH)
+		{
+			final RefreshResult refreshResult = refresh(document, document.getDocumentId());
+			if (refreshResult == RefreshResult.MISSING)
+			{
+				deleted = true;
+			}
+		}
+
+		//
+		// Notify the parent document that one of it's children were saved
+		if (!document.isRootDocument())
+		{
+			document.getParentDocument().onChildSaved(document);
+		}
+
+		//
+		return deleted ? SaveResult.DELETED : SaveResult.SAVED;
+	}
+
 	private DocumentId extractDocumentId(final PO po, SqlDocumentEntityDataBindingDescriptor dataBinding)
 	{
 		if (dataBinding.isSingleKey())
@@ -637,7 +697,7 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 		return po;
 	}
 
-	private static final TableRecordReference extractRootRecordReference(final Document includedDocument)
+	/* package */ static final TableRecordReference extractRootRecordReference(final Document includedDocument)
 	{
 		if (includedDocument.isRootDocument())
 		{
@@ -808,7 +868,7 @@ public final class SqlDocumentsRepository implements DocumentsRepository
 	}
 
 	/** @return true if PO field's values can be considered the same */
-	private static final boolean poFieldValueEqual(final Object value1, final Object value2)
+	/* package */ static final boolean poFieldValueEqual(final Object value1, final Object value2)
 	{
 		if (value1 == value2)
 		{
@@ -0,0 +1,59 @@
+package de.metas.ui.web.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Runs the webui JMH benchmarks (i.e. the <code>*Benchmark</code> classes) and reports, for each benchmark,
+ * the throughput (ops/s) and the allocations per operation (<code>gc.alloc.rate.norm</code>, in bytes/op).
+ * <p>
+ * Usage: <code>mvn test-compile exec:exec -Pbenchmarks</code>.
+ * The results are also written to <code>target/jmh-result.json</code>.
+ * <p>
+ * The benchmarks are running on top of the in-memory POJO infrastructure (see {@link org.adempiere.test.AdempiereTestHelper}),
+ * so the SQL parts of the measured code paths are replaced by in-memory implementations.
+ */
+public final class BenchmarksRunner
+{
+	private static final String INCLUDE_ALL_BENCHMARKS = "de\\.metas\\.ui\\.web\\..*Benchmark\\.";
+
+	public static void main(final String[] args) throws RunnerException
+	{
+		final String include = args.length > 0 ? args[0] : INCLUDE_ALL_BENCHMARKS;
+
+		final Options options = new OptionsBuilder()
+				.include(include)
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result("target/jmh-result.json")
+				.build();
+
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,112 @@
+package de.metas.ui.web.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.ui.web.board.LaneCardsSequence.LaneCard;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class LaneCardsSequenceTest
+{
+	private static final int GAP = LaneCardsSequence.SEQNO_GAP;
+
+	private static LaneCardsSequence lane(final LaneCard... cards)
+	{
+		return LaneCardsSequence.of(1, ImmutableList.copyOf(cards));
+	}
+
+	@Test
+	public void moveCard_onlyMovedCardIsChanged()
+	{
+		final LaneCardsSequence lane = lane(LaneCard.of(10, GAP), LaneCard.of(20, 2 * GAP), LaneCard.of(30, 3 * GAP));
+
+		lane.addCardIdAtPosition(30, 0);
+
+		assertThat(lane.getCardIds()).containsExactly(30, 10, 20);
+		assertThat(lane.getChangedSeqNos()).isEqualTo(ImmutableMap.of(30, GAP / 2));
+	}
+
+	@Test
+	public void addCard_atTheEnd()
+	{
+		final LaneCardsSequence lane = lane(LaneCard.of(10, GAP), LaneCard.of(20, 2 * GAP));
+
+		lane.addCardIdAtPosition(30, Integer.MAX_VALUE);
+
+		assertThat(lane.getCardIds()).containsExactly(10, 20, 30);
+		assertThat(lane.getChangedSeqNos()).isEqualTo(ImmutableMap.of(30, 3 * GAP));
+	}
+
+	@Test
+	public void addCard_inTheMiddle()
+	{
+		final LaneCardsSequence lane = lane(LaneCard.of(10, GAP), LaneCard.of(20, 2 * GAP));
+
+		lane.addCardIdAtPosition(30, 1);
+
+		assertThat(lane.getCardIds()).containsExactly(10, 30, 20);
+		assertThat(lane.getChangedSeqNos()).isEqualTo(ImmutableMap.of(30, GAP + GAP / 2));
+	}
+
+	@Test
+	public void removeCard_nothingChanged()
+	{
+		final LaneCardsSequence lane = lane(LaneCard.of(10, GAP), LaneCard.of(20, 2 * GAP));
+
+		lane.removeCardId(10);
+
+		assertThat(lane.getCardIds()).containsExactly(20);
+		assertThat(lane.getChangedSeqNos()).isEmpty();
+	}
+
+	@Test
+	public void noFreeSeqNo_renumbersTheLane()
+	{
+		// legacy lanes are numbered 0, 1, 2...
+		final LaneCardsSequence lane = lane(LaneCard.of(10, 0), LaneCard.of(20, 1), LaneCard.of(30, 2));
+		assertThat(lane.isRenumberingRecommended()).isTrue();
+
+		lane.addCardIdAtPosition(30, 1);
+
+		assertThat(lane.getCardIds()).containsExactly(10, 30, 20);
+		assertThat(lane.getChangedSeqNos()).isEqualTo(ImmutableMap.of(10, GAP, 30, 2 * GAP, 20, 3 * GAP));
+		assertThat(lane.isRenumberingRecommended()).isFalse();
+	}
+
+	@Test
+	public void renumberingRecommended_whenGapIsExhausted()
+	{
+		final LaneCardsSequence lane = lane(LaneCard.of(10, GAP), LaneCard.of(20, GAP + 2));
+		assertThat(lane.isRenumberingRecommended()).isFalse();
+
+		lane.addCardIdAtPosition(30, 1);
+
+		assertThat(lane.getChangedSeqNos()).isEqualTo(ImmutableMap.of(30, GAP + 1));
+		assertThat(lane.isRenumberingRecommended()).isTrue();
+	}
+}
@@ -0,0 +1,98 @@
+package de.metas.ui.web.document.filter.provider.fullTextSearch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.ui.web.document.filter.DocumentFilter;
+import de.metas.ui.web.document.filter.DocumentFilterParam;
+import de.metas.ui.web.document.filter.DocumentFilterParam.Operator;
+import de.metas.ui.web.document.filter.sql.SqlParamsCollector;
+import de.metas.ui.web.window.model.sql.SqlOptions;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class FullTextSearchSqlDocumentFilterConverterTest
+{
+	private InMemoryFullTextSearchIndex searchIndex;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		searchIndex = InMemoryFullTextSearchIndex.builder()
+				.record(1, ImmutableMap.of("Name", "Apple Juice", "Description", "fresh"))
+				.record(2, ImmutableMap.of("Name", "Orange-Juice", "Description", "fresh"))
+				.record(3, ImmutableMap.of("Name", "Pineapple"))
+				.build();
+	}
+
+	private String getSql(final String searchText)
+	{
+		final FullTextSearchFilterContext context = FullTextSearchFilterContext.builder()
+				.searchIndex(searchIndex)
+				.modelTableName("M_Product")
+				.build();
+
+		final DocumentFilter filter = DocumentFilter.builder()
+				.setFilterId(FullTextSearchSqlDocumentFilterConverter.FILTER_ID)
+				.addParameter(DocumentFilterParam.ofNameOperatorValue(FullTextSearchSqlDocumentFilterConverter.PARAM_SearchText, Operator.EQUAL, searchText))
+				.addInternalParameter(DocumentFilterParam.ofNameOperatorValue(FullTextSearchSqlDocumentFilterConverter.PARAM_Context, Operator.EQUAL, context))
+				.build();
+
+		return FullTextSearchSqlDocumentFilterConverter.instance.getSql(
+				SqlParamsCollector.newInstance(),
+				filter,
+				SqlOptions.usingTableAlias("master"),
+				null);
+	}
+
+	@Test
+	public void inMemoryIndex_findAllRecordIds()
+	{
+		assertThat(searchIndex.findAllRecordIds("juice")).containsOnly(1, 2);
+		assertThat(searchIndex.findAllRecordIds("APPLE")).containsOnly(1);
+		assertThat(searchIndex.findAllRecordIds("pineapple orange")).containsOnly(2, 3);
+		assertThat(searchIndex.findAllRecordIds("banana")).isEmpty();
+	}
+
+	@Test
+	public void getSql_noMatches()
+	{
+		assertThat(getSql("banana")).isEqualTo("1=0");
+	}
+
+	@Test
+	public void getSql_fewMatches_inlined()
+	{
+		final String sql = getSql("fresh");
+		assertThat(sql)
+				.contains("master.M_Product_ID")
+				.doesNotContain("T_Selection");
+	}
+}
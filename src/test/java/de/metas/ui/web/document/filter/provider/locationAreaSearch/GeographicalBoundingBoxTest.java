@@ -0,0 +1,78 @@
+package de.metas.ui.web.document.filter.provider.locationAreaSearch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import de.metas.ui.web.document.filter.sql.SqlParamsCollector;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class GeographicalBoundingBoxTest
+{
+	@Test
+	public void ofCenterAndDistance()
+	{
+		// Bonn
+		final GeographicalBoundingBox box = GeographicalBoundingBox.ofCenterAndDistance(50.7374, 7.0982, 20);
+
+		// one degree of latitude is ~111 km
+		assertThat(box.getMinLatitude()).isBetween(new BigDecimal("50.55"), new BigDecimal("50.56"));
+		assertThat(box.getMaxLatitude()).isBetween(new BigDecimal("50.91"), new BigDecimal("50.92"));
+
+		// one degree of longitude is ~70 km at this latitude
+		assertThat(box.getMinLongitude()).isBetween(new BigDecimal("6.80"), new BigDecimal("6.81"));
+		assertThat(box.getMaxLongitude()).isBetween(new BigDecimal("7.38"), new BigDecimal("7.39"));
+	}
+
+	@Test
+	public void ofCenterAndDistance_poleInside()
+	{
+		final GeographicalBoundingBox box = GeographicalBoundingBox.ofCenterAndDistance(89.9, 0, 100);
+
+		assertThat(box.getMaxLatitude()).isEqualByComparingTo("90");
+		assertThat(box.isAllLongitudes()).isTrue();
+	}
+
+	@Test
+	public void ofCenterAndDistance_crossingAntimeridian()
+	{
+		final GeographicalBoundingBox box = GeographicalBoundingBox.ofCenterAndDistance(-17.7, 179.9, 50);
+
+		assertThat(box.isAllLongitudes()).isTrue();
+	}
+
+	@Test
+	public void toSqlWhereClause()
+	{
+		final GeographicalBoundingBox box = GeographicalBoundingBox.ofCenterAndDistance(50.7374, 7.0982, 20);
+
+		final SqlParamsCollector sqlParams = SqlParamsCollector.newInstance();
+		assertThat(box.toSqlWhereClause(sqlParams, "l"))
+				.isEqualTo("l.Latitude BETWEEN ? AND ? AND l.Longitude BETWEEN ? AND ?");
+		assertThat(sqlParams.toList())
+				.containsExactly(box.getMinLatitude(), box.getMaxLatitude(), box.getMinLongitude(), box.getMaxLongitude());
+	}
+}
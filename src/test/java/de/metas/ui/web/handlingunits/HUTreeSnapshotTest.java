@@ -0,0 +1,177 @@
+package de.metas.ui.web.handlingunits;
+
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.model.I_C_UOM;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.handlingunits.HuId;
+import de.metas.handlingunits.model.I_M_HU;
+import de.metas.handlingunits.model.I_M_HU_Item;
+import de.metas.handlingunits.model.I_M_HU_Storage;
+import de.metas.handlingunits.model.X_M_HU_Item;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class HUTreeSnapshotTest
+{
+	private I_C_UOM uom;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		uom = newInstance(I_C_UOM.class);
+		uom.setUOMSymbol("Pc");
+		saveRecord(uom);
+	}
+
+	private static HuId huId(final I_M_HU hu)
+	{
+		return HuId.ofRepoId(hu.getM_HU_ID());
+	}
+
+	private I_M_HU createHU(final I_M_HU_Item parentItem)
+	{
+		final I_M_HU hu = newInstance(I_M_HU.class);
+		hu.setIsActive(true);
+		hu.setM_HU_Item_Parent_ID(parentItem != null ? parentItem.getM_HU_Item_ID() : -1);
+		saveRecord(hu);
+		return hu;
+	}
+
+	private I_M_HU_Item createItem(final I_M_HU hu, final String itemType)
+	{
+		final I_M_HU_Item item = newInstance(I_M_HU_Item.class);
+		item.setM_HU_ID(hu.getM_HU_ID());
+		item.setItemType(itemType);
+		saveRecord(item);
+		return item;
+	}
+
+	private I_M_HU_Storage createStorage(final I_M_HU hu, final int productId, final String qty)
+	{
+		final I_M_HU_Storage storage = newInstance(I_M_HU_Storage.class);
+		storage.setM_HU_ID(hu.getM_HU_ID());
+		storage.setM_Product_ID(productId);
+		storage.setC_UOM_ID(uom.getC_UOM_ID());
+		storage.setQty(new BigDecimal(qty));
+		saveRecord(storage);
+		return storage;
+	}
+
+	@Test
+	public void loadsTheWholeTree()
+	{
+		final I_M_HU lu = createHU(null);
+		final I_M_HU_Item luItem = createItem(lu, X_M_HU_Item.ITEMTYPE_HandlingUnit);
+		final I_M_HU tu = createHU(luItem);
+		final I_M_HU_Item tuItem = createItem(tu, X_M_HU_Item.ITEMTYPE_Material);
+		final I_M_HU vhu = createHU(tuItem);
+		final I_M_HU aggregatedTU = createHU(createItem(lu, X_M_HU_Item.ITEMTYPE_HUAggregate));
+
+		final HUTreeSnapshot snapshot = HUTreeSnapshot.load(ImmutableList.of(lu), false);
+
+		assertThat(snapshot.getAllHUIds()).containsExactly(huId(lu), huId(tu), huId(aggregatedTU), huId(vhu));
+		assertThat(snapshot.getIncludedHUs(huId(lu))).extracting(I_M_HU::getM_HU_ID).containsExactly(tu.getM_HU_ID(), aggregatedTU.getM_HU_ID());
+		assertThat(snapshot.getIncludedHUs(huId(tu))).extracting(I_M_HU::getM_HU_ID).containsExactly(vhu.getM_HU_ID());
+		assertThat(snapshot.getIncludedHUs(huId(vhu))).isEmpty();
+
+		assertThat(snapshot.isAggregatedHU(aggregatedTU)).isTrue();
+		assertThat(snapshot.isAggregatedHU(tu)).isFalse();
+	}
+
+	@Test
+	public void inactiveIncludedHUsAreNotLoaded()
+	{
+		final I_M_HU lu = createHU(null);
+		final I_M_HU tu = createHU(createItem(lu, X_M_HU_Item.ITEMTYPE_HandlingUnit));
+		tu.setIsActive(false);
+		saveRecord(tu);
+
+		final HUTreeSnapshot snapshot = HUTreeSnapshot.load(ImmutableList.of(lu), false);
+
+		assertThat(snapshot.getAllHUIds()).containsExactly(huId(lu));
+		assertThat(snapshot.getIncludedHUs(huId(lu))).isEmpty();
+	}
+
+	@Test
+	public void storagesIncludeTheEmptyOnes()
+	{
+		final I_M_HU vhu = createHU(null);
+		final I_M_HU_Storage storage1 = createStorage(vhu, 1, "10");
+		final I_M_HU_Storage storage2 = createStorage(vhu, 2, "0");
+
+		final HUTreeSnapshot snapshot = HUTreeSnapshot.load(ImmutableList.of(vhu), false);
+
+		assertThat(snapshot.getStorages(huId(vhu)))
+				.extracting(I_M_HU_Storage::getM_HU_Storage_ID)
+				.containsExactly(storage1.getM_HU_Storage_ID(), storage2.getM_HU_Storage_ID());
+		assertThat(snapshot.getUOM(storage1).getUOMSymbol()).isEqualTo("Pc");
+	}
+
+	@Test
+	public void singleProductStorage_ignoresEmptyStorages()
+	{
+		final I_M_HU vhu = createHU(null);
+		final I_M_HU_Storage storage = createStorage(vhu, 1, "10");
+		createStorage(vhu, 2, "0");
+
+		final HUTreeSnapshot snapshot = HUTreeSnapshot.load(ImmutableList.of(vhu), false);
+
+		assertThat(snapshot.getSingleProductStorageOrNull(huId(vhu)).getM_HU_Storage_ID()).isEqualTo(storage.getM_HU_Storage_ID());
+	}
+
+	@Test
+	public void singleProductStorage_nullIfMultipleProducts()
+	{
+		final I_M_HU vhu = createHU(null);
+		createStorage(vhu, 1, "10");
+		createStorage(vhu, 2, "5");
+
+		final HUTreeSnapshot snapshot = HUTreeSnapshot.load(ImmutableList.of(vhu), false);
+
+		assertThat(snapshot.getSingleProductStorageOrNull(huId(vhu))).isNull();
+	}
+
+	@Test
+	public void singleProductStorage_nullIfEmpty()
+	{
+		final I_M_HU vhu = createHU(null);
+		createStorage(vhu, 1, "0");
+
+		final HUTreeSnapshot snapshot = HUTreeSnapshot.load(ImmutableList.of(vhu), false);
+
+		assertThat(snapshot.getSingleProductStorageOrNull(huId(vhu))).isNull();
+		assertThat(snapshot.getBestBeforeDate(huId(vhu))).isNull();
+	}
+}
@@ -0,0 +1,139 @@
+package de.metas.ui.web.order.pricingconditions.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.adempiere.exceptions.DBException;
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.bpartner.BPartnerId;
+import de.metas.lang.SOTrx;
+import de.metas.product.ProductId;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class LastInOutDatesRepositoryTest
+{
+	private static final LocalDate DATE = LocalDate.of(2019, 5, 1);
+
+	private final List<List<LastInOutDateRequest>> loadedRequests = new ArrayList<>();
+	private boolean failLoading = false;
+
+	private LastInOutDatesRepository repository;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		repository = new LastInOutDatesRepository(this::load);
+	}
+
+	/** simulates the database: there are shipments/receipts only for bpartner 1 */
+	private Map<LastInOutDateRequest, Optional<LocalDate>> load(final List<LastInOutDateRequest> requests)
+	{
+		loadedRequests.add(ImmutableList.copyOf(requests));
+		if (failLoading)
+		{
+			throw new DBException("failed");
+		}
+
+		final ImmutableMap.Builder<LastInOutDateRequest, Optional<LocalDate>> result = ImmutableMap.builder();
+		requests.forEach(request -> result.put(request, request.getBpartnerId().getRepoId() == 1 ? Optional.of(DATE) : Optional.empty()));
+		return result.build();
+	}
+
+	private static LastInOutDateRequest request(final int bpartnerId, final int productId)
+	{
+		return LastInOutDateRequest.builder()
+				.bpartnerId(BPartnerId.ofRepoId(bpartnerId))
+				.productId(ProductId.ofRepoId(productId))
+				.soTrx(SOTrx.SALES)
+				.build();
+	}
+
+	@Test
+	public void noRequests()
+	{
+		assertThat(repository.getLastInOutDates(ImmutableList.of())).isEmpty();
+		assertThat(loadedRequests).isEmpty();
+	}
+
+	@Test
+	public void cachedResultsAreNotLoadedAgain()
+	{
+		final Map<LastInOutDateRequest, Optional<LocalDate>> result1 = repository.getLastInOutDates(ImmutableList.of(request(1, 10), request(2, 10)));
+		assertThat(result1).containsOnly(
+				expected(request(1, 10), Optional.of(DATE)),
+				expected(request(2, 10), Optional.empty()));
+
+		final Map<LastInOutDateRequest, Optional<LocalDate>> result2 = repository.getLastInOutDates(ImmutableList.of(request(1, 10), request(2, 10), request(1, 20)));
+		assertThat(result2).containsOnly(
+				expected(request(1, 10), Optional.of(DATE)),
+				expected(request(2, 10), Optional.empty()),
+				expected(request(1, 20), Optional.of(DATE)));
+
+		// the pairs without any shipment/receipt are cached too
+		assertThat(loadedRequests).containsExactly(
+				ImmutableList.of(request(1, 10), request(2, 10)),
+				ImmutableList.of(request(1, 20)));
+	}
+
+	@Test
+	public void duplicateRequestsAreLoadedOnce()
+	{
+		repository.getLastInOutDates(ImmutableList.of(request(1, 10), request(1, 10)));
+
+		assertThat(loadedRequests).containsExactly(ImmutableList.of(request(1, 10)));
+	}
+
+	@Test
+	public void loadingFailure_isSkippedAndNotCached()
+	{
+		failLoading = true;
+		final Map<LastInOutDateRequest, Optional<LocalDate>> result1 = repository.getLastInOutDates(ImmutableList.of(request(1, 10)));
+		assertThat(result1).containsOnly(expected(request(1, 10), Optional.empty()));
+
+		failLoading = false;
+		final Map<LastInOutDateRequest, Optional<LocalDate>> result2 = repository.getLastInOutDates(ImmutableList.of(request(1, 10)));
+		assertThat(result2).containsOnly(expected(request(1, 10), Optional.of(DATE)));
+
+		assertThat(loadedRequests).hasSize(2);
+	}
+
+	private static Map.Entry<LastInOutDateRequest, Optional<LocalDate>> expected(final LastInOutDateRequest request, final Optional<LocalDate> date)
+	{
+		return entry(request, date);
+	}
+}
@@ -0,0 +1,133 @@
+package de.metas.ui.web.order.products_proposal.model;
+
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.adempiere.mm.attributes.AttributeSetInstanceId;
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.model.I_M_ProductPrice;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.currency.CurrencyCode;
+import de.metas.product.ProductId;
+import de.metas.ui.web.window.datatypes.LookupValue.IntegerLookupValue;
+import de.metas.ui.web.window.datatypes.LookupValuesList;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ProductPricesSnapshotTest
+{
+	private static final ProductId PRODUCT_ID_Banana = ProductId.ofRepoId(1);
+	private static final ProductId PRODUCT_ID_Apple = ProductId.ofRepoId(2);
+	private static final ProductId PRODUCT_ID_NotFound = ProductId.ofRepoId(3);
+
+	private static final LookupValuesList PRODUCTS = LookupValuesList.fromCollection(ImmutableList.of(
+			IntegerLookupValue.of(PRODUCT_ID_Banana.getRepoId(), "Banana"),
+			IntegerLookupValue.of(PRODUCT_ID_Apple.getRepoId(), "Apple")));
+
+	private List<AttributeSetInstanceId> asiDescriptionRequests;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+		asiDescriptionRequests = new ArrayList<>();
+	}
+
+	private static I_M_ProductPrice productPrice(final ProductId productId, final int asiId, final String priceStd)
+	{
+		final I_M_ProductPrice record = newInstance(I_M_ProductPrice.class);
+		record.setM_Product_ID(productId.getRepoId());
+		record.setM_AttributeSetInstance_ID(asiId);
+		record.setPriceStd(new BigDecimal(priceStd));
+		saveRecord(record);
+		return record;
+	}
+
+	private ProductPricesSnapshot snapshot(final I_M_ProductPrice... records)
+	{
+		return ProductPricesSnapshot.of(
+				ImmutableList.copyOf(records),
+				PRODUCTS,
+				CurrencyCode.EUR,
+				asiId -> {
+					asiDescriptionRequests.add(asiId);
+					return AttributeSetInstanceId.NONE.equals(asiId) ? "" : "ASI " + asiId.getRepoId();
+				});
+	}
+
+	@Test
+	public void entriesAreSortedByProductName()
+	{
+		final ProductPricesSnapshot snapshot = snapshot(
+				productPrice(PRODUCT_ID_Banana, 0, "2"),
+				productPrice(PRODUCT_ID_Apple, 0, "3"));
+
+		assertThat(snapshot.getEntries())
+				.extracting(ProductPricesSnapshot.Entry::getProductId)
+				.containsExactly(PRODUCT_ID_Apple, PRODUCT_ID_Banana);
+		assertThat(snapshot.getEntries())
+				.extracting(entry -> entry.getPriceListPrice().getAsBigDecimal())
+				.containsExactly(new BigDecimal("3"), new BigDecimal("2"));
+	}
+
+	@Test
+	public void productPricesWithoutProductAreSkipped()
+	{
+		final ProductPricesSnapshot snapshot = snapshot(
+				productPrice(PRODUCT_ID_NotFound, 0, "1"),
+				productPrice(PRODUCT_ID_Banana, 0, "2"));
+
+		assertThat(snapshot.getEntries())
+				.extracting(ProductPricesSnapshot.Entry::getProductId)
+				.containsExactly(PRODUCT_ID_Banana);
+	}
+
+	@Test
+	public void asiDescriptionIsResolvedOncePerASI()
+	{
+		final ProductPricesSnapshot snapshot = snapshot(
+				productPrice(PRODUCT_ID_Banana, 10, "2"),
+				productPrice(PRODUCT_ID_Apple, 10, "3"),
+				productPrice(PRODUCT_ID_Apple, 0, "4"));
+
+		assertThat(asiDescriptionRequests).containsExactlyInAnyOrder(AttributeSetInstanceId.ofRepoId(10), AttributeSetInstanceId.NONE);
+		assertThat(snapshot.getEntries())
+				.extracting(entry -> entry.getAsiDescription().toString())
+				.containsExactlyInAnyOrder("ASI 10", "ASI 10", "");
+	}
+
+	@Test
+	public void noProductPrices()
+	{
+		assertThat(snapshot().getEntries()).isEmpty();
+	}
+}
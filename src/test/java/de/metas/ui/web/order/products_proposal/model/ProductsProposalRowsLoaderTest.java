@@ -0,0 +1,162 @@
+package de.metas.ui.web.order.products_proposal.model;
+
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.model.I_M_ProductPrice;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.bpartner.BPartnerId;
+import de.metas.bpartner.product.stats.BPartnerProductStats;
+import de.metas.bpartner.product.stats.BPartnerProductStatsService;
+import de.metas.currency.Amount;
+import de.metas.currency.CurrencyCode;
+import de.metas.lang.SOTrx;
+import de.metas.pricing.PriceListVersionId;
+import de.metas.product.ProductId;
+import de.metas.ui.web.window.datatypes.LookupValue.IntegerLookupValue;
+import de.metas.ui.web.window.datatypes.LookupValuesList;
+import mockit.Expectations;
+import mockit.Mocked;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ProductsProposalRowsLoaderTest
+{
+	private static final ProductId PRODUCT_ID_Banana = ProductId.ofRepoId(1);
+	private static final ProductId PRODUCT_ID_Cherry = ProductId.ofRepoId(2);
+	private static final ProductId PRODUCT_ID_Apple = ProductId.ofRepoId(3);
+
+	private static final LookupValuesList PRODUCTS = LookupValuesList.fromCollection(ImmutableList.of(
+			IntegerLookupValue.of(PRODUCT_ID_Banana.getRepoId(), "Banana"),
+			IntegerLookupValue.of(PRODUCT_ID_Cherry.getRepoId(), "Cherry"),
+			IntegerLookupValue.of(PRODUCT_ID_Apple.getRepoId(), "Apple")));
+
+	@Mocked
+	private BPartnerProductStatsService bpartnerProductStatsService;
+	@Mocked
+	private BPartnerProductStats bananaStats;
+
+	private List<ProductId> campaignPriceRequests;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+		campaignPriceRequests = new ArrayList<>();
+	}
+
+	private static ProductPricesSnapshot snapshot(final I_M_ProductPrice... records)
+	{
+		return ProductPricesSnapshot.of(ImmutableList.copyOf(records), PRODUCTS, CurrencyCode.EUR, asiId -> "");
+	}
+
+	private static I_M_ProductPrice productPrice(final ProductId productId, final String priceStd)
+	{
+		final I_M_ProductPrice record = newInstance(I_M_ProductPrice.class);
+		record.setM_Product_ID(productId.getRepoId());
+		record.setPriceStd(new BigDecimal(priceStd));
+		saveRecord(record);
+		return record;
+	}
+
+	private ProductsProposalRowsLoader newLoader(final Set<ProductId> productIdsToExclude)
+	{
+		return ProductsProposalRowsLoader.builder()
+				.bpartnerProductStatsService(bpartnerProductStatsService)
+				.campaignPriceProvider(productId -> {
+					campaignPriceRequests.add(productId);
+					return PRODUCT_ID_Banana.equals(productId)
+							? Optional.of(ProductProposalCampaignPrice.builder().amount(Amount.of(new BigDecimal("5"), CurrencyCode.EUR)).build())
+							: Optional.empty();
+				})
+				.priceListVersionId(PriceListVersionId.ofRepoId(1))
+				.priceListVersionId(PriceListVersionId.ofRepoId(2))
+				.bpartnerId(BPartnerId.ofRepoId(1))
+				.soTrx(SOTrx.SALES)
+				.productIdsToExclude(productIdsToExclude)
+				.build();
+	}
+
+	@Test
+	public void createRows()
+	{
+		// @formatter:off
+		new Expectations()
+		{{
+			bpartnerProductStatsService.getByPartnerAndProducts((BPartnerId)any, (Set<ProductId>)any);
+			result = ImmutableMap.of(PRODUCT_ID_Banana, bananaStats);
+
+			bananaStats.getLastShipmentInDays();
+			result = 3;
+		}};
+		// @formatter:on
+
+		final ProductPricesSnapshot snapshot1 = snapshot(productPrice(PRODUCT_ID_Banana, "10"), productPrice(PRODUCT_ID_Cherry, "20"));
+		final ProductPricesSnapshot snapshot2 = snapshot(productPrice(PRODUCT_ID_Apple, "30"), productPrice(PRODUCT_ID_Banana, "11"));
+
+		final List<ProductsProposalRow> rows = newLoader(ImmutableSet.of(PRODUCT_ID_Cherry))
+				.createRows(ImmutableList.of(snapshot1, snapshot2));
+
+		// the entries of both snapshots are merged, without the excluded product and sorted by product name
+		assertThat(rows).extracting(row -> row.getProduct().getIdAsInt())
+				.containsExactly(PRODUCT_ID_Apple.getRepoId(), PRODUCT_ID_Banana.getRepoId(), PRODUCT_ID_Banana.getRepoId());
+		assertThat(rows).extracting(ProductsProposalRow::getId).doesNotHaveDuplicates();
+
+		// the view specific data is added on top of the shared entries
+		assertThat(rows).extracting(row -> row.getPrice().getUserEnteredPriceValue())
+				.containsExactly(new BigDecimal("30"), new BigDecimal("5"), new BigDecimal("5"));
+		assertThat(rows).extracting(ProductsProposalRow::getLastShipmentDays)
+				.containsExactly(null, 3, 3);
+
+		// campaign prices are resolved once per product
+		assertThat(campaignPriceRequests).containsExactlyInAnyOrder(PRODUCT_ID_Apple, PRODUCT_ID_Banana);
+	}
+
+	@Test
+	public void createRows_sharedSnapshotIsNotChanged()
+	{
+		final ProductPricesSnapshot snapshot = snapshot(productPrice(PRODUCT_ID_Banana, "10"), productPrice(PRODUCT_ID_Cherry, "20"));
+
+		assertThat(newLoader(ImmutableSet.of(PRODUCT_ID_Banana)).createRows(ImmutableList.of(snapshot)))
+				.extracting(row -> row.getProduct().getIdAsInt())
+				.containsExactly(PRODUCT_ID_Cherry.getRepoId());
+		assertThat(newLoader(ImmutableSet.of()).createRows(ImmutableList.of(snapshot)))
+				.extracting(row -> row.getProduct().getIdAsInt())
+				.containsExactly(PRODUCT_ID_Banana.getRepoId(), PRODUCT_ID_Cherry.getRepoId());
+		assertThat(snapshot.getEntries()).hasSize(2);
+	}
+}
@@ -11,12 +11,14 @@ import org.compiere.model.I_C_UOM;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ListMultimap;
 
 import de.metas.handlingunits.HuId;
 import de.metas.handlingunits.model.I_M_HU;
 import de.metas.handlingunits.model.X_M_HU;
 import de.metas.handlingunits.picking.PickingCandidate;
+import de.metas.handlingunits.picking.PickingCandidateId;
 import de.metas.handlingunits.picking.PickingCandidateRepository;
 import de.metas.handlingunits.picking.PickingCandidateStatus;
 import de.metas.handlingunits.picking.PickingCandidatesQuery;
@@ -166,11 +168,11 @@ public class PickingHUsRepositoryTests
 		final PickingHURowsRepository pickingHUsRepository = new PickingHURowsRepository(
 				() -> huEditorViewRepository,
 				new PickingCandidateRepository());
-		final ListMultimap<PickingSlotId, PickedHUEditorRow> result = pickingHUsRepository.retrievePickedHUsIndexedByPickingSlotId(
-				PickingCandidatesQuery.builder()
-						.shipmentScheduleId(M_SHIPMENT_SCHEDULE_ID)
-						.onlyNotClosedOrNotRackSystem(true)
-						.build());
+		final PickingCandidatesQuery pickingCandidatesQuery = PickingCandidatesQuery.builder()
+				.shipmentScheduleId(M_SHIPMENT_SCHEDULE_ID)
+				.onlyNotClosedOrNotRackSystem(true)
+				.build();
+		final ListMultimap<PickingSlotId, PickedHUEditorRow> result = pickingHUsRepository.retrievePickedHUsIndexedByPickingSlotId(pickingCandidatesQuery);
 
 		if (expectNoRows)
 		{
@@ -185,7 +187,8 @@ public class PickingHUsRepositoryTests
 			final boolean expectedProcessed = !PickingCandidateStatus.Draft.equals(pickingCandidateStatus);
 
 			final PickedHUEditorRow resultRow = result.get(pickingSlotId).get(0);
-			final PickedHUEditorRow expectedRow = new PickedHUEditorRow(huEditorRow, expectedProcessed);
+			final PickingCandidateId expectedPickingCandidateId = pickingCandidatesRepo.query(pickingCandidatesQuery).get(0).getId();
+			final PickedHUEditorRow expectedRow = new PickedHUEditorRow(huEditorRow, expectedProcessed, ImmutableSet.of(expectedPickingCandidateId));
 			assertThat(resultRow).isEqualTo(expectedRow);
 		}
 	}
@@ -0,0 +1,194 @@
+package de.metas.ui.web.picking.pickingslot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.handlingunits.HuId;
+import de.metas.handlingunits.picking.PickingCandidateId;
+import de.metas.picking.api.PickingSlotId;
+import de.metas.ui.web.picking.pickingslot.PickingSlotRowsCollection.PatchRowsResult;
+import de.metas.ui.web.handlingunits.HUEditorRowType;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class PickingSlotRowsCollectionTest
+{
+	private static final PickingSlotId PICKING_SLOT_ID_1 = PickingSlotId.ofRepoId(1);
+	private static final PickingSlotId PICKING_SLOT_ID_2 = PickingSlotId.ofRepoId(2);
+
+	private static final PickingSlotRowId ROW_ID_PickingSlot1 = PickingSlotRowId.ofPickingSlotId(PICKING_SLOT_ID_1);
+	private static final PickingSlotRowId ROW_ID_PickingSlot2 = PickingSlotRowId.ofPickingSlotId(PICKING_SLOT_ID_2);
+	private static final PickingSlotRowId ROW_ID_SourceHU = PickingSlotRowId.ofSourceHU(HuId.ofRepoId(300));
+
+	private PickingSlotRowsCollection rows;
+
+	@Before
+	public void init()
+	{
+		rows = PickingSlotRowsCollection.ofSupplier(() -> ImmutableList.of(
+				pickingSlotRow(PICKING_SLOT_ID_1, pickedHURow(PICKING_SLOT_ID_1, 100, ImmutableSet.of(1, 2), pickedHURow(PICKING_SLOT_ID_1, 101, ImmutableSet.of()))),
+				pickingSlotRow(PICKING_SLOT_ID_2, pickedHURow(PICKING_SLOT_ID_2, 200, ImmutableSet.of(3))),
+				sourceHURow(300)));
+	}
+
+	private static PickingSlotRow pickingSlotRow(final PickingSlotId pickingSlotId, final PickingSlotRow... pickedHURows)
+	{
+		return PickingSlotRow.fromPickingSlotBuilder()
+				.pickingSlotId(pickingSlotId)
+				.includedHURows(ImmutableList.copyOf(pickedHURows))
+				.build();
+	}
+
+	private static PickingSlotRow pickedHURow(
+			final PickingSlotId pickingSlotId,
+			final int huId,
+			final ImmutableSet<Integer> pickingCandidateIds,
+			final PickingSlotRow... includedHURows)
+	{
+		return PickingSlotRow.fromPickedHUBuilder()
+				.pickingSlotId(pickingSlotId)
+				.huId(HuId.ofRepoId(huId))
+				.huEditorRowType(HUEditorRowType.TU)
+				.pickingCandidateIds(pickingCandidateIds.stream().map(PickingCandidateId::ofRepoId).collect(ImmutableSet.toImmutableSet()))
+				.includedHURows(ImmutableList.copyOf(includedHURows))
+				.build();
+	}
+
+	private static PickingSlotRow sourceHURow(final int huId)
+	{
+		return PickingSlotRow.fromSourceHUBuilder()
+				.huId(HuId.ofRepoId(huId))
+				.huEditorRowType(HUEditorRowType.LU)
+				.build();
+	}
+
+	private static List<PickingCandidateId> pickingCandidateIds(final int... repoIds)
+	{
+		return Arrays.stream(repoIds).mapToObj(PickingCandidateId::ofRepoId).collect(ImmutableList.toImmutableList());
+	}
+
+	private static List<HuId> huIds(final int... repoIds)
+	{
+		return Arrays.stream(repoIds).mapToObj(HuId::ofRepoId).collect(ImmutableList.toImmutableList());
+	}
+
+	@Test
+	public void getRootRowIdsByPickingCandidateIds()
+	{
+		assertThat(rows.getRootRowIdsByPickingCandidateIds(pickingCandidateIds(1))).containsOnly(ROW_ID_PickingSlot1);
+		assertThat(rows.getRootRowIdsByPickingCandidateIds(pickingCandidateIds(2, 3))).containsOnly(ROW_ID_PickingSlot1, ROW_ID_PickingSlot2);
+		assertThat(rows.getRootRowIdsByPickingCandidateIds(pickingCandidateIds(99))).isEmpty();
+		assertThat(rows.getRootRowIdsByPickingCandidateIds(pickingCandidateIds())).isEmpty();
+	}
+
+	@Test
+	public void getRootRowIdsByHUIds()
+	{
+		assertThat(rows.getRootRowIdsByHUIds(huIds(100))).containsOnly(ROW_ID_PickingSlot1);
+		assertThat(rows.getRootRowIdsByHUIds(huIds(101))).containsOnly(ROW_ID_PickingSlot1); // included HU
+		assertThat(rows.getRootRowIdsByHUIds(huIds(200, 300))).containsOnly(ROW_ID_PickingSlot2, ROW_ID_SourceHU);
+		assertThat(rows.getRootRowIdsByHUIds(huIds(999))).isEmpty();
+	}
+
+	@Test
+	public void patchRows_reindexesThePickingCandidates()
+	{
+		// the HU was unpicked from picking slot 1 and picked again into picking slot 2
+		rows.getRootRowIdsByPickingCandidateIds(pickingCandidateIds(1)); // make sure the rows are loaded
+		final PatchRowsResult patchResult = rows.patchRows(
+				ImmutableSet.of(PICKING_SLOT_ID_1, PICKING_SLOT_ID_2),
+				() -> ImmutableList.of(
+						pickingSlotRow(PICKING_SLOT_ID_1),
+						pickingSlotRow(PICKING_SLOT_ID_2, pickedHURow(PICKING_SLOT_ID_2, 200, ImmutableSet.of(3)), pickedHURow(PICKING_SLOT_ID_2, 100, ImmutableSet.of(4)))),
+				null);
+		assertThat(patchResult.isAllInvalidated()).isFalse();
+		final ImmutableSet<PickingSlotRowId> changedRowIds = patchResult.getChangedRowIds();
+
+		assertThat(changedRowIds).containsOnly(ROW_ID_PickingSlot1, ROW_ID_PickingSlot2);
+		assertThat(rows.size()).isEqualTo(3);
+
+		assertThat(rows.getRootRowIdsByPickingCandidateIds(pickingCandidateIds(1))).isEmpty();
+		assertThat(rows.getRootRowIdsByPickingCandidateIds(pickingCandidateIds(4))).containsOnly(ROW_ID_PickingSlot2);
+		assertThat(rows.getRootRowIdsByHUIds(huIds(100))).containsOnly(ROW_ID_PickingSlot2);
+		assertThat(rows.getRootRowIdsByHUIds(huIds(300))).containsOnly(ROW_ID_SourceHU);
+	}
+
+	@Test
+	public void patchRows_notLoaded()
+	{
+		assertThat(rows.isLoaded()).isFalse();
+		final PatchRowsResult patchResult = rows.patchRows(ImmutableSet.of(PICKING_SLOT_ID_1), () -> ImmutableList.of(), null);
+		assertThat(patchResult.isAllInvalidated()).isFalse();
+		assertThat(patchResult.getChangedRowIds()).isEmpty();
+		assertThat(rows.isLoaded()).isFalse();
+	}
+
+	@Test
+	public void patchRows_rowsInvalidatedWhileLoading()
+	{
+		rows.size(); // make sure the rows are loaded
+
+		final PatchRowsResult patchResult = rows.patchRows(
+				ImmutableSet.of(PICKING_SLOT_ID_1),
+				() -> {
+					// another thread invalidates and reloads the rows meanwhile
+					rows.invalidateAll();
+					rows.size();
+					return ImmutableList.of();
+				},
+				null);
+
+		assertThat(patchResult.isAllInvalidated()).isTrue();
+		assertThat(rows.isLoaded()).isFalse();
+
+		// reloaded from supplier; the picking slot 1 was not removed by the stale patch
+		assertThat(rows.size()).isEqualTo(3);
+		assertThat(rows.containsPickingSlot(PICKING_SLOT_ID_1)).isTrue();
+	}
+
+	@Test
+	public void patchRows_rowsPatchedWhileLoading()
+	{
+		rows.size(); // make sure the rows are loaded
+
+		final PatchRowsResult patchResult = rows.patchRows(
+				ImmutableSet.of(PICKING_SLOT_ID_1),
+				() -> {
+					// another thread patches the rows meanwhile
+					rows.patchRows(ImmutableSet.of(PICKING_SLOT_ID_2), () -> ImmutableList.of(pickingSlotRow(PICKING_SLOT_ID_2)), null);
+					return ImmutableList.of();
+				},
+				null);
+
+		assertThat(patchResult.isAllInvalidated()).isTrue();
+		assertThat(rows.isLoaded()).isFalse();
+	}
+}
@@ -0,0 +1,290 @@
+package de.metas.ui.web.pporder;
+
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.save;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.adempiere.util.lang.impl.TableRecordReferenceSet;
+import org.compiere.model.I_C_UOM;
+import org.compiere.model.I_M_Product;
+import org.eevolution.model.I_PP_Order;
+import org.eevolution.model.I_PP_Order_BOMLine;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.handlingunits.HuId;
+import de.metas.handlingunits.model.I_M_HU;
+import de.metas.handlingunits.model.I_PP_Order_Qty;
+import de.metas.handlingunits.model.X_M_HU;
+import de.metas.handlingunits.pporder.api.PPOrderPlanningStatus;
+import de.metas.i18n.TranslatableStrings;
+import de.metas.material.planning.pporder.PPOrderId;
+import de.metas.quantity.Quantity;
+import de.metas.ui.web.pporder.PPOrderLinesViewData.ChangedRecordsMapping;
+import de.metas.ui.web.view.IViewRowAttributesProvider;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.json.JSONLookupValue;
+import mockit.Mocked;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class PPOrderLinesViewDataTest
+{
+	@Mocked
+	private IViewRowAttributesProvider attributesProvider;
+
+	private I_C_UOM uom;
+
+	private I_PP_Order ppOrder;
+	private PPOrderId ppOrderId;
+	private I_PP_Order_Qty mainProductPPOrderQty;
+	private I_PP_Order_BOMLine bomLine;
+	private I_PP_Order_Qty bomLinePPOrderQty;
+
+	private PPOrderLineRowId mainProductRowId;
+	private PPOrderLineRowId bomLineRowId;
+	private PPOrderLineRowId sourceHURowId;
+
+	private PPOrderLinesViewData data;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		uom = newInstance(I_C_UOM.class);
+		uom.setUOMSymbol("Ea");
+		save(uom);
+
+		final I_M_Product product = newInstance(I_M_Product.class);
+		product.setValue("product");
+		product.setName("product");
+		product.setC_UOM_ID(uom.getC_UOM_ID());
+		save(product);
+
+		ppOrder = newInstance(I_PP_Order.class);
+		ppOrder.setM_Product_ID(product.getM_Product_ID());
+		ppOrder.setC_UOM_ID(uom.getC_UOM_ID());
+		save(ppOrder);
+		ppOrderId = PPOrderId.ofRepoId(ppOrder.getPP_Order_ID());
+
+		bomLine = newInstance(I_PP_Order_BOMLine.class);
+		bomLine.setPP_Order_ID(ppOrder.getPP_Order_ID());
+		save(bomLine);
+
+		mainProductPPOrderQty = createPPOrderQty(ppOrder, null, 100);
+		bomLinePPOrderQty = createPPOrderQty(ppOrder, bomLine, 200);
+
+		final PPOrderLineRow mainProductRow = PPOrderLineRow.builderForPPOrder()
+				.ppOrder(ppOrder)
+				.processed(false)
+				.attributesProvider(attributesProvider)
+				.includedRows(ImmutableList.of(huRow(mainProductPPOrderQty)))
+				.build();
+		mainProductRowId = mainProductRow.getRowId();
+
+		final PPOrderLineRow bomLineRow = bomLineRow(huRow(bomLinePPOrderQty));
+		bomLineRowId = bomLineRow.getRowId();
+
+		final PPOrderLineRow sourceHURow = sourceHURow(300);
+		sourceHURowId = sourceHURow.getRowId();
+
+		data = new PPOrderLinesViewData(
+				TranslatableStrings.constant("description"),
+				PPOrderPlanningStatus.PLANNING,
+				ImmutableList.of(mainProductRow, bomLineRow, sourceHURow));
+	}
+
+	private I_PP_Order_Qty createPPOrderQty(final I_PP_Order ppOrder, final I_PP_Order_BOMLine ppOrderBOMLine, final int huId)
+	{
+		final I_PP_Order_Qty ppOrderQty = newInstance(I_PP_Order_Qty.class);
+		ppOrderQty.setPP_Order_ID(ppOrder.getPP_Order_ID());
+		if (ppOrderBOMLine != null)
+		{
+			ppOrderQty.setPP_Order_BOMLine_ID(ppOrderBOMLine.getPP_Order_BOMLine_ID());
+		}
+		ppOrderQty.setM_HU_ID(huId);
+		save(ppOrderQty);
+		return ppOrderQty;
+	}
+
+	private PPOrderLineRow bomLineRow(final PPOrderLineRow... includedRows)
+	{
+		return PPOrderLineRow.builderForPPOrderBomLine()
+				.ppOrderBomLine(bomLine)
+				.type(PPOrderLineType.BOMLine_Component)
+				.processed(false)
+				.qtyPlan(BigDecimal.TEN)
+				.attributesProvider(attributesProvider)
+				.includedRows(ImmutableList.copyOf(includedRows))
+				.build();
+	}
+
+	private PPOrderLineRow huRow(final I_PP_Order_Qty ppOrderQty)
+	{
+		final HuId huId = HuId.ofRepoId(ppOrderQty.getM_HU_ID());
+		return PPOrderLineRow.builderForIssuedOrReceivedHU()
+				.rowId(PPOrderLineRowId.ofIssuedOrReceivedHU(null, huId))
+				.type(PPOrderLineType.HU_TU)
+				.ppOrderQty(ppOrderQty)
+				.processed(false)
+				.code("hu" + huId.getRepoId())
+				.packingInfo("packingInfo")
+				.quantity(new Quantity(BigDecimal.ONE, uom))
+				.includedRows(ImmutableList.of())
+				.topLevelHU(true)
+				.huStatus(JSONLookupValue.of(X_M_HU.HUSTATUS_Active, "Active"))
+				.build();
+	}
+
+	private static PPOrderLineRow sourceHURow(final int huId)
+	{
+		return PPOrderLineRow.builderForSourceHU()
+				.rowId(PPOrderLineRowId.ofSourceHU(DocumentId.of(huId), HuId.ofRepoId(huId)))
+				.type(PPOrderLineType.HU_LU)
+				.huId(HuId.ofRepoId(huId))
+				.code("hu" + huId)
+				.product(JSONLookupValue.of(1, "product"))
+				.packingInfo("packingInfo")
+				.uom(JSONLookupValue.of(1, "uom"))
+				.qty(BigDecimal.ONE)
+				.topLevelHU(true)
+				.huStatus(JSONLookupValue.of(X_M_HU.HUSTATUS_Active, "Active"))
+				.build();
+	}
+
+	private ChangedRecordsMapping mapChangedRecord(final String tableName, final int recordId)
+	{
+		return data.mapChangedRecords(ppOrderId, TableRecordReferenceSet.of(tableName, recordId));
+	}
+
+	private static List<PPOrderLineRowId> rowIds(final PPOrderLinesViewData data)
+	{
+		return data.stream().map(PPOrderLineRow::getRowId).collect(Collectors.toList());
+	}
+
+	@Test
+	public void mapChangedRecords_PPOrder()
+	{
+		assertThat(mapChangedRecord(I_PP_Order.Table_Name, ppOrderId.getRepoId()).isPpOrderChanged()).isTrue();
+
+		final ChangedRecordsMapping otherPPOrder = mapChangedRecord(I_PP_Order.Table_Name, ppOrderId.getRepoId() + 1000);
+		assertThat(otherPPOrder.isPpOrderChanged()).isFalse();
+		assertThat(otherPPOrder.getTopLevelRowIds()).isEmpty();
+	}
+
+	@Test
+	public void mapChangedRecords_BOMLine()
+	{
+		final ChangedRecordsMapping knownBOMLine = mapChangedRecord(I_PP_Order_BOMLine.Table_Name, bomLine.getPP_Order_BOMLine_ID());
+		assertThat(knownBOMLine.getTopLevelRowIds()).containsOnly(bomLineRowId);
+		assertThat(knownBOMLine.getNotLoadedPPOrderBOMLineIds()).isEmpty();
+
+		final ChangedRecordsMapping newBOMLine = mapChangedRecord(I_PP_Order_BOMLine.Table_Name, 999);
+		assertThat(newBOMLine.getTopLevelRowIds()).isEmpty();
+		assertThat(newBOMLine.getNotLoadedPPOrderBOMLineIds()).containsOnly(999);
+	}
+
+	@Test
+	public void mapChangedRecords_knownPPOrderQty()
+	{
+		final ChangedRecordsMapping bomLineQty = mapChangedRecord(I_PP_Order_Qty.Table_Name, bomLinePPOrderQty.getPP_Order_Qty_ID());
+		assertThat(bomLineQty.getTopLevelRowIds()).containsOnly(bomLineRowId);
+		assertThat(bomLineQty.getNotLoadedPPOrderQtyIds()).isEmpty();
+
+		final ChangedRecordsMapping mainProductQty = mapChangedRecord(I_PP_Order_Qty.Table_Name, mainProductPPOrderQty.getPP_Order_Qty_ID());
+		assertThat(mainProductQty.getTopLevelRowIds()).containsOnly(mainProductRowId);
+	}
+
+	@Test
+	public void mapChangedRecords_newPPOrderQty()
+	{
+		final ChangedRecordsMapping newQty = mapChangedRecord(I_PP_Order_Qty.Table_Name, 999);
+		assertThat(newQty.getTopLevelRowIds()).isEmpty();
+		assertThat(newQty.getNotLoadedPPOrderQtyIds()).containsOnly(999);
+	}
+
+	@Test
+	public void mapChangedRecords_HU()
+	{
+		final ChangedRecordsMapping issuedHU = mapChangedRecord(I_M_HU.Table_Name, 200);
+		assertThat(issuedHU.getTopLevelRowIds()).containsOnly(bomLineRowId);
+		assertThat(issuedHU.isSourceHURowsChanged()).isFalse();
+
+		final ChangedRecordsMapping sourceHU = mapChangedRecord(I_M_HU.Table_Name, 300);
+		assertThat(sourceHU.getTopLevelRowIds()).containsOnly(sourceHURowId);
+		assertThat(sourceHU.isSourceHURowsChanged()).isTrue();
+
+		final ChangedRecordsMapping unknownHU = mapChangedRecord(I_M_HU.Table_Name, 999);
+		assertThat(unknownHU.getTopLevelRowIds()).isEmpty();
+		assertThat(unknownHU.getNotLoadedHUIds()).containsOnly(HuId.ofRepoId(999));
+	}
+
+	@Test
+	public void withChangedTopLevelRows_replacesRowAndKeepsOrder()
+	{
+		final I_PP_Order_Qty newPPOrderQty = createPPOrderQty(ppOrder, bomLine, 201);
+		final PPOrderLinesViewData newData = data.withChangedTopLevelRows(ImmutableMap.of(bomLineRowId, bomLineRow(huRow(bomLinePPOrderQty), huRow(newPPOrderQty))));
+
+		assertThat(rowIds(newData)).containsExactly(mainProductRowId, bomLineRowId, sourceHURowId);
+		assertThat(newData.getById(bomLineRowId).getIncludedRows()).hasSize(2);
+		assertThat(newData.mapChangedRecords(ppOrderId, TableRecordReferenceSet.of(I_PP_Order_Qty.Table_Name, newPPOrderQty.getPP_Order_Qty_ID())).getTopLevelRowIds())
+				.containsOnly(bomLineRowId);
+	}
+
+	@Test
+	public void withChangedTopLevelRows_removesRow()
+	{
+		final Map<PPOrderLineRowId, PPOrderLineRow> changedRows = new HashMap<>();
+		changedRows.put(bomLineRowId, null);
+		final PPOrderLinesViewData newData = data.withChangedTopLevelRows(changedRows);
+
+		assertThat(rowIds(newData)).containsExactly(mainProductRowId, sourceHURowId);
+		assertThat(newData.containsTopLevelRow(bomLineRowId)).isFalse();
+		assertThat(newData.mapChangedRecords(ppOrderId, TableRecordReferenceSet.of(I_M_HU.Table_Name, 200)).getNotLoadedHUIds())
+				.containsOnly(HuId.ofRepoId(200));
+	}
+
+	@Test
+	public void withSourceHURows()
+	{
+		final PPOrderLineRow sourceHURow1 = sourceHURow(301);
+		final PPOrderLineRow sourceHURow2 = sourceHURow(302);
+		final PPOrderLinesViewData newData = data.withSourceHURows(ImmutableList.of(sourceHURow1, sourceHURow2));
+
+		assertThat(rowIds(newData)).containsExactly(mainProductRowId, bomLineRowId, sourceHURow1.getRowId(), sourceHURow2.getRowId());
+		assertThat(newData.mapChangedRecords(ppOrderId, TableRecordReferenceSet.of(I_M_HU.Table_Name, 300)).getNotLoadedHUIds())
+				.containsOnly(HuId.ofRepoId(300));
+		assertThat(newData.getBOMLineRows()).extracting(PPOrderLineRow::getRowId).containsExactly(bomLineRowId);
+	}
+}
@@ -0,0 +1,261 @@
+package de.metas.ui.web.process;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.Adempiere;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.security.IUserRolePermissions;
+import de.metas.ui.web.process.json.JSONProcessInstanceAsyncStatus;
+import de.metas.ui.web.process.json.JSONProcessInstanceAsyncStatus.Status;
+import de.metas.ui.web.session.UserSession;
+import de.metas.ui.web.view.IView;
+import de.metas.ui.web.view.ViewId;
+import de.metas.ui.web.view.ViewsRepository;
+import de.metas.ui.web.websocket.WebsocketSender;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.WindowId;
+import mockit.Delegate;
+import mockit.Expectations;
+import mockit.Mocked;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ProcessInstancesAsyncExecutorTest
+{
+	private static final ProcessId PROCESS_ID = ProcessId.ofAD_Process_ID(540000);
+
+	@Mocked
+	private WebsocketSender websocketSender;
+
+	/** published statuses, in the order they were published */
+	private final List<JSONProcessInstanceAsyncStatus> publishedStatuses = new CopyOnWriteArrayList<>();
+	private final CountDownLatch finishedStatusPublished = new CountDownLatch(1);
+	private final CountDownLatch releaseBlockedExecutions = new CountDownLatch(1);
+
+	private ProcessInstancesAsyncExecutor asyncExecutor;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		new Expectations()
+		{
+			{
+				websocketSender.convertAndSend(anyString, any);
+				minTimes = 0;
+				result = new Delegate<Void>()
+				{
+					@SuppressWarnings("unused")
+					void convertAndSend(final String destination, final Object event)
+					{
+						final JSONProcessInstanceAsyncStatus status = (JSONProcessInstanceAsyncStatus)event;
+						publishedStatuses.add(status);
+						if (status.isFinished())
+						{
+							finishedStatusPublished.countDown();
+						}
+					}
+				};
+			}
+		};
+
+		asyncExecutor = new ProcessInstancesAsyncExecutor(websocketSender, 1, 1);
+	}
+
+	@After
+	public void shutdown()
+	{
+		releaseBlockedExecutions.countDown();
+		asyncExecutor.shutdown();
+	}
+
+	private List<Status> getPublishedStatuses(final DocumentId pinstanceId)
+	{
+		return publishedStatuses.stream()
+				.filter(status -> pinstanceId.toJson().equals(status.getPinstanceId()))
+				.map(JSONProcessInstanceAsyncStatus::getStatus)
+				.collect(Collectors.toList());
+	}
+
+	private void awaitFinishedStatusPublished() throws InterruptedException
+	{
+		assertThat(finishedStatusPublished.await(10, TimeUnit.SECONDS)).as("finished status published").isTrue();
+	}
+
+	private ProcessInstanceResult blockUntilReleased(final DocumentId pinstanceId) throws InterruptedException
+	{
+		releaseBlockedExecutions.await(10, TimeUnit.SECONDS);
+		return ProcessInstanceResult.ok(pinstanceId);
+	}
+
+	@Test
+	public void execute_publishesQueuedBeforeRunningAndDone() throws Exception
+	{
+		final DocumentId pinstanceId = DocumentId.of(1);
+
+		final JSONProcessInstanceAsyncStatus queuedStatus = asyncExecutor.execute(PROCESS_ID, pinstanceId, () -> ProcessInstanceResult.ok(pinstanceId));
+		awaitFinishedStatusPublished();
+
+		assertThat(queuedStatus.getStatus()).isEqualTo(Status.QUEUED);
+		assertThat(getPublishedStatuses(pinstanceId)).containsExactly(Status.QUEUED, Status.RUNNING, Status.DONE);
+		assertThat(asyncExecutor.getStatus(PROCESS_ID, pinstanceId).getStatus()).isEqualTo(Status.DONE);
+	}
+
+	@Test
+	public void execute_failingProcess_publishesError() throws Exception
+	{
+		final DocumentId pinstanceId = DocumentId.of(1);
+
+		asyncExecutor.execute(PROCESS_ID, pinstanceId, () -> {
+			throw new AdempiereException("failed");
+		});
+		awaitFinishedStatusPublished();
+
+		assertThat(getPublishedStatuses(pinstanceId)).containsExactly(Status.QUEUED, Status.RUNNING, Status.ERROR);
+		assertThat(asyncExecutor.getStatus(PROCESS_ID, pinstanceId).getErrorMessage()).contains("failed");
+	}
+
+	@Test
+	public void execute_alreadyStarted_fails()
+	{
+		final DocumentId pinstanceId = DocumentId.of(1);
+		asyncExecutor.execute(PROCESS_ID, pinstanceId, () -> blockUntilReleased(pinstanceId));
+
+		assertThatThrownBy(() -> asyncExecutor.execute(PROCESS_ID, pinstanceId, () -> ProcessInstanceResult.ok(pinstanceId)))
+				.isInstanceOf(AdempiereException.class)
+				.hasMessageContaining("already started");
+	}
+
+	@Test
+	public void execute_rejected_publishesError()
+	{
+		// one running, one queued
+		final DocumentId runningPInstanceId = DocumentId.of(1);
+		asyncExecutor.execute(PROCESS_ID, runningPInstanceId, () -> blockUntilReleased(runningPInstanceId));
+		final DocumentId queuedPInstanceId = DocumentId.of(2);
+		asyncExecutor.execute(PROCESS_ID, queuedPInstanceId, () -> blockUntilReleased(queuedPInstanceId));
+
+		final DocumentId rejectedPInstanceId = DocumentId.of(3);
+		assertThatThrownBy(() -> asyncExecutor.execute(PROCESS_ID, rejectedPInstanceId, () -> ProcessInstanceResult.ok(rejectedPInstanceId)))
+				.isInstanceOf(AdempiereException.class)
+				.hasMessageContaining("Too many processes");
+
+		assertThat(getPublishedStatuses(rejectedPInstanceId)).containsExactly(Status.QUEUED, Status.ERROR);
+	}
+
+	@Test
+	public void execute_afterShutdown_isRejected()
+	{
+		asyncExecutor.shutdown();
+
+		final DocumentId pinstanceId = DocumentId.of(1);
+		assertThatThrownBy(() -> asyncExecutor.execute(PROCESS_ID, pinstanceId, () -> ProcessInstanceResult.ok(pinstanceId)))
+				.isInstanceOf(AdempiereException.class);
+	}
+
+	/**
+	 * Creates a process execution which is accessing the view the same way the view based processes are doing it,
+	 * i.e. ViewBasedProcessTemplate when loading its parameters and ADProcessPostProcessService when invalidating the view after execution.
+	 */
+	private Callable<ProcessInstanceResult> createViewBasedProcessExecution(
+			final Adempiere adempiere,
+			final IView view,
+			final DocumentId pinstanceId)
+	{
+		// NOTE: not using a numeric window ID because we don't want to test the window access here, but only that the user's permissions can be fetched
+		final ViewId viewId = ViewId.random(WindowId.fromJson("testWindow"));
+		// @formatter:off
+		new Expectations()
+		{{
+			view.getViewId(); result = viewId; minTimes = 0;
+		}};
+		// @formatter:on
+
+		final ViewsRepository viewsRepo = new ViewsRepository(adempiere, ImmutableList.of(), Optional.empty());
+		viewsRepo.getViewsStorageFor(viewId).put(view);
+
+		return () -> {
+			final IView processView = viewsRepo.getView(viewId.toJson());
+			assertThat(processView).isSameAs(view);
+
+			assertThat(viewsRepo.getViewIfExists(viewId)).isSameAs(view);
+
+			return ProcessInstanceResult.ok(pinstanceId);
+		};
+	}
+
+	@Test
+	public void execute_viewBasedProcess_withUserSession(
+			@Mocked final Adempiere adempiere,
+			@Mocked final IView view,
+			@Mocked final IUserRolePermissions permissions) throws Exception
+	{
+		final UserSession userSession = new UserSession(null);
+		// @formatter:off
+		new Expectations(userSession)
+		{{
+			userSession.getUserRolePermissions(); result = permissions;
+		}};
+		// @formatter:on
+
+		final DocumentId pinstanceId = DocumentId.of(1);
+		final Callable<ProcessInstanceResult> execution = createViewBasedProcessExecution(adempiere, view, pinstanceId);
+
+		asyncExecutor.execute(PROCESS_ID, pinstanceId, UserSession.withUserSession(userSession, execution));
+		awaitFinishedStatusPublished();
+
+		assertThat(getPublishedStatuses(pinstanceId)).containsExactly(Status.QUEUED, Status.RUNNING, Status.DONE);
+		assertThat(UserSession.getCurrentOrNull()).as("user session shall not be bound to the calling thread").isNull();
+	}
+
+	@Test
+	public void execute_viewBasedProcess_withoutUserSession_fails(
+			@Mocked final Adempiere adempiere,
+			@Mocked final IView view) throws Exception
+	{
+		final DocumentId pinstanceId = DocumentId.of(1);
+		final Callable<ProcessInstanceResult> execution = createViewBasedProcessExecution(adempiere, view, pinstanceId);
+
+		asyncExecutor.execute(PROCESS_ID, pinstanceId, execution);
+		awaitFinishedStatusPublished();
+
+		assertThat(getPublishedStatuses(pinstanceId)).containsExactly(Status.QUEUED, Status.RUNNING, Status.ERROR);
+	}
+}
@@ -0,0 +1,155 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.ui.web.view.json.JSONViewDataType;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import de.metas.ui.web.window.datatypes.WindowId;
+import mockit.Delegate;
+import mockit.Expectations;
+import mockit.Mocked;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class DefaultViewTest
+{
+	private static final WindowId WINDOW_ID = WindowId.of(143);
+
+	@Mocked
+	private IViewDataRepository viewDataRepository;
+
+	private ImmutableMap<DocumentId, IViewRow> rowsById;
+
+	/** the row IDs which were requested from the repository, per retrieveByIds call */
+	private final List<Set<DocumentId>> retrieveByIdsCalls = new ArrayList<>();
+
+	private DefaultView view;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		rowsById = Stream.of(1, 2, 3, 4, 5)
+				.map(id -> ViewRow.builder(WINDOW_ID).setRowId(DocumentId.of(id)).build())
+				.collect(ImmutableMap.toImmutableMap(IViewRow::getId, row -> row));
+
+		// @formatter:off
+		new Expectations()
+		{{
+			viewDataRepository.retrieveById((ViewEvaluationCtx)any, (ViewId)any, (DocumentId)any); minTimes = 0; result = new Delegate<IViewRow>()
+			{
+				@SuppressWarnings("unused")
+				IViewRow retrieveById(final ViewEvaluationCtx viewEvalCtx, final ViewId viewId, final DocumentId rowId)
+				{
+					return rowsById.get(rowId);
+				}
+			};
+
+			viewDataRepository.retrieveByIds((ViewEvaluationCtx)any, (ViewId)any, (DocumentIdsSelection)any); minTimes = 0; result = new Delegate<List<IViewRow>>()
+			{
+				// like the database: no particular order and the missing rows are skipped
+				@SuppressWarnings("unused")
+				List<IViewRow> retrieveByIds(final ViewEvaluationCtx viewEvalCtx, final ViewId viewId, final DocumentIdsSelection rowIds)
+				{
+					retrieveByIdsCalls.add(rowIds.toSet());
+					return rowIds.stream()
+							.filter(rowsById::containsKey)
+							.map(rowsById::get)
+							.sorted(Comparator.comparing(row -> row.getId().toInt()))
+							.collect(ImmutableList.toImmutableList());
+				}
+			};
+		}};
+		// @formatter:on
+
+		view = DefaultView.builder(viewDataRepository)
+				.setViewId(ViewId.random(WINDOW_ID))
+				.setViewType(JSONViewDataType.grid)
+				.applySecurityRestrictions(false)
+				.build();
+	}
+
+	private static DocumentIdsSelection rowIds(final int... ids)
+	{
+		final List<DocumentId> rowIds = new ArrayList<>();
+		for (final int id : ids)
+		{
+			rowIds.add(DocumentId.of(id));
+		}
+		return DocumentIdsSelection.of(rowIds);
+	}
+
+	private static List<Integer> toIds(final Stream<? extends IViewRow> rows)
+	{
+		return rows.map(row -> row.getId().toInt()).collect(ImmutableList.toImmutableList());
+	}
+
+	@Test
+	public void streamByIds_rowsAreInRequestedOrder()
+	{
+		assertThat(toIds(view.streamByIds(rowIds(4, 2, 5, 1)))).containsExactly(4, 2, 5, 1);
+		assertThat(retrieveByIdsCalls).containsExactly(rowIds(4, 2, 5, 1).toSet());
+	}
+
+	@Test
+	public void streamByIds_missingRowsAreSkipped()
+	{
+		assertThat(toIds(view.streamByIds(rowIds(4, 9, 2, 7)))).containsExactly(4, 2);
+	}
+
+	@Test
+	public void streamByIds_onlyNotCachedRowsAreRetrieved()
+	{
+		view.getById(DocumentId.of(2));
+
+		assertThat(toIds(view.streamByIds(rowIds(3, 2, 1)))).containsExactly(3, 2, 1);
+		assertThat(retrieveByIdsCalls).containsExactly(ImmutableSet.of(DocumentId.of(3), DocumentId.of(1)));
+
+		// all rows are cached now
+		assertThat(toIds(view.streamByIds(rowIds(1, 3, 2)))).containsExactly(1, 3, 2);
+		assertThat(retrieveByIdsCalls).hasSize(1);
+	}
+
+	@Test
+	public void streamByIds_empty()
+	{
+		assertThat(view.streamByIds(DocumentIdsSelection.EMPTY)).isEmpty();
+		assertThat(retrieveByIdsCalls).isEmpty();
+	}
+}
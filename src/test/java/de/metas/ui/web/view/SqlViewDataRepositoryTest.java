@@ -0,0 +1,254 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.util.CPreparedStatement;
+import org.compiere.util.DB;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.ui.web.view.descriptor.SqlViewBinding;
+import de.metas.ui.web.view.descriptor.SqlViewRowFieldBinding;
+import de.metas.ui.web.view.descriptor.SqlViewSelectData;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.ui.web.window.datatypes.json.JSONOptions;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.model.DocumentQueryOrderBy;
+import mockit.Expectations;
+import mockit.Mocked;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class SqlViewDataRepositoryTest
+{
+	private static final JSONOptions jsonOpts = JSONOptions.builder().adLanguage("en_US").build();
+
+	private static final WindowId WINDOW_ID = WindowId.of(143);
+	private static final String TABLE_NAME = "C_Order";
+	private static final String FIELDNAME_C_Order_ID = "C_Order_ID";
+	private static final String FIELDNAME_DocumentNo = "DocumentNo";
+
+	@Mocked
+	private CPreparedStatement pstmt;
+
+	private SqlViewBinding sqlViewBinding;
+	private SqlViewDataRepository sqlViewDataRepository;
+	private ViewEvaluationCtx viewEvalCtx;
+	private ViewId viewId;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		sqlViewBinding = SqlViewBinding.builder()
+				.tableName(TABLE_NAME)
+				.displayFieldNames(FIELDNAME_DocumentNo)
+				.field(SqlViewRowFieldBinding.builder()
+						.fieldName(FIELDNAME_C_Order_ID)
+						.widgetType(DocumentFieldWidgetType.Integer)
+						.sqlValueClass(Integer.class)
+						.keyColumn(true)
+						.fieldLoader((rs, adLanguage) -> rs.getInt(FIELDNAME_C_Order_ID))
+						.build())
+				.field(SqlViewRowFieldBinding.builder()
+						.fieldName(FIELDNAME_DocumentNo)
+						.widgetType(DocumentFieldWidgetType.Text)
+						.fieldLoader((rs, adLanguage) -> rs.getString(FIELDNAME_DocumentNo))
+						.build())
+				.build();
+		sqlViewDataRepository = new SqlViewDataRepository(sqlViewBinding);
+		viewEvalCtx = ViewEvaluationCtx.newInstanceFromCurrentContext();
+		viewId = ViewId.random(WINDOW_ID);
+	}
+
+	/** @return result set with the same columns as the one of {@link SqlViewSelectData}'s SQLs, containing given records */
+	private CachedRowSet createResultSet(final int... recordIds) throws SQLException
+	{
+		final String parentKeyColumnName = SqlViewSelectData.COLUMNNAME_Paging_Parent_Prefix
+				+ sqlViewBinding.getSqlViewKeyColumnNamesMap().getWebuiSelectionColumnNameForKeyColumnName(FIELDNAME_C_Order_ID);
+
+		final ImmutableMap<String, Integer> sqlTypesByColumnName = ImmutableMap.<String, Integer> builder()
+				.put(SqlViewSelectData.COLUMNNAME_IsRecordMissing, Types.VARCHAR)
+				.put(parentKeyColumnName, Types.INTEGER)
+				.put(FIELDNAME_C_Order_ID, Types.INTEGER)
+				.put(FIELDNAME_DocumentNo, Types.VARCHAR)
+				.build();
+
+		final RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+		metaData.setColumnCount(sqlTypesByColumnName.size());
+		int columnIndex = 1;
+		for (final Map.Entry<String, Integer> columnNameAndSqlType : sqlTypesByColumnName.entrySet())
+		{
+			metaData.setColumnName(columnIndex, columnNameAndSqlType.getKey());
+			metaData.setColumnLabel(columnIndex, columnNameAndSqlType.getKey());
+			metaData.setColumnType(columnIndex, columnNameAndSqlType.getValue());
+			metaData.setNullable(columnIndex, ResultSetMetaData.columnNullable);
+			columnIndex++;
+		}
+
+		final CachedRowSet rs = RowSetProvider.newFactory().createCachedRowSet();
+		rs.setMetaData(metaData);
+		for (final int recordId : recordIds)
+		{
+			rs.moveToInsertRow();
+			rs.updateString(SqlViewSelectData.COLUMNNAME_IsRecordMissing, "N");
+			rs.updateNull(parentKeyColumnName);
+			rs.updateInt(FIELDNAME_C_Order_ID, recordId);
+			rs.updateString(FIELDNAME_DocumentNo, "SO" + recordId);
+			rs.insertRow();
+			rs.moveToCurrentRow();
+		}
+		rs.beforeFirst();
+
+		return rs;
+	}
+
+	private static List<Integer> toIds(final List<IViewRow> rows)
+	{
+		return rows.stream().map(row -> row.getId().toInt()).collect(ImmutableList.toImmutableList());
+	}
+
+	private static IViewRow row(final int id)
+	{
+		return ViewRow.builder(WINDOW_ID).setRowId(DocumentId.of(id)).build();
+	}
+
+	@Test
+	public void retrievePage_inMemorySelection_rowsAreInSelectionOrder() throws SQLException
+	{
+		// the view, sorted by DocumentNo descending
+		final ViewRowIdsOrderedSelection selection = ViewRowIdsOrderedSelection.builder()
+				.setViewId(viewId)
+				.setRowIds(new int[] { 5, 4, 3, 2, 1 })
+				.setOrderBys(ImmutableList.of(DocumentQueryOrderBy.byFieldName(FIELDNAME_DocumentNo, false)))
+				.build();
+		assertThat(selection.isInMemory()).isTrue();
+
+		// the database returns the rows in the default selection order
+		final CachedRowSet rsPage1 = createResultSet(3, 4, 5);
+		final CachedRowSet rsPage2 = createResultSet(1, 2);
+
+		// @formatter:off
+		new Expectations(DB.class)
+		{{
+			DB.prepareStatement(anyString, anyString); result = pstmt; times = 2;
+			pstmt.executeQuery(); result = rsPage1; result = rsPage2;
+		}};
+		// @formatter:on
+
+		final List<IViewRow> page1 = sqlViewDataRepository.retrievePage(viewEvalCtx, selection, 0, 3);
+		assertThat(toIds(page1)).containsExactly(5, 4, 3);
+
+		final List<IViewRow> page2 = sqlViewDataRepository.retrievePage(viewEvalCtx, selection, 3, 3);
+		assertThat(toIds(page2)).containsExactly(2, 1);
+	}
+
+	@Test
+	public void retrieveRowIdsByPage_inMemorySelection()
+	{
+		final ViewRowIdsOrderedSelection selection = ViewRowIdsOrderedSelection.builder()
+				.setViewId(viewId)
+				.setRowIds(new int[] { 5, 4, 3, 2, 1 })
+				.build();
+
+		// @formatter:off
+		new Expectations(DB.class)
+		{{
+			DB.prepareStatement(anyString, anyString); times = 0;
+		}};
+		// @formatter:on
+
+		assertThat(sqlViewDataRepository.retrieveRowIdsByPage(viewEvalCtx, selection, 3, 3))
+				.containsExactly(DocumentId.of(2), DocumentId.of(1));
+	}
+
+	@Test
+	public void sortByRowIds_missingRowsAreSkipped()
+	{
+		final List<IViewRow> rows = ImmutableList.of(row(1), row(3));
+		final List<DocumentId> rowIds = ImmutableList.of(DocumentId.of(3), DocumentId.of(2), DocumentId.of(1));
+
+		assertThat(toIds(SqlViewDataRepository.sortByRowIds(rows, rowIds))).containsExactly(3, 1);
+	}
+
+	@Test
+	public void retrieveByIds_missingRowsAreSkipped() throws SQLException
+	{
+		final CachedRowSet rs = createResultSet(3, 1);
+
+		// @formatter:off
+		new Expectations(DB.class)
+		{{
+			DB.prepareStatement(anyString, anyString); result = pstmt; times = 1;
+			pstmt.executeQuery(); result = rs;
+		}};
+		// @formatter:on
+
+		final List<IViewRow> rows = sqlViewDataRepository.retrieveByIds(viewEvalCtx, viewId, DocumentIdsSelection.ofIntSet(ImmutableList.of(1, 2, 3)));
+		assertThat(toIds(rows)).containsExactly(3, 1);
+		assertThat(rows.get(0).getFieldValueAsJsonObject(FIELDNAME_DocumentNo, jsonOpts)).isEqualTo("SO3");
+	}
+
+	@Test
+	public void retrieveByIds_oneQueryPerChunk() throws SQLException
+	{
+		final List<Integer> recordIds = IntStream.rangeClosed(1, 501).boxed().collect(ImmutableList.toImmutableList());
+		final CachedRowSet rsChunk1 = createResultSet(IntStream.rangeClosed(1, 500).toArray());
+		final CachedRowSet rsChunk2 = createResultSet(501);
+
+		// @formatter:off
+		new Expectations(DB.class)
+		{{
+			DB.prepareStatement(anyString, anyString); result = pstmt; times = 2;
+			pstmt.executeQuery(); result = rsChunk1; result = rsChunk2;
+		}};
+		// @formatter:on
+
+		final List<IViewRow> rows = sqlViewDataRepository.retrieveByIds(viewEvalCtx, viewId, DocumentIdsSelection.ofIntSet(recordIds));
+		assertThat(toIds(rows)).isEqualTo(recordIds);
+	}
+
+	@Test
+	public void retrieveByIds_empty()
+	{
+		assertThat(sqlViewDataRepository.retrieveByIds(viewEvalCtx, viewId, DocumentIdsSelection.EMPTY)).isEmpty();
+	}
+}
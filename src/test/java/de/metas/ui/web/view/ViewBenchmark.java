@@ -0,0 +1,344 @@
+package de.metas.ui.web.view;
+
+import java.math.BigDecimal;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.JsonObjectMapperHolder;
+import de.metas.ui.web.document.filter.DocumentFilter;
+import de.metas.ui.web.document.filter.provider.DocumentFilterDescriptorsProvider;
+import de.metas.ui.web.document.filter.provider.NullDocumentFilterDescriptorsProvider;
+import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverterContext;
+import de.metas.ui.web.view.descriptor.SqlViewBinding;
+import de.metas.ui.web.view.descriptor.SqlViewRowFieldBinding;
+import de.metas.ui.web.view.descriptor.SqlViewSelectData;
+import de.metas.ui.web.view.json.JSONViewResult;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.ui.web.window.datatypes.json.JSONOptions;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.model.DocumentQueryOrderBy;
+import de.metas.ui.web.window.model.sql.SqlOptions;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Benchmarks the view hot paths:
+ * <ul>
+ * <li>{@link SqlViewDataRepository#loadViewRows(java.sql.ResultSet, ViewEvaluationCtx, ViewId, int)}, fed by an in-memory {@link CachedRowSet} instead of a database cursor
+ * <li>{@link DefaultView#getPage(int, int, ViewRowsOrderBy)}, backed by an in-memory {@link IViewDataRepository}
+ * <li>{@link JSONViewResult} creation and serialization
+ * </ul>
+ *
+ * Run it using {@link de.metas.ui.web.benchmarks.BenchmarksRunner}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ViewBenchmark
+{
+	private static final WindowId WINDOW_ID = WindowId.of(143);
+	private static final String TABLE_NAME = "C_Order";
+	private static final String FIELDNAME_C_Order_ID = "C_Order_ID";
+	private static final String FIELDNAME_DocumentNo = "DocumentNo";
+	private static final String FIELDNAME_Description = "Description";
+	private static final String FIELDNAME_GrandTotal = "GrandTotal";
+
+	private static final int PAGE_LENGTH = 100;
+
+	@Param({ "100", "1000" })
+	public int rowsCount;
+
+	private ViewEvaluationCtx viewEvalCtx;
+	private JSONOptions jsonOpts;
+	private ObjectMapper jsonObjectMapper;
+
+	private SqlViewDataRepository sqlViewDataRepository;
+	private CachedRowSet resultSet;
+
+	private DefaultView view;
+	private ViewRowsOrderBy orderBy;
+	private ViewResult viewResult;
+
+	@Setup
+	public void setup() throws SQLException
+	{
+		AdempiereTestHelper.get().init();
+
+		viewEvalCtx = ViewEvaluationCtx.newInstanceFromCurrentContext();
+		jsonOpts = JSONOptions.newInstance();
+		jsonObjectMapper = JsonObjectMapperHolder.sharedJsonObjectMapper();
+
+		final SqlViewBinding sqlViewBinding = createSqlViewBinding();
+		sqlViewDataRepository = new SqlViewDataRepository(sqlViewBinding);
+		resultSet = createResultSet(sqlViewBinding, rowsCount);
+
+		final ViewId viewId = ViewId.random(WINDOW_ID);
+		final List<IViewRow> rows = sqlViewDataRepository.loadViewRows(resultSet, viewEvalCtx, viewId, -1);
+		view = DefaultView.builder(new InMemoryViewDataRepository(sqlViewBinding.getWidgetTypesByFieldName(), rows))
+				.setViewId(viewId)
+				.setViewType(JSONViewDataType.grid)
+				.applySecurityRestrictions(false)
+				.build();
+		orderBy = ViewRowsOrderBy.empty(jsonOpts);
+		viewResult = view.getPage(0, PAGE_LENGTH, orderBy);
+	}
+
+	private static SqlViewBinding createSqlViewBinding()
+	{
+		return SqlViewBinding.builder()
+				.tableName(TABLE_NAME)
+				.displayFieldNames(FIELDNAME_DocumentNo, FIELDNAME_Description, FIELDNAME_GrandTotal)
+				.field(SqlViewRowFieldBinding.builder()
+						.fieldName(FIELDNAME_C_Order_ID)
+						.widgetType(DocumentFieldWidgetType.Integer)
+						.sqlValueClass(Integer.class)
+						.keyColumn(true)
+						.fieldLoader((rs, adLanguage) -> rs.getInt(FIELDNAME_C_Order_ID))
+						.build())
+				.field(SqlViewRowFieldBinding.builder()
+						.fieldName(FIELDNAME_DocumentNo)
+						.widgetType(DocumentFieldWidgetType.Text)
+						.fieldLoader((rs, adLanguage) -> rs.getString(FIELDNAME_DocumentNo))
+						.build())
+				.field(SqlViewRowFieldBinding.builder()
+						.fieldName(FIELDNAME_Description)
+						.widgetType(DocumentFieldWidgetType.Text)
+						.fieldLoader((rs, adLanguage) -> rs.getString(FIELDNAME_Description))
+						.build())
+				.field(SqlViewRowFieldBinding.builder()
+						.fieldName(FIELDNAME_GrandTotal)
+						.widgetType(DocumentFieldWidgetType.Amount)
+						.fieldLoader((rs, adLanguage) -> rs.getBigDecimal(FIELDNAME_GrandTotal))
+						.build())
+				.build();
+	}
+
+	/** @return result set with the same columns as the one of {@link SqlViewSelectData}'s page SQL */
+	private static CachedRowSet createResultSet(final SqlViewBinding sqlViewBinding, final int rowsCount) throws SQLException
+	{
+		final String parentKeyColumnName = SqlViewSelectData.COLUMNNAME_Paging_Parent_Prefix
+				+ sqlViewBinding.getSqlViewKeyColumnNamesMap().getWebuiSelectionColumnNameForKeyColumnName(FIELDNAME_C_Order_ID);
+
+		final ImmutableMap<String, Integer> sqlTypesByColumnName = ImmutableMap.<String, Integer> builder()
+				.put(SqlViewSelectData.COLUMNNAME_IsRecordMissing, Types.VARCHAR)
+				.put(parentKeyColumnName, Types.INTEGER)
+				.put(FIELDNAME_C_Order_ID, Types.INTEGER)
+				.put(FIELDNAME_DocumentNo, Types.VARCHAR)
+				.put(FIELDNAME_Description, Types.VARCHAR)
+				.put(FIELDNAME_GrandTotal, Types.NUMERIC)
+				.build();
+
+		final RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+		metaData.setColumnCount(sqlTypesByColumnName.size());
+		int columnIndex = 1;
+		for (final Map.Entry<String, Integer> columnNameAndSqlType : sqlTypesByColumnName.entrySet())
+		{
+			metaData.setColumnName(columnIndex, columnNameAndSqlType.getKey());
+			metaData.setColumnLabel(columnIndex, columnNameAndSqlType.getKey());
+			metaData.setColumnType(columnIndex, columnNameAndSqlType.getValue());
+			metaData.setNullable(columnIndex, ResultSetMetaData.columnNullable);
+			columnIndex++;
+		}
+
+		final CachedRowSet rs = RowSetProvider.newFactory().createCachedRowSet();
+		rs.setMetaData(metaData);
+		for (int i = 1; i <= rowsCount; i++)
+		{
+			rs.moveToInsertRow();
+			rs.updateString(SqlViewSelectData.COLUMNNAME_IsRecordMissing, "N");
+			rs.updateNull(parentKeyColumnName);
+			rs.updateInt(FIELDNAME_C_Order_ID, 1000000 + i);
+			rs.updateString(FIELDNAME_DocumentNo, "SO" + i);
+			rs.updateString(FIELDNAME_Description, "Sales order " + i + " for the benchmark customer");
+			rs.updateBigDecimal(FIELDNAME_GrandTotal, BigDecimal.valueOf(i * 1234L, 2));
+			rs.insertRow();
+			rs.moveToCurrentRow();
+		}
+		rs.beforeFirst();
+
+		return rs;
+	}
+
+	@Benchmark
+	public List<IViewRow> loadViewRows() throws SQLException
+	{
+		resultSet.beforeFirst();
+		return sqlViewDataRepository.loadViewRows(resultSet, viewEvalCtx, view.getViewId(), -1);
+	}
+
+	@Benchmark
+	public ViewResult getPage()
+	{
+		return view.getPage(0, PAGE_LENGTH, orderBy);
+	}
+
+	@Benchmark
+	public String serializeViewResult() throws JsonProcessingException
+	{
+		final JSONViewResult jsonViewResult = JSONViewResult.of(viewResult, ViewRowOverridesHelper.NULL, jsonOpts);
+		return jsonObjectMapper.writeValueAsString(jsonViewResult);
+	}
+
+	/**
+	 * View data repository which keeps the rows in memory, so {@link DefaultView} can be benchmarked without a database.
+	 * The default selection is an in-memory selection.
+	 */
+	private static final class InMemoryViewDataRepository implements IViewDataRepository
+	{
+		private final Map<String, DocumentFieldWidgetType> widgetTypesByFieldName;
+		private final ImmutableMap<DocumentId, IViewRow> rowsById;
+
+		private InMemoryViewDataRepository(final Map<String, DocumentFieldWidgetType> widgetTypesByFieldName, final List<IViewRow> rows)
+		{
+			this.widgetTypesByFieldName = widgetTypesByFieldName;
+			this.rowsById = rows.stream().collect(ImmutableMap.toImmutableMap(IViewRow::getId, row -> row));
+		}
+
+		@Override
+		public String getTableName()
+		{
+			return TABLE_NAME;
+		}
+
+		@Override
+		public String getSqlWhereClause(final ViewId viewId, final List<DocumentFilter> filters, final DocumentIdsSelection rowIds, final SqlOptions sqlOpts)
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Map<String, DocumentFieldWidgetType> getWidgetTypesByFieldName()
+		{
+			return widgetTypesByFieldName;
+		}
+
+		@Override
+		public DocumentFilterDescriptorsProvider getViewFilterDescriptors()
+		{
+			return NullDocumentFilterDescriptorsProvider.instance;
+		}
+
+		@Override
+		public IViewRow retrieveById(final ViewEvaluationCtx viewEvalCtx, final ViewId viewId, final DocumentId rowId)
+		{
+			return rowsById.get(rowId);
+		}
+
+		@Override
+		public List<IViewRow> retrieveByIds(final ViewEvaluationCtx viewEvalCtx, final ViewId viewId, final DocumentIdsSelection rowIds)
+		{
+			return rowIds.stream()
+					.map(rowsById::get)
+					.collect(ImmutableList.toImmutableList());
+		}
+
+		@Override
+		public List<IViewRow> retrievePage(final ViewEvaluationCtx viewEvalCtx, final ViewRowIdsOrderedSelection orderedSelection, final int firstRow, final int pageLength)
+		{
+			return orderedSelection.getRowIdsPage(firstRow, pageLength)
+					.stream()
+					.map(rowsById::get)
+					.collect(ImmutableList.toImmutableList());
+		}
+
+		@Override
+		public List<DocumentId> retrieveRowIdsByPage(final ViewEvaluationCtx viewEvalCtx, final ViewRowIdsOrderedSelection orderedSelection, final int firstRow, final int pageLength)
+		{
+			return orderedSelection.getRowIdsPage(firstRow, pageLength);
+		}
+
+		@Override
+		public <T> List<T> retrieveModelsByIds(final ViewId viewId, final DocumentIdsSelection rowIds, final Class<T> modelClass)
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public ViewRowIdsOrderedSelection createOrderedSelectionFromSelection(final ViewEvaluationCtx viewEvalCtx, final ViewRowIdsOrderedSelection fromSelection, final List<DocumentQueryOrderBy> orderBys)
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void deleteSelection(final ViewId viewId)
+		{
+		}
+
+		@Override
+		public void scheduleDeleteSelections(final Set<String> viewIds)
+		{
+		}
+
+		@Override
+		public ViewRowIdsOrderedSelection createOrderedSelection(
+				final ViewEvaluationCtx viewEvalCtx,
+				final ViewId viewId,
+				final List<DocumentFilter> filters,
+				final boolean applySecurityRestrictions,
+				final SqlDocumentFilterConverterContext context)
+		{
+			return ViewRowIdsOrderedSelection.builder()
+					.setViewId(viewId)
+					.setRowIds(rowsById.keySet().stream().mapToInt(DocumentId::toInt).toArray())
+					.build();
+		}
+
+		@Override
+		public ViewRowIdsOrderedSelection removeRowIdsNotMatchingFilters(final ViewRowIdsOrderedSelection selection, final List<DocumentFilter> filters, final Set<DocumentId> rowIds)
+		{
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.i18n.Language;
+import de.metas.ui.web.view.descriptor.ViewLayout;
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.descriptor.DocumentLayoutElementDescriptor;
+import de.metas.ui.web.window.descriptor.DocumentLayoutElementFieldDescriptor;
+import mockit.Expectations;
+import mockit.Mocked;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ViewCsvExporterTest
+{
+	private static final String BOM = "\uFEFF";
+
+	@Mocked
+	private IView view;
+	@Mocked
+	private IViewRow row;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+	}
+
+	private static DocumentLayoutElementDescriptor.Builder column(final String fieldName, final String caption)
+	{
+		return DocumentLayoutElementDescriptor.builder()
+				.setCaption(caption)
+				.setWidgetType(DocumentFieldWidgetType.Text)
+				.addField(DocumentLayoutElementFieldDescriptor.builder(fieldName));
+	}
+
+	private String exportSingleRow(final ViewLayout layout, final ImmutableMap<String, Object> rowValues) throws IOException
+	{
+		// @formatter:off
+		new Expectations()
+		{{
+			view.streamByIds((DocumentIdsSelection)any); result = Stream.of(row);
+			row.getFieldNameAndJsonValues(); result = ViewRowFieldNameAndJsonValues.ofMap(rowValues);
+		}};
+		// @formatter:on
+
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ViewCsvExporter.builder()
+				.view(view)
+				.rowIds(DocumentIdsSelection.ofIntSet(ImmutableSet.of(1)))
+				.layout(layout)
+				.language(Language.getBaseLanguage())
+				.pageSize(10)
+				.build()
+				.export(out);
+
+		final String csv = new String(out.toByteArray(), StandardCharsets.UTF_8);
+		assertThat(csv).startsWith(BOM);
+		return csv.substring(BOM.length());
+	}
+
+	@Test
+	public void escapesSeparatorsQuotesAndNewlines() throws IOException
+	{
+		final ViewLayout layout = ViewLayout.builder()
+				.setWindowId(WindowId.fromJson("123"))
+				.addElement(column("Plain", "Plain"))
+				.addElement(column("Separator", "Name, first"))
+				.addElement(column("Quote", "Quote"))
+				.addElement(column("Newline", "Newline"))
+				.addElement(column("CarriageReturn", "CarriageReturn"))
+				.addElement(column("Null", "Null"))
+				.build();
+
+		final String csv = exportSingleRow(layout, ImmutableMap.<String, Object> builder()
+				.put("Plain", "abc")
+				.put("Separator", "a,b")
+				.put("Quote", "say \"hi\"")
+				.put("Newline", "line1\nline2")
+				.put("CarriageReturn", "line1\r\nline2")
+				.build());
+
+		assertThat(csv).isEqualTo(""
+				+ "Plain,\"Name, first\",Quote,Newline,CarriageReturn,Null\r\n"
+				+ "abc,\"a,b\",\"say \"\"hi\"\"\",\"line1\nline2\",\"line1\r\nline2\",\r\n");
+	}
+
+	@Test
+	public void emptyStringsAreNotQuoted() throws IOException
+	{
+		final ViewLayout layout = ViewLayout.builder()
+				.setWindowId(WindowId.fromJson("123"))
+				.addElement(column("Empty", "Empty"))
+				.addElement(column("Quote", "\""))
+				.build();
+
+		final String csv = exportSingleRow(layout, ImmutableMap.of("Empty", "", "Quote", "\""));
+
+		assertThat(csv).isEqualTo(""
+				+ "Empty,\"\"\"\"\r\n"
+				+ ",\"\"\"\"\r\n");
+	}
+}
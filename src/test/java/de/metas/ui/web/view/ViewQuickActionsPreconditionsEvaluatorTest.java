@@ -0,0 +1,304 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.util.Env;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.metas.process.ProcessPreconditionsResolution;
+import de.metas.process.RelatedProcessDescriptor.DisplayPlace;
+import de.metas.ui.web.process.ProcessId;
+import de.metas.ui.web.process.ViewAsPreconditionsContext;
+import de.metas.ui.web.process.descriptor.WebuiRelatedProcessDescriptor;
+import de.metas.ui.web.session.UserSession;
+import de.metas.ui.web.view.json.JSONViewActionsChanged;
+import de.metas.ui.web.websocket.WebsocketSender;
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+import de.metas.ui.web.window.datatypes.WindowId;
+import mockit.Delegate;
+import mockit.Expectations;
+import mockit.Mocked;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ViewQuickActionsPreconditionsEvaluatorTest
+{
+	private static final ProcessId PROCESS_ID_1 = ProcessId.ofAD_Process_ID(540001);
+	private static final ProcessId PROCESS_ID_2 = ProcessId.ofAD_Process_ID(540002);
+
+	/** big enough to not be exceeded by an evaluation which is not blocked */
+	private static final int TIME_BUDGET_Unlimited = 10000;
+
+	@Mocked
+	private WebsocketSender websocketSender;
+	@Mocked
+	private IView view;
+
+	private final BlockingQueue<JSONViewActionsChanged> publishedEvents = new LinkedBlockingQueue<>();
+	private final CountDownLatch releaseBlockedEvaluations = new CountDownLatch(1);
+
+	private ViewId viewId;
+	private ViewQuickActionsPreconditionsEvaluator evaluator;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+		setLoggedUserAndRole(100, 1000000);
+
+		viewId = ViewId.random(WindowId.of(123));
+
+		new Expectations()
+		{
+			{
+				view.getViewId();
+				result = viewId;
+				minTimes = 0;
+
+				websocketSender.convertAndSend(anyString, any);
+				minTimes = 0;
+				result = new Delegate<Void>()
+				{
+					@SuppressWarnings("unused")
+					void convertAndSend(final String destination, final Object event)
+					{
+						publishedEvents.add((JSONViewActionsChanged)event);
+					}
+				};
+			}
+		};
+
+		evaluator = new ViewQuickActionsPreconditionsEvaluator(websocketSender, 2, 10, 100, 10);
+	}
+
+	@After
+	public void shutdown()
+	{
+		releaseBlockedEvaluations.countDown();
+		evaluator.shutdown();
+	}
+
+	private static void setLoggedUserAndRole(final int adUserId, final int adRoleId)
+	{
+		Env.setContext(Env.getCtx(), Env.CTXNAME_AD_User_ID, adUserId);
+		Env.setContext(Env.getCtx(), Env.CTXNAME_AD_Role_ID, adRoleId);
+	}
+
+	private ViewAsPreconditionsContext preconditionsContext(final String selectedIds)
+	{
+		return ViewAsPreconditionsContext.builder()
+				.view(view)
+				.viewRowIdsSelection(ViewRowIdsSelection.of(viewId, DocumentIdsSelection.ofCommaSeparatedString(selectedIds)))
+				.displayPlace(DisplayPlace.ViewQuickActions)
+				.build();
+	}
+
+	private static WebuiRelatedProcessDescriptor descriptor(final ProcessId processId, final Supplier<ProcessPreconditionsResolution> preconditionsResolutionSupplier)
+	{
+		return WebuiRelatedProcessDescriptor.builder()
+				.processId(processId)
+				.displayPlace(DisplayPlace.ViewQuickActions)
+				.preconditionsResolutionSupplier(preconditionsResolutionSupplier)
+				.build();
+	}
+
+	private static Supplier<ProcessPreconditionsResolution> acceptCounting(final AtomicInteger evaluationsCount)
+	{
+		return () -> {
+			evaluationsCount.incrementAndGet();
+			return ProcessPreconditionsResolution.accept();
+		};
+	}
+
+	private ProcessPreconditionsResolution blockUntilReleased()
+	{
+		try
+		{
+			releaseBlockedEvaluations.await(10, TimeUnit.SECONDS);
+		}
+		catch (final InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+		}
+		return ProcessPreconditionsResolution.accept();
+	}
+
+	private List<WebuiRelatedProcessDescriptor> evaluate(final ViewAsPreconditionsContext preconditionsContext, final int timeBudgetMillis, final WebuiRelatedProcessDescriptor... descriptors)
+	{
+		return evaluator.evaluate(preconditionsContext, Stream.of(descriptors), timeBudgetMillis)
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	public void evaluatedInTimeBudget()
+	{
+		final List<WebuiRelatedProcessDescriptor> result = evaluate(preconditionsContext("1,2"), TIME_BUDGET_Unlimited,
+				descriptor(PROCESS_ID_1, ProcessPreconditionsResolution::accept),
+				descriptor(PROCESS_ID_2, () -> ProcessPreconditionsResolution.rejectWithInternalReason("rejected")));
+
+		assertThat(result).hasSize(2);
+		assertThat(result.get(0).getProcessId()).isEqualTo(PROCESS_ID_1);
+		assertThat(result.get(0).isPreconditionsResolutionPending()).isFalse();
+		assertThat(result.get(0).isEnabled()).isTrue();
+		assertThat(result.get(1).getProcessId()).isEqualTo(PROCESS_ID_2);
+		assertThat(result.get(1).isPreconditionsResolutionPending()).isFalse();
+		assertThat(result.get(1).isDisabled()).isTrue();
+
+		assertThat(publishedEvents).isEmpty();
+	}
+
+	@Test
+	public void notEvaluatedInTimeBudget_isPendingAndNotifiedWhenDone() throws Exception
+	{
+		final List<WebuiRelatedProcessDescriptor> result = evaluate(preconditionsContext("1,2"), 50,
+				descriptor(PROCESS_ID_1, ProcessPreconditionsResolution::accept),
+				descriptor(PROCESS_ID_2, this::blockUntilReleased));
+
+		assertThat(result.get(0).isPreconditionsResolutionPending()).isFalse();
+		assertThat(result.get(0).isEnabled()).isTrue();
+		assertThat(result.get(1).isPreconditionsResolutionPending()).isTrue();
+		assertThat(result.get(1).isDisabled()).isTrue();
+
+		releaseBlockedEvaluations.countDown();
+		final JSONViewActionsChanged event = publishedEvents.poll(10, TimeUnit.SECONDS);
+		assertThat(event).isNotNull();
+		assertThat(event.getViewId()).isEqualTo(viewId.getViewId());
+		assertThat(event.getSelectedIds()).isEqualTo("1,2");
+		assertThat(event.getProcessIds()).containsExactly(PROCESS_ID_2.toJson());
+
+		// the frontend fetches the actions again and gets the evaluated one
+		final List<WebuiRelatedProcessDescriptor> resultAfterEvent = evaluate(preconditionsContext("1,2"), 0,
+				descriptor(PROCESS_ID_2, this::blockUntilReleased));
+		assertThat(resultAfterEvent.get(0).isPreconditionsResolutionPending()).isFalse();
+		assertThat(resultAfterEvent.get(0).isEnabled()).isTrue();
+	}
+
+	@Test
+	public void evaluationIsCachedPerSelection()
+	{
+		final AtomicInteger evaluationsCount = new AtomicInteger();
+
+		evaluate(preconditionsContext("1"), TIME_BUDGET_Unlimited, descriptor(PROCESS_ID_1, acceptCounting(evaluationsCount)));
+		evaluate(preconditionsContext("1"), TIME_BUDGET_Unlimited, descriptor(PROCESS_ID_1, acceptCounting(evaluationsCount)));
+		assertThat(evaluationsCount.get()).isEqualTo(1);
+
+		evaluate(preconditionsContext("2"), TIME_BUDGET_Unlimited, descriptor(PROCESS_ID_1, acceptCounting(evaluationsCount)));
+		assertThat(evaluationsCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void evaluationIsCachedPerUserAndRole()
+	{
+		final AtomicInteger evaluationsCount = new AtomicInteger();
+
+		evaluate(preconditionsContext("1"), TIME_BUDGET_Unlimited, descriptor(PROCESS_ID_1, acceptCounting(evaluationsCount)));
+		assertThat(evaluationsCount.get()).isEqualTo(1);
+
+		setLoggedUserAndRole(101, 1000000);
+		evaluate(preconditionsContext("1"), TIME_BUDGET_Unlimited, descriptor(PROCESS_ID_1, acceptCounting(evaluationsCount)));
+		assertThat(evaluationsCount.get()).isEqualTo(2);
+
+		setLoggedUserAndRole(101, 1000001);
+		evaluate(preconditionsContext("1"), TIME_BUDGET_Unlimited, descriptor(PROCESS_ID_1, acceptCounting(evaluationsCount)));
+		assertThat(evaluationsCount.get()).isEqualTo(3);
+	}
+
+	@Test
+	public void invalidateView()
+	{
+		final AtomicInteger evaluationsCount = new AtomicInteger();
+
+		evaluate(preconditionsContext("1"), TIME_BUDGET_Unlimited, descriptor(PROCESS_ID_1, acceptCounting(evaluationsCount)));
+		assertThat(evaluationsCount.get()).isEqualTo(1);
+
+		evaluator.invalidateView(ViewId.random(WindowId.of(123))); // another view
+		evaluate(preconditionsContext("1"), TIME_BUDGET_Unlimited, descriptor(PROCESS_ID_1, acceptCounting(evaluationsCount)));
+		assertThat(evaluationsCount.get()).isEqualTo(1);
+
+		evaluator.invalidateView(viewId);
+		evaluate(preconditionsContext("1"), TIME_BUDGET_Unlimited, descriptor(PROCESS_ID_1, acceptCounting(evaluationsCount)));
+		assertThat(evaluationsCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void failedEvaluationIsNotCached()
+	{
+		final AtomicInteger evaluationsCount = new AtomicInteger();
+		try
+		{
+			evaluate(preconditionsContext("1"), TIME_BUDGET_Unlimited, descriptor(PROCESS_ID_1, () -> {
+				evaluationsCount.incrementAndGet();
+				throw new RuntimeException("failed");
+			}));
+		}
+		catch (final RuntimeException ex)
+		{
+			// expected
+		}
+
+		evaluate(preconditionsContext("1"), TIME_BUDGET_Unlimited, descriptor(PROCESS_ID_1, acceptCounting(evaluationsCount)));
+		assertThat(evaluationsCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void internalRejectIsNotCached()
+	{
+		// NOTE: that's also what we get if the preconditions check failed with an exception
+		final AtomicInteger evaluationsCount = new AtomicInteger();
+		final Supplier<ProcessPreconditionsResolution> rejectCounting = () -> {
+			evaluationsCount.incrementAndGet();
+			return ProcessPreconditionsResolution.rejectWithInternalReason("failed");
+		};
+
+		evaluate(preconditionsContext("1"), TIME_BUDGET_Unlimited, descriptor(PROCESS_ID_1, rejectCounting));
+		evaluate(preconditionsContext("1"), TIME_BUDGET_Unlimited, descriptor(PROCESS_ID_1, rejectCounting));
+		assertThat(evaluationsCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void userSessionIsAvailableInEvaluationThread() throws Exception
+	{
+		final Supplier<ProcessPreconditionsResolution> acceptIfUserSession = () -> UserSession.getCurrentOrNull() != null
+				? ProcessPreconditionsResolution.accept()
+				: ProcessPreconditionsResolution.rejectWithInternalReason("no user session");
+
+		final List<WebuiRelatedProcessDescriptor> result = UserSession.withUserSession(new UserSession(null), () -> evaluate(preconditionsContext("1"), TIME_BUDGET_Unlimited,
+				descriptor(PROCESS_ID_1, acceptIfUserSession)))
+				.call();
+
+		assertThat(result.get(0).isEnabled()).isTrue();
+	}
+}
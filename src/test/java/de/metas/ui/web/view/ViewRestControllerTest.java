@@ -0,0 +1,44 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ViewRestControllerTest
+{
+	@Test
+	public void toExportFilename()
+	{
+		assertThat(ViewRestController.toExportFilename(" Sales Orders ", "csv")).isEqualTo("Sales Orders.csv");
+		assertThat(ViewRestController.toExportFilename("Lieferungen: Köln/Bonn \"2019\"", "xlsx")).isEqualTo("Lieferungen_ Köln_Bonn _2019_.xlsx");
+	}
+
+	@Test
+	public void toExportFilename_fallbackIfEmpty()
+	{
+		assertThat(ViewRestController.toExportFilename(null, "csv")).isEqualTo("report.csv");
+		assertThat(ViewRestController.toExportFilename("  ", "csv")).isEqualTo("report.csv");
+	}
+}
@@ -0,0 +1,74 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import de.metas.ui.web.window.datatypes.DocumentId;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ViewRowIdsOrderedSelectionTest
+{
+	private static ViewRowIdsOrderedSelection inMemorySelection(final int... rowIds)
+	{
+		return ViewRowIdsOrderedSelection.builder()
+				.setViewId(ViewId.ofViewIdString("123-abc"))
+				.setRowIds(rowIds)
+				.build();
+	}
+
+	@Test
+	public void getRowIdsPage()
+	{
+		final ViewRowIdsOrderedSelection selection = inMemorySelection(5, 3, 1, 4, 2);
+
+		assertThat(selection.isInMemory()).isTrue();
+		assertThat(selection.getSize()).isEqualTo(5);
+		assertThat(selection.getRowIdsPage(0, 2)).containsExactly(DocumentId.of(5), DocumentId.of(3));
+		assertThat(selection.getRowIdsPage(3, 10)).containsExactly(DocumentId.of(4), DocumentId.of(2));
+		assertThat(selection.getRowIdsPage(5, 10)).isEmpty();
+		assertThat(selection.getRowIdsPage(100, 10)).isEmpty();
+	}
+
+	@Test
+	public void toBuilder_keepsRowIds()
+	{
+		final ViewRowIdsOrderedSelection selection = inMemorySelection(2, 1).toBuilder().build();
+
+		assertThat(selection.isInMemory()).isTrue();
+		assertThat(selection.getRowIdsPage(0, 10)).containsExactly(DocumentId.of(2), DocumentId.of(1));
+	}
+
+	@Test
+	public void notInMemory()
+	{
+		final ViewRowIdsOrderedSelection selection = ViewRowIdsOrderedSelection.builder()
+				.setViewId(ViewId.ofViewIdString("123-abc"))
+				.setSize(10)
+				.build();
+
+		assertThat(selection.isInMemory()).isFalse();
+		assertThat(selection.getSize()).isEqualTo(10);
+	}
+}
@@ -0,0 +1,148 @@
+package de.metas.ui.web.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.Collectors;
+
+import org.adempiere.util.lang.impl.TableRecordReferenceSet;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.window.datatypes.WindowId;
+import mockit.Expectations;
+import mockit.Injectable;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ViewsByWatchedTableIndexTest
+{
+	@Injectable
+	private IView viewWatchingOrderLine;
+	@Injectable
+	private IView viewWatchingAll;
+	@Injectable
+	private IView viewWatchingNothing;
+
+	private final ViewsByWatchedTableIndex index = new ViewsByWatchedTableIndex();
+
+	private void setupViews()
+	{
+		// @formatter:off
+		new Expectations()
+		{{
+			viewWatchingOrderLine.getViewId(); result = ViewId.random(WindowId.of(1)); minTimes = 0;
+			viewWatchingOrderLine.getWatchedTables(); result = ViewWatchedTables.ofTableName("C_OrderLine"); minTimes = 0;
+
+			viewWatchingAll.getViewId(); result = ViewId.random(WindowId.of(2)); minTimes = 0;
+			viewWatchingAll.getWatchedTables(); result = ViewWatchedTables.ALL; minTimes = 0;
+
+			viewWatchingNothing.getViewId(); result = ViewId.random(WindowId.of(3)); minTimes = 0;
+			viewWatchingNothing.getWatchedTables(); result = ViewWatchedTables.NONE; minTimes = 0;
+		}};
+		// @formatter:on
+
+		index.add(viewWatchingOrderLine);
+		index.add(viewWatchingAll);
+		index.add(viewWatchingNothing);
+	}
+
+	private static TableRecordReferenceSet recordRefs(final String tableName)
+	{
+		return TableRecordReferenceSet.of(tableName, 1);
+	}
+
+	@Test
+	public void streamViewsWatching_matchingTable()
+	{
+		setupViews();
+
+		assertThat(index.streamViewsWatching(recordRefs("C_OrderLine")).collect(Collectors.toList()))
+				.containsOnly(viewWatchingOrderLine, viewWatchingAll);
+	}
+
+	@Test
+	public void streamViewsWatching_notMatchingTable()
+	{
+		setupViews();
+
+		assertThat(index.streamViewsWatching(recordRefs("C_Invoice")).collect(Collectors.toList()))
+				.containsOnly(viewWatchingAll);
+	}
+
+	@Test
+	public void remove()
+	{
+		setupViews();
+
+		index.remove(viewWatchingOrderLine.getViewId());
+		index.remove(viewWatchingAll.getViewId());
+
+		assertThat(index.streamViewsWatching(recordRefs("C_OrderLine")).collect(ImmutableList.toImmutableList()))
+				.isEmpty();
+	}
+
+	@Test
+	public void removeIfSame_sameView()
+	{
+		setupViews();
+
+		index.removeIfSame(viewWatchingOrderLine);
+
+		assertThat(index.streamViewsWatching(recordRefs("C_OrderLine")).collect(ImmutableList.toImmutableList()))
+				.containsOnly(viewWatchingAll);
+	}
+
+	@Test
+	public void removeIfSame_viewWasReplaced(@Injectable final IView replacementView)
+	{
+		setupViews();
+
+		// @formatter:off
+		new Expectations()
+		{{
+			replacementView.getViewId(); result = viewWatchingOrderLine.getViewId(); minTimes = 0;
+			replacementView.getWatchedTables(); result = ViewWatchedTables.ofTableName("C_OrderLine"); minTimes = 0;
+		}};
+		// @formatter:on
+		index.add(replacementView);
+
+		// the late removal of the old view shall not remove the replacement
+		index.removeIfSame(viewWatchingOrderLine);
+
+		assertThat(index.streamViewsWatching(recordRefs("C_OrderLine")).collect(ImmutableList.toImmutableList()))
+				.containsOnly(replacementView, viewWatchingAll);
+	}
+
+	@Test
+	public void addAfterRemove_tableIsStillIndexed()
+	{
+		setupViews();
+
+		index.remove(viewWatchingOrderLine.getViewId()); // prunes the C_OrderLine entry
+		index.add(viewWatchingOrderLine);
+
+		assertThat(index.streamViewsWatching(recordRefs("C_OrderLine")).collect(ImmutableList.toImmutableList()))
+				.containsOnly(viewWatchingOrderLine, viewWatchingAll);
+	}
+}
@@ -0,0 +1,120 @@
+package de.metas.ui.web.view.descriptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.adempiere.ad.expression.api.IExpressionEvaluator.OnVariableNotFound;
+import org.adempiere.ad.expression.api.IStringExpression;
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.util.Env;
+import org.compiere.util.Evaluatee;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.ui.web.view.ViewEvaluationCtx;
+import mockit.Expectations;
+import mockit.Mocked;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class SqlViewSelectTemplateTest
+{
+	@Mocked
+	private IStringExpression sqlExpression;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+	}
+
+	@Test
+	public void sameParameterValues_evaluatedOnce()
+	{
+		new Expectations()
+		{
+			{
+				sqlExpression.getParameterNames();
+				result = ImmutableSet.of(Env.CTXNAME_AD_Language);
+
+				sqlExpression.evaluate((Evaluatee)any, OnVariableNotFound.Fail);
+				result = "SELECT 1";
+				times = 1;
+			}
+		};
+
+		final SqlViewSelectTemplate template = SqlViewSelectTemplate.of(sqlExpression);
+		final String sql1 = template.evaluate(ViewEvaluationCtx.newInstanceFromCurrentContext());
+		final String sql2 = template.evaluate(ViewEvaluationCtx.newInstanceFromCurrentContext());
+
+		assertThat(sql1).isEqualTo("SELECT 1");
+		assertThat(sql2).isSameAs(sql1);
+	}
+
+	@Test
+	public void evaluationFailure_isPropagatedUnwrapped()
+	{
+		final AdempiereException failure = new AdempiereException("evaluation failed");
+		new Expectations()
+		{
+			{
+				sqlExpression.getParameterNames();
+				result = ImmutableSet.of(Env.CTXNAME_AD_Language);
+
+				sqlExpression.evaluate((Evaluatee)any, OnVariableNotFound.Fail);
+				result = failure;
+			}
+		};
+
+		final SqlViewSelectTemplate template = SqlViewSelectTemplate.of(sqlExpression);
+
+		assertThatThrownBy(() -> template.evaluate(ViewEvaluationCtx.newInstanceFromCurrentContext()))
+				.isSameAs(failure);
+	}
+
+	@Test
+	public void evaluationFailure_isNotCached()
+	{
+		new Expectations()
+		{
+			{
+				sqlExpression.getParameterNames();
+				result = ImmutableSet.of(Env.CTXNAME_AD_Language);
+
+				sqlExpression.evaluate((Evaluatee)any, OnVariableNotFound.Fail);
+				result = new AdempiereException("evaluation failed");
+				result = "SELECT 1";
+			}
+		};
+
+		final SqlViewSelectTemplate template = SqlViewSelectTemplate.of(sqlExpression);
+		assertThatThrownBy(() -> template.evaluate(ViewEvaluationCtx.newInstanceFromCurrentContext()))
+				.isInstanceOf(AdempiereException.class)
+				.hasMessageContaining("evaluation failed");
+
+		assertThat(template.evaluate(ViewEvaluationCtx.newInstanceFromCurrentContext())).isEqualTo("SELECT 1");
+	}
+}
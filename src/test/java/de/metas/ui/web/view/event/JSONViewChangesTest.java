@@ -0,0 +1,74 @@
+package de.metas.ui.web.view.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import de.metas.ui.web.view.ViewId;
+import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class JSONViewChangesTest
+{
+	private static JSONViewChanges changes(final String viewIdStr, final String changedIdsStr)
+	{
+		final ViewChanges changes = new ViewChanges(ViewId.ofViewIdString(viewIdStr));
+		changes.addChangedRowIds(DocumentIdsSelection.ofCommaSeparatedString(changedIdsStr));
+		return JSONViewChanges.of(changes);
+	}
+
+	private static JSONViewChanges fullyChanged(final String viewIdStr)
+	{
+		final ViewChanges changes = new ViewChanges(ViewId.ofViewIdString(viewIdStr));
+		changes.setFullyChanged();
+		return JSONViewChanges.of(changes);
+	}
+
+	@Test
+	public void mergeWith_sameView()
+	{
+		final JSONViewChanges merged = changes("123-abc", "1,2").mergeWith(changes("123-abc", "2,3"));
+
+		assertThat(merged).isNotNull();
+		assertThat(merged.getFullyChanged()).isFalse();
+		assertThat(merged.toString()).contains("changedIds=[1, 2, 3]");
+	}
+
+	@Test
+	public void mergeWith_fullyChanged()
+	{
+		final JSONViewChanges merged = changes("123-abc", "1,2").mergeWith(fullyChanged("123-abc"));
+
+		assertThat(merged).isNotNull();
+		assertThat(merged.getFullyChanged()).isTrue();
+		assertThat(merged.toString()).doesNotContain("changedIds");
+	}
+
+	@Test
+	public void mergeWith_otherView()
+	{
+		assertThat(changes("123-abc", "1").mergeWith(changes("123-xyz", "1"))).isNull();
+		assertThat(changes("123-abc", "1").mergeWith("some other event")).isNull();
+	}
+}
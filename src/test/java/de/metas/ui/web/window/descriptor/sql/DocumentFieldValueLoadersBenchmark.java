@@ -0,0 +1,185 @@
+package de.metas.ui.web.window.descriptor.sql;
+
+import java.math.BigDecimal;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Benchmarks loading one page of a wide view/document result set using {@link DocumentFieldValueLoaders},
+ * reading the columns by name (as before) vs. by index, after compiling the loaders with {@link ResultSetColumnIndexes}.
+ * <p>
+ * The result set is an in-memory {@link CachedRowSet}, so only the column lookup and value conversion costs are measured.
+ *
+ * Run it using {@link de.metas.ui.web.benchmarks.BenchmarksRunner}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentFieldValueLoadersBenchmark
+{
+	private static final int PAGE_LENGTH = 100;
+
+	@Param({ "20", "60" })
+	public int columnsCount;
+
+	@Param({ "false", "true" })
+	public boolean compileColumnIndexes;
+
+	private CachedRowSet resultSet;
+	private List<DocumentFieldValueLoader> fieldValueLoaders;
+
+	@Setup
+	public void setup() throws SQLException
+	{
+		final RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+		metaData.setColumnCount(columnsCount);
+
+		fieldValueLoaders = new ArrayList<>(columnsCount);
+		for (int columnIndex = 1; columnIndex <= columnsCount; columnIndex++)
+		{
+			final String columnName = "Column" + columnIndex;
+			final int sqlType = getSqlType(columnIndex);
+
+			metaData.setColumnName(columnIndex, columnName);
+			metaData.setColumnLabel(columnIndex, columnName);
+			metaData.setColumnType(columnIndex, sqlType);
+			metaData.setNullable(columnIndex, ResultSetMetaData.columnNullable);
+
+			fieldValueLoaders.add(createFieldValueLoader(columnName, sqlType));
+		}
+
+		resultSet = RowSetProvider.newFactory().createCachedRowSet();
+		resultSet.setMetaData(metaData);
+		for (int row = 1; row <= PAGE_LENGTH; row++)
+		{
+			resultSet.moveToInsertRow();
+			for (int columnIndex = 1; columnIndex <= columnsCount; columnIndex++)
+			{
+				switch (getSqlType(columnIndex))
+				{
+					case Types.INTEGER:
+						resultSet.updateInt(columnIndex, row * columnIndex);
+						break;
+					case Types.NUMERIC:
+						resultSet.updateBigDecimal(columnIndex, BigDecimal.valueOf(row * 1234L + columnIndex, 2));
+						break;
+					case Types.TIMESTAMP:
+						resultSet.updateTimestamp(columnIndex, new Timestamp(1546300800000L + row * 86400000L));
+						break;
+					default:
+						resultSet.updateString(columnIndex, "Value " + row + "/" + columnIndex);
+						break;
+				}
+			}
+			resultSet.insertRow();
+			resultSet.moveToCurrentRow();
+		}
+	}
+
+	private static int getSqlType(final int columnIndex)
+	{
+		switch (columnIndex % 4)
+		{
+			case 0:
+				return Types.INTEGER;
+			case 1:
+				return Types.VARCHAR;
+			case 2:
+				return Types.NUMERIC;
+			default:
+				return Types.TIMESTAMP;
+		}
+	}
+
+	private static DocumentFieldValueLoader createFieldValueLoader(final String columnName, final int sqlType)
+	{
+		final boolean encrypted = false;
+		switch (sqlType)
+		{
+			case Types.INTEGER:
+				return DocumentFieldValueLoaders.toInteger(columnName, encrypted);
+			case Types.NUMERIC:
+				return DocumentFieldValueLoaders.toBigDecimal(columnName, encrypted, 2);
+			case Types.TIMESTAMP:
+				return DocumentFieldValueLoaders.toZonedDateTime(columnName, encrypted);
+			default:
+				return DocumentFieldValueLoaders.toString(columnName, encrypted);
+		}
+	}
+
+	@Benchmark
+	public void loadPage(final Blackhole blackhole) throws SQLException
+	{
+		resultSet.beforeFirst();
+
+		// same as the repositories do: compile the loaders once per result set
+		final List<DocumentFieldValueLoader> fieldValueLoaders = compileColumnIndexes ? compile(this.fieldValueLoaders) : this.fieldValueLoaders;
+
+		while (resultSet.next())
+		{
+			for (final DocumentFieldValueLoader fieldValueLoader : fieldValueLoaders)
+			{
+				blackhole.consume(fieldValueLoader.retrieveFieldValue(resultSet, true, "en_US", null));
+			}
+		}
+	}
+
+	private List<DocumentFieldValueLoader> compile(final List<DocumentFieldValueLoader> fieldValueLoaders) throws SQLException
+	{
+		final ResultSetColumnIndexes columnIndexes = ResultSetColumnIndexes.of(resultSet);
+
+		final List<DocumentFieldValueLoader> compiledFieldValueLoaders = new ArrayList<>(fieldValueLoaders.size());
+		for (final DocumentFieldValueLoader fieldValueLoader : fieldValueLoaders)
+		{
+			compiledFieldValueLoaders.add(fieldValueLoader.compile(columnIndexes));
+		}
+		return compiledFieldValueLoaders;
+	}
+}
@@ -0,0 +1,130 @@
+package de.metas.ui.web.window.descriptor.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Optional;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.ui.web.window.descriptor.sql.ProductLookupIndex.IndexData;
+import de.metas.ui.web.window.descriptor.sql.ProductLookupIndex.IndexedRow;
+import de.metas.ui.web.window.descriptor.sql.ProductLookupIndex.RowKey;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ProductLookupIndexTest
+{
+	private static IndexedRow row(final int productId, final int bpartnerId, final String value, final String name, final String bpartnerProductNo)
+	{
+		return IndexedRow.builder()
+				.productId(productId)
+				.bpartnerId(bpartnerId)
+				.displayName(value + "_" + name)
+				.value(value)
+				.name(name)
+				.bpartnerProductNo(bpartnerProductNo)
+				.build();
+	}
+
+	private static IndexData createIndexData()
+	{
+		return IndexData.of(ImmutableList.of(
+				row(1, 0, "P001", "Apple Juice", null),
+				row(1, 10, "P001", "Apple Juice", "BP-AJ-77"),
+				row(2, 0, "P002", "Orange Juice", null),
+				row(3, 0, "P003", "Pineapple", null)));
+	}
+
+	@Test
+	public void normalizeSearchString()
+	{
+		assertThat(ProductLookupIndex.normalizeSearchString(" Apple ")).isEqualTo("apple");
+		assertThat(ProductLookupIndex.normalizeSearchString("App%")).isNull();
+		assertThat(ProductLookupIndex.normalizeSearchString("P_01")).isNull();
+		assertThat(ProductLookupIndex.normalizeSearchString("  ")).isNull();
+	}
+
+	@Test
+	public void findMatchingRows_fullTextSearch()
+	{
+		final IndexData data = createIndexData();
+
+		assertThat(data.findMatchingRows("apple", true, 100))
+				.contains(ImmutableSet.of(RowKey.of(1, 0), RowKey.of(1, 10), RowKey.of(3, 0)));
+
+		// BPartner product numbers are matching only the rows of that BPartner
+		assertThat(data.findMatchingRows("aj-77", true, 100))
+				.contains(ImmutableSet.of(RowKey.of(1, 10)));
+
+		assertThat(data.findMatchingRows("banana", true, 100))
+				.contains(ImmutableSet.of());
+	}
+
+	@Test
+	public void findMatchingRows_notFullTextSearch()
+	{
+		final IndexData data = createIndexData();
+
+		assertThat(data.findMatchingRows("aj-77", false, 100))
+				.contains(ImmutableSet.of());
+		assertThat(data.findMatchingRows("p002", false, 100))
+				.contains(ImmutableSet.of(RowKey.of(2, 0)));
+	}
+
+	@Test
+	public void findMatchingRows_searchStringShorterThanNGram()
+	{
+		final IndexData data = createIndexData();
+
+		assertThat(data.findMatchingRows("ju", true, 100))
+				.contains(ImmutableSet.of(RowKey.of(1, 0), RowKey.of(1, 10), RowKey.of(2, 0)));
+	}
+
+	@Test
+	public void findMatchingRows_tooManyMatches()
+	{
+		final IndexData data = createIndexData();
+
+		assertThat(data.findMatchingRows("juice", true, 2)).isEqualTo(Optional.empty());
+	}
+
+	@Test
+	public void findMatchingRows_afterProductRowsReplaced()
+	{
+		final IndexData data = createIndexData();
+
+		data.replaceProductRows(3, ImmutableList.of(row(3, 0, "P003", "Banana", null)));
+		data.replaceProductRows(4, ImmutableList.of(row(4, 0, "P004", "Green Apple", null)));
+		data.replaceProductRows(2, ImmutableList.of()); // deleted
+
+		assertThat(data.findMatchingRows("apple", true, 100))
+				.contains(ImmutableSet.of(RowKey.of(1, 0), RowKey.of(1, 10), RowKey.of(4, 0)));
+		assertThat(data.findMatchingRows("banana", true, 100))
+				.contains(ImmutableSet.of(RowKey.of(3, 0)));
+		assertThat(data.findMatchingRows("orange", true, 100))
+				.contains(ImmutableSet.of());
+	}
+}
@@ -0,0 +1,91 @@
+package de.metas.ui.web.window.descriptor.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+
+import org.junit.Test;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ResultSetColumnIndexesTest
+{
+	private static CachedRowSet createResultSet() throws SQLException
+	{
+		final RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+		metaData.setColumnCount(3);
+		metaData.setColumnName(1, "documentno");
+		metaData.setColumnLabel(1, "documentno");
+		metaData.setColumnType(1, Types.VARCHAR);
+		metaData.setColumnName(2, "grandtotal");
+		metaData.setColumnLabel(2, "grandtotal");
+		metaData.setColumnType(2, Types.NUMERIC);
+		metaData.setColumnName(3, "documentno");
+		metaData.setColumnLabel(3, "documentno");
+		metaData.setColumnType(3, Types.VARCHAR);
+
+		final CachedRowSet rs = RowSetProvider.newFactory().createCachedRowSet();
+		rs.setMetaData(metaData);
+		rs.moveToInsertRow();
+		rs.updateString(1, "SO1");
+		rs.updateBigDecimal(2, new BigDecimal("12.3"));
+		rs.updateString(3, "duplicate");
+		rs.insertRow();
+		rs.moveToCurrentRow();
+		rs.beforeFirst();
+		return rs;
+	}
+
+	@Test
+	public void getColumnIndexOrNone() throws SQLException
+	{
+		final ResultSetColumnIndexes columnIndexes = ResultSetColumnIndexes.of(createResultSet());
+
+		assertThat(columnIndexes.getColumnIndexOrNone("DocumentNo")).isEqualTo(1);
+		assertThat(columnIndexes.getColumnIndexOrNone("GrandTotal")).isEqualTo(2);
+		assertThat(columnIndexes.getColumnIndexOrNone("Description")).isEqualTo(ResultSetColumnIndexes.NONE);
+	}
+
+	@Test
+	public void compiledFieldValueLoaders_readSameValues() throws SQLException
+	{
+		final CachedRowSet rs = createResultSet();
+		final ResultSetColumnIndexes columnIndexes = ResultSetColumnIndexes.of(rs);
+		final DocumentFieldValueLoader documentNoLoader = DocumentFieldValueLoaders.toString("DocumentNo", false);
+		final DocumentFieldValueLoader grandTotalLoader = DocumentFieldValueLoaders.toBigDecimal("GrandTotal", false, 2);
+
+		assertThat(rs.next()).isTrue();
+		assertThat(documentNoLoader.compile(columnIndexes).retrieveFieldValue(rs, true, "en_US", null))
+				.isEqualTo(documentNoLoader.retrieveFieldValue(rs, true, "en_US", null))
+				.isEqualTo("SO1");
+		assertThat(grandTotalLoader.compile(columnIndexes).retrieveFieldValue(rs, true, "en_US", null))
+				.isEqualTo(grandTotalLoader.retrieveFieldValue(rs, true, "en_US", null))
+				.isEqualTo(new BigDecimal("12.30"));
+	}
+}
@@ -0,0 +1,131 @@
+package de.metas.ui.web.window.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.adempiere.ad.expression.api.ConstantLogicExpression;
+import org.adempiere.ad.expression.api.ILogicExpression;
+import org.adempiere.ad.expression.api.impl.LogicExpressionCompiler;
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.metas.ui.web.window.WindowConstants;
+import de.metas.ui.web.window.model.CompiledLogicExpression.Evaluation;
+import de.metas.ui.web.window.model.IDocumentChangesCollector.ReasonSupplier;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class CompiledLogicExpressionTest
+{
+	private static final ReasonSupplier REASON = () -> "test";
+
+	private Document order;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		final InMemoryDocumentsRepository documentsRepository = new InMemoryDocumentsRepository();
+		order = documentsRepository.createOrder(documentsRepository.createOrderDescriptor());
+	}
+
+	private static ILogicExpression compile(final String expressionStr)
+	{
+		return LogicExpressionCompiler.instance.compile(expressionStr);
+	}
+
+	private void setActive(final boolean active)
+	{
+		order.processValueChange(WindowConstants.FIELDNAME_IsActive, active, REASON);
+	}
+
+	@Test
+	public void sameExpressionInstance_isCompiledOnce()
+	{
+		final ILogicExpression expression = compile("@IsActive/Y@=N");
+
+		assertThat(CompiledLogicExpression.of(expression)).isSameAs(CompiledLogicExpression.of(expression));
+	}
+
+	@Test
+	public void evaluationIsReused_ifInputValuesDidNotChange()
+	{
+		final CompiledLogicExpression compiledExpression = CompiledLogicExpression.of(compile("@IsActive/Y@=N"));
+
+		final Evaluation evaluation = compiledExpression.evaluate(order.asEvaluatee(), null);
+		assertThat(evaluation.getResult().isTrue()).isFalse();
+
+		assertThat(compiledExpression.evaluate(order.asEvaluatee(), evaluation)).isSameAs(evaluation);
+
+		// setting the same value again shall not invalidate the evaluation
+		setActive(true);
+		assertThat(compiledExpression.evaluate(order.asEvaluatee(), evaluation)).isSameAs(evaluation);
+	}
+
+	@Test
+	public void evaluationIsInvalidated_ifAnInputValueChanged()
+	{
+		final CompiledLogicExpression compiledExpression = CompiledLogicExpression.of(compile("@IsActive/Y@=N"));
+		final Evaluation evaluationActive = compiledExpression.evaluate(order.asEvaluatee(), null);
+
+		setActive(false);
+		final Evaluation evaluationNotActive = compiledExpression.evaluate(order.asEvaluatee(), evaluationActive);
+		assertThat(evaluationNotActive).isNotSameAs(evaluationActive);
+		assertThat(evaluationNotActive.getResult().isTrue()).isTrue();
+
+		setActive(true);
+		final Evaluation evaluationActiveAgain = compiledExpression.evaluate(order.asEvaluatee(), evaluationNotActive);
+		assertThat(evaluationActiveAgain).isNotSameAs(evaluationNotActive);
+		assertThat(evaluationActiveAgain.getResult().isTrue()).isFalse();
+	}
+
+	@Test
+	public void evaluationOfAnotherExpression_isNotReused()
+	{
+		final CompiledLogicExpression compiledExpression1 = CompiledLogicExpression.of(compile("@IsActive/Y@=N"));
+		final CompiledLogicExpression compiledExpression2 = CompiledLogicExpression.of(compile("@IsActive/Y@=Y"));
+
+		final Evaluation evaluation1 = compiledExpression1.evaluate(order.asEvaluatee(), null);
+		final Evaluation evaluation2 = compiledExpression2.evaluate(order.asEvaluatee(), evaluation1);
+
+		assertThat(evaluation2).isNotSameAs(evaluation1);
+		assertThat(evaluation1.getResult().isTrue()).isFalse();
+		assertThat(evaluation2.getResult().isTrue()).isTrue();
+	}
+
+	@Test
+	public void constantExpression_isEvaluatedOnce()
+	{
+		final CompiledLogicExpression compiledExpression = CompiledLogicExpression.of(ConstantLogicExpression.TRUE);
+
+		final Evaluation evaluation = compiledExpression.evaluate(order.asEvaluatee(), null);
+		assertThat(evaluation.getResult().isTrue()).isTrue();
+
+		// no previous evaluation provided, but the constant one is returned anyway
+		assertThat(compiledExpression.evaluate(order.asEvaluatee(), null)).isSameAs(evaluation);
+
+		setActive(false);
+		assertThat(compiledExpression.evaluate(order.asEvaluatee(), evaluation)).isSameAs(evaluation);
+	}
+}
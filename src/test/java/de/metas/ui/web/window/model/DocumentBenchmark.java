@@ -0,0 +1,190 @@
+package de.metas.ui.web.window.model;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.JsonObjectMapperHolder;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentType;
+import de.metas.ui.web.window.datatypes.json.JSONDocumentChangedEvent;
+import de.metas.ui.web.window.datatypes.json.JSONDocumentField;
+import de.metas.ui.web.window.datatypes.json.JSONOptions;
+import de.metas.ui.web.window.descriptor.DocumentEntityDescriptor;
+import de.metas.ui.web.window.descriptor.DocumentFieldDescriptor;
+import de.metas.ui.web.window.descriptor.DocumentFieldDescriptor.Characteristic;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.model.Document.CopyMode;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Benchmarks the {@link Document} hot paths: copying, processing field changes and converting the fields to JSON.
+ * <p>
+ * The document is an in-memory document (like process parameters are), so no database is needed.
+ *
+ * Run it using {@link de.metas.ui.web.benchmarks.BenchmarksRunner}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentBenchmark
+{
+	private static final int FIELDS_COUNT = 40;
+	private static final String FIELDNAME_IsActive = "IsActive";
+
+	private JSONOptions jsonOpts;
+	private ObjectMapper jsonObjectMapper;
+
+	private Document document;
+	private ImmutableList<JSONDocumentChangedEvent> fieldChangeEvents;
+
+	@Setup
+	public void setup()
+	{
+		AdempiereTestHelper.get().init();
+
+		jsonOpts = JSONOptions.newInstance();
+		jsonObjectMapper = JsonObjectMapperHolder.sharedJsonObjectMapper();
+
+		document = Document.builder(createEntityDescriptor())
+				.initializeAsNewDocument(DocumentId.of(1000000), "0");
+
+		fieldChangeEvents = ImmutableList.of(
+				JSONDocumentChangedEvent.replace(FIELDNAME_IsActive, false),
+				JSONDocumentChangedEvent.replace(fieldName(1), "changed text"),
+				JSONDocumentChangedEvent.replace(fieldName(2), 1234),
+				JSONDocumentChangedEvent.replace(fieldName(3), "1234.56"),
+				JSONDocumentChangedEvent.replace(FIELDNAME_IsActive, true));
+	}
+
+	private static DocumentEntityDescriptor createEntityDescriptor()
+	{
+		final DocumentEntityDescriptor.Builder entityDescriptor = DocumentEntityDescriptor.builder()
+				.setDocumentType(DocumentType.Process, DocumentId.of(540000))
+				.setCaption("Benchmark")
+				.disableDefaultTableCallouts();
+
+		entityDescriptor.addField(DocumentFieldDescriptor.builder(FIELDNAME_IsActive)
+				.setCaption(FIELDNAME_IsActive)
+				.setValueClass(Boolean.class)
+				.setWidgetType(DocumentFieldWidgetType.YesNo)
+				.setReadonlyLogic(false)
+				.setDisplayLogic(true)
+				.setMandatoryLogic(true)
+				.addCharacteristic(Characteristic.PublicField));
+
+		for (int i = 1; i < FIELDS_COUNT; i++)
+		{
+			final DocumentFieldWidgetType widgetType;
+			final Class<?> valueClass;
+			switch (i % 3)
+			{
+				case 1:
+					widgetType = DocumentFieldWidgetType.Text;
+					valueClass = String.class;
+					break;
+				case 2:
+					widgetType = DocumentFieldWidgetType.Integer;
+					valueClass = Integer.class;
+					break;
+				default:
+					widgetType = DocumentFieldWidgetType.Amount;
+					valueClass = BigDecimal.class;
+					break;
+			}
+
+			// half of the fields are depending on IsActive, so changing it has to re-evaluate them
+			final String logic = i % 2 == 0 ? "@" + FIELDNAME_IsActive + "@=Y" : null;
+
+			final DocumentFieldDescriptor.Builder field = DocumentFieldDescriptor.builder(fieldName(i))
+					.setCaption(fieldName(i))
+					.setValueClass(valueClass)
+					.setWidgetType(widgetType)
+					.setReadonlyLogic(false)
+					.setMandatoryLogic(false)
+					.addCharacteristic(Characteristic.PublicField);
+			if (logic != null)
+			{
+				field.setDisplayLogic(logic);
+			}
+			else
+			{
+				field.setDisplayLogic(true);
+			}
+
+			entityDescriptor.addField(field);
+		}
+
+		return entityDescriptor.build();
+	}
+
+	private static String fieldName(final int index)
+	{
+		return "Field" + index;
+	}
+
+	@Benchmark
+	public Document copy()
+	{
+		return document.copy(CopyMode.CheckOutWritable, NullDocumentChangesCollector.instance);
+	}
+
+	@Benchmark
+	public IDocumentChangesCollector processValueChanges()
+	{
+		final IDocumentChangesCollector changesCollector = DocumentChangesCollector.newInstance();
+		final Document documentWritable = document.copy(CopyMode.CheckOutWritable, changesCollector);
+		documentWritable.processValueChanges(fieldChangeEvents, () -> "benchmark");
+		return changesCollector;
+	}
+
+	@Benchmark
+	public String serializeFields() throws JsonProcessingException
+	{
+		final List<JSONDocumentField> jsonFields = document.getFieldViews()
+				.stream()
+				.map(field -> JSONDocumentField.ofDocumentField(field, jsonOpts))
+				.collect(ImmutableList.toImmutableList());
+		return jsonObjectMapper.writeValueAsString(jsonFields);
+	}
+}
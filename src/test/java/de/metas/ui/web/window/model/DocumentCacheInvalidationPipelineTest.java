@@ -0,0 +1,245 @@
+package de.metas.ui.web.window.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.cache.model.CacheInvalidateMultiRequest;
+import de.metas.cache.model.CacheInvalidateRequest;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class DocumentCacheInvalidationPipelineTest
+{
+	@Value
+	private static class HandledBatch
+	{
+		List<CacheInvalidateRequest> requests;
+		String threadName;
+	}
+
+	private final BlockingQueue<HandledBatch> handledBatches = new LinkedBlockingQueue<>();
+	private final List<DocumentCacheInvalidationPipeline> pipelines = new ArrayList<>();
+
+	@After
+	public void shutdownPipelines()
+	{
+		pipelines.forEach(DocumentCacheInvalidationPipeline::shutdown);
+	}
+
+	private DocumentCacheInvalidationPipeline build(final DocumentCacheInvalidationPipeline.DocumentCacheInvalidationPipelineBuilder builder)
+	{
+		final DocumentCacheInvalidationPipeline pipeline = builder.build();
+		pipelines.add(pipeline);
+		return pipeline;
+	}
+
+	private void recordHandledBatch(final CacheInvalidateMultiRequest multiRequest)
+	{
+		handledBatches.add(new HandledBatch(ImmutableList.copyOf(multiRequest.getRequests()), Thread.currentThread().getName()));
+	}
+
+	private HandledBatch nextHandledBatch() throws InterruptedException
+	{
+		final HandledBatch batch = handledBatches.poll(10, TimeUnit.SECONDS);
+		assertThat(batch).as("handled batch").isNotNull();
+		return batch;
+	}
+
+	private static DocumentCacheInvalidationPipeline.DocumentCacheInvalidationPipelineBuilder newPipeline(final Consumer<CacheInvalidateMultiRequest> handler)
+	{
+		return DocumentCacheInvalidationPipeline.builder()
+				.name("test")
+				.handler(handler)
+				.windowMillis(0)
+				.partitions(4)
+				.maxPendingRequests(1000)
+				.maxQueuedBatches(100);
+	}
+
+	private static CacheInvalidateMultiRequest rootRecord(final String tableName, final int recordId)
+	{
+		return CacheInvalidateMultiRequest.of(CacheInvalidateRequest.rootRecord(tableName, recordId));
+	}
+
+	@Test
+	public void duplicatesWithinTimeWindow_areMerged() throws Exception
+	{
+		final DocumentCacheInvalidationPipeline pipeline = build(newPipeline(this::recordHandledBatch)
+				.windowMillis(100));
+
+		pipeline.enqueue(rootRecord("C_Order", 1));
+		pipeline.enqueue(rootRecord("C_Order", 1));
+		pipeline.enqueue(rootRecord("C_Order", 1));
+
+		assertThat(nextHandledBatch().getRequests()).containsExactly(CacheInvalidateRequest.rootRecord("C_Order", 1));
+		assertThat(handledBatches.poll(200, TimeUnit.MILLISECONDS)).isNull();
+		assertThat(pipeline.getStats().getMergeRatio()).isEqualTo(3);
+	}
+
+	@Test
+	public void tooManyPendingRequests_areDispatchedBeforeTheTimeWindowPassed() throws Exception
+	{
+		final DocumentCacheInvalidationPipeline pipeline = build(newPipeline(this::recordHandledBatch)
+				.windowMillis(TimeUnit.HOURS.toMillis(1))
+				.maxPendingRequests(2));
+
+		pipeline.enqueue(rootRecord("C_Order", 1));
+		pipeline.enqueue(rootRecord("C_Order", 2));
+
+		assertThat(nextHandledBatch().getRequests()).containsExactlyInAnyOrder(
+				CacheInvalidateRequest.rootRecord("C_Order", 1),
+				CacheInvalidateRequest.rootRecord("C_Order", 2));
+	}
+
+	private static CacheInvalidateRequest childRecord(final int childRecordId)
+	{
+		return CacheInvalidateRequest.builder()
+				.rootRecord("C_Order", 1)
+				.childRecord("C_OrderLine", childRecordId)
+				.build();
+	}
+
+	@Test
+	public void requestsOfSameRootRecord_areHandledInOrderByTheSameThread() throws Exception
+	{
+		final DocumentCacheInvalidationPipeline pipeline = build(newPipeline(this::recordHandledBatch));
+
+		for (int childRecordId = 1; childRecordId <= 20; childRecordId++)
+		{
+			pipeline.enqueue(CacheInvalidateMultiRequest.of(childRecord(childRecordId)));
+		}
+
+		final List<CacheInvalidateRequest> handledRequests = new ArrayList<>();
+		final HandledBatch firstBatch = nextHandledBatch();
+		handledRequests.addAll(firstBatch.getRequests());
+		while (handledRequests.size() < 20)
+		{
+			final HandledBatch batch = nextHandledBatch();
+			assertThat(batch.getThreadName()).isEqualTo(firstBatch.getThreadName());
+			handledRequests.addAll(batch.getRequests());
+		}
+
+		for (int i = 0; i < 20; i++)
+		{
+			assertThat(handledRequests.get(i)).isEqualTo(childRecord(i + 1));
+		}
+	}
+
+	@Test
+	public void fullQueue_blocksTheDispatchingUntilTheWorkerCatchesUp() throws Exception
+	{
+		final CountDownLatch handlerStarted = new CountDownLatch(1);
+		final CountDownLatch releaseHandler = new CountDownLatch(1);
+		final DocumentCacheInvalidationPipeline pipeline = build(newPipeline(multiRequest -> {
+			handlerStarted.countDown();
+			try
+			{
+				releaseHandler.await(10, TimeUnit.SECONDS);
+			}
+			catch (final InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+			}
+			recordHandledBatch(multiRequest);
+		})
+				.partitions(1)
+				.maxQueuedBatches(1));
+
+		pipeline.enqueue(rootRecord("C_Order", 1)); // being handled
+		assertThat(handlerStarted.await(10, TimeUnit.SECONDS)).isTrue();
+		pipeline.enqueue(rootRecord("C_Order", 2)); // queued
+
+		final Thread producer = new Thread(() -> pipeline.enqueue(rootRecord("C_Order", 3)));
+		producer.start();
+		producer.join(300);
+		assertThat(producer.isAlive()).as("producer is blocked").isTrue();
+		assertThat(pipeline.getStats().getQueuedBatchesCount()).isEqualTo(1);
+
+		releaseHandler.countDown();
+		producer.join(10000);
+		assertThat(producer.isAlive()).as("producer is blocked").isFalse();
+
+		assertThat(nextHandledBatch().getRequests()).containsExactly(CacheInvalidateRequest.rootRecord("C_Order", 1));
+		assertThat(nextHandledBatch().getRequests()).containsExactly(CacheInvalidateRequest.rootRecord("C_Order", 2));
+		assertThat(nextHandledBatch().getRequests()).containsExactly(CacheInvalidateRequest.rootRecord("C_Order", 3));
+	}
+
+	@Test
+	public void requestsEnqueuedByTheHandler_doNotBlockTheWorker() throws Exception
+	{
+		final List<DocumentCacheInvalidationPipeline> pipelineHolder = new ArrayList<>();
+		final DocumentCacheInvalidationPipeline pipeline = build(newPipeline(multiRequest -> {
+			recordHandledBatch(multiRequest);
+			if (multiRequest.getRequests().contains(CacheInvalidateRequest.rootRecord("C_Order", 1)))
+			{
+				// more than fits into the worker's queue
+				for (int recordId = 2; recordId <= 5; recordId++)
+				{
+					pipelineHolder.get(0).enqueue(rootRecord("C_Order", recordId));
+				}
+			}
+		})
+				.partitions(1)
+				.maxQueuedBatches(1));
+		pipelineHolder.add(pipeline);
+
+		pipeline.enqueue(rootRecord("C_Order", 1));
+
+		final List<CacheInvalidateRequest> handledRequests = new ArrayList<>();
+		while (handledRequests.size() < 5)
+		{
+			handledRequests.addAll(nextHandledBatch().getRequests());
+		}
+		assertThat(handledRequests).containsExactly(
+				CacheInvalidateRequest.rootRecord("C_Order", 1),
+				CacheInvalidateRequest.rootRecord("C_Order", 2),
+				CacheInvalidateRequest.rootRecord("C_Order", 3),
+				CacheInvalidateRequest.rootRecord("C_Order", 4),
+				CacheInvalidateRequest.rootRecord("C_Order", 5));
+	}
+
+	@Test
+	public void shutdown_requestsAreIgnored() throws Exception
+	{
+		final DocumentCacheInvalidationPipeline pipeline = build(newPipeline(this::recordHandledBatch));
+		pipeline.shutdown();
+
+		pipeline.enqueue(rootRecord("C_Order", 1));
+
+		assertThat(handledBatches.poll(200, TimeUnit.MILLISECONDS)).isNull();
+		assertThat(pipeline.getStats().getReceivedRequestsCount()).isZero();
+	}
+}
@@ -0,0 +1,179 @@
+package de.metas.ui.web.window.model;
+
+import static de.metas.ui.web.window.model.InMemoryDocumentsRepository.DETAIL_ID_Lines;
+import static de.metas.ui.web.window.model.InMemoryDocumentsRepository.FIELDNAME_Description;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.metas.ui.web.window.WindowConstants;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.descriptor.DocumentEntityDescriptor;
+import de.metas.ui.web.window.model.Document.CopyMode;
+import de.metas.ui.web.window.model.IDocumentChangesCollector.ReasonSupplier;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Makes sure that a {@link Document} copy shares its state with the document it was copied from (e.g. the cached one)
+ * only as long as it's not changed.
+ */
+public class DocumentCopyOnWriteTest
+{
+	private static final ReasonSupplier REASON = () -> "test";
+
+	private InMemoryDocumentsRepository documentsRepository;
+	private DocumentEntityDescriptor orderDescriptor;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		documentsRepository = new InMemoryDocumentsRepository();
+		orderDescriptor = documentsRepository.createOrderDescriptor();
+	}
+
+	private static Document checkIn(final Document document)
+	{
+		return document.copy(CopyMode.CheckInReadonly, NullDocumentChangesCollector.instance);
+	}
+
+	private static Document checkOut(final Document document)
+	{
+		return document.copy(CopyMode.CheckOutWritable, NullDocumentChangesCollector.instance);
+	}
+
+	private static Object getDescription(final Document document)
+	{
+		return document.getFieldView(FIELDNAME_Description).getValue();
+	}
+
+	@Test
+	public void changeOnCopy_doesNotLeakIntoSource()
+	{
+		final Document order = documentsRepository.createOrder(orderDescriptor);
+		order.processValueChange(FIELDNAME_Description, "original", REASON);
+		final Document orderCached = checkIn(order);
+
+		final Document orderCopy = checkOut(orderCached);
+		orderCopy.processValueChange(FIELDNAME_Description, "changed", REASON);
+
+		assertThat(getDescription(orderCopy)).isEqualTo("changed");
+		assertThat(getDescription(orderCached)).isEqualTo("original");
+	}
+
+	@Test
+	public void changeOnIncludedDocumentCopy_doesNotLeakIntoSource()
+	{
+		final Document order = documentsRepository.createOrder(orderDescriptor);
+		final Document line = order.createIncludedDocument(DETAIL_ID_Lines);
+		line.processValueChange(FIELDNAME_Description, "original", REASON);
+		final DocumentId lineId = line.getDocumentId();
+		final Document orderCached = checkIn(order);
+
+		final Document orderCopy = checkOut(orderCached);
+		orderCopy.getIncludedDocument(DETAIL_ID_Lines, lineId).processValueChange(FIELDNAME_Description, "changed", REASON);
+
+		assertThat(getDescription(orderCopy.getIncludedDocument(DETAIL_ID_Lines, lineId))).isEqualTo("changed");
+		assertThat(getDescription(orderCached.getIncludedDocument(DETAIL_ID_Lines, lineId))).isEqualTo("original");
+
+		// a second copy of the source shall not see the change either
+		assertThat(getDescription(checkOut(orderCached).getIncludedDocument(DETAIL_ID_Lines, lineId))).isEqualTo("original");
+	}
+
+	@Test
+	public void changeOnSourceIncludedDocument_doesNotLeakIntoCopy()
+	{
+		final Document order = documentsRepository.createOrder(orderDescriptor);
+		final Document line = order.createIncludedDocument(DETAIL_ID_Lines);
+		line.processValueChange(FIELDNAME_Description, "original", REASON);
+		final DocumentId lineId = line.getDocumentId();
+
+		final Document orderCached = checkIn(order);
+		final Document orderCopy = checkOut(orderCached);
+
+		// the source is still writable and keeps being changed after it was checked in
+		final Document lineOfSource = order.getIncludedDocument(DETAIL_ID_Lines, lineId);
+		assertThat(lineOfSource).isNotSameAs(line);
+		lineOfSource.processValueChange(FIELDNAME_Description, "changed", REASON);
+
+		assertThat(getDescription(order.getIncludedDocument(DETAIL_ID_Lines, lineId))).isEqualTo("changed");
+		assertThat(getDescription(orderCached.getIncludedDocument(DETAIL_ID_Lines, lineId))).isEqualTo("original");
+		assertThat(getDescription(orderCopy.getIncludedDocument(DETAIL_ID_Lines, lineId))).isEqualTo("original");
+	}
+
+	@Test
+	public void changeOfDynAttributeOnCopy_doesNotLeakIntoSource()
+	{
+		final Document order = documentsRepository.createOrder(orderDescriptor);
+		order.setDynAttribute("attr", "original");
+		final Document orderCached = checkIn(order);
+
+		final Document orderCopy = checkOut(orderCached);
+		orderCopy.setDynAttribute("attr", "changed");
+		orderCopy.setDynAttribute("newAttr", "new");
+
+		assertThat(orderCopy.<String> getDynAttribute("attr")).isEqualTo("changed");
+		assertThat(orderCopy.getAvailableDynAttributes()).containsOnly("attr", "newAttr");
+
+		assertThat(orderCached.<String> getDynAttribute("attr")).isEqualTo("original");
+		assertThat(orderCached.hasDynAttribute("newAttr")).isFalse();
+		assertThat(orderCached.getAvailableDynAttributes()).containsOnly("attr");
+	}
+
+	@Test
+	public void removeDynAttributeOnCopy_doesNotLeakIntoSource()
+	{
+		final Document order = documentsRepository.createOrder(orderDescriptor);
+		order.setDynAttribute("attr", "original");
+		final Document orderCached = checkIn(order);
+
+		final Document orderCopy = checkOut(orderCached);
+		final Object valueOld = orderCopy.setDynAttribute("attr", null);
+
+		assertThat(valueOld).isEqualTo("original");
+		assertThat(orderCopy.hasDynAttribute("attr")).isFalse();
+		assertThat(orderCached.<String> getDynAttribute("attr")).isEqualTo("original");
+	}
+
+	@Test
+	public void parentReadonlyChange_isAppliedToSharedIncludedDocumentWhenCopied()
+	{
+		final Document order = documentsRepository.createOrder(orderDescriptor);
+		final DocumentId lineId = order.createIncludedDocument(DETAIL_ID_Lines).getDocumentId();
+		final Document orderCached = checkIn(order);
+
+		final Document orderCopy = checkOut(orderCached);
+		orderCopy.processValueChange(WindowConstants.FIELDNAME_IsActive, false, REASON);
+		orderCopy.updateIncludedDetailsStatus(); // same as on commit
+
+		final Document lineCopy = orderCopy.getIncludedDocument(DETAIL_ID_Lines, lineId);
+		assertThat(lineCopy.getReadonly().computeFieldReadonly(FIELDNAME_Description, false)).isTrue();
+
+		final Document lineCached = orderCached.getIncludedDocument(DETAIL_ID_Lines, lineId);
+		assertThat(lineCached.getReadonly().computeFieldReadonly(FIELDNAME_Description, false)).isFalse();
+	}
+}
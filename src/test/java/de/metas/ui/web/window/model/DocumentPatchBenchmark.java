@@ -0,0 +1,129 @@
+package de.metas.ui.web.window.model;
+
+import static de.metas.ui.web.window.model.InMemoryDocumentsRepository.DETAIL_ID_Lines;
+import static de.metas.ui.web.window.model.InMemoryDocumentsRepository.FIELDNAME_Description;
+import static de.metas.ui.web.window.model.InMemoryDocumentsRepository.FIELDNAME_Qty;
+
+import java.util.concurrent.TimeUnit;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.descriptor.DocumentEntityDescriptor;
+import de.metas.ui.web.window.model.Document.CopyMode;
+import de.metas.ui.web.window.model.IDocumentChangesCollector.ReasonSupplier;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Benchmarks a PATCH request on an order with {@value #LINES_COUNT} lines, the way {@link DocumentCollection} does it:
+ * check out the cached order, change it, update the included details status and check it in again.
+ * <p>
+ * The lines are kept by an {@link InMemoryDocumentsRepository}, so no database is needed.
+ * Because they have pending changes, they are also held by the order's included documents collection,
+ * i.e. they are shared between the order copies and they shall be copied only when accessed.
+ *
+ * Run it using {@link de.metas.ui.web.benchmarks.BenchmarksRunner}, which also reports the allocations per PATCH.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentPatchBenchmark
+{
+	private static final int LINES_COUNT = 500;
+	private static final ReasonSupplier REASON = () -> "benchmark";
+
+	private Document orderCached;
+	private ImmutableList<DocumentId> lineIds;
+	private int nextLineIndex = 0;
+
+	@Setup
+	public void setup()
+	{
+		AdempiereTestHelper.get().init();
+
+		final InMemoryDocumentsRepository documentsRepository = new InMemoryDocumentsRepository();
+		final DocumentEntityDescriptor orderDescriptor = documentsRepository.createOrderDescriptor();
+		final DocumentEntityDescriptor lineDescriptor = orderDescriptor.getIncludedEntityByDetailId(DETAIL_ID_Lines);
+
+		final Document order = documentsRepository.createOrder(orderDescriptor);
+
+		final ImmutableList.Builder<DocumentId> lineIds = ImmutableList.builder();
+		for (int i = 1; i <= LINES_COUNT; i++)
+		{
+			final Document line = documentsRepository.createAndStoreDocument(lineDescriptor, order);
+			line.processValueChange(FIELDNAME_Description, "Line " + i, REASON);
+			line.processValueChange(FIELDNAME_Qty, i, REASON);
+			lineIds.add(line.getDocumentId());
+		}
+		this.lineIds = lineIds.build();
+
+		orderCached = order.copy(CopyMode.CheckInReadonly, NullDocumentChangesCollector.instance);
+	}
+
+	private DocumentId nextLineId()
+	{
+		final DocumentId lineId = lineIds.get(nextLineIndex);
+		nextLineIndex = (nextLineIndex + 1) % lineIds.size();
+		return lineId;
+	}
+
+	@Benchmark
+	public Document patchLine()
+	{
+		final IDocumentChangesCollector changesCollector = DocumentChangesCollector.newInstance();
+		final Document order = orderCached.copy(CopyMode.CheckOutWritable, changesCollector);
+
+		order.getIncludedDocument(DETAIL_ID_Lines, nextLineId()).processValueChange(FIELDNAME_Qty, 1000, REASON);
+
+		order.updateIncludedDetailsStatus();
+		return order.copy(CopyMode.CheckInReadonly, NullDocumentChangesCollector.instance);
+	}
+
+	@Benchmark
+	public Document patchHeader()
+	{
+		final IDocumentChangesCollector changesCollector = DocumentChangesCollector.newInstance();
+		final Document order = orderCached.copy(CopyMode.CheckOutWritable, changesCollector);
+
+		order.processValueChange(FIELDNAME_Description, "changed", REASON);
+
+		order.updateIncludedDetailsStatus();
+		return order.copy(CopyMode.CheckInReadonly, NullDocumentChangesCollector.instance);
+	}
+}
@@ -0,0 +1,131 @@
+package de.metas.ui.web.window.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.view.IViewRow;
+import de.metas.ui.web.view.ViewRowFieldNameAndJsonValues;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentPath;
+import de.metas.ui.web.window.datatypes.json.JSONOptions;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class DocumentQueryOrderBysTest
+{
+	private static final JSONOptions jsonOpts = JSONOptions.builder().adLanguage("en_US").build();
+
+	private static class TestRow implements IViewRow
+	{
+		private final DocumentId id;
+		private final Map<String, Object> values = new HashMap<>();
+
+		private TestRow(final int id, final String name, final Integer qty)
+		{
+			this.id = DocumentId.of(id);
+			values.put("Name", name);
+			values.put("Qty", qty);
+		}
+
+		@Override
+		public DocumentId getId()
+		{
+			return id;
+		}
+
+		@Override
+		public boolean isProcessed()
+		{
+			return false;
+		}
+
+		@Override
+		public DocumentPath getDocumentPath()
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Set<String> getFieldNames()
+		{
+			return values.keySet();
+		}
+
+		@Override
+		public ViewRowFieldNameAndJsonValues getFieldNameAndJsonValues()
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Object getFieldValueAsJsonObject(final String fieldName, final JSONOptions jsonOpts)
+		{
+			return values.get(fieldName);
+		}
+	}
+
+	private static List<Integer> toIds(final List<TestRow> rows)
+	{
+		return rows.stream().map(row -> row.getId().toInt()).collect(Collectors.toList());
+	}
+
+	private final ImmutableList<TestRow> rows = ImmutableList.of(
+			new TestRow(1, "b", 10),
+			new TestRow(2, "a", 20),
+			new TestRow(3, null, 5),
+			new TestRow(4, "a", 10),
+			new TestRow(5, "b", null));
+
+	@Test
+	public void sort_sameAsComparator()
+	{
+		final List<DocumentQueryOrderBy> orderBys = ImmutableList.of(
+				DocumentQueryOrderBy.byFieldName("Name", true),
+				DocumentQueryOrderBy.byFieldName("Qty", false));
+
+		final List<TestRow> sortedUsingComparator = rows.stream()
+				.sorted(DocumentQueryOrderBys.asComparator(orderBys, jsonOpts))
+				.collect(Collectors.toList());
+
+		final List<TestRow> sorted = DocumentQueryOrderBys.sort(rows, orderBys, jsonOpts);
+
+		assertThat(toIds(sorted)).containsExactly(2, 4, 1, 5, 3);
+		assertThat(toIds(sorted)).isEqualTo(toIds(sortedUsingComparator));
+	}
+
+	@Test
+	public void sort_noOrderBys()
+	{
+		final List<TestRow> sorted = DocumentQueryOrderBys.sort(rows, ImmutableList.of(), jsonOpts);
+		assertThat(toIds(sorted)).containsExactly(1, 2, 3, 4, 5);
+	}
+}
@@ -0,0 +1,192 @@
+package de.metas.ui.web.window.model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.adempiere.ad.expression.api.impl.LogicExpressionCompiler;
+
+import de.metas.ui.web.window.WindowConstants;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentType;
+import de.metas.ui.web.window.descriptor.DetailId;
+import de.metas.ui.web.window.descriptor.DocumentEntityDataBindingDescriptor;
+import de.metas.ui.web.window.descriptor.DocumentEntityDescriptor;
+import de.metas.ui.web.window.descriptor.DocumentFieldDescriptor;
+import de.metas.ui.web.window.descriptor.DocumentFieldDescriptor.Characteristic;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.model.Document.CopyMode;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Documents repository which keeps the documents in memory, so {@link Document}s with included documents can be tested without database.
+ * <p>
+ * Also provides a simple order/lines document descriptor which is backed by this repository.
+ */
+final class InMemoryDocumentsRepository implements DocumentsRepository
+{
+	public static final DetailId DETAIL_ID_Lines = DetailId.fromAD_Tab_ID(187);
+	public static final String FIELDNAME_Description = "Description";
+	public static final String FIELDNAME_Qty = "Qty";
+
+	private static final String VERSION_DEFAULT = "0";
+
+	private final AtomicInteger nextDocumentId = new AtomicInteger(1000000);
+	private final Map<DocumentId, Document> documentsById = new HashMap<>();
+
+	/**
+	 * @return order header descriptor, including the lines ({@link #DETAIL_ID_Lines}). The order is readonly if it's not active.
+	 */
+	public DocumentEntityDescriptor createOrderDescriptor()
+	{
+		final DocumentEntityDescriptor lineDescriptor = newEntityDescriptor()
+				.setDetailId(DETAIL_ID_Lines)
+				.setCaption("Line")
+				.addField(newField(FIELDNAME_Description, String.class, DocumentFieldWidgetType.Text))
+				.addField(newField(FIELDNAME_Qty, Integer.class, DocumentFieldWidgetType.Integer))
+				.build();
+
+		return newEntityDescriptor()
+				.setCaption("Order")
+				.addField(newField(WindowConstants.FIELDNAME_IsActive, Boolean.class, DocumentFieldWidgetType.YesNo))
+				.addField(newField(FIELDNAME_Description, String.class, DocumentFieldWidgetType.Text))
+				.setReadonlyLogic(LogicExpressionCompiler.instance.compile("@" + WindowConstants.FIELDNAME_IsActive + "/Y@=N"))
+				.addIncludedEntity(lineDescriptor)
+				.build();
+	}
+
+	private DocumentEntityDescriptor.Builder newEntityDescriptor()
+	{
+		final DocumentEntityDataBindingDescriptor dataBinding = () -> this;
+
+		return DocumentEntityDescriptor.builder()
+				.setDocumentType(DocumentType.Window, DocumentId.of(143))
+				.setDataBinding(() -> dataBinding)
+				.disableDefaultTableCallouts();
+	}
+
+	private static DocumentFieldDescriptor.Builder newField(final String fieldName, final Class<?> valueClass, final DocumentFieldWidgetType widgetType)
+	{
+		return DocumentFieldDescriptor.builder(fieldName)
+				.setCaption(fieldName)
+				.setValueClass(valueClass)
+				.setWidgetType(widgetType)
+				.setReadonlyLogic(false)
+				.setDisplayLogic(true)
+				.setMandatoryLogic(false)
+				.addCharacteristic(Characteristic.PublicField);
+	}
+
+	/**
+	 * @return new, writable and active order, flagged as not new (i.e. as if it was already saved).
+	 */
+	public Document createOrder(@NonNull final DocumentEntityDescriptor orderDescriptor)
+	{
+		final Document order = Document.builder(orderDescriptor)
+				.initializeAsNewDocument(DocumentId.of(nextDocumentId.getAndIncrement()), VERSION_DEFAULT);
+		order.processValueChange(WindowConstants.FIELDNAME_IsActive, true, () -> "test order");
+		order.markAsNotNew();
+		return order;
+	}
+
+	/**
+	 * Creates a new document and stores it as if it was saved.
+	 */
+	public Document createAndStoreDocument(@NonNull final DocumentEntityDescriptor entityDescriptor, final Document parentDocument)
+	{
+		final Document document = createNewDocument(entityDescriptor, parentDocument, NullDocumentChangesCollector.instance);
+		document.markAsNotNew();
+		documentsById.put(document.getDocumentId(), document);
+		return document;
+	}
+
+	@Override
+	public OrderedDocumentsList retrieveDocuments(final DocumentQuery query, final IDocumentChangesCollector changesCollector)
+	{
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Document retrieveDocument(final DocumentQuery query, final IDocumentChangesCollector changesCollector)
+	{
+		final Document document = documentsById.get(query.getRecordId());
+		if (document == null)
+		{
+			return null;
+		}
+
+		final Document parentDocument = query.getParentDocument();
+		return parentDocument != null
+				? document.copy(parentDocument, CopyMode.CheckInReadonly)
+				: document.copy(CopyMode.CheckInReadonly, changesCollector);
+	}
+
+	@Override
+	public DocumentId retrieveParentDocumentId(final DocumentEntityDescriptor parentEntityDescriptor, final DocumentQuery childDocumentQuery)
+	{
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Document createNewDocument(final DocumentEntityDescriptor entityDescriptor, final Document parentDocument, final IDocumentChangesCollector changesCollector)
+	{
+		assertThisRepository(entityDescriptor);
+
+		return Document.builder(entityDescriptor)
+				.setParentDocument(parentDocument)
+				.setChangesCollector(changesCollector)
+				.initializeAsNewDocument(DocumentId.of(nextDocumentId.getAndIncrement()), VERSION_DEFAULT);
+	}
+
+	@Override
+	public void refresh(final Document document)
+	{
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public SaveResult save(final Document document)
+	{
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void delete(final Document document)
+	{
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public String retrieveVersion(final DocumentEntityDescriptor entityDescriptor, final int documentIdAsInt)
+	{
+		return VERSION_DEFAULT;
+	}
+
+	@Override
+	public int retrieveLastLineNo(final DocumentQuery query)
+	{
+		return 0;
+	}
+}
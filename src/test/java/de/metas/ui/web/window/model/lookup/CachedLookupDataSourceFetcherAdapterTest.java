@@ -0,0 +1,154 @@
+package de.metas.ui.web.window.model.lookup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.util.CtxNames;
+import org.compiere.util.Evaluatees;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.ui.web.window.datatypes.LookupValue;
+import de.metas.ui.web.window.datatypes.LookupValue.IntegerLookupValue;
+import mockit.Delegate;
+import mockit.Expectations;
+import mockit.Mocked;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class CachedLookupDataSourceFetcherAdapterTest
+{
+	@Mocked
+	private LookupDataSourceFetcher delegate;
+
+	/** the contexts which were requested from the delegate, per call */
+	private final List<List<LookupDataSourceContext>> delegateCalls = new ArrayList<>();
+
+	private CachedLookupDataSourceFetcherAdapter fetcher;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		// @formatter:off
+		new Expectations()
+		{{
+			delegate.getCachePrefix(); result = "C_BPartner";
+			delegate.retrieveLookupValueByIds((Collection<LookupDataSourceContext>)any); minTimes = 0; result = new Delegate<Map<LookupDataSourceContext, LookupValue>>()
+			{
+				@SuppressWarnings("unused")
+				Map<LookupDataSourceContext, LookupValue> retrieveLookupValueByIds(final Collection<LookupDataSourceContext> evalCtxs)
+				{
+					delegateCalls.add(ImmutableList.copyOf(evalCtxs));
+
+					// ID 3 does not exist; the values are also telling which AD_Org_ID they were loaded for
+					final ImmutableMap.Builder<LookupDataSourceContext, LookupValue> result = ImmutableMap.builder();
+					for (final LookupDataSourceContext evalCtx : evalCtxs)
+					{
+						final int id = (Integer)evalCtx.getIdToFilter();
+						if (id != 3)
+						{
+							result.put(evalCtx, IntegerLookupValue.of(id, "Partner " + id + " for org " + evalCtx.get_ValueAsInt("AD_Org_ID", -1)));
+						}
+					}
+					return result.build();
+				}
+			};
+		}};
+		// @formatter:on
+
+		fetcher = CachedLookupDataSourceFetcherAdapter.of(delegate);
+	}
+
+	private static LookupDataSourceContext evalCtx(final int id, final int adOrgId)
+	{
+		return LookupDataSourceContext.builder("C_BPartner")
+				.requiresParameter(CtxNames.parse("AD_Org_ID"))
+				.setParentEvaluatee(Evaluatees.mapBuilder()
+						.put("AD_Org_ID", adOrgId)
+						.build())
+				.putFilterById(id)
+				.build();
+	}
+
+	@Test
+	public void retrieveLookupValueByIds_preservesOrder()
+	{
+		final LookupDataSourceContext evalCtx2 = evalCtx(2, 1);
+		final LookupDataSourceContext evalCtx1 = evalCtx(1, 1);
+		final LookupDataSourceContext evalCtx3 = evalCtx(3, 1);
+
+		final Map<LookupDataSourceContext, LookupValue> result = fetcher.retrieveLookupValueByIds(ImmutableList.of(evalCtx2, evalCtx1, evalCtx3));
+
+		assertThat(result.keySet()).containsExactly(evalCtx2, evalCtx1, evalCtx3);
+		assertThat(result.get(evalCtx2).getDisplayName()).isEqualTo("Partner 2 for org 1");
+		assertThat(result.get(evalCtx1).getDisplayName()).isEqualTo("Partner 1 for org 1");
+		assertThat(result.get(evalCtx3)).isSameAs(LookupDataSourceFetcher.LOOKUPVALUE_NULL);
+	}
+
+	@Test
+	public void retrieveLookupValueByIds_loadsOnlyNotCachedContexts()
+	{
+		final LookupDataSourceContext evalCtx1 = evalCtx(1, 1);
+		final LookupDataSourceContext evalCtx2 = evalCtx(2, 1);
+		final LookupDataSourceContext evalCtx3 = evalCtx(3, 1);
+
+		fetcher.retrieveLookupValueByIds(ImmutableList.of(evalCtx1, evalCtx3));
+		final Map<LookupDataSourceContext, LookupValue> result = fetcher.retrieveLookupValueByIds(ImmutableList.of(evalCtx3, evalCtx2, evalCtx1));
+
+		assertThat(delegateCalls).containsExactly(
+				ImmutableList.of(evalCtx1, evalCtx3),
+				ImmutableList.of(evalCtx2));
+
+		assertThat(result.keySet()).containsExactly(evalCtx3, evalCtx2, evalCtx1);
+		assertThat(result.get(evalCtx3)).isSameAs(LookupDataSourceFetcher.LOOKUPVALUE_NULL);
+		assertThat(result.get(evalCtx2).getDisplayName()).isEqualTo("Partner 2 for org 1");
+		assertThat(result.get(evalCtx1).getDisplayName()).isEqualTo("Partner 1 for org 1");
+	}
+
+	@Test
+	public void retrieveLookupValueByIds_contextsWithSameId()
+	{
+		final LookupDataSourceContext evalCtx1Org1 = evalCtx(1, 1);
+		final LookupDataSourceContext evalCtx1Org2 = evalCtx(1, 2);
+
+		final Map<LookupDataSourceContext, LookupValue> result = fetcher.retrieveLookupValueByIds(ImmutableList.of(evalCtx1Org1, evalCtx1Org2));
+		assertThat(result.get(evalCtx1Org1).getDisplayName()).isEqualTo("Partner 1 for org 1");
+		assertThat(result.get(evalCtx1Org2).getDisplayName()).isEqualTo("Partner 1 for org 2");
+
+		// both are cached now
+		final Map<LookupDataSourceContext, LookupValue> resultCached = fetcher.retrieveLookupValueByIds(ImmutableList.of(evalCtx1Org2, evalCtx1Org1));
+		assertThat(delegateCalls).hasSize(1);
+		assertThat(resultCached.get(evalCtx1Org1).getDisplayName()).isEqualTo("Partner 1 for org 1");
+		assertThat(resultCached.get(evalCtx1Org2).getDisplayName()).isEqualTo("Partner 1 for org 2");
+	}
+}
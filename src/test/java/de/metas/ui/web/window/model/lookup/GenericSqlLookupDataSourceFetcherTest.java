@@ -0,0 +1,137 @@
+package de.metas.ui.web.window.model.lookup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.util.Map;
+import java.util.Optional;
+
+import org.adempiere.ad.expression.api.IStringExpression;
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.util.CPreparedStatement;
+import org.compiere.util.CtxNames;
+import org.compiere.util.DB;
+import org.compiere.util.Evaluatees;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.ui.web.window.datatypes.LookupValue;
+import de.metas.ui.web.window.descriptor.sql.SqlLookupDescriptor;
+import mockit.Delegate;
+import mockit.Expectations;
+import mockit.Mocked;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class GenericSqlLookupDataSourceFetcherTest
+{
+	@Mocked
+	private SqlLookupDescriptor sqlLookupDescriptor;
+	@Mocked
+	private CPreparedStatement pstmt;
+	@Mocked
+	private ResultSet rs;
+	@Mocked
+	private Array array;
+
+	private GenericSqlLookupDataSourceFetcher fetcher;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		// @formatter:off
+		new Expectations()
+		{{
+			sqlLookupDescriptor.getTableName(); result = Optional.of("C_BPartner");
+			sqlLookupDescriptor.isNumericKey(); result = true;
+			sqlLookupDescriptor.getSqlForFetchingLookupByIdExpression(); result = IStringExpression.composer()
+					.append("SELECT ARRAY[Name, NULL] FROM C_BPartner WHERE C_BPartner_ID=").append(SqlLookupDescriptor.SQL_PARAM_KeyId)
+					.build();
+			sqlLookupDescriptor.getSqlForFetchingLookupByIdsExpression(); result = IStringExpression.composer()
+					.append("SELECT C_BPartner_ID, ARRAY[Name, NULL] FROM C_BPartner WHERE C_BPartner_ID IN ").append(SqlLookupDescriptor.SQL_PARAM_KeyIds)
+					.build();
+		}};
+		// @formatter:on
+
+		fetcher = GenericSqlLookupDataSourceFetcher.of(sqlLookupDescriptor);
+	}
+
+	/** @return context for fetching the given ID; the AD_Org_ID parameter is not part of the SQL */
+	private static LookupDataSourceContext evalCtx(final int id, final int adOrgId)
+	{
+		return LookupDataSourceContext.builder("C_BPartner")
+				.requiresParameter(CtxNames.parse("AD_Org_ID"))
+				.setParentEvaluatee(Evaluatees.mapBuilder()
+						.put("AD_Org_ID", adOrgId)
+						.build())
+				.putFilterById(id)
+				.build();
+	}
+
+	@Test
+	public void retrieveLookupValueByIds_contextsWithSameId() throws Exception
+	{
+		// @formatter:off
+		new Expectations(DB.class)
+		{{
+			DB.prepareStatement(anyString, anyString); result = pstmt;
+			pstmt.executeQuery(); result = rs;
+			rs.next(); result = true; result = false;
+			rs.getInt(1); result = 1;
+			rs.getArray(2); result = array;
+			array.getArray(); result = new Delegate<Object>()
+			{
+				@SuppressWarnings("unused")
+				Object getArray()
+				{
+					return new String[] { "Partner 1" };
+				}
+			};
+		}};
+		// @formatter:on
+
+		final LookupDataSourceContext evalCtx1Org1 = evalCtx(1, 1);
+		final LookupDataSourceContext evalCtx1Org2 = evalCtx(1, 2);
+		final LookupDataSourceContext evalCtx2 = evalCtx(2, 1);
+		assertThat(evalCtx1Org1).isNotEqualTo(evalCtx1Org2);
+
+		final Map<LookupDataSourceContext, LookupValue> result = fetcher.retrieveLookupValueByIds(ImmutableList.of(evalCtx1Org1, evalCtx1Org2, evalCtx2));
+
+		assertThat(result).hasSize(3);
+		assertThat(result.get(evalCtx1Org1).getIdAsInt()).isEqualTo(1);
+		assertThat(result.get(evalCtx1Org1).getDisplayName()).isEqualTo("Partner 1");
+		assertThat(result.get(evalCtx1Org2)).isSameAs(result.get(evalCtx1Org1));
+		assertThat(result.get(evalCtx2)).isSameAs(LookupDataSourceFetcher.LOOKUPVALUE_NULL);
+	}
+
+	@Test
+	public void retrieveLookupValueByIds_noContexts()
+	{
+		assertThat(fetcher.retrieveLookupValueByIds(ImmutableList.of())).isEmpty();
+	}
+}
@@ -0,0 +1,235 @@
+package de.metas.ui.web.window.model.lookup;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.util.Evaluatee;
+import org.compiere.util.Evaluatees;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.ui.web.window.datatypes.LookupValue;
+import de.metas.ui.web.window.datatypes.LookupValue.IntegerLookupValue;
+import de.metas.ui.web.window.datatypes.LookupValuesList;
+import de.metas.ui.web.window.datatypes.WindowId;
+import de.metas.ui.web.window.descriptor.DocumentLayoutElementFieldDescriptor.LookupSource;
+import de.metas.ui.web.window.descriptor.LookupDescriptor;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Benchmarks the lookups provided by {@link LookupDataSourceFactory}, for a high volume lookup (i.e. {@link CachedLookupDataSourceFetcherAdapter})
+ * and for a fully cached one (i.e. {@link FullyCachedLookupDataSource}).
+ * <p>
+ * The lookup values are provided by an in-memory fetcher, so what's measured is the overhead of the data sources and of their caches.
+ *
+ * Run it using {@link de.metas.ui.web.benchmarks.BenchmarksRunner}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LookupBenchmark
+{
+	private static final int LOOKUP_VALUES_COUNT = 5000;
+	private static final int PAGE_LENGTH = 10;
+
+	private final Evaluatee ctx = Evaluatees.empty();
+
+	private LookupDataSource highVolumeLookup;
+	private LookupDataSource fullyCachedLookup;
+
+	private int nextId = 0;
+
+	@Setup
+	public void setup()
+	{
+		AdempiereTestHelper.get().init();
+
+		highVolumeLookup = LookupDataSourceFactory.instance.getLookupDataSource(new InMemoryLookupDescriptor("HighVolume", true));
+		fullyCachedLookup = LookupDataSourceFactory.instance.getLookupDataSource(new InMemoryLookupDescriptor("FullyCached", false));
+	}
+
+	private int nextId()
+	{
+		nextId = nextId % LOOKUP_VALUES_COUNT + 1;
+		return nextId;
+	}
+
+	@Benchmark
+	public LookupValue highVolume_findById()
+	{
+		return highVolumeLookup.findById(nextId());
+	}
+
+	@Benchmark
+	public LookupValuesList highVolume_findEntities()
+	{
+		return highVolumeLookup.findEntities(ctx, "Product 12", LookupDataSource.FIRST_ROW, PAGE_LENGTH);
+	}
+
+	@Benchmark
+	public LookupValue fullyCached_findById()
+	{
+		return fullyCachedLookup.findById(nextId());
+	}
+
+	@Benchmark
+	public LookupValuesList fullyCached_findEntities()
+	{
+		return fullyCachedLookup.findEntities(ctx, "Product 12", LookupDataSource.FIRST_ROW, PAGE_LENGTH);
+	}
+
+	private static final class InMemoryLookupDescriptor implements LookupDescriptor, LookupDataSourceFetcher
+	{
+		private final String name;
+		private final boolean highVolume;
+		private final ImmutableList<LookupValue> lookupValues;
+		private final ImmutableMap<Integer, LookupValue> lookupValuesById;
+
+		private InMemoryLookupDescriptor(final String name, final boolean highVolume)
+		{
+			this.name = name;
+			this.highVolume = highVolume;
+
+			final ImmutableList.Builder<LookupValue> lookupValues = ImmutableList.builder();
+			for (int id = 1; id <= LOOKUP_VALUES_COUNT; id++)
+			{
+				lookupValues.add(IntegerLookupValue.of(id, "Product " + id));
+			}
+			this.lookupValues = lookupValues.build();
+			this.lookupValuesById = this.lookupValues.stream()
+					.collect(ImmutableMap.toImmutableMap(LookupValue::getIdAsInt, lookupValue -> lookupValue));
+		}
+
+		@Override
+		public LookupDataSourceFetcher getLookupDataSourceFetcher()
+		{
+			return this;
+		}
+
+		@Override
+		public boolean isHighVolume()
+		{
+			return highVolume;
+		}
+
+		@Override
+		public LookupSource getLookupSourceType()
+		{
+			return LookupSource.lookup;
+		}
+
+		@Override
+		public boolean hasParameters()
+		{
+			return false;
+		}
+
+		@Override
+		public boolean isNumericKey()
+		{
+			return true;
+		}
+
+		@Override
+		public Set<String> getDependsOnFieldNames()
+		{
+			return ImmutableSet.of();
+		}
+
+		@Override
+		public LookupDataSourceContext.Builder newContextForFetchingById(final Object id)
+		{
+			return LookupDataSourceContext.builderWithoutTableName();
+		}
+
+		@Override
+		public LookupValue retrieveLookupValueById(final LookupDataSourceContext evalCtx)
+		{
+			final LookupValue lookupValue = lookupValuesById.get(evalCtx.getIdToFilterAsInt(-1));
+			return lookupValue != null ? lookupValue : LOOKUPVALUE_NULL;
+		}
+
+		@Override
+		public LookupDataSourceContext.Builder newContextForFetchingList()
+		{
+			return LookupDataSourceContext.builderWithoutTableName();
+		}
+
+		@Override
+		public LookupValuesList retrieveEntities(final LookupDataSourceContext evalCtx)
+		{
+			return lookupValues.stream()
+					.filter(evalCtx.getFilterPredicate())
+					.skip(evalCtx.getOffset(0))
+					.limit(evalCtx.getLimit(Integer.MAX_VALUE))
+					.collect(LookupValuesList.collect());
+		}
+
+		@Override
+		public boolean isCached()
+		{
+			return false;
+		}
+
+		@Override
+		public String getCachePrefix()
+		{
+			return InMemoryLookupDescriptor.class.getSimpleName() + "#" + name;
+		}
+
+		@Override
+		public Optional<String> getLookupTableName()
+		{
+			return Optional.empty();
+		}
+
+		@Override
+		public Optional<WindowId> getZoomIntoWindowId()
+		{
+			return Optional.empty();
+		}
+
+		@Override
+		public void cacheInvalidate()
+		{
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package de.metas.ui.web.window.model.lookup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.cache.model.CacheInvalidateRequest;
+import de.metas.ui.web.window.model.lookup.LookupCacheInvalidationDispatcher.RequestsToResetCollector;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class LookupCacheInvalidationDispatcherTest
+{
+	@Test
+	public void requestsAreNotCollectedIfNotNeeded()
+	{
+		final RequestsToResetCollector collector = new RequestsToResetCollector(false);
+		collector.addRequests(ImmutableList.of(
+				CacheInvalidateRequest.rootRecord("M_Product", 1),
+				CacheInvalidateRequest.rootRecord("M_Product", 2),
+				CacheInvalidateRequest.rootRecord("C_BPartner", 1)));
+
+		assertThat(collector.isEmpty()).isFalse();
+		assertThat(collector.getTableNames()).containsExactly("M_Product", "C_BPartner");
+		assertThat(collector.getRequests()).isEmpty();
+	}
+
+	@Test
+	public void duplicateRequestsAreCollectedOnce()
+	{
+		final RequestsToResetCollector collector = new RequestsToResetCollector(true);
+		collector.addRequests(ImmutableList.of(
+				CacheInvalidateRequest.rootRecord("M_Product", 1),
+				CacheInvalidateRequest.rootRecord("M_Product", 2)));
+		collector.addRequests(ImmutableList.of(
+				CacheInvalidateRequest.rootRecord("M_Product", 1)));
+
+		assertThat(collector.getTableNames()).containsExactly("M_Product");
+		assertThat(collector.getRequests()).containsExactly(
+				CacheInvalidateRequest.rootRecord("M_Product", 1),
+				CacheInvalidateRequest.rootRecord("M_Product", 2));
+	}
+
+	@Test
+	public void tableWideRequestReplacesRecordRequests()
+	{
+		final RequestsToResetCollector collector = new RequestsToResetCollector(true);
+		collector.addRequests(ImmutableList.of(
+				CacheInvalidateRequest.rootRecord("M_Product", 1),
+				CacheInvalidateRequest.rootRecord("C_BPartner", 1),
+				CacheInvalidateRequest.allRecordsForTable("M_Product"),
+				CacheInvalidateRequest.rootRecord("M_Product", 2),
+				CacheInvalidateRequest.allRecordsForTable("M_Product")));
+
+		assertThat(collector.getRequests()).containsExactly(
+				CacheInvalidateRequest.rootRecord("C_BPartner", 1),
+				CacheInvalidateRequest.allRecordsForTable("M_Product"));
+	}
+
+	@Test
+	public void emptyCollector()
+	{
+		final RequestsToResetCollector collector = new RequestsToResetCollector(true);
+		collector.addRequests(ImmutableList.of());
+
+		assertThat(collector.isEmpty()).isTrue();
+		assertThat(collector.getTableNames()).isEmpty();
+		assertThat(collector.getRequests()).isEmpty();
+	}
+}
@@ -0,0 +1,189 @@
+package de.metas.ui.web.window.model.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.metas.cache.model.CacheInvalidateRequest;
+import de.metas.ui.web.window.WindowConstants;
+import de.metas.ui.web.window.datatypes.DocumentId;
+import de.metas.ui.web.window.datatypes.DocumentType;
+import de.metas.ui.web.window.descriptor.DocumentEntityDescriptor;
+import de.metas.ui.web.window.descriptor.DocumentFieldDescriptor;
+import de.metas.ui.web.window.descriptor.DocumentFieldDescriptor.Characteristic;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.model.Document;
+import de.metas.ui.web.window.model.sql.SqlDocumentDirectUpdate.ChangedColumn;
+import de.metas.ui.web.window.model.sql.SqlDocumentDirectUpdate.DirectUpdateResult;
+import de.metas.ui.web.window.model.sql.SqlDocumentDirectUpdate.DirectUpdateStatement;
+import de.metas.ui.web.window.model.sql.SqlDocumentDirectUpdate.ReturningColumn;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2019 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class SqlDocumentDirectUpdateTest
+{
+	private static final String TABLENAME = "C_Order";
+	private static final String COLUMNNAME_Name = "Name";
+	private static final String COLUMNNAME_Qty = "Qty";
+
+	private Document document;
+
+	@Before
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		final DocumentEntityDescriptor entityDescriptor = DocumentEntityDescriptor.builder()
+				.setDocumentType(DocumentType.Window, DocumentId.of(143))
+				.setCaption("Test")
+				.disableDefaultTableCallouts()
+				.addField(newField(COLUMNNAME_Name, String.class, DocumentFieldWidgetType.Text))
+				.addField(newField(COLUMNNAME_Qty, Integer.class, DocumentFieldWidgetType.Integer))
+				.build();
+
+		document = Document.builder(entityDescriptor)
+				.initializeAsNewDocument(DocumentId.of(1000000), "0");
+	}
+
+	private static DocumentFieldDescriptor.Builder newField(final String fieldName, final Class<?> valueClass, final DocumentFieldWidgetType widgetType)
+	{
+		return DocumentFieldDescriptor.builder(fieldName)
+				.setCaption(fieldName)
+				.setValueClass(valueClass)
+				.setWidgetType(widgetType)
+				.setReadonlyLogic(false)
+				.setDisplayLogic(true)
+				.setMandatoryLogic(false)
+				.addCharacteristic(Characteristic.PublicField);
+	}
+
+	private DirectUpdateStatement.DirectUpdateStatementBuilder newStatement()
+	{
+		return DirectUpdateStatement.builder()
+				.document(document)
+				.tableName(TABLENAME)
+				.keyColumnName("C_Order_ID")
+				.recordId(1000000)
+				.updatedBy(100)
+				.returningColumn(ReturningColumn.builder()
+						.columnName(COLUMNNAME_Name)
+						.fieldName(COLUMNNAME_Name)
+						.widgetType(DocumentFieldWidgetType.Text)
+						.poValueClass(String.class)
+						.build())
+				.returningColumn(ReturningColumn.builder()
+						.columnName(COLUMNNAME_Qty)
+						.fieldName(COLUMNNAME_Qty)
+						.widgetType(DocumentFieldWidgetType.Integer)
+						.poValueClass(Integer.class)
+						.build())
+				.cacheInvalidateRequest(CacheInvalidateRequest.rootRecord(TABLENAME, 1000000));
+	}
+
+	private static ChangedColumn changedColumn(final String columnName, final Object value, final Object initialValue)
+	{
+		return ChangedColumn.builder().columnName(columnName).value(value).initialValue(initialValue).build();
+	}
+
+	@Test
+	public void statement_isGuardedByTheChangedColumnsInitialValues()
+	{
+		final DirectUpdateStatement statement = newStatement()
+				.changedColumn(changedColumn(COLUMNNAME_Name, "new", "old"))
+				.changedColumn(changedColumn(COLUMNNAME_Qty, 10, null))
+				.build();
+
+		assertThat(statement.getSql()).isEqualTo("UPDATE C_Order"
+				+ " SET Name=?, Qty=?, Updated=now(), UpdatedBy=?"
+				+ " WHERE C_Order_ID=? AND Name=? AND (Qty IS NULL OR Qty::text = '')"
+				+ " RETURNING Name, Qty, Updated");
+		assertThat(statement.getSqlParams()).containsExactly("new", 10, 100, 1000000, "old");
+	}
+
+	@Test
+	public void execute_noRecordUpdated_fallsBackToPO()
+	{
+		document.processValueChange(COLUMNNAME_Name, "new", () -> "test");
+		final DirectUpdateStatement statement = newStatement()
+				.changedColumn(changedColumn(COLUMNNAME_Name, "new", null))
+				.build();
+
+		// i.e. the record was changed meanwhile, so the optimistic lock guard did not match
+		final DirectUpdateResult result = SqlDocumentDirectUpdate.execute(statement, (sql, sqlParams, returningColumnNames) -> null);
+
+		assertThat(result).isEqualTo(DirectUpdateResult.NOT_APPLICABLE);
+		assertThat(document.getFieldView(COLUMNNAME_Name).getValue()).isEqualTo("new");
+		assertThat(document.getFieldView(COLUMNNAME_Name).hasChangesToSave()).isTrue();
+	}
+
+	@Test
+	public void execute_refreshesTheDocumentFromTheReturnedValues()
+	{
+		document.processValueChange(COLUMNNAME_Name, "new", () -> "test");
+		final DirectUpdateStatement statement = newStatement()
+				.changedColumn(changedColumn(COLUMNNAME_Name, "new", null))
+				.build();
+
+		final List<String> executedSqls = new ArrayList<>();
+		final DirectUpdateResult result = SqlDocumentDirectUpdate.execute(statement, (sql, sqlParams, returningColumnNames) -> {
+			executedSqls.add(sql);
+
+			final Map<String, Object> returnedValues = new HashMap<>();
+			returnedValues.put(COLUMNNAME_Name, "new");
+			returnedValues.put(COLUMNNAME_Qty, 20); // e.g. set by a database trigger
+			returnedValues.put(WindowConstants.FIELDNAME_Updated, new Timestamp(1550000000000L));
+			return returnedValues;
+		});
+
+		assertThat(result).isEqualTo(DirectUpdateResult.SAVED);
+		assertThat(executedSqls).containsExactly(statement.getSql());
+		assertThat(document.getFieldView(COLUMNNAME_Name).getValue()).isEqualTo("new");
+		assertThat(document.getFieldView(COLUMNNAME_Name).hasChangesToSave()).isFalse();
+		assertThat(document.getFieldView(COLUMNNAME_Qty).getValue()).isEqualTo(20);
+		assertThat(document.getFieldView(COLUMNNAME_Qty).hasChangesToSave()).isFalse();
+	}
+
+	@Test
+	public void execute_withVirtualColumns_needsRefresh()
+	{
+		document.processValueChange(COLUMNNAME_Name, "new", () -> "test");
+		final DirectUpdateStatement statement = newStatement()
+				.changedColumn(changedColumn(COLUMNNAME_Name, "new", null))
+				.hasVirtualColumns(true)
+				.build();
+
+		final Map<String, Object> returnedValues = new HashMap<>();
+		returnedValues.put(COLUMNNAME_Name, "new");
+		final DirectUpdateResult result = SqlDocumentDirectUpdate.execute(statement, (sql, sqlParams, returningColumnNames) -> returnedValues);
+
+		assertThat(result).isEqualTo(DirectUpdateResult.SAVED_NEEDS_REFRESH);
+	}
+}